@@ -0,0 +1,65 @@
+package pl.jakubsiekiera.iam.application.query;
+
+import pl.jakubsiekiera.iam.application.dto.Member;
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.UserJpaEntity;
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.UserMembershipJpaEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The member list of GET /api/v1/tenants/{id}: TenantQueryService mapping 'users' members,
+ * each of which belongs to 'tenantsPerUser' tenants, to Member DTOs.
+ * * Only the mapping is measured; the users are loaded up front, as the query would return them.
+ * The requested tenant sits at a different position in each user's membership list.
+ * * Run with: mvn -Pjmh test-compile exec:exec -Djmh.includes=MemberMapping
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int users;
+
+    @Param({"1", "5"})
+    int tenantsPerUser;
+
+    private UUID tenantId;
+    private List<UserJpaEntity> members;
+
+    @Setup
+    public void setUp() {
+        tenantId = UUID.randomUUID();
+        members = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            UserJpaEntity user = new UserJpaEntity();
+            user.setId(UUID.randomUUID());
+            user.setKeycloakId("kc-" + u);
+            user.setEmail("user" + u + "@example.com");
+
+            List<UserMembershipJpaEntity> rows = new ArrayList<>(tenantsPerUser);
+            int position = u % tenantsPerUser;
+            for (int t = 0; t < tenantsPerUser; t++) {
+                UserMembershipJpaEntity row = new UserMembershipJpaEntity();
+                row.setUser(user);
+                row.setTenantId(t == position ? tenantId : UUID.randomUUID());
+                row.setRoles(u % 10 == 0 ? "ADMIN,MEMBER" : "MEMBER");
+                rows.add(row);
+            }
+            user.setMemberships(rows);
+            members.add(user);
+        }
+    }
+
+    @Benchmark
+    public List<Member> toMembers() {
+        return TenantQueryService.toMembers(members, tenantId);
+    }
+}
@@ -0,0 +1,109 @@
+package pl.jakubsiekiera.iam.benchmark;
+
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.Email;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.model.user.User;
+import pl.jakubsiekiera.iam.domain.model.user.UserId;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Value object and aggregate hot paths, as regression guards (Email construction itself is
+ * covered by EmailValidationBenchmark).
+ * * roleStandard:    Role.of over a CSV slice holding a standard role, resolved in place.
+ * roleCustom:      Role.of of a custom role name, an interned lookup.
+ * roleCustomSlice: the same from a CSV slice, which costs one substring.
+ * tenantIdFromString: parsing a path/query parameter.
+ * addToTenantExisting: OR-ing a role into an existing membership of a user with 'memberships' tenants.
+ * addToTenantNew:      building a user with 'memberships' tenants, added in random order.
+ * * Run with: mvn -Pjmh test-compile exec:exec -Djmh.includes=DomainModel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DomainModelBenchmark {
+
+    // Non-final so the JIT can't constant-fold the inputs
+    private String csv = "ADMIN,BILLING_ADMIN";
+    private String customRole = "BILLING_ADMIN";
+    private String tenantId = "0190a6c4-7d3e-7b21-9f4c-2d8e5a1b3c4d";
+
+    @State(Scope.Thread)
+    public static class Memberships {
+
+        @Param({"1", "10", "100"})
+        int memberships;
+
+        List<TenantId> tenants;
+        User member;
+        TenantId existing;
+
+        @Setup
+        public void setUp() {
+            tenants = new ArrayList<>(memberships);
+            for (int i = 0; i < memberships; i++) {
+                tenants.add(TenantId.generate());
+            }
+            Collections.shuffle(tenants, new Random(42));
+
+            member = newUser();
+            for (TenantId tenant : tenants) {
+                member.addToTenant(tenant, Role.MEMBER);
+            }
+            existing = tenants.get(memberships / 2);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Role.of(customRole); // Interned, as after the first request that saw it
+    }
+
+    @Benchmark
+    public Role roleStandard() {
+        return Role.of(csv, 0, 5);
+    }
+
+    @Benchmark
+    public Role roleCustom() {
+        return Role.of(customRole);
+    }
+
+    @Benchmark
+    public Role roleCustomSlice() {
+        return Role.of(csv, 6, csv.length());
+    }
+
+    @Benchmark
+    public TenantId tenantIdFromString() {
+        return TenantId.fromString(tenantId);
+    }
+
+    @Benchmark
+    public User addToTenantExisting(Memberships state) {
+        state.member.addToTenant(state.existing, Role.ADMIN);
+        return state.member;
+    }
+
+    @Benchmark
+    public User addToTenantNew(Memberships state) {
+        User user = newUser();
+        for (TenantId tenant : state.tenants) {
+            user.addToTenant(tenant, Role.MEMBER);
+        }
+        return user;
+    }
+
+    private static User newUser() {
+        return User.register(UserId.generate(), "kc-benchmark", new Email("jane.doe@example.com"));
+    }
+}
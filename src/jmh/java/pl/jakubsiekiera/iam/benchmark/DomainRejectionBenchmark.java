@@ -0,0 +1,70 @@
+package pl.jakubsiekiera.iam.benchmark;
+
+import pl.jakubsiekiera.iam.adapters.web.GlobalExceptionHandler;
+import pl.jakubsiekiera.iam.domain.exception.EmailAlreadyInUseException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rejecting a request (e.g. "email already in use" during a signup storm),
+ * from the throw in the service to the error response object.
+ * * legacy: IllegalArgumentException with a full stack trace + a fresh Map and Instant.now(),
+ *           as the handler used to build it.
+ * domain:   stackless DomainException + the pre-computed ProblemDetail mapping.
+ * * The throw happens 'depth' frames below the catch, approximating the filter, security
+ * and MVC frames between a controller and the servlet container. Stack capture grows with
+ * depth, the stackless path doesn't.
+ *     mvn -Pjmh test-compile exec:exec -Djmh.includes=DomainRejection
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DomainRejectionBenchmark {
+
+    private static final String EMAIL = "bot-4711@example.com";
+
+    @Param({"30", "120"})
+    public int depth;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Benchmark
+    public Object legacy() {
+        try {
+            throwAt(depth, false);
+            return null;
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Conflict", "message", ex.getMessage(), "timestamp", Instant.now()));
+        }
+    }
+
+    @Benchmark
+    public Object domain() {
+        try {
+            throwAt(depth, true);
+            return null;
+        } catch (EmailAlreadyInUseException ex) {
+            return handler.handleDomain(ex);
+        }
+    }
+
+    private static void throwAt(int remaining, boolean stackless) {
+        if (remaining > 0) {
+            throwAt(remaining - 1, stackless);
+            return;
+        }
+        if (stackless) {
+            throw new EmailAlreadyInUseException(EMAIL);
+        }
+        throw new IllegalArgumentException("Email already in use: " + EMAIL);
+    }
+}
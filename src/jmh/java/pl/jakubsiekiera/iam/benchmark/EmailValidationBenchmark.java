@@ -0,0 +1,57 @@
+package pl.jakubsiekiera.iam.benchmark;
+
+import pl.jakubsiekiera.iam.domain.model.user.Email;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Email construction: the former regex-based record vs the single-pass validator.
+ * * regex*:   Matcher per construction, plus toLowerCase on every normalized() call.
+ * scanner*:  new Email(...) followed by normalized() (computed once, shared if already lower case).
+ * The 'Mixed' variants use an address with upper-case letters, which costs one lower-case copy.
+ *     mvn -Pjmh test-compile exec:exec -Djmh.includes=EmailValidation
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailValidationBenchmark {
+
+    private static final Pattern EMAIL_REGEX = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+
+    // Non-final so the JIT can't constant-fold the inputs
+    private String lower = "jane.doe+newsletter@mail.example-corp.com";
+    private String mixed = "Jane.Doe+Newsletter@Mail.Example-Corp.COM";
+
+    @Benchmark
+    public String regexLower() {
+        return regex(lower);
+    }
+
+    @Benchmark
+    public String regexMixed() {
+        return regex(mixed);
+    }
+
+    @Benchmark
+    public String scannerLower() {
+        return new Email(lower).normalized();
+    }
+
+    @Benchmark
+    public String scannerMixed() {
+        return new Email(mixed).normalized();
+    }
+
+    private static String regex(String value) {
+        if (!EMAIL_REGEX.matcher(value).matches()) {
+            throw new IllegalArgumentException("Invalid email format");
+        }
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
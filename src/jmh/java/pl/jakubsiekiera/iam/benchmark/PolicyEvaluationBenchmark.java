@@ -0,0 +1,80 @@
+package pl.jakubsiekiera.iam.benchmark;
+
+import pl.jakubsiekiera.iam.domain.model.permission.CompiledPolicies;
+import pl.jakubsiekiera.iam.domain.model.permission.Permission;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.model.user.RoleHierarchy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ns/op of permission checks against compiled policies.
+ * * typical:   the shipped-style policy "role(ADMIN) and status(ACTIVE)", one clause.
+ * worstCase: a denied check that has to scan every clause of a wide policy
+ *            (the maximum of 64 distinct roles, OR-ed as pairs).
+ * roleMask:  the per-request step that maps held roles through a deep role hierarchy.
+ * * Run with: mvn -Pjmh test-compile exec:exec -Djmh.includes=PolicyEvaluation
+ * and check gc.alloc.rate.norm in the output: the evaluation path should allocate 0 B/op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PolicyEvaluationBenchmark {
+
+    private CompiledPolicies typical;
+    private CompiledPolicies wide;
+    private RoleHierarchy deepHierarchy;
+    private long adminMask;
+    private long unrelatedMask;
+    private Set<Role> held;
+
+    @Setup
+    public void setUp() {
+        typical = CompiledPolicies.compile("""
+            tenant:read         = role(MEMBER)
+            tenant:users:invite = role(ADMIN) and status(ACTIVE)
+            """);
+        adminMask = typical.roleMask(Set.of(Role.ADMIN), RoleHierarchy.DEFAULT);
+
+        // 32 clauses "role(Ri) and role(Ri+1) and status(ACTIVE)", none of which the caller satisfies
+        StringBuilder policy = new StringBuilder("tenant:users:invite = ");
+        for (int i = 0; i < 64; i += 2) {
+            if (i > 0) policy.append(" or ");
+            policy.append("(role(R").append(i).append(") and role(R").append(i + 1).append(") and status(ACTIVE))");
+        }
+        wide = CompiledPolicies.compile(policy.toString());
+        unrelatedMask = 0x5555_5555_5555_5555L; // Every even role, never a full pair
+
+        // A 500-level chain R499 -> ... -> R0, so the held role implies every policy role
+        Map<Role, List<Role>> chain = new HashMap<>();
+        for (int i = 499; i > 0; i--) {
+            chain.put(new Role("R" + i), List.of(new Role("R" + (i - 1))));
+        }
+        deepHierarchy = RoleHierarchy.of(chain);
+        held = Set.of(new Role("R499"));
+    }
+
+    @Benchmark
+    public boolean typical() {
+        return typical.isPermitted(Permission.TENANT_USERS_INVITE, adminMask, TenantStatus.ACTIVE);
+    }
+
+    @Benchmark
+    public boolean worstCase() {
+        return wide.isPermitted(Permission.TENANT_USERS_INVITE, unrelatedMask, TenantStatus.ACTIVE);
+    }
+
+    @Benchmark
+    public long roleMask() {
+        return wide.roleMask(held, deepHierarchy);
+    }
+}
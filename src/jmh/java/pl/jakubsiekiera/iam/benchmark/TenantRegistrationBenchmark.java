@@ -0,0 +1,149 @@
+package pl.jakubsiekiera.iam.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tenant registration throughput under contention, before and after insert-first.
+ * * checkThenInsert: the previous flow, SELECT exists + INSERT in one transaction. A lost race
+ *                  surfaces as a unique violation (previously an unhandled 500).
+ * insertFirst:     INSERT ... ON CONFLICT ((lower(name))) DO NOTHING against the unique lower(name) index.
+ * * Eight threads register names from a shared sequence where every name is requested twice,
+ * so about half of all attempts collide with a concurrent registration.
+ * Runs against a throwaway Postgres container (Docker required):
+ *     mvn -Pjmh test-compile exec:exec -Djmh.includes=TenantRegistration
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class TenantRegistrationBenchmark {
+
+    private static final String SQL_STATE_UNIQUE_VIOLATION = "23505";
+
+    @State(Scope.Benchmark)
+    public static class Database {
+
+        PostgreSQLContainer<?> postgres;
+        final AtomicLong sequence = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void start() throws SQLException {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+            try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+                // Same shape as the tenants table after V9
+                statement.execute("""
+                    CREATE TABLE tenants (
+                        id UUID NOT NULL PRIMARY KEY,
+                        creation_date TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+                        name VARCHAR(255) NOT NULL,
+                        status VARCHAR(255) NOT NULL
+                    )""");
+                statement.execute("CREATE UNIQUE INDEX uq_tenants_lower_name ON tenants (lower(name))");
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void truncate() throws SQLException {
+            try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+                statement.execute("TRUNCATE tenants");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            postgres.stop();
+        }
+
+        // Each name is handed out twice, to two (usually concurrent) registrations
+        String nextName() {
+            return "Tenant " + (sequence.getAndIncrement() >> 1);
+        }
+
+        Connection connect() throws SQLException {
+            return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        }
+    }
+
+    // One pooled-connection equivalent per benchmark thread
+    @State(Scope.Thread)
+    public static class Session {
+
+        Connection connection;
+        PreparedStatement exists;
+        PreparedStatement insert;
+        PreparedStatement insertIfAvailable;
+
+        @Setup(Level.Trial)
+        public void open(Database database) throws SQLException {
+            connection = database.connect();
+            connection.setAutoCommit(false);
+            exists = connection.prepareStatement("SELECT EXISTS (SELECT 1 FROM tenants WHERE lower(name) = lower(?))");
+            insert = connection.prepareStatement(
+                    "INSERT INTO tenants (id, name, status, creation_date) VALUES (?, ?, 'ACTIVE', ?)");
+            insertIfAvailable = connection.prepareStatement(
+                    "INSERT INTO tenants (id, name, status, creation_date) VALUES (?, ?, 'ACTIVE', ?) ON CONFLICT ((lower(name))) DO NOTHING");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public boolean checkThenInsert(Database database, Session session) throws SQLException {
+        String name = database.nextName();
+        try {
+            session.exists.setString(1, name);
+            boolean taken;
+            try (ResultSet rs = session.exists.executeQuery()) {
+                rs.next();
+                taken = rs.getBoolean(1);
+            }
+            if (taken) {
+                session.connection.rollback();
+                return false;
+            }
+            bind(session.insert, name);
+            session.insert.executeUpdate();
+            session.connection.commit();
+            return true;
+        } catch (SQLException e) {
+            session.connection.rollback();
+            if (SQL_STATE_UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                return false; // The race the existence check can't prevent
+            }
+            throw e;
+        }
+    }
+
+    @Benchmark
+    public boolean insertFirst(Database database, Session session) throws SQLException {
+        bind(session.insertIfAvailable, database.nextName());
+        boolean inserted = session.insertIfAvailable.executeUpdate() == 1;
+        session.connection.commit();
+        return inserted;
+    }
+
+    private static void bind(PreparedStatement statement, String name) throws SQLException {
+        statement.setObject(1, UUID.randomUUID());
+        statement.setString(2, name);
+        statement.setTimestamp(3, Timestamp.from(Instant.now()));
+    }
+}
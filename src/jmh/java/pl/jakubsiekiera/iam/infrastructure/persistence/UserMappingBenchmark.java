@@ -0,0 +1,65 @@
+package pl.jakubsiekiera.iam.infrastructure.persistence;
+
+import pl.jakubsiekiera.iam.domain.model.user.User;
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.UserJpaEntity;
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.UserMembershipJpaEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PostgresUserRepository's mappers for a user with 'memberships' tenants.
+ * * toDomain: rehydration, run on every user lookup (token resolution, invitations, ...).
+ * toEntity: flattening for save.
+ * * Rows mix the standard roles with a custom one ("MEMBER", "ADMIN,MEMBER", "MEMBER,BILLING").
+ * Lives next to the repository because both mappers are package-private.
+ * * Run with: mvn -Pjmh test-compile exec:exec -Djmh.includes=UserMapping
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserMappingBenchmark {
+
+    private static final String[] ROLES = {"MEMBER", "ADMIN,MEMBER", "MEMBER,BILLING"};
+
+    @Param({"1", "10", "100"})
+    int memberships;
+
+    private UserJpaEntity entity;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        entity = new UserJpaEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setKeycloakId("kc-benchmark");
+        entity.setEmail("jane.doe@example.com");
+
+        List<UserMembershipJpaEntity> rows = new ArrayList<>(memberships);
+        for (int i = 0; i < memberships; i++) {
+            UserMembershipJpaEntity row = new UserMembershipJpaEntity();
+            row.setUser(entity);
+            row.setTenantId(UUID.randomUUID()); // Random order, as the rows come back from the join
+            row.setRoles(ROLES[i % ROLES.length]);
+            rows.add(row);
+        }
+        entity.setMemberships(rows);
+        user = PostgresUserRepository.toDomain(entity);
+    }
+
+    @Benchmark
+    public User toDomain() {
+        return PostgresUserRepository.toDomain(entity);
+    }
+
+    @Benchmark
+    public UserJpaEntity toEntity() {
+        return PostgresUserRepository.toEntity(user);
+    }
+}
@@ -0,0 +1,133 @@
+package pl.jakubsiekiera.iam.adapters.web;
+
+import pl.jakubsiekiera.iam.application.dto.Change;
+import pl.jakubsiekiera.iam.domain.exception.InvalidRequestException;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.infrastructure.changes.ChangeFeed;
+import pl.jakubsiekiera.iam.infrastructure.security.TenantAuthorities;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.CurrentSecurityContext;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Change feed for downstream caches: a Server-Sent Events stream of tenant and membership
+ * changes, instead of polling the read endpoints.
+ * * Every event's id is the change's id in the Postgres outbox, the same on every instance.
+ * Reconnecting with 'Last-Event-ID' (browsers and most SSE clients do this automatically) or
+ * '?from=' resumes without gaps, wherever the load balancer sends the reconnect; with neither,
+ * the stream starts at the current end. A cursor that has been purged or was never issued
+ * gets a 'reset' event first. '?tenantId=' narrows the stream to one tenant.
+ * * The unfiltered stream carries every tenant's changes, so it is reserved for callers holding
+ * 'iam.changes.reader-authority' (by default the 'iam:changes' scope, for downstream services).
+ * Anyone else must pass '?tenantId=' and be a MEMBER of that tenant.
+ */
+@RestController
+@RequestMapping("/api/v1/changes")
+@ConditionalOnProperty(name = "iam.changes.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeController {
+
+    private final ChangeFeed changeFeed;
+    private final Duration streamTimeout;
+    private final String readerAuthority;
+
+    public ChangeController(
+            ChangeFeed changeFeed,
+            @Value("${iam.changes.stream-timeout:30m}") Duration streamTimeout,
+            @Value("${iam.changes.reader-authority:SCOPE_iam:changes}") String readerAuthority) {
+        this.changeFeed = changeFeed;
+        this.streamTimeout = streamTimeout;
+        this.readerAuthority = readerAuthority;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) UUID tenantId,
+            @CurrentSecurityContext(expression = "authentication") Authentication authentication) {
+        requireReader(authentication, tenantId);
+        long start = startOffset(lastEventId, from);
+
+        // Streams are recycled every 'stream-timeout'; the client reconnects with Last-Event-ID
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        ChangeFeed.Subscription subscription = changeFeed.subscribe(start, tenantId, new SseSink(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    private void requireReader(Authentication authentication, UUID tenantId) {
+        Set<String> held = authentication == null
+                ? Set.of()
+                : AuthorityUtils.authorityListToSet(authentication.getAuthorities());
+        if (held.contains(readerAuthority)) {
+            return;
+        }
+        if (tenantId == null) {
+            throw new AccessDeniedException("The unfiltered change feed requires " + readerAuthority);
+        }
+        if (!held.contains(TenantAuthorities.authority(new TenantId(tenantId), Role.MEMBER))) {
+            throw new AccessDeniedException("Not a member of tenant " + tenantId);
+        }
+    }
+
+    // Last-Event-ID is the last change the client has seen, 'from' the first one it wants
+    private static long startOffset(String lastEventId, Long from) {
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                long last = Long.parseLong(lastEventId.trim());
+                if (last >= 0) {
+                    return last + 1;
+                }
+            } catch (NumberFormatException ignored) {
+                // Falls through to the error below
+            }
+            throw new InvalidRequestException("Last-Event-ID must be a change id: " + lastEventId);
+        }
+        if (from != null) {
+            if (from < 0) {
+                throw new InvalidRequestException("from must not be negative");
+            }
+            return from;
+        }
+        return -1;
+    }
+
+    private record SseSink(SseEmitter emitter) implements ChangeFeed.Sink {
+
+        @Override
+        public void send(Change change) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(change.offset()))
+                    .name(change.type())
+                    .data(change, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("keep-alive"));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
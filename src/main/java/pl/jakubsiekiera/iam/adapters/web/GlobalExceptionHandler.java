@@ -1,38 +1,69 @@
 package pl.jakubsiekiera.iam.adapters.web;
 
+import pl.jakubsiekiera.iam.domain.exception.DomainException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-import java.time.Instant;
+import java.util.EnumMap;
 import java.util.Map;
 
 /**
  * Global interceptor for exceptions thrown by any @RestController.
- * This ensures a consistent API error response format across the application.
+ * This ensures a consistent API error response format across the application:
+ * RFC 7807 problem details ('application/problem+json') with 'type', 'title', 'status',
+ * 'detail' and a machine-readable 'code', built by {@link ProblemDetails} just like the
+ * rejections written by the servlet filters.
+ * * Everything except the detail message is computed once: statuses per category at class
+ * load, type URIs per error code on first use. Rejecting a request therefore costs the
+ * ProblemDetail itself (whose first setProperty allocates its properties map) and no clock
+ * reads or string building.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Map<DomainException.Category, HttpStatus> STATUS_BY_CATEGORY =
+            new EnumMap<>(Map.of(
+                    DomainException.Category.NOT_FOUND, HttpStatus.NOT_FOUND,
+                    DomainException.Category.CONFLICT, HttpStatus.CONFLICT,
+                    DomainException.Category.INVALID, HttpStatus.BAD_REQUEST));
+
+    /**
+     * Handles expected business failures (unknown tenant, email already in use, ...).
+     * * @param ex The caught (stackless) domain exception
+     * @return 404, 409 or 400 depending on the exception's category
+     */
+    @ExceptionHandler(DomainException.class)
+    public ResponseEntity<ProblemDetail> handleDomain(DomainException ex) {
+        HttpStatus status = STATUS_BY_CATEGORY.get(ex.category());
+        return ResponseEntity.status(status).body(ProblemDetails.of(status, ex.code(), ex.getMessage()));
+    }
+
     /**
-     * Handles IllegalArgumentException, which often occurs during domain validation
-     * (e.g., trying to register a user that already exists).
-     * * @param ex The caught exception
-     * @return A structured JSON response with a 409 Conflict status
+     * Handles IllegalArgumentException, which now only signals a violated value-object
+     * invariant (e.g. a malformed email or an empty tenant name) in the request.
+     * * @return A problem response with a 400 Bad Request status
      */
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<Object> handleIllegalArgument(IllegalArgumentException ex) {
-        // We map the exception to a 409 Conflict. 
-        // Note: Use 400 Bad Request if the error is purely syntactical.
-        return ResponseEntity.status(HttpStatus.CONFLICT)
-                .body(Map.of(
-                        "error", "Conflict",
-                        "message", ex.getMessage(),
-                        "timestamp", Instant.now()
-                ));
+    public ResponseEntity<ProblemDetail> handleIllegalArgument(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest()
+                .body(ProblemDetails.of(HttpStatus.BAD_REQUEST, "invalid-argument", ex.getMessage()));
     }
-    
+
+    /**
+     * Handles AccessDeniedException thrown by application services after authentication
+     * succeeded (e.g. requesting a tenant token for a tenant the caller doesn't belong to).
+     * * @return A problem response with a 403 Forbidden status
+     */
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ProblemDetail> handleAccessDenied(AccessDeniedException ex) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(ProblemDetails.of(HttpStatus.FORBIDDEN, "access-denied", ex.getMessage()));
+    }
+
     // Future Tip: Add a @ExceptionHandler(MethodArgumentNotValidException.class) 
     // here to handle @Valid annotation failures from your DTOs.
-}
\ No newline at end of file
+}
@@ -0,0 +1,102 @@
+package pl.jakubsiekiera.iam.adapters.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The one place RFC 7807 problem documents are built, shared by GlobalExceptionHandler and by
+ * the servlet filters that reject requests before any controller runs (rate limiting, load
+ * shedding, idempotency).
+ * * Filters cannot return a ResponseEntity, so {@link #write} serializes the document itself.
+ * Only the members this service produces are supported: the standard fields plus string or
+ * numeric extension properties ('code', 'retryAfterMillis').
+ */
+public final class ProblemDetails {
+
+    public static final String TYPE_BASE = "https://iam.jakubsiekiera.pl/problems/";
+
+    private static final Map<String, URI> TYPES_BY_CODE = new ConcurrentHashMap<>();
+
+    private ProblemDetails() {
+    }
+
+    /**
+     * @param code Machine-readable error code, also the last segment of the type URI
+     * @return A problem with 'type', 'title', 'status', 'detail' and 'code' set
+     */
+    public static ProblemDetail of(HttpStatus status, String code, String detail) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        problem.setType(TYPES_BY_CODE.computeIfAbsent(code, c -> URI.create(TYPE_BASE + c)));
+        problem.setTitle(status.getReasonPhrase());
+        problem.setProperty("code", code);
+        return problem;
+    }
+
+    /**
+     * Writes the problem as the response body with its status and 'application/problem+json'.
+     * Headers (e.g. Retry-After) must be set before calling this.
+     */
+    public static void write(HttpServletResponse response, ProblemDetail problem) throws IOException {
+        response.setStatus(problem.getStatus());
+        response.setCharacterEncoding(StandardCharsets.UTF_8);
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.getWriter().write(toJson(problem));
+    }
+
+    static String toJson(ProblemDetail problem) {
+        StringBuilder json = new StringBuilder(256).append('{');
+        member(json, "type", problem.getType().toString());
+        member(json, "title", problem.getTitle());
+        member(json, "status", problem.getStatus());
+        member(json, "detail", problem.getDetail());
+        if (problem.getProperties() != null) {
+            problem.getProperties().forEach((name, value) -> member(json, name, value));
+        }
+        return json.append('}').toString();
+    }
+
+    private static void member(StringBuilder json, String name, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (json.length() > 1) {
+            json.append(',');
+        }
+        quote(json, name).append(':');
+        if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else {
+            quote(json, value.toString());
+        }
+    }
+
+    private static StringBuilder quote(StringBuilder json, String text) {
+        json.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"');
+    }
+}
@@ -0,0 +1,63 @@
+package pl.jakubsiekiera.iam.adapters.web;
+
+import pl.jakubsiekiera.iam.application.dto.BatchGetTenantsRequest;
+import pl.jakubsiekiera.iam.application.dto.BatchGetTenantsResponse;
+import pl.jakubsiekiera.iam.application.dto.BulkTenantStatusRequest;
+import pl.jakubsiekiera.iam.application.dto.BulkTenantStatusResponse;
+import pl.jakubsiekiera.iam.application.service.TenantApplicationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.CurrentSecurityContext;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Collection-level "custom methods" on tenants (e.g. /api/v1/tenants:batchGet).
+ * They live outside {@link TenantController} because its class-level mapping would
+ * turn ':batchGet' into a separate '/:batchGet' path segment.
+ * * Bulk status changes cut across tenants, so they are reserved for platform operators:
+ * callers holding 'iam.security.operator-authority' (by default the 'iam:operator' scope).
+ */
+@RestController
+public class TenantBatchController {
+
+    private final TenantApplicationService tenantService;
+    private final String operatorAuthority;
+
+    public TenantBatchController(
+            TenantApplicationService tenantService,
+            @Value("${iam.security.operator-authority:SCOPE_iam:operator}") String operatorAuthority) {
+        this.tenantService = tenantService;
+        this.operatorAuthority = operatorAuthority;
+    }
+
+    @PostMapping("/api/v1/tenants:batchGet")
+    public ResponseEntity<BatchGetTenantsResponse> batchGet(@RequestBody BatchGetTenantsRequest request) {
+        return ResponseEntity.ok(tenantService.getTenants(request));
+    }
+
+    @PostMapping("/api/v1/tenants:batchSuspend")
+    public ResponseEntity<BulkTenantStatusResponse> batchSuspend(
+            @RequestBody BulkTenantStatusRequest request,
+            @CurrentSecurityContext(expression = "authentication") Authentication authentication) {
+        requireOperator(authentication);
+        return ResponseEntity.ok(tenantService.suspendTenants(request));
+    }
+
+    @PostMapping("/api/v1/tenants:batchActivate")
+    public ResponseEntity<BulkTenantStatusResponse> batchActivate(
+            @RequestBody BulkTenantStatusRequest request,
+            @CurrentSecurityContext(expression = "authentication") Authentication authentication) {
+        requireOperator(authentication);
+        return ResponseEntity.ok(tenantService.activateTenants(request));
+    }
+
+    private void requireOperator(Authentication authentication) {
+        if (authentication == null
+                || !AuthorityUtils.authorityListToSet(authentication.getAuthorities()).contains(operatorAuthority)) {
+            throw new AccessDeniedException("Bulk status changes require " + operatorAuthority);
+        }
+    }
+}
@@ -5,10 +5,24 @@ import pl.jakubsiekiera.iam.application.dto.TenantResponse;
 import pl.jakubsiekiera.iam.application.dto.InviteUserCommand;
 import pl.jakubsiekiera.iam.application.service.UserApplicationService;
 import pl.jakubsiekiera.iam.application.service.TenantApplicationService;
+import pl.jakubsiekiera.iam.application.service.RoleHierarchyService;
+import pl.jakubsiekiera.iam.application.service.PermissionService;
+import pl.jakubsiekiera.iam.application.dto.PermissionsResponse;
+import pl.jakubsiekiera.iam.application.dto.RoleHierarchyCommand;
+import pl.jakubsiekiera.iam.application.dto.RoleHierarchyResponse;
 import pl.jakubsiekiera.iam.application.query.TenantQueryService;
 import pl.jakubsiekiera.iam.application.dto.TenantDetails;
-import lombok.RequiredArgsConstructor;
+import pl.jakubsiekiera.iam.application.dto.TenantPage;
+import pl.jakubsiekiera.iam.domain.model.permission.Permission;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.annotation.CurrentSecurityContext;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
@@ -16,12 +30,29 @@ import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/tenants")
-@RequiredArgsConstructor
 public class TenantController {
 
     private final UserApplicationService userService;
     private final TenantApplicationService tenantService;
     private final TenantQueryService tenantQueryService;
+    private final RoleHierarchyService roleHierarchyService;
+    private final PermissionService permissionService;
+    private final String operatorAuthority;
+
+    public TenantController(
+            UserApplicationService userService,
+            TenantApplicationService tenantService,
+            TenantQueryService tenantQueryService,
+            RoleHierarchyService roleHierarchyService,
+            PermissionService permissionService,
+            @Value("${iam.security.operator-authority:SCOPE_iam:operator}") String operatorAuthority) {
+        this.userService = userService;
+        this.tenantService = tenantService;
+        this.tenantQueryService = tenantQueryService;
+        this.roleHierarchyService = roleHierarchyService;
+        this.permissionService = permissionService;
+        this.operatorAuthority = operatorAuthority;
+    }
 
     @PostMapping
     public ResponseEntity<TenantResponse> register(@RequestBody RegisterTenantCommand command) {
@@ -33,18 +64,76 @@ public class TenantController {
                 .body(response);
     }
 
+    /**
+     * Requires 'tenant:users:invite' in that tenant (by default: ADMIN, tenant ACTIVE).
+     */
     @PostMapping("/{tenantId}/users")
     public ResponseEntity<Void> inviteUser(
-            @PathVariable String tenantId,
-            @RequestBody InviteUserCommand command) {
-        
-        userService.inviteUserToTenant(tenantId, command.email(), command.role());
+            @PathVariable UUID tenantId,
+            @RequestBody InviteUserCommand command,
+            @AuthenticationPrincipal Jwt jwt) {
+        permissionService.require(jwt.getSubject(), tenantId, Permission.TENANT_USERS_INVITE);
+        userService.inviteUserToTenant(tenantId.toString(), command.email(), command.role());
         
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Lists every tenant on the platform, so it is reserved for platform operators
+     * ('iam.security.operator-authority').
+     */
+    @GetMapping
+    public ResponseEntity<TenantPage> listTenants(
+            @RequestParam(required = false) TenantStatus status,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @CurrentSecurityContext(expression = "authentication") Authentication authentication) {
+        if (authentication == null
+                || !AuthorityUtils.authorityListToSet(authentication.getAuthorities()).contains(operatorAuthority)) {
+            throw new AccessDeniedException("Listing tenants requires " + operatorAuthority);
+        }
+        return ResponseEntity.ok(tenantQueryService.listTenants(status, namePrefix, cursor, limit));
+    }
+
+    /**
+     * The details include the member list, so this requires 'tenant:users:list' in that tenant.
+     */
     @GetMapping("/{tenantId}")
-    public ResponseEntity<TenantDetails> getTenant(@PathVariable UUID tenantId) {
+    public ResponseEntity<TenantDetails> getTenant(@PathVariable UUID tenantId, @AuthenticationPrincipal Jwt jwt) {
+        permissionService.require(jwt.getSubject(), tenantId, Permission.TENANT_USERS_LIST);
         return ResponseEntity.ok(tenantQueryService.getTenantDetails(tenantId));
     }
-}
\ No newline at end of file
+
+    /**
+     * Replaces the tenant's role inheritance; the transitive closure is computed here, once.
+     * Requires 'tenant:roles:manage' in that tenant (by default: ADMIN, tenant ACTIVE).
+     */
+    @PutMapping("/{tenantId}/role-hierarchy")
+    public ResponseEntity<RoleHierarchyResponse> defineRoleHierarchy(
+            @PathVariable UUID tenantId,
+            @RequestBody RoleHierarchyCommand command,
+            @AuthenticationPrincipal Jwt jwt) {
+        permissionService.require(jwt.getSubject(), tenantId, Permission.TENANT_ROLES_MANAGE);
+        return ResponseEntity.ok(roleHierarchyService.defineHierarchy(tenantId, command));
+    }
+
+    /**
+     * Requires 'tenant:read' in that tenant.
+     */
+    @GetMapping("/{tenantId}/role-hierarchy")
+    public ResponseEntity<RoleHierarchyResponse> getRoleHierarchy(@PathVariable UUID tenantId, @AuthenticationPrincipal Jwt jwt) {
+        permissionService.require(jwt.getSubject(), tenantId, Permission.TENANT_READ);
+        return ResponseEntity.ok(roleHierarchyService.getHierarchy(tenantId));
+    }
+
+    /**
+     * The caller's own permissions in this tenant, so frontends can show only allowed actions.
+     */
+    @GetMapping("/{tenantId}/permissions")
+    public ResponseEntity<PermissionsResponse> myPermissions(
+            @PathVariable UUID tenantId,
+            @AuthenticationPrincipal Jwt jwt) {
+        return ResponseEntity.ok(permissionService.permissionsOf(jwt.getSubject(), tenantId));
+    }
+}
@@ -0,0 +1,46 @@
+package pl.jakubsiekiera.iam.adapters.web;
+
+import pl.jakubsiekiera.iam.application.dto.ExchangeTenantTokenCommand;
+import pl.jakubsiekiera.iam.application.dto.TenantTokenResponse;
+import pl.jakubsiekiera.iam.application.service.TenantTokenService;
+import pl.jakubsiekiera.iam.domain.service.TenantTokenIssuer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Issues tenant-context tokens and publishes the keys that verify them.
+ */
+@RestController
+@RequiredArgsConstructor
+public class TenantTokenController {
+
+    private final TenantTokenService tokenService;
+    private final TenantTokenIssuer tokenIssuer;
+
+    @PostMapping("/api/v1/tenant-tokens")
+    public ResponseEntity<TenantTokenResponse> exchange(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestBody ExchangeTenantTokenCommand command) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore()) // Credentials must never be cached
+                .body(tokenService.exchange(jwt.getSubject(), command));
+    }
+
+    /**
+     * Public JWKS for downstream verifiers. New keys are published well before they are used
+     * for signing, so a short client-side cache is safe.
+     */
+    @GetMapping("/api/v1/tenant-tokens/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(tokenIssuer.publicKeys());
+    }
+}
@@ -0,0 +1,43 @@
+package pl.jakubsiekiera.iam.adapters.web;
+
+import pl.jakubsiekiera.iam.application.dto.BatchGetUsersByEmailRequest;
+import pl.jakubsiekiera.iam.application.dto.BatchGetUsersByEmailResponse;
+import pl.jakubsiekiera.iam.application.query.UserQueryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.CurrentSecurityContext;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Collection-level "custom methods" on users (see {@link TenantBatchController} for why
+ * they are not declared on {@link UserController}).
+ * * Resolving emails returns users and memberships across every tenant, so it is reserved for
+ * platform operators: callers holding 'iam.security.operator-authority'.
+ */
+@RestController
+public class UserBatchController {
+
+    private final UserQueryService userQueryService;
+    private final String operatorAuthority;
+
+    public UserBatchController(
+            UserQueryService userQueryService,
+            @Value("${iam.security.operator-authority:SCOPE_iam:operator}") String operatorAuthority) {
+        this.userQueryService = userQueryService;
+        this.operatorAuthority = operatorAuthority;
+    }
+
+    @PostMapping("/api/v1/users:batchGetByEmail")
+    public ResponseEntity<BatchGetUsersByEmailResponse> batchGetByEmail(
+            @RequestBody BatchGetUsersByEmailRequest request,
+            @CurrentSecurityContext(expression = "authentication") Authentication authentication) {
+        if (authentication == null
+                || !AuthorityUtils.authorityListToSet(authentication.getAuthorities()).contains(operatorAuthority)) {
+            throw new AccessDeniedException("Looking up users by email requires " + operatorAuthority);
+        }
+        return ResponseEntity.ok(userQueryService.getUsersByEmail(request));
+    }
+}
@@ -2,12 +2,30 @@ package pl.jakubsiekiera.iam.adapters.web;
 
 import pl.jakubsiekiera.iam.application.dto.RegisterUserCommand;
 import pl.jakubsiekiera.iam.application.dto.UserResponse;
+import pl.jakubsiekiera.iam.application.dto.UserSummary;
+import pl.jakubsiekiera.iam.application.dto.UserTenant;
+import pl.jakubsiekiera.iam.application.dto.UserTenantsResponse;
+import pl.jakubsiekiera.iam.application.query.CurrentUserQueryService;
+import pl.jakubsiekiera.iam.application.query.UserQueryService;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.infrastructure.security.TenantAuthorities;
 import pl.jakubsiekiera.iam.application.service.UserApplicationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.annotation.CurrentSecurityContext;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -15,6 +33,8 @@ import java.net.URI;
 public class UserController {
 
     private final UserApplicationService userService;
+    private final CurrentUserQueryService currentUserQueryService;
+    private final UserQueryService userQueryService;
 
     @PostMapping
     public ResponseEntity<UserResponse> register(@RequestBody RegisterUserCommand command) {
@@ -23,4 +43,44 @@ public class UserController {
                 .created(URI.create("/api/v1/users/" + response.id()))
                 .body(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * The caller's own profile and tenant memberships, resolved from the token 'sub'.
+     * 404 means the identity exists in Keycloak but hasn't registered a profile here.
+     */
+    @GetMapping("/me")
+    public ResponseEntity<UserSummary> me(@AuthenticationPrincipal Jwt jwt) {
+        return ResponseEntity.of(currentUserQueryService.getCurrentUser(jwt.getSubject()));
+    }
+
+    /**
+     * Reverse lookup for login flows: the tenants this user belongs to and their roles.
+     * Pass ?status=ACTIVE to leave suspended tenants out.
+     * * Users see all of their own memberships. Anyone else only sees the ones in tenants
+     * they administer, and gets 403 if there are none.
+     */
+    @GetMapping("/{userId}/tenants")
+    public ResponseEntity<UserTenantsResponse> tenants(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) TenantStatus status,
+            @AuthenticationPrincipal Jwt jwt,
+            @CurrentSecurityContext(expression = "authentication") Authentication authentication) {
+        boolean self = currentUserQueryService.getCurrentUser(jwt.getSubject())
+                .map(caller -> caller.id().equals(userId))
+                .orElse(false);
+        UserTenantsResponse response = userQueryService.getTenantsForUser(userId, status);
+        if (self) {
+            return ResponseEntity.ok(response);
+        }
+
+        // Authorities are already expanded through the tenant's role hierarchy: roles implying ADMIN count
+        Set<String> held = AuthorityUtils.authorityListToSet(authentication.getAuthorities());
+        List<UserTenant> administered = response.tenants().stream()
+                .filter(tenant -> held.contains(TenantAuthorities.authority(new TenantId(tenant.tenantId()), Role.ADMIN)))
+                .toList();
+        if (administered.isEmpty()) {
+            throw new AccessDeniedException("Not permitted to list the tenants of user " + userId);
+        }
+        return ResponseEntity.ok(new UserTenantsResponse(userId, administered));
+    }
+}
@@ -0,0 +1,8 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+// Body of POST /api/v1/tenants:batchGet
+public record BatchGetTenantsRequest(List<UUID> ids) {
+}
@@ -0,0 +1,13 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of a multi-get. Both lists follow the order in which the ids were requested,
+ * so callers can rely on a stable ordering between identical requests.
+ */
+public record BatchGetTenantsResponse(
+    List<TenantResponse> tenants,
+    List<UUID> missing
+) {}
@@ -0,0 +1,7 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.List;
+
+// Body of POST /api/v1/users:batchGetByEmail
+public record BatchGetUsersByEmailRequest(List<String> emails) {
+}
@@ -0,0 +1,12 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.List;
+
+/**
+ * Result of a bulk email lookup. 'missing' contains the normalized (lower-case)
+ * form of every requested email that did not match any user.
+ */
+public record BatchGetUsersByEmailResponse(
+    List<UserSummary> users,
+    List<String> missing
+) {}
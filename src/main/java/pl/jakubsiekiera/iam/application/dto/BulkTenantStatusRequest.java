@@ -0,0 +1,8 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+// Body of POST /api/v1/tenants:batchSuspend and /api/v1/tenants:batchActivate
+public record BulkTenantStatusRequest(List<UUID> ids) {
+}
@@ -0,0 +1,10 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BulkTenantStatusResponse(
+    int changed,      // Tenants whose status was actually updated
+    int unchanged,    // Tenants that already had the target status
+    List<UUID> missing
+) {}
@@ -0,0 +1,68 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import pl.jakubsiekiera.iam.domain.event.DomainEvent;
+import pl.jakubsiekiera.iam.domain.event.RoleHierarchyChangedEvent;
+import pl.jakubsiekiera.iam.domain.event.TenantRegisteredEvent;
+import pl.jakubsiekiera.iam.domain.event.TenantsStatusChangedEvent;
+import pl.jakubsiekiera.iam.domain.event.UserMembershipChangedEvent;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+// One entry of the change feed; 'offset' is the resume cursor (SSE id), fields not relevant to 'type' are omitted
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Change(
+    long offset,
+    String type,
+    List<UUID> tenantIds,
+    UUID userId,
+    String name,
+    String status,
+    Instant occurredOn
+) {
+    public static final String TENANT_REGISTERED = "tenant.registered";
+    public static final String TENANT_STATUS_CHANGED = "tenant.status-changed";
+    public static final String MEMBERSHIP_CHANGED = "membership.changed";
+    public static final String ROLE_HIERARCHY_CHANGED = "role-hierarchy.changed";
+    // The requested cursor is gone (purged) or unknown: resync from the read APIs, then resume after 'offset'
+    public static final String RESET = "reset";
+
+    /**
+     * @return the public representation of the event, or null for events that aren't published.
+     */
+    public static Change from(long offset, DomainEvent event) {
+        return switch (event) {
+            case TenantRegisteredEvent e -> new Change(offset, TENANT_REGISTERED,
+                    List.of(e.tenantId().value()), null, e.name(), null, e.occurredOn());
+            case TenantsStatusChangedEvent e -> new Change(offset, TENANT_STATUS_CHANGED,
+                    e.tenantIds().stream().map(TenantId::value).toList(), null, null, e.status().name(), e.occurredOn());
+            case UserMembershipChangedEvent e -> new Change(offset, MEMBERSHIP_CHANGED,
+                    List.of(e.tenantId().value()), e.userId().value(), null, null, e.occurredOn());
+            case RoleHierarchyChangedEvent e -> new Change(offset, ROLE_HIERARCHY_CHANGED,
+                    List.of(e.tenantId().value()), null, null, null, e.occurredOn());
+            default -> null;
+        };
+    }
+
+    public static Change reset(long offset) {
+        return new Change(offset, RESET, List.of(), null, null, null, Instant.now());
+    }
+
+    public boolean concerns(UUID tenantId) {
+        return tenantIds.contains(tenantId);
+    }
+
+    /**
+     * The change as seen by a subscriber of a single tenant: a bulk status change lists up to a
+     * whole chunk of tenants, and the others are none of that subscriber's business.
+     */
+    public Change forTenant(UUID tenantId) {
+        if (tenantIds.size() == 1) {
+            return this;
+        }
+        return new Change(offset, type, List.of(tenantId), userId, name, status, occurredOn);
+    }
+}
@@ -0,0 +1,5 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.UUID;
+
+public record ExchangeTenantTokenCommand(UUID tenantId) {}
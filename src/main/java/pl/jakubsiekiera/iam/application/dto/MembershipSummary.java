@@ -0,0 +1,8 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.UUID;
+
+public record MembershipSummary(
+    UUID tenantId,
+    String roles // Comma separated, exactly as stored in user_memberships
+) {}
@@ -0,0 +1,10 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+// What the caller may do in one tenant, as permission codes (e.g. "tenant:users:invite")
+public record PermissionsResponse(
+    UUID tenantId,
+    List<String> permissions
+) {}
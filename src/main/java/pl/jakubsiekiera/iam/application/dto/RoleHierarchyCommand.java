@@ -0,0 +1,7 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// For each role, the roles it directly implies, e.g. {"OWNER": ["ADMIN"], "ADMIN": ["MEMBER"]}
+public record RoleHierarchyCommand(Map<String, List<String>> inherits) {}
@@ -0,0 +1,11 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public record RoleHierarchyResponse(
+    UUID tenantId,
+    Map<String, List<String>> inherits, // Direct edges only, as defined
+    int roleCount
+) {}
@@ -0,0 +1,12 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.List;
+
+/**
+ * One page of the tenant listing. 'nextCursor' is an opaque token to pass back
+ * as '?cursor=' for the following page, or null when this is the last page.
+ */
+public record TenantPage(
+    List<TenantResponse> items,
+    String nextCursor
+) {}
@@ -0,0 +1,16 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Field names follow the OAuth2 token response (RFC 6749, section 5.1) so
+ * existing client libraries can consume it as-is.
+ */
+public record TenantTokenResponse(
+    String access_token,
+    String token_type,
+    long expires_in,
+    UUID tenant_id,
+    List<String> roles
+) {}
@@ -0,0 +1,11 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+// Compact read-model of a user: identity plus tenant memberships, nothing else
+public record UserSummary(
+    UUID id,
+    String email,
+    List<MembershipSummary> memberships
+) {}
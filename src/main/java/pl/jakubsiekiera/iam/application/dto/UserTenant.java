@@ -0,0 +1,11 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.UUID;
+
+// One tenant the user belongs to, with the role CSV passed through untouched
+public record UserTenant(
+    UUID tenantId,
+    String name,
+    String status,
+    String roles
+) {}
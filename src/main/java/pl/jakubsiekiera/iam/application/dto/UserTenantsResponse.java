@@ -0,0 +1,9 @@
+package pl.jakubsiekiera.iam.application.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record UserTenantsResponse(
+    UUID userId,
+    List<UserTenant> tenants
+) {}
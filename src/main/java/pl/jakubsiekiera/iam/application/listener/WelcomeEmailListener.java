@@ -1,19 +1,31 @@
 package pl.jakubsiekiera.iam.application.listener;
 
+import lombok.RequiredArgsConstructor;
+import pl.jakubsiekiera.iam.domain.event.DomainEventSubscriber;
 import pl.jakubsiekiera.iam.domain.event.TenantRegisteredEvent;
-import org.springframework.context.event.EventListener;
+import pl.jakubsiekiera.iam.domain.service.NotificationSender.Notification;
+import pl.jakubsiekiera.iam.infrastructure.notification.NotificationPipeline;
 import org.springframework.stereotype.Component;
 
+// Runs on the domain event bus's consumer thread, after the registration has committed.
+// It only queues the email; sending, batching and retries happen in the NotificationPipeline.
 @Component
-public class WelcomeEmailListener {
+@RequiredArgsConstructor
+public class WelcomeEmailListener implements DomainEventSubscriber<TenantRegisteredEvent> {
 
-    @EventListener
+    private final NotificationPipeline notifications;
+
+    @Override
+    public Class<TenantRegisteredEvent> eventType() {
+        return TenantRegisteredEvent.class;
+    }
+
+    @Override
     public void handle(TenantRegisteredEvent event) {
-        // In a real app, this would call an EmailService
-        System.out.println("--------------------------------------------------");
-        System.out.println(" [NOTIFICATION SERVICE] Sending Welcome Email");
-        System.out.println(" To Tenant: " + event.name());
-        System.out.println(" ID: " + event.tenantId().value());
-        System.out.println("--------------------------------------------------");
+        notifications.submit(new Notification(
+                "welcome-" + event.tenantId().value(),
+                event.tenantId(),
+                "Welcome to IAM, " + event.name(),
+                "Your tenant '" + event.name() + "' (ID: " + event.tenantId().value() + ") is ready."));
     }
-}
\ No newline at end of file
+}
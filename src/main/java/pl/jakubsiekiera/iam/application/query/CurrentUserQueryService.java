@@ -0,0 +1,74 @@
+package pl.jakubsiekiera.iam.application.query;
+
+import pl.jakubsiekiera.iam.application.dto.MembershipSummary;
+import pl.jakubsiekiera.iam.application.dto.UserSummary;
+import pl.jakubsiekiera.iam.domain.event.UserMembershipChangedEvent;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository.UserMembershipRow;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * "Who am I and which tenants am I in?" for the caller of the current request.
+ * * Frontends ask this on every page load, so answers are kept in a bounded near-cache keyed
+ * by the token 'sub' (users.keycloak_id). A miss is one indexed query; entries are dropped when
+ * a membership change commits, and the TTL bounds staleness for changes made elsewhere.
+ * Unknown identities are not cached, so a user registered a moment later is found right away.
+ */
+@Service
+public class CurrentUserQueryService {
+
+    private final LoadingCache<String, UserSummary> users;
+
+    public CurrentUserQueryService(
+            JpaUserRepository userRepo,
+            @Value("${iam.users.me-cache.maximum-size:10000}") long maximumSize,
+            @Value("${iam.users.me-cache.ttl:5m}") Duration ttl) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build(keycloakId -> load(userRepo.findUserRowsByKeycloakId(keycloakId)));
+    }
+
+    /**
+     * @param keycloakId The verified 'sub' claim of the caller's token.
+     * @return the user with all memberships, or empty if this identity has no local profile.
+     */
+    public Optional<UserSummary> getCurrentUser(String keycloakId) {
+        return Optional.ofNullable(users.get(keycloakId));
+    }
+
+    /**
+     * Evicts after the inviting transaction commits, so a concurrent page load
+     * cannot re-cache the pre-commit memberships.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(UserMembershipChangedEvent event) {
+        users.invalidate(event.keycloakId());
+    }
+
+    // Returning null tells Caffeine not to store anything for this key
+    private static UserSummary load(List<UserMembershipRow> rows) {
+        if (rows.isEmpty()) {
+            return null;
+        }
+        List<MembershipSummary> memberships = new ArrayList<>(rows.size());
+        for (UserMembershipRow row : rows) {
+            if (row.getTenantId() != null) {
+                memberships.add(new MembershipSummary(row.getTenantId(), row.getRoles()));
+            }
+        }
+        UserMembershipRow first = rows.getFirst();
+        // Immutable: the same instance is handed to every request that hits the cache
+        return new UserSummary(first.getUserId(), first.getEmail(), List.copyOf(memberships));
+    }
+}
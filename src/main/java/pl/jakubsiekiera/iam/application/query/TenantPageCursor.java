@@ -0,0 +1,56 @@
+package pl.jakubsiekiera.iam.application.query;
+
+import pl.jakubsiekiera.iam.domain.exception.InvalidRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a page in one of the two listing orders.
+ * * Serialized as URL-safe Base64 so clients treat it as opaque, which leaves us free
+ * to change the encoding without breaking anyone.
+ */
+record TenantPageCursor(Instant creationDate, String lowerName, UUID id) {
+
+    private static final String BY_CREATION = "c";
+    private static final String BY_NAME = "n";
+
+    static TenantPageCursor byCreation(Instant creationDate, UUID id) {
+        return new TenantPageCursor(creationDate, null, id);
+    }
+
+    static TenantPageCursor byName(String lowerName, UUID id) {
+        return new TenantPageCursor(null, lowerName, id);
+    }
+
+    boolean isByName() {
+        return lowerName != null;
+    }
+
+    String encode() {
+        // The free-text name goes last, so it may contain the separator itself
+        String raw = isByName()
+                ? BY_NAME + "|" + id + "|" + lowerName
+                : BY_CREATION + "|" + id + "|" + creationDate.getEpochSecond() + "|" + creationDate.getNano();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TenantPageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            UUID id = UUID.fromString(parts[1]);
+            if (BY_NAME.equals(parts[0])) {
+                return byName(parts[2], id);
+            }
+            if (BY_CREATION.equals(parts[0])) {
+                String[] time = parts[2].split("\\|", 2);
+                return byCreation(Instant.ofEpochSecond(Long.parseLong(time[0]), Long.parseLong(time[1])), id);
+            }
+        } catch (RuntimeException ignored) {
+            // Fall through: any decoding problem means the client sent us garbage
+        }
+        throw new InvalidRequestException("Invalid page cursor");
+    }
+}
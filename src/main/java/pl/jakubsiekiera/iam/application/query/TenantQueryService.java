@@ -1,16 +1,25 @@
 package pl.jakubsiekiera.iam.application.query;
 
+import pl.jakubsiekiera.iam.domain.exception.InvalidRequestException;
+import pl.jakubsiekiera.iam.domain.exception.TenantNotFoundException;
 import pl.jakubsiekiera.iam.application.dto.Member;
 import pl.jakubsiekiera.iam.application.dto.TenantDetails;
+import pl.jakubsiekiera.iam.application.dto.TenantPage;
+import pl.jakubsiekiera.iam.application.dto.TenantResponse;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import pl.jakubsiekiera.iam.infrastructure.concurrent.SingleFlight;
 import pl.jakubsiekiera.iam.infrastructure.persistence.entity.TenantJpaEntity;
 import pl.jakubsiekiera.iam.infrastructure.persistence.entity.UserJpaEntity;
 import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaTenantRepository;
 import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 /**
@@ -19,29 +28,53 @@ import java.util.UUID;
  * directly mapping JPA entities to Data Transfer Objects (DTOs).
  */
 @Service
-@RequiredArgsConstructor
 /* * Transactional readOnly = true tells Spring/Hibernate to skip dirty checking 
  * and optimization for flush modes, reducing memory overhead for read operations.
  */
 @Transactional(readOnly = true) 
 public class TenantQueryService {
 
+    // Hard ceiling for '?limit=' so a single page stays a cheap, bounded index range scan
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final JpaTenantRepository tenantRepo;
     private final JpaUserRepository userRepo;
+    private final TransactionTemplate readOnlyTx;
+
+    // Concurrent reads of the same tenant share one query set (see getTenantDetails)
+    private final SingleFlight<UUID, TenantDetails> detailsInFlight = new SingleFlight<>();
+
+    public TenantQueryService(JpaTenantRepository tenantRepo, JpaUserRepository userRepo,
+                              PlatformTransactionManager transactionManager) {
+        this.tenantRepo = tenantRepo;
+        this.userRepo = userRepo;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
 
     /**
      * Retrieves comprehensive details about a specific tenant, including its active members.
+     * * Concurrent calls for the same tenant are coalesced: the first one runs the queries and
+     * all callers arriving meanwhile receive its result (or its exception). A dashboard firing
+     * dozens of identical reads therefore costs the database one query set, not dozens.
+     * * The method itself is deliberately non-transactional. Only the leader opens a (read-only)
+     * transaction, so waiting followers don't each hold a pooled connection while they wait.
      * * @param tenantId The unique identifier of the tenant.
      * @return TenantDetails containing metadata and a list of members with their roles.
-     * @throws IllegalArgumentException if the tenant does not exist.
+     * @throws TenantNotFoundException if the tenant does not exist.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TenantDetails getTenantDetails(UUID tenantId) {
+        return detailsInFlight.execute(tenantId, () -> readOnlyTx.execute(status -> loadTenantDetails(tenantId)));
+    }
+
+    private TenantDetails loadTenantDetails(UUID tenantId) {
         
         // 1. Fetch Tenant basic info
         // We use the JPA Entity directly here because we don't need complex domain logic
         // or invariant enforcement required for write operations.
         TenantJpaEntity tenant = tenantRepo.findById(tenantId)
-                .orElseThrow(() -> new IllegalArgumentException("Tenant not found: " + tenantId));
+                .orElseThrow(() -> new TenantNotFoundException(tenantId));
 
         // 2. Fetch associated Members
         // Uses a custom repository query to avoid loading all users and filtering in memory.
@@ -49,7 +82,24 @@ public class TenantQueryService {
 
         // 3. Map Entities to DTOs
         // This transformation layer ensures the API doesn't leak internal database structures.
-        List<Member> memberDtos = users.stream()
+        List<Member> memberDtos = toMembers(users, tenantId);
+
+        // Construct and return the final read-model DTO
+        return new TenantDetails(
+                tenant.getId(),
+                tenant.getName(),
+                tenant.getStatus(),
+                tenant.getCreationDate(),
+                memberDtos
+        );
+    }
+
+    /**
+     * Maps the tenant's users to member DTOs carrying their roles in THIS tenant.
+     * * Package-private and static so MemberMappingBenchmark can drive it directly.
+     */
+    static List<Member> toMembers(List<UserJpaEntity> users, UUID tenantId) {
+        return users.stream()
                 .map(u -> {
                     /*
                      * A user can belong to multiple tenants. We filter the membership 
@@ -64,14 +114,49 @@ public class TenantQueryService {
                     return new Member(u.getEmail(), roles);
                 })
                 .toList();
+    }
 
-        // Construct and return the final read-model DTO
-        return new TenantDetails(
-                tenant.getId(),
-                tenant.getName(),
-                tenant.getStatus(),
-                tenant.getCreationDate(),
-                memberDtos
-        );
+    /**
+     * Lists tenants page by page using keyset pagination.
+     * * Without a name prefix the listing is ordered by creation date (UUIDv7 ids make this the
+     * same as id order for new tenants); with a prefix it is ordered alphabetically, which lets
+     * the prefix filter and the cursor share one index range.
+     * * @param status optional status filter.
+     * @param namePrefix optional case-insensitive name prefix.
+     * @param cursor opaque token from a previous page, or null for the first page.
+     * @param limit requested page size, clamped to [1, MAX_PAGE_SIZE].
+     * @throws InvalidRequestException if the cursor is malformed or belongs to the other ordering.
+     */
+    public TenantPage listTenants(TenantStatus status, String namePrefix, String cursor, int limit) {
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        String statusFilter = status == null ? null : status.name();
+        String prefix = namePrefix == null || namePrefix.isBlank() ? null : namePrefix.toLowerCase(Locale.ROOT);
+        TenantPageCursor after = cursor == null || cursor.isBlank() ? null : TenantPageCursor.decode(cursor);
+        if (after != null && after.isByName() != (prefix != null)) {
+            throw new InvalidRequestException("Page cursor does not match the requested filters");
+        }
+
+        // We ask for one extra row: if it comes back, there is a next page
+        List<TenantJpaEntity> rows = prefix == null
+                ? tenantRepo.findPageOrderedByCreation(statusFilter,
+                        after == null ? null : after.creationDate(), after == null ? null : after.id(), pageSize + 1)
+                : tenantRepo.findPageOrderedByName(statusFilter, prefix,
+                        after == null ? null : after.lowerName(), after == null ? null : after.id(), pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<TenantJpaEntity> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            TenantJpaEntity last = page.getLast();
+            nextCursor = (prefix == null
+                    ? TenantPageCursor.byCreation(last.getCreationDate(), last.getId())
+                    : TenantPageCursor.byName(last.getName().toLowerCase(Locale.ROOT), last.getId())).encode();
+        }
+
+        List<TenantResponse> items = page.stream()
+                .map(t -> new TenantResponse(t.getId(), t.getName(), t.getStatus(), t.getCreationDate()))
+                .toList();
+        return new TenantPage(items, nextCursor);
     }
 }
\ No newline at end of file
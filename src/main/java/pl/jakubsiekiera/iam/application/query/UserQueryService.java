@@ -0,0 +1,113 @@
+package pl.jakubsiekiera.iam.application.query;
+
+import pl.jakubsiekiera.iam.domain.exception.InvalidRequestException;
+import pl.jakubsiekiera.iam.application.dto.BatchGetUsersByEmailRequest;
+import pl.jakubsiekiera.iam.application.dto.BatchGetUsersByEmailResponse;
+import pl.jakubsiekiera.iam.application.dto.MembershipSummary;
+import pl.jakubsiekiera.iam.application.dto.UserSummary;
+import pl.jakubsiekiera.iam.application.dto.UserTenant;
+import pl.jakubsiekiera.iam.application.dto.UserTenantsResponse;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import pl.jakubsiekiera.iam.domain.model.user.Email;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository.TenantMembershipRow;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository.UserMembershipRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Read-only queries about users. Like {@link TenantQueryService} it skips the
+ * Domain Model and maps flat database rows straight into compact DTOs.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class UserQueryService {
+
+    // Upper bound for a single bulk lookup; thousands are fine, unbounded input is not
+    public static final int MAX_BATCH_LOOKUP_EMAILS = 5_000;
+
+    private final JpaUserRepository userRepo;
+
+    /**
+     * Resolves many users by email in one database round trip.
+     * * Every input goes through the {@link Email} Value Object (so malformed input is rejected
+     * exactly like on registration) and is compared in its normalized, lower-case form.
+     * * @return users in the order their emails were requested, plus the emails that matched nobody.
+     * @throws InvalidRequestException if the batch is too large.
+     * @throws IllegalArgumentException if it contains an invalid email.
+     */
+    public BatchGetUsersByEmailResponse getUsersByEmail(BatchGetUsersByEmailRequest request) {
+        List<String> requested = request.emails() == null ? List.of() : request.emails();
+        if (requested.size() > MAX_BATCH_LOOKUP_EMAILS) {
+            throw new InvalidRequestException("Cannot look up more than " + MAX_BATCH_LOOKUP_EMAILS + " emails at once");
+        }
+
+        // 1. Validate + normalize, deduplicating while keeping the caller's order
+        LinkedHashSet<String> normalized = new LinkedHashSet<>();
+        for (String raw : requested) {
+            normalized.add(new Email(raw).normalized());
+        }
+        if (normalized.isEmpty()) {
+            return new BatchGetUsersByEmailResponse(List.of(), List.of());
+        }
+
+        // 2. One array-parameter query returns flat (user, membership) rows for the whole batch
+        List<UserMembershipRow> rows = userRepo.findMembershipRowsByNormalizedEmails(normalized.toArray(String[]::new));
+
+        // 3. Fold the rows back into one summary per user, grouped by normalized email
+        Map<UUID, UserSummary> byId = new HashMap<>();
+        Map<String, List<UserSummary>> byEmail = new HashMap<>();
+        for (UserMembershipRow row : rows) {
+            UserSummary summary = byId.get(row.getUserId());
+            if (summary == null) {
+                summary = new UserSummary(row.getUserId(), row.getEmail(), new ArrayList<>());
+                byId.put(row.getUserId(), summary);
+                // Stored emails already passed validation, lower-casing them is enough to match the keys
+                byEmail.computeIfAbsent(row.getEmail().toLowerCase(Locale.ROOT), k -> new ArrayList<>(1)).add(summary);
+            }
+            if (row.getTenantId() != null) {
+                summary.memberships().add(new MembershipSummary(row.getTenantId(), row.getRoles()));
+            }
+        }
+
+        // 4. Walk the requested emails to produce a stable ordering and report the gaps
+        Map<UUID, UserSummary> ordered = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String email : normalized) {
+            List<UserSummary> matches = byEmail.get(email);
+            if (matches == null) {
+                missing.add(email);
+            } else {
+                matches.forEach(u -> ordered.putIfAbsent(u.id(), u));
+            }
+        }
+        return new BatchGetUsersByEmailResponse(List.copyOf(ordered.values()), missing);
+    }
+
+    /**
+     * Lists the tenants a user belongs to, with their roles, without loading the User aggregate.
+     * * @param status Optional filter (e.g. ACTIVE to hide suspended tenants); null returns all.
+     * @return tenants ordered by name; empty if the user has no memberships (or doesn't exist).
+     */
+    public UserTenantsResponse getTenantsForUser(UUID userId, TenantStatus status) {
+        List<TenantMembershipRow> rows = status == null
+                ? userRepo.findTenantRowsByUserId(userId)
+                : userRepo.findTenantRowsByUserIdAndStatus(userId, status.name());
+        List<UserTenant> tenants = new ArrayList<>(rows.size());
+        for (TenantMembershipRow row : rows) {
+            tenants.add(new UserTenant(row.getTenantId(), row.getName(), row.getStatus(), row.getRoles()));
+        }
+        return new UserTenantsResponse(userId, tenants);
+    }
+}
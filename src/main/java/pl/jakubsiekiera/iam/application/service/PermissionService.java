@@ -0,0 +1,79 @@
+package pl.jakubsiekiera.iam.application.service;
+
+import pl.jakubsiekiera.iam.application.dto.PermissionsResponse;
+import pl.jakubsiekiera.iam.domain.model.permission.CompiledPolicies;
+import pl.jakubsiekiera.iam.domain.model.permission.Permission;
+import pl.jakubsiekiera.iam.domain.model.tenant.Tenant;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.repository.TenantRepository;
+import pl.jakubsiekiera.iam.domain.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Permission checks on top of roles: "may this caller do X in this tenant, in its current state?"
+ * * Policies are compiled at startup ({@link CompiledPolicies}); a check is a cached hierarchy
+ * lookup to build the role mask, then a table lookup.
+ */
+@Service
+@RequiredArgsConstructor
+public class PermissionService {
+
+    private final CompiledPolicies policies;
+    private final RoleHierarchyService roleHierarchyService;
+    private final UserRepository userRepository;
+    private final TenantRepository tenantRepository;
+
+    public boolean isPermitted(TenantId tenantId, TenantStatus status, Collection<Role> held, Permission permission) {
+        long mask = policies.roleMask(held, roleHierarchyService.hierarchyFor(tenantId));
+        return policies.isPermitted(permission, mask, status);
+    }
+
+    /**
+     * Everything the caller (identified by the token 'sub') may do in a tenant.
+     * Non-members and unknown tenants simply get an empty list.
+     */
+    @Transactional(readOnly = true)
+    public PermissionsResponse permissionsOf(String keycloakId, UUID tenantUuid) {
+        TenantId tenantId = new TenantId(tenantUuid);
+        Tenant tenant = tenantRepository.findById(tenantId).orElse(null);
+        Set<Role> held = rolesOf(keycloakId, tenantId);
+        if (tenant == null || held.isEmpty()) {
+            return new PermissionsResponse(tenantUuid, List.of());
+        }
+
+        long mask = policies.roleMask(held, roleHierarchyService.hierarchyFor(tenantId));
+        List<String> codes = policies.permitted(mask, tenant.getStatus()).stream().map(Permission::code).toList();
+        return new PermissionsResponse(tenantUuid, codes);
+    }
+
+    /**
+     * Guard for tenant-scoped operations, evaluated against the compiled policies.
+     * * @throws AccessDeniedException if the caller (token 'sub') may not perform 'permission' in
+     * the tenant, including when the tenant doesn't exist or the caller isn't a member.
+     */
+    @Transactional(readOnly = true)
+    public void require(String keycloakId, UUID tenantUuid, Permission permission) {
+        TenantId tenantId = new TenantId(tenantUuid);
+        Set<Role> held = rolesOf(keycloakId, tenantId);
+        Tenant tenant = held.isEmpty() ? null : tenantRepository.findById(tenantId).orElse(null);
+        if (tenant == null || !isPermitted(tenantId, tenant.getStatus(), held, permission)) {
+            throw new AccessDeniedException("Not permitted to " + permission.code() + " in tenant " + tenantUuid);
+        }
+    }
+
+    private Set<Role> rolesOf(String keycloakId, TenantId tenantId) {
+        return userRepository.findByKeycloakId(keycloakId)
+                .map(user -> user.getRolesForTenant(tenantId))
+                .orElse(Set.of());
+    }
+}
@@ -0,0 +1,104 @@
+package pl.jakubsiekiera.iam.application.service;
+
+import pl.jakubsiekiera.iam.domain.exception.InvalidRequestException;
+import pl.jakubsiekiera.iam.domain.exception.TenantNotFoundException;
+import pl.jakubsiekiera.iam.application.dto.RoleHierarchyCommand;
+import pl.jakubsiekiera.iam.application.dto.RoleHierarchyResponse;
+import pl.jakubsiekiera.iam.domain.event.RoleHierarchyChangedEvent;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.model.user.RoleHierarchy;
+import pl.jakubsiekiera.iam.domain.repository.RoleHierarchyRepository;
+import pl.jakubsiekiera.iam.domain.repository.TenantRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Tenant-configurable role inheritance.
+ * * The expensive part (transitive closure) happens once in {@link #defineHierarchy}; afterwards
+ * {@link #hasEffectiveRole} is a cached lookup plus a bit test per held role.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoleHierarchyService {
+
+    private final RoleHierarchyRepository hierarchyRepository;
+    private final TenantRepository tenantRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Replaces the tenant's hierarchy.
+     * @throws TenantNotFoundException if the tenant doesn't exist.
+     * @throws InvalidRequestException if a role name contains reserved characters.
+     * @throws IllegalArgumentException if the definition contains a cycle.
+     */
+    @Transactional
+    public RoleHierarchyResponse defineHierarchy(UUID tenantUuid, RoleHierarchyCommand command) {
+        TenantId tenantId = new TenantId(tenantUuid);
+        if (tenantRepository.findById(tenantId).isEmpty()) {
+            throw new TenantNotFoundException(tenantUuid);
+        }
+
+        // 1. Parse; building the Value Object computes (and validates) the closure
+        Map<Role, List<Role>> inherits = new LinkedHashMap<>();
+        Map<String, List<String>> raw = command.inherits() == null ? Map.of() : command.inherits();
+        for (Map.Entry<String, List<String>> entry : raw.entrySet()) {
+            List<Role> children = new ArrayList<>();
+            for (String child : entry.getValue() == null ? List.<String>of() : entry.getValue()) {
+                children.add(role(child));
+            }
+            inherits.put(role(entry.getKey()), children);
+        }
+        RoleHierarchy hierarchy = RoleHierarchy.of(inherits);
+
+        // 2. Persist and tell derived caches (e.g. token authorities) to recompute
+        hierarchyRepository.save(tenantId, hierarchy);
+        eventPublisher.publishEvent(new RoleHierarchyChangedEvent(tenantId, Instant.now()));
+        return toResponse(tenantId, hierarchy);
+    }
+
+    @Transactional(readOnly = true)
+    public RoleHierarchyResponse getHierarchy(UUID tenantUuid) {
+        TenantId tenantId = new TenantId(tenantUuid);
+        return toResponse(tenantId, hierarchyFor(tenantId));
+    }
+
+    public RoleHierarchy hierarchyFor(TenantId tenantId) {
+        return hierarchyRepository.findByTenantId(tenantId).orElse(RoleHierarchy.DEFAULT);
+    }
+
+    /**
+     * "Does a caller holding these roles in the tenant effectively have 'required'?"
+     */
+    public boolean hasEffectiveRole(TenantId tenantId, Collection<Role> held, Role required) {
+        return hierarchyFor(tenantId).hasEffectiveRole(held, required);
+    }
+
+    // Role names end up in CSV columns, so the separators used there are reserved
+    private static Role role(String name) {
+        Role role = new Role(name);
+        if (name.contains(",") || name.contains(">")) {
+            throw new InvalidRequestException("Role name cannot contain ',' or '>': " + name);
+        }
+        return role;
+    }
+
+    private static RoleHierarchyResponse toResponse(TenantId tenantId, RoleHierarchy hierarchy) {
+        Map<String, List<String>> inherits = new LinkedHashMap<>();
+        for (Map.Entry<Role, Set<Role>> entry : hierarchy.declaredInheritance().entrySet()) {
+            inherits.put(entry.getKey().name(), entry.getValue().stream().map(Role::name).toList());
+        }
+        return new RoleHierarchyResponse(tenantId.value(), inherits, hierarchy.roleCount());
+    }
+}
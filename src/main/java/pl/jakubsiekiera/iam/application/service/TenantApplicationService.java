@@ -1,41 +1,69 @@
 package pl.jakubsiekiera.iam.application.service;
 
+import pl.jakubsiekiera.iam.domain.exception.InvalidRequestException;
+import pl.jakubsiekiera.iam.domain.exception.TenantNameTakenException;
+import pl.jakubsiekiera.iam.application.dto.BatchGetTenantsRequest;
+import pl.jakubsiekiera.iam.application.dto.BatchGetTenantsResponse;
+import pl.jakubsiekiera.iam.application.dto.BulkTenantStatusRequest;
+import pl.jakubsiekiera.iam.application.dto.BulkTenantStatusResponse;
 import pl.jakubsiekiera.iam.application.dto.RegisterTenantCommand;
 import pl.jakubsiekiera.iam.application.dto.TenantResponse; // Import the new DTO
 import pl.jakubsiekiera.iam.domain.model.tenant.Tenant;
 import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
 import pl.jakubsiekiera.iam.domain.event.TenantRegisteredEvent;
+import pl.jakubsiekiera.iam.domain.event.TenantsStatusChangedEvent;
 import pl.jakubsiekiera.iam.domain.repository.TenantRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.context.ApplicationEventPublisher;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 
 @Service
 @RequiredArgsConstructor
 public class TenantApplicationService {
 
+    // Upper bound for a single multi-get; keeps the array parameter and the response size predictable
+    public static final int MAX_BATCH_GET_IDS = 500;
+
+    // Bulk status changes: overall request cap and tenants touched per (short) transaction
+    public static final int MAX_BULK_STATUS_IDS = 10_000;
+    public static final int STATUS_CHANGE_CHUNK_SIZE = 250;
+
     private final TenantRepository tenantRepository;
+    // Synchronous listeners (change outbox before commit, cache invalidation after it); the
+    // ApplicationEventBridge then hands every event to the asynchronous bus (welcome email, ...)
     private final ApplicationEventPublisher eventPublisher;
+    private final TransactionOperations transactionOperations; // Programmatic transactions for chunked work
 
     @Transactional
     public TenantResponse registerTenant(RegisterTenantCommand command) {
-        // 1. Validate uniqueness
-        if (tenantRepository.existsByName(command.name())) {
-            throw new IllegalArgumentException("Tenant with name '" + command.name() + "' already exists");
-        }
-
-        // 2. Generate ID and create Aggregate
+        // 1. Generate ID and create Aggregate
         TenantId newId = TenantId.generate();
         Tenant newTenant = Tenant.register(newId, command.name());
 
-        // 3. Persist
-        tenantRepository.save(newTenant);
+        // 2. Persist, insert-first: the unique name index is the uniqueness check.
+        // This is one round trip instead of two, and concurrent registrations of the same
+        // name can't both pass a check and then collide on the constraint.
+        if (!tenantRepository.insertIfNameAvailable(newTenant)) {
+            throw new TenantNameTakenException(command.name());
+        }
 
         // 3. PUBLISH EVENT
-        // We convert Domain Object -> Event Object
+        // We convert Domain Object -> Event Object. The change outbox records it in this
+        // transaction; after commit it goes onto the bus, whose subscribers (welcome email, ...)
+        // run on their own threads, not on this request.
         TenantRegisteredEvent event = new TenantRegisteredEvent(
             newId,
             newTenant.getName(),
@@ -46,4 +74,119 @@ public class TenantApplicationService {
         // 5. Return DTO (using the static mapper method)
         return TenantResponse.from(newTenant);
     }
+
+    @Transactional(readOnly = true)
+    public BatchGetTenantsResponse getTenants(BatchGetTenantsRequest request) {
+        List<UUID> requested = request.ids() == null ? List.of() : request.ids();
+        if (requested.size() > MAX_BATCH_GET_IDS) {
+            throw new InvalidRequestException("Cannot fetch more than " + MAX_BATCH_GET_IDS + " tenants at once");
+        }
+
+        // 1. Deduplicate while keeping the caller's order (the response mirrors it)
+        LinkedHashSet<TenantId> ids = new LinkedHashSet<>();
+        for (UUID id : requested) {
+            ids.add(new TenantId(id));
+        }
+
+        // 2. One query for the whole batch; the database returns rows in arbitrary order
+        Map<TenantId, Tenant> found = new HashMap<>();
+        for (Tenant tenant : tenantRepository.findAllByIds(ids)) {
+            found.put(tenant.getId(), tenant);
+        }
+
+        // 3. Walk the requested ids to produce a stable ordering and report the gaps
+        List<TenantResponse> tenants = new ArrayList<>(found.size());
+        List<UUID> missing = new ArrayList<>();
+        for (TenantId id : ids) {
+            Tenant tenant = found.get(id);
+            if (tenant == null) {
+                missing.add(id.value());
+            } else {
+                tenants.add(TenantResponse.from(tenant));
+            }
+        }
+        return new BatchGetTenantsResponse(tenants, missing);
+    }
+
+    // Deliberately NOT @Transactional: every chunk commits on its own (see changeStatus)
+    public BulkTenantStatusResponse suspendTenants(BulkTenantStatusRequest request) {
+        return changeStatus(request, TenantStatus.SUSPENDED);
+    }
+
+    public BulkTenantStatusResponse activateTenants(BulkTenantStatusRequest request) {
+        return changeStatus(request, TenantStatus.ACTIVE);
+    }
+
+    /**
+     * Applies a status transition to many tenants in bounded chunks.
+     * * Each chunk is loaded, run through the aggregate's own behavior (suspend/activate) and
+     * written back in its own short transaction, so row locks are never held for the whole
+     * batch. Each chunk publishes one {@link TenantsStatusChangedEvent}, listing the tenants whose
+     * status actually changed. A failure stops the run; chunks committed before it stay applied.
+     */
+    private BulkTenantStatusResponse changeStatus(BulkTenantStatusRequest request, TenantStatus target) {
+        List<UUID> requested = request.ids() == null ? List.of() : request.ids();
+        if (requested.size() > MAX_BULK_STATUS_IDS) {
+            throw new InvalidRequestException("Cannot change the status of more than " + MAX_BULK_STATUS_IDS + " tenants at once");
+        }
+        LinkedHashSet<TenantId> unique = new LinkedHashSet<>();
+        for (UUID id : requested) {
+            unique.add(new TenantId(id));
+        }
+        List<TenantId> ids = new ArrayList<>(unique);
+
+        int changed = 0;
+        int unchanged = 0;
+        List<UUID> missing = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += STATUS_CHANGE_CHUNK_SIZE) {
+            List<TenantId> chunk = ids.subList(from, Math.min(from + STATUS_CHANGE_CHUNK_SIZE, ids.size()));
+            StatusChunkResult result = transactionOperations.execute(tx -> {
+                StatusChunkResult applied = applyStatus(chunk, target);
+                // One event per chunk, inside its transaction (the outbox row commits with it);
+                // cache invalidation and the bus still only see it after the commit
+                if (!applied.changed().isEmpty()) {
+                    eventPublisher.publishEvent(new TenantsStatusChangedEvent(applied.changed(), target, Instant.now()));
+                }
+                return applied;
+            });
+
+            changed += result.changed().size();
+            unchanged += result.unchanged();
+            missing.addAll(result.missing());
+        }
+        return new BulkTenantStatusResponse(changed, unchanged, missing);
+    }
+
+    private StatusChunkResult applyStatus(List<TenantId> chunk, TenantStatus target) {
+        List<Tenant> tenants = tenantRepository.findAllByIds(chunk);
+
+        Set<TenantId> found = new HashSet<>();
+        List<Tenant> changed = new ArrayList<>();
+        for (Tenant tenant : tenants) {
+            found.add(tenant.getId());
+            TenantStatus before = tenant.getStatus();
+            // Business behavior stays in the aggregate
+            if (target == TenantStatus.SUSPENDED) {
+                tenant.suspend();
+            } else {
+                tenant.activate();
+            }
+            if (tenant.getStatus() != before) {
+                changed.add(tenant);
+            }
+        }
+        if (!changed.isEmpty()) {
+            tenantRepository.updateStatuses(changed);
+        }
+
+        List<UUID> missing = new ArrayList<>();
+        for (TenantId id : chunk) {
+            if (!found.contains(id)) {
+                missing.add(id.value());
+            }
+        }
+        return new StatusChunkResult(changed.stream().map(Tenant::getId).toList(), tenants.size() - changed.size(), missing);
+    }
+
+    private record StatusChunkResult(List<TenantId> changed, int unchanged, List<UUID> missing) {}
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package pl.jakubsiekiera.iam.application.service;
+
+import pl.jakubsiekiera.iam.domain.exception.InvalidRequestException;
+import pl.jakubsiekiera.iam.application.dto.ExchangeTenantTokenCommand;
+import pl.jakubsiekiera.iam.application.dto.TenantTokenResponse;
+import pl.jakubsiekiera.iam.domain.model.permission.Permission;
+import pl.jakubsiekiera.iam.domain.model.tenant.Tenant;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.model.user.User;
+import pl.jakubsiekiera.iam.domain.repository.TenantRepository;
+import pl.jakubsiekiera.iam.domain.repository.UserRepository;
+import pl.jakubsiekiera.iam.domain.service.TenantTokenIssuer;
+import pl.jakubsiekiera.iam.domain.service.TenantTokenIssuer.IssuedToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Token exchange: a Keycloak identity + a tenant in, a tenant-context token out.
+ * * Downstream services used to call back into IAM on every request to learn the caller's
+ * tenant roles. With this token they verify a signature against our JWKS instead, so IAM
+ * load grows with logins (one exchange per token lifetime) rather than with requests.
+ */
+@Service
+@RequiredArgsConstructor
+public class TenantTokenService {
+
+    private final UserRepository userRepository;
+    private final TenantRepository tenantRepository;
+    private final TenantTokenIssuer tokenIssuer;
+    private final PermissionService permissionService;
+
+    /**
+     * @param subject The verified 'sub' of the caller's Keycloak token.
+     * @throws AccessDeniedException if the caller lacks 'tenant:tokens:exchange' in the tenant
+     * (by default: a MEMBER of an ACTIVE tenant).
+     */
+    @Transactional(readOnly = true)
+    public TenantTokenResponse exchange(String subject, ExchangeTenantTokenCommand command) {
+        if (command.tenantId() == null) {
+            throw new InvalidRequestException("tenantId is required");
+        }
+        TenantId tenantId = new TenantId(command.tenantId());
+
+        // 1. The membership decision is made by the aggregate itself
+        User user = userRepository.findByKeycloakId(subject)
+                .orElseThrow(() -> new AccessDeniedException("No local user for this identity"));
+        Set<Role> roles = user.getRolesForTenant(tenantId);
+        if (roles.isEmpty()) {
+            throw new AccessDeniedException("Not a member of tenant " + tenantId.value());
+        }
+
+        // 2. The policy decides the rest, e.g. that suspended tenants hand out no fresh credentials
+        Tenant tenant = tenantRepository.findById(tenantId)
+                .orElseThrow(() -> new AccessDeniedException("Not a member of tenant " + tenantId.value()));
+        if (!permissionService.isPermitted(tenantId, tenant.getStatus(), roles, Permission.TENANT_TOKENS_EXCHANGE)) {
+            throw new AccessDeniedException("Not permitted to " + Permission.TENANT_TOKENS_EXCHANGE.code()
+                    + " in tenant " + tenantId.value() + " (" + tenant.getStatus() + ")");
+        }
+
+        // 3. Sign; the token carries everything a downstream check needs
+        IssuedToken token = tokenIssuer.issue(subject, tenantId, roles);
+        List<String> roleNames = roles.stream().map(Role::name).sorted().toList();
+        long expiresIn = Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toSeconds());
+        return new TenantTokenResponse(token.value(), "Bearer", expiresIn, tenantId.value(), roleNames);
+    }
+}
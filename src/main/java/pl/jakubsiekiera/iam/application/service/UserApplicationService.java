@@ -1,5 +1,8 @@
 package pl.jakubsiekiera.iam.application.service;
 
+import pl.jakubsiekiera.iam.domain.exception.EmailAlreadyInUseException;
+import pl.jakubsiekiera.iam.domain.exception.TenantNotFoundException;
+import pl.jakubsiekiera.iam.domain.exception.UserNotFoundException;
 import pl.jakubsiekiera.iam.application.dto.RegisterUserCommand;
 import pl.jakubsiekiera.iam.application.dto.UserResponse;
 import pl.jakubsiekiera.iam.domain.model.user.Email;
@@ -7,12 +10,15 @@ import pl.jakubsiekiera.iam.domain.model.user.User;
 import pl.jakubsiekiera.iam.domain.model.user.UserId;
 import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
 import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.event.UserMembershipChangedEvent;
 import pl.jakubsiekiera.iam.domain.repository.UserRepository;
 import pl.jakubsiekiera.iam.domain.repository.TenantRepository;
 import pl.jakubsiekiera.iam.domain.service.IdentityProvider; // Import the new interface
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +27,7 @@ public class UserApplicationService {
     private final UserRepository userRepository;
     private final TenantRepository tenantRepository;
     private final IdentityProvider identityProvider; // Inject the IDP adapter
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public UserResponse registerUser(RegisterUserCommand command) {
@@ -28,7 +35,7 @@ public class UserApplicationService {
 
         // 1. Check local uniqueness
         if (userRepository.findByEmail(email).isPresent()) {
-            throw new IllegalArgumentException("Email already in use: " + command.email());
+            throw new EmailAlreadyInUseException(command.email());
         }
 
         // 2. CALL KEYCLOAK (The Missing Step)
@@ -55,15 +62,18 @@ public class UserApplicationService {
     public void inviteUserToTenant(String tenantIdStr, String emailStr, String roleName) {
         TenantId tenantId = TenantId.fromString(tenantIdStr);
         if (tenantRepository.findById(tenantId).isEmpty()) {
-            throw new IllegalArgumentException("Tenant not found: " + tenantIdStr);
+            throw new TenantNotFoundException(tenantIdStr);
         }
 
         Email email = new Email(emailStr);
         User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with email: " + emailStr));
+                .orElseThrow(() -> new UserNotFoundException(emailStr));
 
-        Role role = new Role(roleName);
+        Role role = Role.of(roleName);
         user.addToTenant(tenantId, role);
         userRepository.save(user);
+
+        // Lets membership-derived caches (e.g. token authorities) drop this user's entry
+        eventPublisher.publishEvent(new UserMembershipChangedEvent(user.getId(), user.getKeycloakId(), tenantId, Instant.now()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package pl.jakubsiekiera.iam.domain.event;
+
+import java.time.Instant;
+
+/**
+ * Something that happened in the domain. Events are immutable records named in the past tense;
+ * they are published through Spring's ApplicationEventPublisher and, once their transaction
+ * has committed, consumed by {@link DomainEventSubscriber}s.
+ */
+public interface DomainEvent {
+
+    Instant occurredOn();
+}
@@ -0,0 +1,31 @@
+package pl.jakubsiekiera.iam.domain.event;
+
+/**
+ * Consumer of one type of committed {@link DomainEvent}, fed by the in-process event bus.
+ * * Subscribers run on a dedicated background thread, one event at a time and in publication
+ * order, so they need no synchronization of their own but should not block for long: a slow
+ * subscriber eventually pushes back on publishers.
+ *
+ * @param <E> the event type handled (subtypes included)
+ */
+public interface DomainEventSubscriber<E extends DomainEvent> {
+
+    Class<E> eventType();
+
+    void handle(E event);
+
+    /**
+     * Called after each batch of consecutive events (including filtered-out ones), before the
+     * subscriber's position in the stream advances: the place to group-commit buffered work.
+     */
+    default void onBatchEnd() {
+    }
+
+    /**
+     * Called when the bus drops an event this subscriber would have handled (ring full, bus not
+     * running), so it can at least record that something is missing. Runs on the publishing
+     * thread, possibly concurrently with {@link #handle}: keep it cheap and thread-safe.
+     */
+    default void onDropped(E event) {
+    }
+}
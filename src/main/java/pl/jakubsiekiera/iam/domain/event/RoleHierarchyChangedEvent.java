@@ -0,0 +1,11 @@
+package pl.jakubsiekiera.iam.domain.event;
+
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+
+import java.time.Instant;
+
+// Effective roles of every member of this tenant may have changed
+public record RoleHierarchyChangedEvent(
+    TenantId tenantId,
+    Instant occurredOn
+) implements DomainEvent {}
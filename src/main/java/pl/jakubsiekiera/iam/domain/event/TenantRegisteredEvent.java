@@ -8,4 +8,4 @@ public record TenantRegisteredEvent(
     TenantId tenantId, 
     String name, 
     Instant occurredOn
-) {}
+) implements DomainEvent {}
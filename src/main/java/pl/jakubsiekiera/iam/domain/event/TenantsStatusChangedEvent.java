@@ -0,0 +1,14 @@
+package pl.jakubsiekiera.iam.domain.event;
+
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import java.time.Instant;
+import java.util.List;
+
+// Published once per committed chunk of a bulk status change, so consumers
+// (caches, authorization decisions) can evict a whole batch of tenants at once
+public record TenantsStatusChangedEvent(
+    List<TenantId> tenantIds,
+    TenantStatus status,
+    Instant occurredOn
+) implements DomainEvent {}
@@ -0,0 +1,13 @@
+package pl.jakubsiekiera.iam.domain.event;
+
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.UserId;
+import java.time.Instant;
+
+// A user's roles within a tenant changed; anything derived from memberships is now stale
+public record UserMembershipChangedEvent(
+    UserId userId,
+    String keycloakId,
+    TenantId tenantId,
+    Instant occurredOn
+) implements DomainEvent {}
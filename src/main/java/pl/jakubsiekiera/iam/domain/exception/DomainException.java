@@ -0,0 +1,37 @@
+package pl.jakubsiekiera.iam.domain.exception;
+
+/**
+ * Base class for expected business failures (unknown tenant, email already in use, ...).
+ * * These are outcomes, not bugs: they are thrown on hot paths (signup storms, retries) and
+ * always handled, so a stack trace would never be read. Capturing one is the expensive part
+ * of creating an exception, hence every DomainException is stackless (and has no suppressed
+ * exceptions). The message and the {@link #code()} carry all the information there is.
+ * * The web adapter maps the {@link Category} to an HTTP status and the code to an RFC 7807
+ * problem type; the domain stays unaware of HTTP.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    public enum Category {
+        NOT_FOUND,  // The referenced resource doesn't exist
+        CONFLICT,   // The request clashes with the current state (duplicates, ...)
+        INVALID     // The request itself is malformed or out of bounds
+    }
+
+    private final Category category;
+    private final String code;
+
+    protected DomainException(Category category, String code, String message) {
+        super(message, null, false, false); // No suppression, no stack trace
+        this.category = category;
+        this.code = code;
+    }
+
+    public Category category() {
+        return category;
+    }
+
+    // Stable, machine-readable identifier such as "tenant-not-found"
+    public String code() {
+        return code;
+    }
+}
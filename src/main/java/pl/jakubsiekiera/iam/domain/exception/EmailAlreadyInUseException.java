@@ -0,0 +1,8 @@
+package pl.jakubsiekiera.iam.domain.exception;
+
+public class EmailAlreadyInUseException extends DomainException {
+
+    public EmailAlreadyInUseException(String email) {
+        super(Category.CONFLICT, "email-already-in-use", "Email already in use: " + email);
+    }
+}
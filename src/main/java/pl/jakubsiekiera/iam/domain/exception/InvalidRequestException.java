@@ -0,0 +1,12 @@
+package pl.jakubsiekiera.iam.domain.exception;
+
+/**
+ * A request the service refuses as such: batch over its limit, foreign page cursor, reserved
+ * characters in a role name. Value-object invariants keep using IllegalArgumentException.
+ */
+public class InvalidRequestException extends DomainException {
+
+    public InvalidRequestException(String message) {
+        super(Category.INVALID, "invalid-request", message);
+    }
+}
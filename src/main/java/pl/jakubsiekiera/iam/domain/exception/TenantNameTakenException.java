@@ -0,0 +1,8 @@
+package pl.jakubsiekiera.iam.domain.exception;
+
+public class TenantNameTakenException extends DomainException {
+
+    public TenantNameTakenException(String name) {
+        super(Category.CONFLICT, "tenant-name-taken", "Tenant with name '" + name + "' already exists");
+    }
+}
@@ -0,0 +1,8 @@
+package pl.jakubsiekiera.iam.domain.exception;
+
+public class TenantNotFoundException extends DomainException {
+
+    public TenantNotFoundException(Object tenantId) {
+        super(Category.NOT_FOUND, "tenant-not-found", "Tenant not found: " + tenantId);
+    }
+}
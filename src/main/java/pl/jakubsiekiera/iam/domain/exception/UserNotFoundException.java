@@ -0,0 +1,8 @@
+package pl.jakubsiekiera.iam.domain.exception;
+
+public class UserNotFoundException extends DomainException {
+
+    public UserNotFoundException(String email) {
+        super(Category.NOT_FOUND, "user-not-found", "User not found with email: " + email);
+    }
+}
@@ -0,0 +1,77 @@
+package pl.jakubsiekiera.iam.domain.model.permission;
+
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.model.user.RoleHierarchy;
+
+import java.util.Collection;
+import java.util.EnumSet;
+
+/**
+ * Permission policies compiled into lookup tables, e.g.
+ * <pre>
+ *   tenant:users:invite = role(ADMIN) and status(ACTIVE)
+ * </pre>
+ * Built once at load time (see {@link #compile(String)}); evaluation allocates nothing:
+ * 1. {@link #roleMask} turns the caller's roles into a 64-bit mask (one bit per role that any
+ *    policy mentions) - compute it once per request and reuse it for every check,
+ * 2. {@link #isPermitted} indexes the table by (permission, tenant status) and tests a handful
+ *    of precomputed clause masks against it.
+ */
+public final class CompiledPolicies {
+
+    private final Role[] roles;          // Bit number -> role referenced by some policy
+    private final long[][][] all;        // [permission][status][clause]: roles that must all be held
+    private final long[][][] none;       // [permission][status][clause]: roles that must not be held
+
+    CompiledPolicies(Role[] roles, long[][][] all, long[][][] none) {
+        this.roles = roles;
+        this.all = all;
+        this.none = none;
+    }
+
+    /**
+     * @throws IllegalArgumentException with the offending line number if the source is invalid.
+     */
+    public static CompiledPolicies compile(String source) {
+        return PolicyCompiler.compile(source);
+    }
+
+    /**
+     * Mask of policy roles the caller effectively holds, honouring the tenant's role hierarchy.
+     */
+    public long roleMask(Collection<Role> held, RoleHierarchy hierarchy) {
+        long mask = 0;
+        for (int bit = 0; bit < roles.length; bit++) {
+            if (hierarchy.hasEffectiveRole(held, roles[bit])) {
+                mask |= 1L << bit;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * The authorization hot path.
+     */
+    public boolean isPermitted(Permission permission, long roleMask, TenantStatus status) {
+        long[] required = all[permission.ordinal()][status.ordinal()];
+        long[] forbidden = none[permission.ordinal()][status.ordinal()];
+        for (int i = 0; i < required.length; i++) {
+            if ((roleMask & required[i]) == required[i] && (roleMask & forbidden[i]) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Everything the caller may do; allocates, meant for "what can I do here?" responses
+    public EnumSet<Permission> permitted(long roleMask, TenantStatus status) {
+        EnumSet<Permission> result = EnumSet.noneOf(Permission.class);
+        for (Permission permission : Permission.values()) {
+            if (isPermitted(permission, roleMask, status)) {
+                result.add(permission);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+package pl.jakubsiekiera.iam.domain.model.permission;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fine-grained actions inside a tenant. Which roles (and tenant states) grant each one
+ * is not hardcoded here but defined by policies, see {@link CompiledPolicies}.
+ */
+public enum Permission {
+    TENANT_READ("tenant:read"),
+    TENANT_USERS_LIST("tenant:users:list"),
+    TENANT_USERS_INVITE("tenant:users:invite"),
+    TENANT_ROLES_MANAGE("tenant:roles:manage"),
+    TENANT_TOKENS_EXCHANGE("tenant:tokens:exchange");
+
+    private static final Map<String, Permission> BY_CODE = new HashMap<>();
+
+    static {
+        for (Permission permission : values()) {
+            BY_CODE.put(permission.code, permission);
+        }
+    }
+
+    private final String code;
+
+    Permission(String code) {
+        this.code = code;
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public static Permission fromCode(String code) {
+        Permission permission = BY_CODE.get(code);
+        if (permission == null) {
+            throw new IllegalArgumentException("Unknown permission: " + code);
+        }
+        return permission;
+    }
+}
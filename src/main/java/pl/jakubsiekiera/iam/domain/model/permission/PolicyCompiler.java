@@ -0,0 +1,273 @@
+package pl.jakubsiekiera.iam.domain.model.permission;
+
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses the policy language and compiles it into clause tables.
+ * * Grammar (one policy per line, '#' starts a comment):
+ * <pre>
+ *   policy  := PERMISSION '=' expr
+ *   expr    := term ('or' term)*
+ *   term    := factor ('and' factor)*
+ *   factor  := 'not' factor | '(' expr ')' | 'role(' NAME ')' | 'status(' STATUS ')' | 'true' | 'false'
+ * </pre>
+ * Compilation happens per {@link TenantStatus}: status atoms are folded into constants and
+ * what remains (a function of roles only) is rewritten into disjunctive normal form, i.e. a
+ * list of clauses "all of these roles and none of those". Each clause is a pair of 64-bit
+ * role masks, so evaluation is a few AND/compare instructions per clause.
+ */
+final class PolicyCompiler {
+
+    // Role masks are single longs
+    static final int MAX_ROLES = 64;
+    // DNF can blow up exponentially; policies this large are a mistake, not a use case
+    static final int MAX_CLAUSES = 1_024;
+
+    private PolicyCompiler() {
+    }
+
+    // --- AST ---
+
+    sealed interface Expr permits Const, RoleAtom, StatusAtom, Not, And, Or {}
+    record Const(boolean value) implements Expr {}
+    record RoleAtom(Role role) implements Expr {}
+    record StatusAtom(TenantStatus status) implements Expr {}
+    record Not(Expr operand) implements Expr {}
+    record And(Expr left, Expr right) implements Expr {}
+    record Or(Expr left, Expr right) implements Expr {}
+
+    // One DNF clause: every 'all' bit must be held, no 'none' bit may be held
+    record Clause(long all, long none) {}
+
+    static CompiledPolicies compile(String source) {
+        // 1. Parse every line, numbering roles in order of first appearance
+        Map<Permission, Expr> policies = new EnumMap<>(Permission.class);
+        LinkedHashMap<Role, Integer> roleBits = new LinkedHashMap<>();
+        String[] lines = source.split("\\R");
+        for (int n = 0; n < lines.length; n++) {
+            String line = stripComment(lines[n]).strip();
+            if (line.isEmpty()) continue;
+            int eq = line.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Policy line " + (n + 1) + ": expected '<permission> = <expression>'");
+            }
+            Permission permission = Permission.fromCode(line.substring(0, eq).strip());
+            if (policies.containsKey(permission)) {
+                throw new IllegalArgumentException("Policy line " + (n + 1) + ": duplicate policy for " + permission.code());
+            }
+            try {
+                policies.put(permission, new Parser(line.substring(eq + 1), roleBits).parseAll());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Policy line " + (n + 1) + ": " + e.getMessage(), e);
+            }
+        }
+
+        // 2. Compile each (permission, status) pair into clause tables; missing policies deny
+        TenantStatus[] statuses = TenantStatus.values();
+        Permission[] permissions = Permission.values();
+        long[][][] all = new long[permissions.length][statuses.length][];
+        long[][][] none = new long[permissions.length][statuses.length][];
+        for (Permission permission : permissions) {
+            Expr policy = policies.getOrDefault(permission, new Const(false));
+            for (TenantStatus status : statuses) {
+                List<Clause> clauses = dnf(policy, false, status, roleBits);
+                long[] a = new long[clauses.size()];
+                long[] b = new long[clauses.size()];
+                for (int i = 0; i < clauses.size(); i++) {
+                    a[i] = clauses.get(i).all();
+                    b[i] = clauses.get(i).none();
+                }
+                all[permission.ordinal()][status.ordinal()] = a;
+                none[permission.ordinal()][status.ordinal()] = b;
+            }
+        }
+        return new CompiledPolicies(roleBits.keySet().toArray(Role[]::new), all, none);
+    }
+
+    /**
+     * Rewrites 'expr' (negated if 'negated') into DNF for one tenant status, pushing negations
+     * down to the atoms (De Morgan) on the way.
+     */
+    static List<Clause> dnf(Expr expr, boolean negated, TenantStatus status, Map<Role, Integer> roleBits) {
+        return switch (expr) {
+            case Const c -> (c.value() != negated) ? List.of(new Clause(0, 0)) : List.of();
+            case StatusAtom s -> ((s.status() == status) != negated) ? List.of(new Clause(0, 0)) : List.of();
+            case RoleAtom r -> {
+                long bit = 1L << roleBits.get(r.role());
+                yield List.of(negated ? new Clause(0, bit) : new Clause(bit, 0));
+            }
+            case Not n -> dnf(n.operand(), !negated, status, roleBits);
+            case And a -> negated
+                    ? union(dnf(a.left(), true, status, roleBits), dnf(a.right(), true, status, roleBits))
+                    : product(dnf(a.left(), false, status, roleBits), dnf(a.right(), false, status, roleBits));
+            case Or o -> negated
+                    ? product(dnf(o.left(), true, status, roleBits), dnf(o.right(), true, status, roleBits))
+                    : union(dnf(o.left(), false, status, roleBits), dnf(o.right(), false, status, roleBits));
+        };
+    }
+
+    private static List<Clause> union(List<Clause> left, List<Clause> right) {
+        LinkedHashSet<Clause> result = new LinkedHashSet<>(left);
+        result.addAll(right);
+        return simplify(result);
+    }
+
+    private static List<Clause> product(List<Clause> left, List<Clause> right) {
+        LinkedHashSet<Clause> result = new LinkedHashSet<>();
+        for (Clause l : left) {
+            for (Clause r : right) {
+                long all = l.all() | r.all();
+                long none = l.none() | r.none();
+                if ((all & none) == 0) { // "role X and not role X" can never hold
+                    result.add(new Clause(all, none));
+                }
+            }
+        }
+        return simplify(result);
+    }
+
+    // Drops clauses implied by a weaker one (so "true or ..." collapses to a single empty clause)
+    private static List<Clause> simplify(LinkedHashSet<Clause> clauses) {
+        List<Clause> result = new ArrayList<>(clauses.size());
+        outer:
+        for (Clause c : clauses) {
+            for (Clause other : clauses) {
+                boolean weaker = !other.equals(c)
+                        && (other.all() & c.all()) == other.all()
+                        && (other.none() & c.none()) == other.none();
+                if (weaker) continue outer;
+            }
+            result.add(c);
+        }
+        if (result.size() > MAX_CLAUSES) {
+            throw new IllegalArgumentException("Policy is too complex (more than " + MAX_CLAUSES + " clauses)");
+        }
+        return result;
+    }
+
+    private static String stripComment(String line) {
+        int hash = line.indexOf('#');
+        return hash < 0 ? line : line.substring(0, hash);
+    }
+
+    /**
+     * Recursive-descent parser over a single expression.
+     */
+    private static final class Parser {
+        private final String input;
+        private final Map<Role, Integer> roleBits;
+        private int pos;
+
+        Parser(String input, Map<Role, Integer> roleBits) {
+            this.input = input;
+            this.roleBits = roleBits;
+        }
+
+        Expr parseAll() {
+            Expr expr = expr();
+            skipWhitespace();
+            if (pos < input.length()) {
+                throw new IllegalArgumentException("unexpected '" + input.substring(pos) + "'");
+            }
+            return expr;
+        }
+
+        private Expr expr() {
+            Expr left = term();
+            while (keyword("or")) {
+                left = new Or(left, term());
+            }
+            return left;
+        }
+
+        private Expr term() {
+            Expr left = factor();
+            while (keyword("and")) {
+                left = new And(left, factor());
+            }
+            return left;
+        }
+
+        private Expr factor() {
+            skipWhitespace();
+            if (keyword("not")) return new Not(factor());
+            if (keyword("true")) return new Const(true);
+            if (keyword("false")) return new Const(false);
+            if (symbol('(')) {
+                Expr inner = expr();
+                expect(')');
+                return inner;
+            }
+            if (keyword("role")) {
+                Role role = new Role(argument());
+                if (!roleBits.containsKey(role)) {
+                    if (roleBits.size() == MAX_ROLES) {
+                        throw new IllegalArgumentException("policies may reference at most " + MAX_ROLES + " roles");
+                    }
+                    roleBits.put(role, roleBits.size());
+                }
+                return new RoleAtom(role);
+            }
+            if (keyword("status")) {
+                String name = argument();
+                try {
+                    return new StatusAtom(TenantStatus.valueOf(name));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("unknown tenant status '" + name + "'");
+                }
+            }
+            throw new IllegalArgumentException("expected an expression at '" + input.substring(pos).strip() + "'");
+        }
+
+        private String argument() {
+            expect('(');
+            int close = input.indexOf(')', pos);
+            if (close < 0) {
+                throw new IllegalArgumentException("missing ')'");
+            }
+            String value = input.substring(pos, close).strip();
+            pos = close + 1;
+            return value;
+        }
+
+        // Matches a whole word only, so 'order' is not read as 'or' + 'der'
+        private boolean keyword(String word) {
+            skipWhitespace();
+            int end = pos + word.length();
+            if (input.startsWith(word, pos) && (end == input.length() || !Character.isLetterOrDigit(input.charAt(end)))) {
+                pos = end;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean symbol(char c) {
+            skipWhitespace();
+            if (pos < input.length() && input.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!symbol(c)) {
+                throw new IllegalArgumentException("expected '" + c + "'");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+}
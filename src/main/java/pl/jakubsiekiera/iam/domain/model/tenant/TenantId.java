@@ -1,21 +1,31 @@
 package pl.jakubsiekiera.iam.domain.model.tenant;
 
+import java.security.SecureRandom;
 import java.util.UUID;
 
 public record TenantId(UUID value) {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     public TenantId {
         if (value == null) {
             throw new IllegalArgumentException("TenantId value cannot be null");
         }
     }
 
-    // Factory method for generating new IDs
+    // Factory method for generating new IDs.
+    // Uses UUIDv7 (RFC 9562): the leading 48 bits are the Unix epoch in millis, so new ids
+    // append to the right edge of the primary key index and sort in creation order.
     public static TenantId generate() {
-        return new TenantId(UUID.randomUUID());
+        long millis = System.currentTimeMillis();
+        long randA = RANDOM.nextLong();
+        long randB = RANDOM.nextLong();
+        long msb = (millis << 16) | 0x7000L | (randA & 0x0FFFL); // 48-bit timestamp | version 7 | 12 random bits
+        long lsb = (randB & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // IETF variant | 62 random bits
+        return new TenantId(new UUID(msb, lsb));
     }
 
     // Factory method for string parsing (useful for APIs)
     public static TenantId fromString(String uuid) {
         return new TenantId(UUID.fromString(uuid));
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,121 @@
 package pl.jakubsiekiera.iam.domain.model.user;
 
-import java.util.regex.Pattern;
+/**
+ * Email address Value Object.
+ * * Accepts exactly the grammar of the former regex
+ *     ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$
+ * i.e. a non-empty local part, one '@', and a domain whose last label (after the last dot,
+ * which can't be the domain's first character) is at least two letters.
+ * * Emails are built on every registration, invite, lookup and repository rehydration, so
+ * validation is a single hand-written pass over the characters: no Matcher, no
+ * backtracking. The same pass records whether any upper-case letter occurs, which lets the
+ * canonical lower-case form be computed once, and for the common all-lower-case address be
+ * the very same String instance.
+ * * A final class rather than a record only because of the cached {@link #normalized()} form;
+ * equality, hashing and toString are still defined by {@link #value()} alone.
+ */
+public final class Email {
 
-public record Email(String value) {
-    private static final Pattern EMAIL_REGEX = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+    private final String value;
+    private final String normalized;
 
-    public Email {
-        if (value == null || !EMAIL_REGEX.matcher(value).matches()) {
+    public Email(String value) {
+        if (value == null || !isValid(value)) {
             throw new IllegalArgumentException("Invalid email format");
         }
+        this.value = value;
+        this.normalized = hasUpperCase(value) ? toLowerAscii(value) : value;
     }
-}
\ No newline at end of file
+
+    public String value() {
+        return value;
+    }
+
+    // Case-insensitive lookup key; matches the lower(email) index on the users table
+    public String normalized() {
+        return normalized;
+    }
+
+    /**
+     * Single-pass check of the grammar described on the class.
+     */
+    static boolean isValid(String s) {
+        int length = s.length();
+        int at = -1;
+        int lastDot = -1;           // Last '.' of the domain, relative to the whole string
+        boolean tldLetters = false; // Every char after lastDot is a letter (so far)
+
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (at < 0) {
+                // Local part
+                if (c == '@') {
+                    if (i == 0) {
+                        return false;
+                    }
+                    at = i;
+                } else if (!isAlnum(c) && c != '+' && c != '_' && c != '.' && c != '-') {
+                    return false;
+                }
+            } else if (c == '.') {
+                lastDot = i;
+                tldLetters = true;
+            } else if (isLetter(c)) {
+                // Letters are allowed everywhere in the domain and keep a TLD valid
+            } else if (isDigit(c) || c == '-') {
+                tldLetters = false;
+            } else {
+                return false; // Includes a second '@'
+            }
+        }
+        // The dot needs a non-empty label before it, and at least two letters after it
+        return at >= 0 && lastDot > at + 1 && tldLetters && length - lastDot - 1 >= 2;
+    }
+
+    private static boolean hasUpperCase(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The grammar is pure ASCII, so no locale-aware lower-casing is needed
+    private static String toLowerAscii(String s) {
+        char[] chars = new char[s.length()];
+        for (int i = 0; i < chars.length; i++) {
+            char c = s.charAt(i);
+            chars[i] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return new String(chars);
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAlnum(char c) {
+        return isLetter(c) || isDigit(c);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Email other && value.equals(other.value));
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Email[value=" + value + "]";
+    }
+}
@@ -0,0 +1,374 @@
+package pl.jakubsiekiera.iam.domain.model.user;
+
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact storage for a user's tenant memberships.
+ * * Tenant ids live in two parallel long[] columns (UUID high/low bits) sorted the way Postgres
+ * orders UUIDs, with one role bit mask per entry: 24 bytes per membership instead of the few
+ * hundred a HashMap entry, TenantId, TenantMembership and HashSet&lt;Role&gt; used to cost.
+ * Lookups are a binary search and allocate nothing.
+ * * Mask bit i stands for roles[i], a per-user table of the distinct roles held across all
+ * tenants. Users hold a handful of distinct roles, so each entry's mask is normally a single
+ * long; past 64 distinct roles every entry is widened to as many longs as needed ('words').
+ * * Not thread-safe, like the aggregate that owns it.
+ */
+public final class MembershipTable {
+
+    private long[] high;
+    private long[] low;
+    private long[] masks; // 'words' longs per entry
+    private int words = 1;
+    private int size;
+
+    private Role[] roles;
+    private int roleCount;
+
+    public MembershipTable() {
+        this(4);
+    }
+
+    private MembershipTable(int capacity) {
+        this.high = new long[capacity];
+        this.low = new long[capacity];
+        this.masks = new long[capacity];
+        this.roles = new Role[2];
+    }
+
+    /**
+     * Bulk loading (rehydration): rows are appended in whatever order storage returns them and
+     * sorted once in {@link Builder#build()}.
+     */
+    public static Builder builder(int expectedMemberships) {
+        return new Builder(expectedMemberships);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(TenantId tenantId) {
+        UUID id = tenantId.value();
+        return indexOf(id.getMostSignificantBits(), id.getLeastSignificantBits()) >= 0;
+    }
+
+    /**
+     * Roles held in the tenant, as an immutable snapshot; empty if the user isn't a member.
+     */
+    public Set<Role> rolesFor(TenantId tenantId) {
+        UUID id = tenantId.value();
+        int index = indexOf(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        return index < 0 ? Set.of() : roleSet(index);
+    }
+
+    /**
+     * Grants the role in the tenant, creating the membership if needed (a sorted insert).
+     */
+    public void add(TenantId tenantId, Role role) {
+        UUID id = tenantId.value();
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        int bit = bitFor(role);
+
+        int index = indexOf(hi, lo);
+        if (index >= 0) {
+            setBit(index, bit);
+            return;
+        }
+        int insertAt = -(index + 1);
+        ensureCapacity(size + 1);
+        int tail = size - insertAt;
+        System.arraycopy(high, insertAt, high, insertAt + 1, tail);
+        System.arraycopy(low, insertAt, low, insertAt + 1, tail);
+        System.arraycopy(masks, insertAt * words, masks, (insertAt + 1) * words, tail * words);
+        high[insertAt] = hi;
+        low[insertAt] = lo;
+        Arrays.fill(masks, insertAt * words, (insertAt + 1) * words, 0L);
+        setBit(insertAt, bit);
+        size++;
+    }
+
+    /**
+     * Visits every membership in tenant id order.
+     */
+    public void forEach(BiConsumer<TenantId, Set<Role>> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(new TenantId(new UUID(high[i], low[i])), roleSet(i));
+        }
+    }
+
+    /**
+     * Materialises the classic object-per-membership view. Allocates; meant for callers that
+     * want a Map, not for hot paths.
+     */
+    public Map<TenantId, TenantMembership> toMap() {
+        Map<TenantId, TenantMembership> map = LinkedHashMap.newLinkedHashMap(size);
+        forEach((tenantId, held) -> map.put(tenantId, TenantMembership.rehydrate(tenantId, new HashSet<>(held))));
+        return map;
+    }
+
+    // --- internals ---
+
+    // Binary search over (high, low) compared as one unsigned 128-bit number; returns the index,
+    // or -(insertion point + 1) like Arrays.binarySearch.
+    private int indexOf(long hi, long lo) {
+        int from = 0;
+        int to = size - 1;
+        while (from <= to) {
+            int mid = (from + to) >>> 1;
+            int cmp = compare(high[mid], low[mid], hi, lo);
+            if (cmp < 0) {
+                from = mid + 1;
+            } else if (cmp > 0) {
+                to = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(from + 1);
+    }
+
+    private static int compare(long hi1, long lo1, long hi2, long lo2) {
+        int cmp = Long.compareUnsigned(hi1, hi2);
+        return cmp != 0 ? cmp : Long.compareUnsigned(lo1, lo2);
+    }
+
+    // Index of the role in the per-user role table (its mask bit), appending it if new
+    private int bitFor(Role role) {
+        for (int i = 0; i < roleCount; i++) {
+            if (roles[i].equals(role)) {
+                return i;
+            }
+        }
+        // Slots are only ever appended, so RoleSets holding the previous array stay valid
+        if (roleCount == roles.length) {
+            roles = Arrays.copyOf(roles, roleCount * 2);
+        }
+        if (roleCount == words * Long.SIZE) {
+            widen();
+        }
+        roles[roleCount] = role;
+        return roleCount++;
+    }
+
+    private void setBit(int entry, int bit) {
+        masks[entry * words + (bit >>> 6)] |= 1L << bit;
+    }
+
+    // Rare: the 65th (129th, ...) distinct role. Re-lays the masks out with one more long each.
+    private void widen() {
+        int wider = words + 1;
+        long[] widened = new long[high.length * wider];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(masks, i * words, widened, i * wider, words);
+        }
+        masks = widened;
+        words = wider;
+    }
+
+    private RoleSet roleSet(int entry) {
+        return words == 1
+                ? new RoleSet(roles, masks[entry], null)
+                : new RoleSet(roles, 0L, Arrays.copyOfRange(masks, entry * words, (entry + 1) * words));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > high.length) {
+            int grown = Math.max(capacity, high.length + (high.length >> 1) + 1);
+            high = Arrays.copyOf(high, grown);
+            low = Arrays.copyOf(low, grown);
+            masks = Arrays.copyOf(masks, grown * words);
+        }
+    }
+
+    private void swap(int i, int j) {
+        long t = high[i]; high[i] = high[j]; high[j] = t;
+        t = low[i]; low[i] = low[j]; low[j] = t;
+        for (int w = 0; w < words; w++) {
+            t = masks[i * words + w]; masks[i * words + w] = masks[j * words + w]; masks[j * words + w] = t;
+        }
+    }
+
+    // In-place heapsort of the three columns: O(n log n), no boxing or index arrays
+    private void sort() {
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i, size);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+    }
+
+    private void siftDown(int root, int end) {
+        while (true) {
+            int child = 2 * root + 1;
+            if (child >= end) {
+                return;
+            }
+            if (child + 1 < end && compare(high[child], low[child], high[child + 1], low[child + 1]) < 0) {
+                child++;
+            }
+            if (compare(high[root], low[root], high[child], low[child]) >= 0) {
+                return;
+            }
+            swap(root, child);
+            root = child;
+        }
+    }
+
+    // Folds adjacent duplicates (after sorting) into one entry
+    private void mergeDuplicates() {
+        if (size < 2) {
+            return;
+        }
+        int write = 0;
+        for (int read = 1; read < size; read++) {
+            if (high[read] == high[write] && low[read] == low[write]) {
+                for (int w = 0; w < words; w++) {
+                    masks[write * words + w] |= masks[read * words + w];
+                }
+            } else {
+                write++;
+                high[write] = high[read];
+                low[write] = low[read];
+                System.arraycopy(masks, read * words, masks, write * words, words);
+            }
+        }
+        size = write + 1;
+    }
+
+    /**
+     * Single-use loader for rehydration. Consecutive roles for the same tenant (one CSV row)
+     * share an entry; anything else is sorted and merged once at the end.
+     */
+    public static final class Builder {
+
+        private final MembershipTable table;
+        private boolean sorted = true;
+
+        private Builder(int expectedMemberships) {
+            this.table = new MembershipTable(expectedMemberships);
+        }
+
+        public Builder add(UUID tenantId, Role role) {
+            MembershipTable t = table;
+            long hi = tenantId.getMostSignificantBits();
+            long lo = tenantId.getLeastSignificantBits();
+            int bit = t.bitFor(role);
+            int last = t.size - 1;
+            if (last >= 0) {
+                int cmp = compare(t.high[last], t.low[last], hi, lo);
+                if (cmp == 0) {
+                    t.setBit(last, bit);
+                    return this;
+                }
+                if (cmp > 0) {
+                    sorted = false;
+                }
+            }
+            t.ensureCapacity(t.size + 1);
+            t.high[t.size] = hi;
+            t.low[t.size] = lo;
+            t.setBit(t.size, bit); // Slots past 'size' are still zero
+            t.size++;
+            return this;
+        }
+
+        public MembershipTable build() {
+            if (!sorted) {
+                table.sort();
+                table.mergeDuplicates();
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Immutable view of one mask over the role table. Bits already set never change meaning,
+     * so the view stays correct while the table grows. The mask is a single long unless the
+     * table has been widened, in which case 'wide' holds a copy of all its words.
+     */
+    private static final class RoleSet extends AbstractSet<Role> {
+
+        private final Role[] roles;
+        private final long mask;
+        private final long[] wide;
+
+        RoleSet(Role[] roles, long mask, long[] wide) {
+            this.roles = roles;
+            this.mask = mask;
+            this.wide = wide;
+        }
+
+        private int wordCount() {
+            return wide == null ? 1 : wide.length;
+        }
+
+        private long word(int w) {
+            return wide == null ? mask : wide[w];
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (int w = 0; w < wordCount(); w++) {
+                size += Long.bitCount(word(w));
+            }
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            for (int w = 0; w < wordCount(); w++) {
+                for (long bits = word(w); bits != 0; bits &= bits - 1) {
+                    if (roles[w * Long.SIZE + Long.numberOfTrailingZeros(bits)].equals(o)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Iterator<Role> iterator() {
+            return new Iterator<>() {
+                private int w;
+                private long remaining = word(0);
+
+                @Override
+                public boolean hasNext() {
+                    while (remaining == 0 && w + 1 < wordCount()) {
+                        remaining = word(++w);
+                    }
+                    return remaining != 0;
+                }
+
+                @Override
+                public Role next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Role role = roles[w * Long.SIZE + Long.numberOfTrailingZeros(remaining)];
+                    remaining &= remaining - 1;
+                    return role;
+                }
+            };
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package pl.jakubsiekiera.iam.domain.model.user;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 public record Role(String name) {
     public Role {
         if (name == null || name.isBlank()) throw new IllegalArgumentException("Role name cannot be empty");
@@ -8,4 +10,45 @@ public record Role(String name) {
     // Standard roles
     public static final Role ADMIN = new Role("ADMIN");
     public static final Role MEMBER = new Role("MEMBER");
-}
\ No newline at end of file
+
+    // Role names are few and repeat across every membership row, so instances are shared.
+    // The bound only guards against unexpected cardinality; past it, roles are simply not interned.
+    private static final int MAX_INTERNED = 4_096;
+    private static final ConcurrentHashMap<String, Role> INTERNED = new ConcurrentHashMap<>();
+
+    static {
+        INTERNED.put(ADMIN.name(), ADMIN);
+        INTERNED.put(MEMBER.name(), MEMBER);
+    }
+
+    /**
+     * Canonical instance for a role name (equal to, and interchangeable with, {@code new Role(name)}).
+     */
+    public static Role of(String name) {
+        Role role = INTERNED.get(name);
+        if (role != null) {
+            return role;
+        }
+        role = new Role(name);
+        if (INTERNED.size() < MAX_INTERNED) {
+            Role existing = INTERNED.putIfAbsent(name, role);
+            return existing != null ? existing : role;
+        }
+        return role;
+    }
+
+    /**
+     * Canonical instance for the role named by {@code source[from, to)}, e.g. one entry of a
+     * CSV column. The standard roles are recognised in place, without creating a substring.
+     */
+    public static Role of(String source, int from, int to) {
+        int length = to - from;
+        if (length == 5 && source.startsWith("ADMIN", from)) {
+            return ADMIN;
+        }
+        if (length == 6 && source.startsWith("MEMBER", from)) {
+            return MEMBER;
+        }
+        return of(source.substring(from, to));
+    }
+}
@@ -0,0 +1,179 @@
+package pl.jakubsiekiera.iam.domain.model.user;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A tenant's role inheritance ("OWNER implies ADMIN, ADMIN implies MEMBER"), as an immutable Value Object.
+ * * The transitive closure is computed once, when the hierarchy is built (i.e. when it is saved),
+ * and stored as one bitset row per role: bit j of row i is set when role i implies role j.
+ * "Does any of these held roles imply R?" is then one array lookup plus one bit test per held
+ * role, no matter how deep the hierarchy is.
+ * * Every role implies itself, including roles the hierarchy doesn't mention.
+ */
+public final class RoleHierarchy {
+
+    // Bounds the closure at ~3 MB (5000 x 5000 bits) for a single tenant
+    public static final int MAX_ROLES = 5_000;
+
+    // What callers used to hardcode; used for tenants that never defined their own hierarchy
+    public static final RoleHierarchy DEFAULT = of(Map.of(Role.ADMIN, Set.of(Role.MEMBER)));
+
+    private final Map<Role, Set<Role>> declared;   // As defined, for persistence and display
+    private final Map<Role, Integer> index;        // Role -> row/bit number
+    private final Role[] roles;                    // Bit number -> Role
+    private final long[][] closure;                // closure[i] = bitset of roles implied by roles[i]
+
+    private RoleHierarchy(Map<Role, Set<Role>> declared, Map<Role, Integer> index, Role[] roles, long[][] closure) {
+        this.declared = declared;
+        this.index = index;
+        this.roles = roles;
+        this.closure = closure;
+    }
+
+    /**
+     * Builds a hierarchy and computes its closure.
+     * * @param inherits For each role, the roles it directly implies.
+     * @throws IllegalArgumentException if the definition contains a cycle or too many roles.
+     */
+    public static RoleHierarchy of(Map<Role, ? extends Collection<Role>> inherits) {
+        // 1. Number every role that appears anywhere in the definition
+        Map<Role, Set<Role>> declared = new LinkedHashMap<>();
+        Map<Role, Integer> index = new HashMap<>();
+        List<Role> roles = new ArrayList<>();
+        for (Map.Entry<Role, ? extends Collection<Role>> entry : inherits.entrySet()) {
+            register(entry.getKey(), index, roles);
+            Set<Role> children = new LinkedHashSet<>();
+            for (Role child : entry.getValue()) {
+                register(child, index, roles);
+                if (!child.equals(entry.getKey())) {
+                    children.add(child); // Self-implication is implicit
+                }
+            }
+            if (!children.isEmpty()) {
+                declared.put(entry.getKey(), Collections.unmodifiableSet(children));
+            }
+        }
+        if (roles.size() > MAX_ROLES) {
+            throw new IllegalArgumentException("A role hierarchy cannot contain more than " + MAX_ROLES + " roles");
+        }
+
+        // 2. Adjacency as ints, plus in-degrees for a topological sort
+        int n = roles.size();
+        int[][] edges = new int[n][];
+        int[] inDegree = new int[n];
+        for (int i = 0; i < n; i++) {
+            Set<Role> children = declared.getOrDefault(roles.get(i), Set.of());
+            edges[i] = new int[children.size()];
+            int k = 0;
+            for (Role child : children) {
+                int c = index.get(child);
+                edges[i][k++] = c;
+                inDegree[c]++;
+            }
+        }
+
+        // 3. Kahn's algorithm; leftovers mean a cycle ("A implies B implies A" is a misconfiguration)
+        int[] order = new int[n];
+        int sorted = 0;
+        ArrayDeque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            if (inDegree[i] == 0) ready.add(i);
+        }
+        while (!ready.isEmpty()) {
+            int i = ready.poll();
+            order[sorted++] = i;
+            for (int c : edges[i]) {
+                if (--inDegree[c] == 0) ready.add(c);
+            }
+        }
+        if (sorted < n) {
+            throw new IllegalArgumentException("Role hierarchy contains a cycle");
+        }
+
+        // 4. Closure in reverse topological order: every child's row is final before its parents read it
+        int words = (n + 63) >>> 6;
+        long[][] closure = new long[n][words];
+        for (int k = n - 1; k >= 0; k--) {
+            int i = order[k];
+            long[] row = closure[i];
+            row[i >>> 6] |= 1L << i;
+            for (int c : edges[i]) {
+                long[] childRow = closure[c];
+                for (int w = 0; w < words; w++) {
+                    row[w] |= childRow[w];
+                }
+            }
+        }
+        return new RoleHierarchy(Collections.unmodifiableMap(declared), Map.copyOf(index), roles.toArray(Role[]::new), closure);
+    }
+
+    /**
+     * True if holding 'held' grants 'required' (directly or through any chain of inheritance).
+     */
+    public boolean implies(Role held, Role required) {
+        if (held.equals(required)) {
+            return true;
+        }
+        Integer i = index.get(held);
+        Integer j = index.get(required);
+        return i != null && j != null && (closure[i][j >>> 6] & (1L << j)) != 0;
+    }
+
+    /**
+     * The authorization check: does any of the held roles grant 'required'?
+     */
+    public boolean hasEffectiveRole(Collection<Role> held, Role required) {
+        for (Role role : held) {
+            if (implies(role, required)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Held roles plus everything they imply.
+     */
+    public Set<Role> effectiveRoles(Collection<Role> held) {
+        Set<Role> effective = new LinkedHashSet<>(held);
+        for (Role role : held) {
+            Integer i = index.get(role);
+            if (i == null) continue;
+            long[] row = closure[i];
+            for (int w = 0; w < row.length; w++) {
+                long bits = row[w];
+                while (bits != 0) {
+                    effective.add(roles[(w << 6) + Long.numberOfTrailingZeros(bits)]);
+                    bits &= bits - 1; // Clear the lowest set bit
+                }
+            }
+        }
+        return effective;
+    }
+
+    public Map<Role, Set<Role>> declaredInheritance() {
+        return declared;
+    }
+
+    public int roleCount() {
+        return roles.length;
+    }
+
+    private static void register(Role role, Map<Role, Integer> index, List<Role> roles) {
+        if (role == null) {
+            throw new IllegalArgumentException("Role cannot be null");
+        }
+        if (index.putIfAbsent(role, roles.size()) == null) {
+            roles.add(role);
+        }
+    }
+}
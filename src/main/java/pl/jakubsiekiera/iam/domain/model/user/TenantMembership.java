@@ -15,6 +15,19 @@ public class TenantMembership {
         this.roles.add(initialRole);
     }
 
+    /**
+     * Rehydration from storage: takes ownership of the given (mutable, already filled) set
+     * instead of copying it role by role.
+     */
+    public static TenantMembership rehydrate(TenantId tenantId, Set<Role> roles) {
+        return new TenantMembership(tenantId, roles);
+    }
+
+    private TenantMembership(TenantId tenantId, Set<Role> roles) {
+        this.tenantId = tenantId;
+        this.roles = roles;
+    }
+
     public void addRole(Role role) {
         this.roles.add(role);
     }
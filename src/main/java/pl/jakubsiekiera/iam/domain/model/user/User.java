@@ -1,11 +1,13 @@
 package pl.jakubsiekiera.iam.domain.model.user;
 
 import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import lombok.AccessLevel;
 import lombok.Getter;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 @Getter
 public class User {
@@ -13,14 +15,29 @@ public class User {
     private final String keycloakId; // Link to Identity Provider
     private final Email email;
     // NO PASSWORD FIELD HERE
-    
-    private final Map<TenantId, TenantMembership> memberships = new HashMap<>();
+
+    // Sorted tenant id columns + role masks; see MembershipTable for the layout
+    @Getter(AccessLevel.NONE)
+    private final MembershipTable memberships;
 
     // Internal Constructor
     public User(UserId id, String keycloakId, Email email) {
+        this(id, keycloakId, email, new MembershipTable());
+    }
+
+    private User(UserId id, String keycloakId, Email email, MembershipTable memberships) {
         this.id = id;
         this.keycloakId = keycloakId;
         this.email = email;
+        this.memberships = memberships;
+    }
+
+    /**
+     * Rehydration from storage: the caller bulk-loads the membership table and the user takes
+     * ownership of it, skipping one addToTenant call per role.
+     */
+    public static User rehydrate(UserId id, String keycloakId, Email email, MembershipTable memberships) {
+        return new User(id, keycloakId, email, memberships);
     }
 
     // Factory: Register a new user (initially not part of any tenant, or maybe a default one)
@@ -29,20 +46,31 @@ public class User {
     }
 
     // Business Logic: Invite/Add to Tenant
+    // Already a member? The role is OR-ed into the existing mask; otherwise a membership is created.
     public void addToTenant(TenantId tenantId, Role role) {
-        if (memberships.containsKey(tenantId)) {
-            // Already a member? Just add the role
-            memberships.get(tenantId).addRole(role);
-        } else {
-            // New membership
-            memberships.put(tenantId, new TenantMembership(tenantId, role));
-        }
+        memberships.add(tenantId, role);
     }
 
     public Set<Role> getRolesForTenant(TenantId tenantId) {
-        if (!memberships.containsKey(tenantId)) {
-            return Set.of();
-        }
-        return memberships.get(tenantId).getRoles();
+        return memberships.rolesFor(tenantId);
+    }
+
+    public int membershipCount() {
+        return memberships.size();
+    }
+
+    /**
+     * Visits every membership without materialising the map view.
+     */
+    public void forEachMembership(BiConsumer<TenantId, Set<Role>> action) {
+        memberships.forEach(action);
+    }
+
+    /**
+     * Object-per-membership snapshot (read-only). Allocates a map entry per tenant; prefer
+     * {@link #getRolesForTenant} and {@link #forEachMembership} on hot paths.
+     */
+    public Map<TenantId, TenantMembership> getMemberships() {
+        return Collections.unmodifiableMap(memberships.toMap());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package pl.jakubsiekiera.iam.domain.repository;
+
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.RoleHierarchy;
+
+import java.util.Optional;
+
+public interface RoleHierarchyRepository {
+    void save(TenantId tenantId, RoleHierarchy hierarchy);
+    // Empty when the tenant never defined a hierarchy (callers fall back to RoleHierarchy.DEFAULT)
+    Optional<RoleHierarchy> findByTenantId(TenantId tenantId);
+}
@@ -2,10 +2,17 @@ package pl.jakubsiekiera.iam.domain.repository;
 
 import pl.jakubsiekiera.iam.domain.model.tenant.Tenant;
 import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TenantRepository {
     void save(Tenant tenant);
     Optional<Tenant> findById(TenantId id);
-    boolean existsByName(String name);
-}
\ No newline at end of file
+    // Resolves many ids in a single round trip; ids that don't exist are simply absent from the result
+    List<Tenant> findAllByIds(Collection<TenantId> ids);
+    // Persists only the status of already existing tenants, as one set-based statement per status
+    void updateStatuses(Collection<Tenant> tenants);
+    // Inserts a new tenant in a single statement; returns false (writing nothing) if the name is taken, ignoring case
+    boolean insertIfNameAvailable(Tenant tenant);
+}
@@ -9,4 +9,5 @@ public interface UserRepository {
     void save(User user);
     Optional<User> findById(UserId id);
     Optional<User> findByEmail(Email email);
+    Optional<User> findByKeycloakId(String keycloakId);
 }
\ No newline at end of file
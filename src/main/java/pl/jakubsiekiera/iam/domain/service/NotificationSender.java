@@ -0,0 +1,22 @@
+package pl.jakubsiekiera.iam.domain.service;
+
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+
+import java.util.List;
+
+/**
+ * Delivers notifications (welcome emails, ...) to a transport: SMTP, a mail API, a message broker.
+ * * Called with batches so transports that support bulk sends can use them. Throwing means the
+ * whole batch failed and may be retried, so implementations should be idempotent per
+ * {@link Notification#id()}.
+ */
+public interface NotificationSender {
+
+    void send(List<Notification> batch);
+
+    /**
+     * @param id       stable across retries, usable as a de-duplication key by the transport.
+     * @param tenantId the recipient; the transport resolves the tenant's contact addresses.
+     */
+    record Notification(String id, TenantId tenantId, String subject, String body) {}
+}
@@ -0,0 +1,22 @@
+package pl.jakubsiekiera.iam.domain.service;
+
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mints short-lived tokens that carry a caller's roles in one tenant, so downstream
+ * services can authorize offline by verifying the signature against {@link #publicKeys()}.
+ */
+public interface TenantTokenIssuer {
+
+    IssuedToken issue(String subject, TenantId tenantId, Set<Role> roles);
+
+    // JWKS document ({"keys": [...]}) with every key that may have signed an unexpired token
+    Map<String, Object> publicKeys();
+
+    record IssuedToken(String value, Instant expiresAt) {}
+}
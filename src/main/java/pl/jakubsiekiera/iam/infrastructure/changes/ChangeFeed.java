@@ -0,0 +1,358 @@
+package pl.jakubsiekiera.iam.infrastructure.changes;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import pl.jakubsiekiera.iam.application.dto.Change;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-out of tenant and membership changes to long-lived subscribers (the SSE change feed).
+ * * The source is the {@link ChangeOutbox}: changes are committed and numbered in Postgres, and
+ * the row id doubles as the resume cursor, valid on every instance and across redeploys. A
+ * single feed thread polls the outbox into a shared ring of the most recent 'buffer-size'
+ * changes, so N subscribers cost one query, not N.
+ * * The feed thread never writes to a client. Every subscriber has a bounded queue
+ * ('subscriber-queue-size') and its own virtual thread that drains it into the connection and
+ * sends the heartbeats; the feed thread only offers to the queues. A subscriber whose queue is
+ * full is disconnected (counted in 'iam.changes.overflowed') rather than slowing down the
+ * others: its client reconnects with Last-Event-ID and catches up.
+ * * Catching up is also done on the subscriber's own thread: a subscriber starting (or falling)
+ * further back than the ring reads the outbox in pages of 'page-size' until it is inside the
+ * ring, then hands over to the feed thread.
+ * * Ids are allocated before commit, so a lower id can become visible after a higher one. The
+ * feed never moves past a missing id until it has been missing for 'gap-grace': by then the
+ * transaction holding it has rolled back (a permanent hole, counted in 'iam.changes.skipped')
+ * or took longer than the grace period, and its change is not pushed live.
+ * * A cursor that is no longer retained ('iam.changes.retention'), or that this database never
+ * handed out, gets a {@link Change#RESET} change instead: the subscriber must resync from the
+ * read APIs, and continues with the changes after the reset's offset.
+ * * A subscriber filtered to one tenant gets every change projected to that tenant: the
+ * 'tenantIds' of a bulk status change are narrowed to the subscribed tenant before sending.
+ */
+@Component
+@ConditionalOnProperty(name = "iam.changes.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+    // Queued after the last live change when a subscriber falls out of the ring; compared by identity
+    private static final Change CATCH_UP = Change.reset(-1);
+
+    private final ChangeOutbox outbox;
+    private final Change[] recent; // Slot = id % length; only touched by the feed thread
+    private final int pageSize;
+    private final int queueSize;
+    private final Duration pollInterval;
+    private final long gapGraceNanos;
+    private final long heartbeatNanos;
+    private final Counter skipped;
+    private final Counter overflows;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    // Written by the feed thread only, read by the subscriber threads
+    private volatile long head; // Next id to load; 'recent' covers ids [head - length, head), holes included
+    private volatile long firstBuffered; // Ids before this were never loaded into 'recent'
+
+    // Feed thread only
+    private long holeAt = -1; // The missing id the feed is waiting for, if any...
+    private long holeSince; // ...and since when (nanoTime)
+
+    private volatile ScheduledExecutorService executor;
+
+    public ChangeFeed(
+            ChangeOutbox outbox,
+            MeterRegistry meterRegistry,
+            @Value("${iam.changes.buffer-size:4096}") int bufferSize,
+            @Value("${iam.changes.page-size:500}") int pageSize,
+            @Value("${iam.changes.subscriber-queue-size:1024}") int queueSize,
+            @Value("${iam.changes.poll-interval:100ms}") Duration pollInterval,
+            @Value("${iam.changes.gap-grace:10s}") Duration gapGrace,
+            @Value("${iam.changes.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.outbox = outbox;
+        this.recent = new Change[bufferSize];
+        this.pageSize = pageSize;
+        this.queueSize = queueSize;
+        this.pollInterval = pollInterval;
+        this.gapGraceNanos = gapGrace.toNanos();
+        this.heartbeatNanos = heartbeatInterval.toNanos();
+        this.skipped = Counter.builder("iam.changes.skipped").register(meterRegistry);
+        this.overflows = Counter.builder("iam.changes.overflowed").register(meterRegistry);
+        Gauge.builder("iam.changes.subscribers", subscriptions, List::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        init();
+        executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("change-feed").daemon().factory());
+        executor.scheduleWithFixedDelay(this::tick, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Live subscribers start after the newest committed change
+    synchronized void init() {
+        head = outbox.latestId() + 1;
+        firstBuffered = head;
+    }
+
+    @PreDestroy
+    void stop() {
+        ScheduledExecutorService running = executor;
+        if (running != null) {
+            running.shutdownNow();
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.worker.interrupt(); // Closes the connection on its way out
+        }
+    }
+
+    /**
+     * Registers a subscriber and starts its thread.
+     * @param fromOffset first change id to deliver, or a negative value to receive only new changes.
+     * @param tenantId   only deliver changes concerning this tenant; null for all.
+     */
+    public Subscription subscribe(long fromOffset, UUID tenantId, Sink sink) {
+        Subscription subscription = new Subscription(tenantId, sink);
+        // Live subscribers, and cursors we can't serve, start at the current end
+        if (fromOffset >= 0 && resumable(fromOffset)) {
+            subscription.next = fromOffset;
+        } else {
+            subscription.next = head;
+            subscription.reset = fromOffset >= 0;
+        }
+        subscriptions.add(subscription);
+        subscription.worker.start();
+        return subscription;
+    }
+
+    // Retained, or never purged, and not beyond anything this database has committed
+    private boolean resumable(long fromOffset) {
+        long oldest = outbox.oldestId();
+        long latest = outbox.latestId();
+        return fromOffset <= latest + 1 && (fromOffset >= oldest || oldest <= 1);
+    }
+
+    /**
+     * One round on the feed thread: load what the outbox committed, queue it for everyone.
+     */
+    synchronized void tick() {
+        try {
+            // 1. One query, shared by all subscribers
+            load();
+
+            // 2. Fan out; never blocks
+            for (Subscription subscription : subscriptions) {
+                enqueue(subscription);
+            }
+        } catch (RuntimeException e) {
+            log.error("Change feed round failed", e); // Must not cancel the scheduled task
+        }
+    }
+
+    private void load() {
+        while (true) {
+            List<Change> page = outbox.after(head - 1, pageSize);
+            for (Change change : page) {
+                if (change.offset() > head && !skipHole(change.offset())) {
+                    return; // Wait for the missing id
+                }
+                recent[slot(change.offset())] = change;
+                head = change.offset() + 1;
+            }
+            if (page.size() < pageSize) {
+                return;
+            }
+        }
+    }
+
+    // Ids [head, committed) are missing: in flight, or rolled back for good
+    private boolean skipHole(long committed) {
+        long now = System.nanoTime();
+        if (holeAt != head) {
+            holeAt = head;
+            holeSince = now;
+        }
+        if (now - holeSince < gapGraceNanos) {
+            return false;
+        }
+        log.debug("Change ids [{}, {}) stayed missing for {}, skipping them", head, committed,
+                Duration.ofNanos(gapGraceNanos));
+        skipped.increment(committed - head);
+        return true;
+    }
+
+    private void enqueue(Subscription subscription) {
+        if (!subscription.live) {
+            return; // Its own thread is catching up
+        }
+        // Fell out of the ring (a burst bigger than the ring in one round): back to catching up
+        if (subscription.next < oldestBuffered()) {
+            subscription.live = false;
+            if (!subscription.queue.offer(CATCH_UP)) {
+                subscription.overflow();
+            }
+            return;
+        }
+        long end = head;
+        for (long id = subscription.next; id < end; id++) {
+            Change change = recent[slot(id)];
+            if (change != null && change.offset() == id && subscription.wants(change)
+                    && !subscription.queue.offer(subscription.project(change))) {
+                subscription.overflow();
+                return;
+            }
+        }
+        subscription.next = Math.max(subscription.next, end); // A cursor from a faster instance can be ahead
+    }
+
+    private long oldestBuffered() {
+        return Math.max(firstBuffered, head - recent.length);
+    }
+
+    private int slot(long id) {
+        return (int) (id % recent.length);
+    }
+
+    int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Where a subscriber's changes go (e.g. an SSE connection). Called from the subscriber's own
+     * thread only, one call at a time.
+     */
+    public interface Sink {
+
+        void send(Change change) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    public final class Subscription {
+
+        private final UUID tenantId;
+        private final Sink sink;
+        private final BlockingQueue<Change> queue = new ArrayBlockingQueue<>(queueSize);
+        private final Thread worker = Thread.ofVirtual().name("change-feed-subscriber").unstarted(this::run);
+
+        // Owned by the subscriber thread while catching up, by the feed thread while live;
+        // 'live' hands it over, so it is written before 'live' is flipped
+        private long next;
+        private volatile boolean live;
+        private boolean reset;
+        private volatile boolean overflowed;
+        private volatile boolean cancelled;
+
+        private Subscription(UUID tenantId, Sink sink) {
+            this.tenantId = tenantId;
+            this.sink = sink;
+        }
+
+        private void run() {
+            try {
+                // 1. The cursor was purged or never issued: the client resyncs, then goes on from here
+                if (reset) {
+                    sink.send(Change.reset(next - 1));
+                }
+                boolean catchingUp = true;
+                while (!cancelled) {
+                    // 2. Behind the ring: read the outbox, page by page
+                    if (catchingUp) {
+                        catchingUp = !catchUp();
+                        continue;
+                    }
+                    // 3. Live: drain what the feed thread queued, in order, up to a CATCH_UP if any
+                    Change change = queue.poll(heartbeatNanos, TimeUnit.NANOSECONDS);
+                    if (overflowed) {
+                        log.debug("Disconnecting change feed subscriber: more than {} changes behind", queueSize);
+                        return;
+                    }
+                    if (change == null) {
+                        sink.heartbeat(); // Keeps idle connections (and the proxies in between) alive
+                    } else if (change == CATCH_UP) {
+                        catchingUp = true;
+                    } else {
+                        sink.send(change);
+                    }
+                }
+            } catch (IOException e) {
+                log.debug("Dropping change feed subscriber: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                // Cancelled, or the application is stopping
+            } finally {
+                subscriptions.remove(this);
+                if (!cancelled) {
+                    sink.close();
+                }
+            }
+        }
+
+        // One page from the outbox; true once inside the ring and handed over to the feed thread
+        private boolean catchUp() throws IOException {
+            long target = oldestBuffered();
+            if (next >= target) {
+                live = true;
+                return true;
+            }
+            List<Change> page = outbox.after(next - 1, pageSize);
+            long after = target; // Unless a full page stops short of the ring
+            if (page.size() == pageSize && page.getLast().offset() < target) {
+                after = page.getLast().offset() + 1;
+            }
+            for (Change change : page) {
+                if (change.offset() >= target) {
+                    break;
+                }
+                if (wants(change)) {
+                    sink.send(project(change));
+                }
+            }
+            next = after;
+            return false;
+        }
+
+        private boolean wants(Change change) {
+            return tenantId == null || change.concerns(tenantId);
+        }
+
+        // A tenant's subscriber never learns which other tenants a bulk change touched
+        private Change project(Change change) {
+            return tenantId == null ? change : change.forTenant(tenantId);
+        }
+
+        // Feed thread: stop feeding it, the subscriber thread disconnects
+        private void overflow() {
+            overflowed = true;
+            overflows.increment();
+            subscriptions.remove(this);
+        }
+
+        /**
+         * Stops delivery when the client has gone away; safe to call more than once and from
+         * any thread.
+         */
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            worker.interrupt();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package pl.jakubsiekiera.iam.infrastructure.changes;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pl.jakubsiekiera.iam.application.dto.Change;
+import pl.jakubsiekiera.iam.domain.event.DomainEvent;
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.ChangeEventJpaEntity;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaChangeEventRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Postgres outbox behind the change feed (table 'change_events').
+ * * Every change event published through Spring is inserted before its transaction commits, in
+ * that transaction: the row exists if and only if the change committed, whichever instance
+ * made it. The row id is the feed cursor, so a client can resume on any instance, and after a
+ * redeploy, for as long as 'iam.changes.retention' keeps the row.
+ * * Events published outside a transaction (none today) are inserted on their own.
+ */
+@Component
+@ConditionalOnProperty(name = "iam.changes.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeOutbox.class);
+
+    private final JpaChangeEventRepository repository;
+    private final Duration retention;
+
+    public ChangeOutbox(
+            JpaChangeEventRepository repository,
+            @Value("${iam.changes.retention:P7D}") Duration retention) {
+        this.repository = repository;
+        this.retention = retention;
+    }
+
+    // A failure here fails the commit: a change is never applied without its outbox row
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void record(DomainEvent event) {
+        Change change = Change.from(0, event); // The id is assigned by the insert
+        if (change != null) {
+            repository.save(toEntity(change));
+        }
+    }
+
+    /**
+     * Committed changes with an id above 'afterId', in id order. Ids can have holes.
+     */
+    public List<Change> after(long afterId, int limit) {
+        List<ChangeEventJpaEntity> rows = repository.findPageAfter(afterId, limit);
+        List<Change> changes = new ArrayList<>(rows.size());
+        for (ChangeEventJpaEntity row : rows) {
+            changes.add(toChange(row));
+        }
+        return changes;
+    }
+
+    // Lowest id still retained, or 0 when there are none
+    public long oldestId() {
+        Long min = repository.findMinId();
+        return min == null ? 0 : min;
+    }
+
+    // Highest committed id, or 0 when there are none
+    public long latestId() {
+        Long max = repository.findMaxId();
+        return max == null ? 0 : max;
+    }
+
+    @Scheduled(fixedDelayString = "${iam.changes.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = repository.deleteOlderThan(Instant.now().minus(retention));
+        if (purged > 0) {
+            log.debug("Purged {} changes older than {}", purged, retention);
+        }
+    }
+
+    static ChangeEventJpaEntity toEntity(Change change) {
+        ChangeEventJpaEntity entity = new ChangeEventJpaEntity();
+        entity.setType(change.type());
+        StringBuilder tenantIds = new StringBuilder(change.tenantIds().size() * 37);
+        for (UUID tenantId : change.tenantIds()) {
+            if (!tenantIds.isEmpty()) {
+                tenantIds.append(',');
+            }
+            tenantIds.append(tenantId);
+        }
+        entity.setTenantIds(tenantIds.toString());
+        entity.setUserId(change.userId());
+        entity.setName(change.name());
+        entity.setStatus(change.status());
+        entity.setOccurredOn(change.occurredOn());
+        return entity;
+    }
+
+    static Change toChange(ChangeEventJpaEntity row) {
+        List<UUID> tenantIds = new ArrayList<>();
+        String csv = row.getTenantIds();
+        int start = 0;
+        while (start < csv.length()) {
+            int end = csv.indexOf(',', start);
+            if (end < 0) {
+                end = csv.length();
+            }
+            tenantIds.add(UUID.fromString(csv.substring(start, end)));
+            start = end + 1;
+        }
+        return new Change(row.getId(), row.getType(), List.copyOf(tenantIds), row.getUserId(),
+                row.getName(), row.getStatus(), row.getOccurredOn());
+    }
+}
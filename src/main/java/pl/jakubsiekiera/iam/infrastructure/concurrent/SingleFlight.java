@@ -0,0 +1,63 @@
+package pl.jakubsiekiera.iam.infrastructure.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one execution ("single-flight").
+ * * The first caller for a key runs the loader; everyone arriving while it is still running
+ * waits for, and receives, that same result (or exception). Nothing is cached: once the call
+ * completes the key is released and the next caller starts a fresh execution.
+ *
+ * @param <K> key identifying identical work
+ * @param <V> result type
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            return await(leader); // Somebody is already doing this exact work
+        }
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (Throwable t) {
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Whether a call for this key is running right now; a hint, it may finish right after
+    public boolean isInFlight(K key) {
+        return inFlight.containsKey(key);
+    }
+
+    // Number of keys currently being computed (for metrics and tests)
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            // Re-throw the leader's own exception so followers fail exactly like it did
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
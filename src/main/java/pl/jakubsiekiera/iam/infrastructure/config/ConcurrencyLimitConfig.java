@@ -0,0 +1,25 @@
+package pl.jakubsiekiera.iam.infrastructure.config;
+
+import pl.jakubsiekiera.iam.infrastructure.overload.AdaptiveConcurrencyLimiter;
+import pl.jakubsiekiera.iam.infrastructure.overload.ConcurrencyLimitFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the load-shedding filter ahead of the Spring Security filter chain (order -100):
+ * overload must be detected before any per-request work such as JWT verification is done.
+ */
+@Configuration
+@ConditionalOnProperty(name = "iam.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limiter));
+        registration.setOrder(-200);
+        return registration;
+    }
+}
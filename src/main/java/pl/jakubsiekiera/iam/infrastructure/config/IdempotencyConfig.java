@@ -0,0 +1,29 @@
+package pl.jakubsiekiera.iam.infrastructure.config;
+
+import pl.jakubsiekiera.iam.infrastructure.idempotency.IdempotencyFilter;
+import pl.jakubsiekiera.iam.infrastructure.idempotency.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Registers Idempotency-Key handling behind authentication and rate limiting (order 0),
+ * so rejected or unauthenticated requests never claim a key.
+ */
+@Configuration
+@ConditionalOnProperty(name = "iam.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore store,
+            @Value("${iam.idempotency.max-body-size:64KB}") DataSize maxBodySize) {
+        IdempotencyFilter filter = new IdempotencyFilter(store, Math.toIntExact(maxBodySize.toBytes()));
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(10);
+        return registration;
+    }
+}
@@ -8,6 +8,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Configuration class to initialize the Keycloak Admin Client.
  * This bean allows the application to interact with Keycloak's REST API 
@@ -32,12 +35,26 @@ public class KeycloakConfig {
     @Value("${keycloak.admin.password:admin}")
     private String adminPassword;
 
+    // Bounds every admin call; together they must stay well below 'iam.idempotency.lease',
+    // or a slow registration outlives its idempotency claim and a retry runs it again
+    @Value("${keycloak.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${keycloak.read-timeout:5s}")
+    private Duration readTimeout;
+
     /**
      * Creates a singleton Bean of the Keycloak client.
      * Uses the Password Grant Type to authenticate as an admin user.
      */
     @Bean
     public Keycloak keycloak() {
+        // Custom HTTP client configuration to manage the connection pool size and timeouts
+        ResteasyClientBuilderImpl httpClient = new ResteasyClientBuilderImpl();
+        httpClient.connectionPoolSize(10);
+        httpClient.connectTimeout(connectTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        httpClient.readTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS);
+
         return KeycloakBuilder.builder()
                 .serverUrl(authServerUrl)
                 // We authenticate against the 'master' realm to get cross-realm admin rights
@@ -48,10 +65,7 @@ public class KeycloakConfig {
                 .password(adminPassword)
                 // 'admin-cli' is the default Keycloak client ID for administrative tasks
                 .clientId("admin-cli")
-                // Custom HTTP client configuration to manage the connection pool size
-                .resteasyClient(new ResteasyClientBuilderImpl()
-                        .connectionPoolSize(10)
-                        .build())
+                .resteasyClient(httpClient.build())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package pl.jakubsiekiera.iam.infrastructure.config;
+
+import pl.jakubsiekiera.iam.domain.model.permission.CompiledPolicies;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads and compiles the permission policies once at startup.
+ * A syntax error fails the application context instead of surfacing on the first request.
+ */
+@Configuration
+public class PermissionPolicyConfig {
+
+    @Bean
+    public CompiledPolicies permissionPolicies(
+            @Value("${iam.permissions.policy-location:classpath:permissions.policy}") Resource location) throws IOException {
+        return CompiledPolicies.compile(location.getContentAsString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,24 @@
+package pl.jakubsiekiera.iam.infrastructure.config;
+
+import pl.jakubsiekiera.iam.infrastructure.ratelimit.RateLimitFilter;
+import pl.jakubsiekiera.iam.infrastructure.ratelimit.TenantRateLimiter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the write-endpoint rate limiter right behind the Spring Security filter chain
+ * (which runs at order -100), so the authenticated caller is known when we pick buckets.
+ */
+@Configuration
+@ConditionalOnProperty(name = "iam.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(TenantRateLimiter limiter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(new RateLimitFilter(limiter));
+        registration.setOrder(0);
+        return registration;
+    }
+}
@@ -0,0 +1,13 @@
+package pl.jakubsiekiera.iam.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on @Scheduled processing for background maintenance tasks
+ * (e.g. refreshing the JWKS signing keys ahead of rotation).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,11 +1,22 @@
 package pl.jakubsiekiera.iam.infrastructure.config;
 
+import pl.jakubsiekiera.iam.infrastructure.security.CachingJwtDecoder;
+import pl.jakubsiekiera.iam.infrastructure.security.JwksKeyManager;
+import pl.jakubsiekiera.iam.infrastructure.security.MembershipAuthorityCache;
+import pl.jakubsiekiera.iam.infrastructure.security.TenantAuthenticationConverter;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
-import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
 /**
@@ -21,9 +32,14 @@ public class SecurityConfig {
      * takes the returned SecurityFilterChain, and stores it in the Application Context (the "vault").
      * * @param http: This is Dependency Injection. Spring provides this HttpSecurity builder 
      * automatically so we can "draw" our security rules onto it.
+     * @param operatorAuthority: Required for every Actuator endpoint except health; metrics and
+     * dead letters span all tenants.
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(
+            HttpSecurity http,
+            MembershipAuthorityCache membershipAuthorities,
+            @Value("${iam.security.operator-authority:SCOPE_iam:operator}") String operatorAuthority) throws Exception {
         http
             // 1. Disable CSRF: Since this is likely a stateless API, we disable 
             // Cross-Site Request Forgery protection to allow POST requests from external clients.
@@ -34,11 +50,17 @@ public class SecurityConfig {
                 // Registration endpoints
                 .requestMatchers(HttpMethod.POST, "/api/v1/tenants", "/api/v1/users").permitAll()
 
+                // Keys for verifying tenant-context tokens are public by design
+                .requestMatchers(HttpMethod.GET, "/api/v1/tenant-tokens/jwks.json").permitAll()
+
                 // Exceptions can be rendered publicly
                 .requestMatchers("/error").permitAll()
 
-                // Allow access to Actuator health
-                .requestMatchers("/actuator/health").permitAll()
+                // Allow access to Actuator health (including the liveness/readiness probe groups)
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+
+                // The rest of Actuator (metrics, prometheus, deadletters, ...) is for platform operators only
+                .requestMatchers("/actuator/**").hasAuthority(operatorAuthority)
 
                 // Allow our test endpoint so we can check if Tempo receives the trace
                 .requestMatchers("/api/ping").permitAll()
@@ -48,13 +70,36 @@ public class SecurityConfig {
                 .anyRequest().authenticated()
             )
             // 3. Resource Server Configuration: Tells Spring to treat this app as an OAuth2 Resource Server.
-            // It will look for a Bearer Token (JWT) in the request headers and validate it 
-            // using the default settings (usually defined in application.properties/yml).
-            .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()));
+            // It will look for a Bearer Token (JWT) in the request headers, validate it with the
+            // caching JwtDecoder bean below, and enrich it with tenant roles from our own database.
+            .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt
+                .jwtAuthenticationConverter(new TenantAuthenticationConverter(membershipAuthorities))));
 
 
         // .build() converts our configuration into the actual FilterChain object 
         // that will sit in front of our application to guard it.
         return http.build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Replaces Spring Boot's auto-configured decoder (which backs off when this bean exists).
+     * * Keys come from {@link JwksKeyManager} instead of lazy OIDC discovery: they are prefetched
+     * at startup and refreshed in the background, so no request waits for a JWKS download.
+     * Claims (exp, nbf, iss) are checked by Spring's validators, exactly like the Boot default.
+     * Verified tokens are then cached until 'exp'.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(
+            JwksKeyManager jwksKeyManager,
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
+            @Value("${iam.security.token-cache.maximum-size:10000}") long tokenCacheSize) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwksKeyManager));
+        // Nimbus' own claim checks are disabled, the JwtValidators below replace them
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> { });
+
+        NimbusJwtDecoder keyManagedDecoder = new NimbusJwtDecoder(jwtProcessor);
+        keyManagedDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return new CachingJwtDecoder(keyManagedDecoder, tokenCacheSize);
+    }
+}
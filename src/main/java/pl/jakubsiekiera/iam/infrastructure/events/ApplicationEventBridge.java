@@ -0,0 +1,27 @@
+package pl.jakubsiekiera.iam.infrastructure.events;
+
+import pl.jakubsiekiera.iam.domain.event.DomainEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Forwards domain events that are published through Spring's ApplicationEventPublisher
+ * (registrations, membership, hierarchy and status changes: the change outbox must record them
+ * in their transaction and caches must be invalidated synchronously on commit) onto the domain
+ * event bus, so bus subscribers such as the welcome email and the journal see every event.
+ * * This is the bus's only entry point. It runs after commit, so the event goes straight into the
+ * ring and a rolled-back transaction publishes nothing.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationEventBridge {
+
+    private final RingBufferEventBus bus;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(DomainEvent event) {
+        bus.publish(event);
+    }
+}
@@ -0,0 +1,139 @@
+package pl.jakubsiekiera.iam.infrastructure.events;
+
+import pl.jakubsiekiera.iam.domain.event.DomainEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer, multi-consumer ring of event slots, allocated once up front.
+ * * Producers claim a sequence with a CAS on 'claimed', so each slot has exactly one writer,
+ * write the event and then release the slot by storing its sequence in 'published'. Each
+ * consumer owns a gating sequence (the last sequence it has processed); a producer may only
+ * claim a slot once every consumer has moved past the previous lap, which is what turns a
+ * full buffer into backpressure.
+ * * Slots are not cleared after consumption: with several consumers none of them knows it is the
+ * last reader. The buffer therefore retains at most 'capacity' already-handled events.
+ */
+final class EventRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final DomainEvent[] slots;
+    private final AtomicLongArray published; // Sequence last released into each slot
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong[] gates;
+
+    // Last observed minimum of the gates; stale values are safe (they only cause a re-check)
+    private volatile long cachedMinGate = -1;
+
+    EventRingBuffer(int capacity, int consumers) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer size must be a power of two >= 2, was " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.slots = new DomainEvent[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.gates = new AtomicLong[consumers];
+        for (int i = 0; i < consumers; i++) {
+            gates[i] = new AtomicLong(-1);
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Claims the next sequence, waiting while the buffer is full.
+     * @return the claimed sequence, or -1 if no slot freed up within the timeout.
+     */
+    long claim(long timeoutNanos) {
+        long deadline = 0;
+        while (true) {
+            long current = claimed.get();
+            long next = current + 1;
+            long wrapPoint = next - capacity;
+            if (wrapPoint > cachedMinGate) {
+                long min = minGate(next - 1);
+                cachedMinGate = min;
+                if (wrapPoint > min) {
+                    // Full: the slowest consumer still needs the slot we would overwrite
+                    long now = System.nanoTime();
+                    if (deadline == 0) {
+                        deadline = now + timeoutNanos;
+                    } else if (now - deadline >= 0) {
+                        return -1;
+                    }
+                    LockSupport.parkNanos(10_000);
+                    continue;
+                }
+            }
+            if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Writes the event and releases the slot; the volatile store orders the slot write before it.
+     */
+    void publish(long sequence, DomainEvent event) {
+        int index = (int) (sequence & mask);
+        slots[index] = event;
+        published.set(index, sequence);
+    }
+
+    /**
+     * Highest sequence from 'from' on that is published without gaps, or from - 1 if 'from'
+     * itself isn't published yet. Bounded by 'limit' so a consumer batch stays short.
+     */
+    long highestPublished(long from, int limit) {
+        long last = from - 1;
+        long end = from + limit;
+        for (long sequence = from; sequence < end; sequence++) {
+            if (published.get((int) (sequence & mask)) != sequence) {
+                break;
+            }
+            last = sequence;
+        }
+        return last;
+    }
+
+    // Only valid for sequences reported by highestPublished and not yet passed by the gate
+    DomainEvent get(long sequence) {
+        return slots[(int) (sequence & mask)];
+    }
+
+    long gate(int consumer) {
+        return gates[consumer].get();
+    }
+
+    // Release store: the producer reading it must see the consumer done with those slots
+    void advanceGate(int consumer, long sequence) {
+        gates[consumer].lazySet(sequence);
+    }
+
+    long claimedSequence() {
+        return claimed.get();
+    }
+
+    /** Events claimed but not yet processed by the slowest consumer. */
+    long backlog() {
+        long head = claimed.get();
+        return head - minGate(head);
+    }
+
+    private long minGate(long ceiling) {
+        long min = ceiling;
+        for (AtomicLong gate : gates) {
+            min = Math.min(min, gate.get());
+        }
+        return min;
+    }
+}
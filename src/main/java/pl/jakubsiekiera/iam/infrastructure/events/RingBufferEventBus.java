@@ -0,0 +1,267 @@
+package pl.jakubsiekiera.iam.infrastructure.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import pl.jakubsiekiera.iam.domain.event.DomainEvent;
+import pl.jakubsiekiera.iam.domain.event.DomainEventSubscriber;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process domain event bus on top of a pre-allocated {@link EventRingBuffer}.
+ * * Publishing never calls subscribers: the event goes into the ring and the request thread
+ * returns. Events only arrive here once their transaction has committed, forwarded by
+ * {@link ApplicationEventBridge}, so a rollback publishes nothing. Every subscriber has its own consumer thread
+ * that drains the ring in batches, so a slow subscriber only delays itself, until it falls a
+ * full ring behind; from then on publishers wait for it, for at most 'publish-timeout', after
+ * which the event is dropped and counted rather than stalling the caller indefinitely. Every
+ * subscriber that would have received a dropped event is told through
+ * {@link DomainEventSubscriber#onDropped}.
+ * * Dispatch is a Class.isInstance check and a direct interface call, no reflection.
+ * * Metrics: 'iam.events.published', 'iam.events.dropped', 'iam.events.failed{subscriber}'
+ * and the gauge 'iam.events.backlog'.
+ */
+@Component
+public class RingBufferEventBus implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RingBufferEventBus.class);
+
+    // Stop after the web server (which stops at DEFAULT_PHASE - 1024) has drained requests,
+    // so events from in-flight requests are still delivered
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final EventRingBuffer ring;
+    private final List<ConsumerLoop> consumers;
+    private final WaitStrategy waitStrategy;
+    private final long publishTimeoutNanos;
+    private final int maxBatchSize;
+
+    private final Counter published;
+    private final Counter dropped;
+
+    private volatile boolean running;
+
+    @Autowired
+    public RingBufferEventBus(
+            ObjectProvider<DomainEventSubscriber<?>> subscribers,
+            MeterRegistry meterRegistry,
+            @Value("${iam.events.ring-buffer-size:1024}") int ringBufferSize,
+            @Value("${iam.events.wait-strategy:SLEEPING}") WaitStrategy waitStrategy,
+            @Value("${iam.events.publish-timeout:1s}") Duration publishTimeout,
+            @Value("${iam.events.max-batch-size:256}") int maxBatchSize) {
+        this(subscribers.orderedStream().toList(), meterRegistry, ringBufferSize, waitStrategy, publishTimeout, maxBatchSize);
+    }
+
+    RingBufferEventBus(
+            List<DomainEventSubscriber<?>> subscribers,
+            MeterRegistry meterRegistry,
+            int ringBufferSize,
+            WaitStrategy waitStrategy,
+            Duration publishTimeout,
+            int maxBatchSize) {
+        this.ring = new EventRingBuffer(ringBufferSize, subscribers.size());
+        this.waitStrategy = waitStrategy;
+        this.publishTimeoutNanos = publishTimeout.toNanos();
+        this.maxBatchSize = maxBatchSize;
+
+        this.consumers = new ArrayList<>(subscribers.size());
+        for (int i = 0; i < subscribers.size(); i++) {
+            DomainEventSubscriber<?> subscriber = subscribers.get(i);
+            String name = ClassUtils.getUserClass(subscriber).getSimpleName();
+            Counter failed = Counter.builder("iam.events.failed").tag("subscriber", name).register(meterRegistry);
+            consumers.add(new ConsumerLoop(i, name, subscriber, failed));
+        }
+
+        this.published = Counter.builder("iam.events.published").register(meterRegistry);
+        this.dropped = Counter.builder("iam.events.dropped").register(meterRegistry);
+        Gauge.builder("iam.events.backlog", ring, EventRingBuffer::backlog).register(meterRegistry);
+    }
+
+    /**
+     * Releases an already committed event to subscribers (see ApplicationEventBridge).
+     */
+    void publish(DomainEvent event) {
+        if (!running) {
+            log.warn("Event bus is not running, dropping {}", event);
+            drop(event);
+            return;
+        }
+        // 1. Claim a slot; waits (backpressure) while the slowest subscriber is a full ring behind
+        long sequence = ring.claim(publishTimeoutNanos);
+        if (sequence < 0) {
+            log.error("Event ring buffer stayed full for {} ms, dropping {}",
+                    TimeUnit.NANOSECONDS.toMillis(publishTimeoutNanos), event);
+            drop(event);
+            return;
+        }
+
+        // 2. Release it to the consumers
+        ring.publish(sequence, event);
+        published.increment();
+        if (waitStrategy.signalsConsumers()) {
+            for (ConsumerLoop consumer : consumers) {
+                consumer.wakeUp();
+            }
+        }
+    }
+
+    private void drop(DomainEvent event) {
+        dropped.increment();
+        for (ConsumerLoop consumer : consumers) {
+            consumer.dropped(event);
+        }
+    }
+
+    // --- Lifecycle ---
+
+    @Override
+    public void start() {
+        running = true;
+        for (ConsumerLoop consumer : consumers) {
+            consumer.start();
+        }
+    }
+
+    /**
+     * Stops accepting events, lets every consumer drain what was already published and waits
+     * (bounded) for them to finish.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        for (ConsumerLoop consumer : consumers) {
+            consumer.wakeUp();
+        }
+        for (ConsumerLoop consumer : consumers) {
+            consumer.join(Duration.ofSeconds(5));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * One subscriber's consumer: a thread that follows the ring with its own gating sequence.
+     */
+    private final class ConsumerLoop implements Runnable {
+
+        private final int index;
+        private final String name;
+        private final DomainEventSubscriber<?> subscriber;
+        private final Counter failed;
+        private Thread thread;
+
+        ConsumerLoop(int index, String name, DomainEventSubscriber<?> subscriber, Counter failed) {
+            this.index = index;
+            this.name = name;
+            this.subscriber = subscriber;
+            this.failed = failed;
+        }
+
+        void start() {
+            thread = Thread.ofPlatform().name("domain-events-" + name).daemon().start(this);
+        }
+
+        void wakeUp() {
+            Thread t = thread;
+            if (t != null) {
+                LockSupport.unpark(t);
+            }
+        }
+
+        void join(Duration timeout) {
+            Thread t = thread;
+            if (t == null) {
+                return;
+            }
+            try {
+                if (!t.join(timeout)) {
+                    log.warn("Event subscriber {} did not drain within {}", name, timeout);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (true) {
+                long next = ring.gate(index) + 1;
+                long available = ring.highestPublished(next, maxBatchSize);
+                if (available < next) {
+                    // Nothing new; exit only once stopped and caught up with every claimed slot
+                    if (!running && ring.claimedSequence() < next) {
+                        return;
+                    }
+                    waitStrategy.idle(idle++);
+                    continue;
+                }
+                idle = 0;
+
+                // Handle the whole batch, then move the gate once
+                for (long sequence = next; sequence <= available; sequence++) {
+                    dispatch(ring.get(sequence));
+                }
+                endBatch();
+                ring.advanceGate(index, available);
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private void dispatch(DomainEvent event) {
+            if (!subscriber.eventType().isInstance(event)) {
+                return;
+            }
+            try {
+                ((DomainEventSubscriber) subscriber).handle(event);
+            } catch (RuntimeException e) {
+                // One bad event must not stop the subscriber; it is logged and skipped
+                failed.increment();
+                log.error("Event subscriber {} failed on {}", name, event, e);
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        void dropped(DomainEvent event) {
+            if (!subscriber.eventType().isInstance(event)) {
+                return;
+            }
+            try {
+                ((DomainEventSubscriber) subscriber).onDropped(event);
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.error("Event subscriber {} failed to record dropping {}", name, event, e);
+            }
+        }
+
+        private void endBatch() {
+            try {
+                subscriber.onBatchEnd();
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.error("Event subscriber {} failed to complete a batch", name, e);
+            }
+        }
+    }
+}
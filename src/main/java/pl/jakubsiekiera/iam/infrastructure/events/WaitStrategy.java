@@ -0,0 +1,65 @@
+package pl.jakubsiekiera.iam.infrastructure.events;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * What an event consumer does while the ring buffer has nothing new for it: the trade-off
+ * between wake-up latency and CPU burnt while idle ('iam.events.wait-strategy').
+ */
+public enum WaitStrategy {
+
+    /** Never gives up the core: lowest latency, one fully busy core per subscriber. */
+    BUSY_SPIN {
+        @Override
+        void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+
+    /** Spins briefly, then yields to other runnable threads. */
+    YIELDING {
+        @Override
+        void idle(int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+
+    /** Spins, yields, then parks for short periods: near-idle CPU, ~0.1 ms worst-case pickup. */
+    SLEEPING {
+        @Override
+        void idle(int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else if (attempt < SPIN_ATTEMPTS + YIELD_ATTEMPTS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(100_000);
+            }
+        }
+    },
+
+    /** Parks until a publisher wakes it up: no idle CPU, but every publish pays for an unpark. */
+    BLOCKING {
+        @Override
+        void idle(int attempt) {
+            LockSupport.parkNanos(1_000_000); // Bounded, so a missed signal only costs a millisecond
+        }
+    };
+
+    private static final int SPIN_ATTEMPTS = 100;
+    private static final int YIELD_ATTEMPTS = 100;
+
+    /**
+     * Called repeatedly while nothing is available; 'attempt' counts calls since the last event.
+     */
+    abstract void idle(int attempt);
+
+    /** Whether publishers must unpark consumers after each publish. */
+    boolean signalsConsumers() {
+        return this == BLOCKING;
+    }
+}
@@ -0,0 +1,230 @@
+package pl.jakubsiekiera.iam.infrastructure.idempotency;
+
+import pl.jakubsiekiera.iam.infrastructure.idempotency.IdempotencyStore.Claim;
+import pl.jakubsiekiera.iam.infrastructure.idempotency.IdempotencyStore.StoredResponse;
+import pl.jakubsiekiera.iam.adapters.web.ProblemDetails;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 'Idempotency-Key' support for registration and invite endpoints.
+ * * The first request with a key runs normally and its final response (anything but a 5xx) is
+ * recorded. Retries with the same key and body get that response replayed, marked with
+ * 'Idempotent-Replayed: true', and never reach the controller, so IdentityProvider and the
+ * repositories aren't touched again. Retries that arrive while the first request is still
+ * running get 409; reusing a key with a different body gets 422.
+ * * The body has to be buffered to be hashed, so it is capped at 'max-body-size' (413 beyond).
+ * The stored key is a SHA-256 of method, path, caller and client key, so it has a fixed length
+ * however long its parts are.
+ * * Registered after the Spring Security chain (see IdempotencyConfig), so keys of
+ * authenticated callers are scoped to their identity.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final PathPatternParser PARSER = PathPatternParser.defaultInstance;
+    private static final List<PathPattern> IDEMPOTENT = List.of(
+            PARSER.parse("/api/v1/users"),
+            PARSER.parse("/api/v1/tenants"),
+            PARSER.parse("/api/v1/tenants/{tenantId}/users"));
+
+    private final IdempotencyStore store;
+    private final int maxBodyBytes;
+
+    public IdempotencyFilter(IdempotencyStore store, int maxBodyBytes) {
+        this.store = store;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        return IDEMPOTENT.stream().noneMatch(pattern -> pattern.matches(path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String clientKey = request.getHeader(HEADER);
+        if (clientKey.isBlank() || clientKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "invalid-idempotency-key", HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        // 1. The body is read once, up to the cap: it is hashed here and replayed to the controller below
+        if (request.getContentLengthLong() > maxBodyBytes) {
+            writeError(response, HttpStatus.CONTENT_TOO_LARGE, "payload-too-large", "Request body exceeds " + maxBodyBytes + " bytes");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            writeError(response, HttpStatus.CONTENT_TOO_LARGE, "payload-too-large", "Request body exceeds " + maxBodyBytes + " bytes");
+            return;
+        }
+        String requestHash = sha256(body);
+        String key = sha256(("POST " + request.getRequestURI() + " " + caller(request) + " " + clientKey)
+                .getBytes(StandardCharsets.UTF_8));
+
+        // 2. Claim the key, or learn what happened to the first request
+        Claim claim = store.begin(key, requestHash);
+        switch (claim.outcome()) {
+            case REPLAY -> replay(response, claim.response());
+            case IN_PROGRESS -> {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                writeError(response, HttpStatus.CONFLICT, "idempotency-key-in-use", "A request with this " + HEADER + " is still being processed");
+            }
+            case MISMATCH -> writeError(response, HttpStatus.UNPROCESSABLE_CONTENT, "idempotency-key-reused",
+                    HEADER + " was already used with a different request body");
+            case ACQUIRED -> proceed(new CachedBodyRequest(request, body), response, chain, key, claim.token(), requestHash);
+        }
+    }
+
+    private void proceed(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                         String key, UUID token, String requestHash) throws ServletException, IOException {
+        ContentCachingResponseWrapper recording = new ContentCachingResponseWrapper(response);
+        boolean recorded = false;
+        try {
+            chain.doFilter(request, recording);
+            // Server errors are transient by nature: release the key so a retry can succeed
+            if (recording.getStatus() < 500) {
+                store.complete(key, token, requestHash, new StoredResponse(recording.getStatus(), recording.getContentType(),
+                        recording.getHeader(HttpHeaders.LOCATION),
+                        new String(recording.getContentAsByteArray(), StandardCharsets.UTF_8)));
+                recorded = true;
+            }
+        } finally {
+            if (!recorded) {
+                store.release(key, token);
+            }
+            recording.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        if (stored.body() != null) {
+            response.setCharacterEncoding(StandardCharsets.UTF_8);
+            response.getWriter().write(stored.body());
+        }
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String code, String detail)
+            throws IOException {
+        ProblemDetails.write(response, ProblemDetails.of(status, code, detail));
+    }
+
+    // Registration is anonymous; authenticated keys are per token subject
+    private static String caller(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : "-";
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Serves the already consumed body again to everything downstream (message converters).
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Async reads are not supported");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package pl.jakubsiekiera.iam.infrastructure.idempotency;
+
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.IdempotencyKeyJpaEntity;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaIdempotencyKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Two-tier store for idempotent responses.
+ * * Postgres is the source of truth: a key is claimed with a single INSERT ... ON CONFLICT, so
+ * exactly one request (on any instance) runs the operation, and the final response is kept
+ * until 'iam.idempotency.ttl' has passed.
+ * * A claim is only a lease ('iam.idempotency.lease'): if its owner dies without completing or
+ * releasing it, the key is free again once the lease runs out instead of answering 409 for a
+ * whole TTL. The lease must outlast the slowest request (the Keycloak client's timeouts are set
+ * well below it); completing extends it to the TTL.
+ * * Every claim carries a fresh token, and completing or releasing requires it. Should a request
+ * still outlive its lease and a retry take the key over, the stale request can neither
+ * overwrite nor delete the new owner's claim: its response is not recorded.
+ * * Completed responses are also held in a small Caffeine tier, so a retry storm for the same
+ * key is answered from memory without a query.
+ * * Only completed responses enter the hot tier; in-progress claims always go to the database.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final JpaIdempotencyKeyRepository repository;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Cache<String, Completed> hot;
+
+    public IdempotencyStore(
+            JpaIdempotencyKeyRepository repository,
+            @Value("${iam.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${iam.idempotency.lease:PT30S}") Duration lease,
+            @Value("${iam.idempotency.hot-cache.maximum-size:10000}") long hotMaximumSize,
+            @Value("${iam.idempotency.hot-cache.ttl:PT10M}") Duration hotTtl) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.lease = lease;
+        // An entry must never outlive its database row
+        this.hot = Caffeine.newBuilder()
+                .maximumSize(hotMaximumSize)
+                .expireAfterWrite(hotTtl.compareTo(ttl) < 0 ? hotTtl : ttl)
+                .build();
+    }
+
+    /**
+     * Decides what to do with a request carrying an idempotency key.
+     * * @param key         Scoped key (fixed-length hash of method, path, caller and client key).
+     * @param requestHash Fingerprint of the request body.
+     */
+    public Claim begin(String key, String requestHash) {
+        // 1. Hot tier: a recently completed request
+        Completed cached = hot.getIfPresent(key);
+        if (cached != null) {
+            return cached.requestHash().equals(requestHash) ? Claim.replay(cached.response()) : Claim.MISMATCH;
+        }
+
+        // 2. Try to become the owner of the key
+        Instant now = Instant.now();
+        UUID token = UUID.randomUUID();
+        if (repository.claim(key, requestHash, token, now, now.plus(lease)) == 1) {
+            return Claim.acquired(token);
+        }
+
+        // 3. Somebody else owns it: either still running, or done and replayable
+        Optional<IdempotencyKeyJpaEntity> existing = repository.findById(key);
+        if (existing.isEmpty()) {
+            return Claim.IN_PROGRESS; // The owner failed and released it just now; the client's retry will claim it
+        }
+        IdempotencyKeyJpaEntity row = existing.get();
+        if (!row.getRequestHash().equals(requestHash)) {
+            return Claim.MISMATCH;
+        }
+        if (row.getStatusCode() == null) {
+            return Claim.IN_PROGRESS;
+        }
+        StoredResponse response = new StoredResponse(row.getStatusCode(), row.getContentType(), row.getLocation(),
+                row.getResponseBody());
+        hot.put(key, new Completed(requestHash, response));
+        return Claim.replay(response);
+    }
+
+    // Records the final response of a claimed key and keeps it for the full TTL
+    public void complete(String key, UUID token, String requestHash, StoredResponse response) {
+        int recorded = repository.complete(key, token, response.status(), response.contentType(), response.location(),
+                response.body(), Instant.now().plus(ttl));
+        if (recorded == 0) {
+            log.warn("Idempotency lease of {} ran out before the request completed; its response is not recorded", lease);
+            return;
+        }
+        hot.put(key, new Completed(requestHash, response));
+    }
+
+    // Drops the claim of a request that failed, so that a retry runs the operation again
+    public void release(String key, UUID token) {
+        repository.release(key, token);
+    }
+
+    @Scheduled(fixedDelayString = "${iam.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    /**
+     * What a replay needs: status, body and the headers that describe them. Location is kept
+     * so a replayed 201 points at the resource the first request created.
+     */
+    public record StoredResponse(int status, String contentType, String location, String body) {}
+
+    /**
+     * @param outcome  What the caller should do.
+     * @param response The response to replay, only for {@link Outcome#REPLAY}.
+     * @param token    The claim's fencing token, only for {@link Outcome#ACQUIRED}.
+     */
+    public record Claim(Outcome outcome, StoredResponse response, UUID token) {
+        static final Claim IN_PROGRESS = new Claim(Outcome.IN_PROGRESS, null, null);
+        static final Claim MISMATCH = new Claim(Outcome.MISMATCH, null, null);
+
+        static Claim acquired(UUID token) {
+            return new Claim(Outcome.ACQUIRED, null, token);
+        }
+
+        static Claim replay(StoredResponse response) {
+            return new Claim(Outcome.REPLAY, response, null);
+        }
+    }
+
+    public enum Outcome {
+        ACQUIRED,     // Run the request and record its response
+        REPLAY,       // Answer with the recorded response
+        IN_PROGRESS,  // The first request with this key hasn't finished yet
+        MISMATCH      // The key was used before with a different payload
+    }
+
+    private record Completed(String requestHash, StoredResponse response) {}
+}
@@ -0,0 +1,232 @@
+package pl.jakubsiekiera.iam.infrastructure.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import pl.jakubsiekiera.iam.domain.event.DomainEvent;
+import pl.jakubsiekiera.iam.domain.event.DomainEventSubscriber;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Durable, append-only journal of every domain event that crosses the event bus.
+ * * Events are numbered with a journal-wide offset and appended to fixed-size memory-mapped
+ * {@link JournalSegment} files ('iam.journal.directory', one file per 'segment-size', named
+ * after their first offset). The journal is a bus subscriber, so appends run on a single
+ * thread and it can group-commit: one fsync per bus batch rather than per event, which under
+ * load covers many events.
+ * * {@link #replay} streams events from any offset, reading only what has been synced, so
+ * projections and caches can be rebuilt from local disk instead of querying Postgres.
+ * * The journal is a local record, not the system of record: it only sees what the bus delivers.
+ * Events the bus drops (ring full, bus stopped) and events still in the ring or not yet synced
+ * when the process dies are missing from it. Where that is detectable it leaves a
+ * {@link JournalGap} record instead: for dropped events (written at the end of the next batch, so
+ * its position is approximate), and on startup after an unclean shutdown (an '.open' marker
+ * left behind), where the number of lost events is unknown. Replayers that must not miss
+ * anything treat a gap as "rebuild from Postgres".
+ * * Segments are kept forever for now; retention is a matter of deleting old files.
+ * * Metrics: 'iam.journal.appended', 'iam.journal.sync' (fsync latency), 'iam.journal.gaps'.
+ */
+@Component
+@ConditionalOnProperty(name = "iam.journal.enabled", havingValue = "true", matchIfMissing = true)
+public class EventJournal implements DomainEventSubscriber<DomainEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(EventJournal.class);
+
+    static final String OPEN_MARKER = ".open"; // Present while open; left behind by a crash
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private final Counter appended;
+    private final Timer syncTimer;
+    private final Counter gaps;
+    private final AtomicInteger droppedSinceGap = new AtomicInteger();
+
+    private JournalSegment active; // Guarded by 'this'
+    private volatile long durableOffset; // Every record below this offset is on disk
+
+    public EventJournal(
+            MeterRegistry meterRegistry,
+            @Value("${iam.journal.directory:data/journal}") Path directory,
+            @Value("${iam.journal.segment-size:64MB}") DataSize segmentSize) throws IOException {
+        if (segmentSize.toBytes() <= JournalSegment.HEADER_BYTES || segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("iam.journal.segment-size must be between 17 bytes and 2GB, was " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.appended = Counter.builder("iam.journal.appended").register(meterRegistry);
+        this.syncTimer = Timer.builder("iam.journal.sync").register(meterRegistry);
+        this.gaps = Counter.builder("iam.journal.gaps").register(meterRegistry);
+
+        // 1. Find the existing segments; only the newest one can have a torn tail
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(f -> f.getFileName().toString().endsWith(JournalSegment.SUFFIX))
+                    .forEach(f -> segments.put(JournalSegment.baseOffsetOf(f), f));
+        }
+
+        // 2. Reopen it for appending (or start at offset 0)
+        long base = segments.isEmpty() ? 0 : segments.lastKey();
+        this.active = JournalSegment.openForAppend(directory, base, this.segmentSize);
+        segments.put(base, active.path());
+        this.durableOffset = active.nextOffset();
+
+        // 3. Whatever the previous process had not journaled when it died is lost
+        Path marker = directory.resolve(OPEN_MARKER);
+        if (Files.exists(marker)) {
+            log.warn("Event journal at {} was not closed cleanly, recording a gap", directory.toAbsolutePath());
+            appendGap(JournalGap.UNKNOWN, "unclean shutdown");
+            sync();
+        } else {
+            Files.createFile(marker);
+        }
+        log.info("Event journal at {} opened, next offset {}", directory.toAbsolutePath(), durableOffset);
+    }
+
+    @Override
+    public Class<DomainEvent> eventType() {
+        return DomainEvent.class;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        append(event);
+    }
+
+    // Group commit: one fsync for everything appended during the bus batch
+    @Override
+    public void onBatchEnd() {
+        recordDropped();
+        sync();
+    }
+
+    // Publishing thread: only count, the gap record is written by the journal's own thread
+    @Override
+    public void onDropped(DomainEvent event) {
+        if (JournalCodec.supports(event)) {
+            droppedSinceGap.incrementAndGet();
+        }
+    }
+
+    /**
+     * Appends the event; it becomes durable (and visible to replay) at the next {@link #sync()}.
+     * @return the event's offset, or -1 if the event type has no journal encoding.
+     */
+    public synchronized long append(DomainEvent event) {
+        if (!JournalCodec.supports(event)) {
+            log.debug("Not journaling {}: no encoding for its type", event.getClass().getSimpleName());
+            return -1;
+        }
+        long offset = active.nextOffset();
+        if (!active.append(event)) {
+            if (active.isEmpty()) {
+                throw new IllegalArgumentException("Event doesn't fit in an empty journal segment: " + event);
+            }
+            roll();
+            offset = active.nextOffset();
+            if (!active.append(event)) {
+                throw new IllegalArgumentException("Event doesn't fit in an empty journal segment: " + event);
+            }
+        }
+        appended.increment();
+        return offset;
+    }
+
+    /**
+     * Forces appended records to disk and publishes them to readers.
+     */
+    public synchronized void sync() {
+        long start = System.nanoTime();
+        if (active.sync()) {
+            syncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        durableOffset = active.nextOffset();
+    }
+
+    /**
+     * Offset the next appended event will get once durable; replaying up to here sees everything.
+     */
+    public long durableOffset() {
+        return durableOffset;
+    }
+
+    /**
+     * Streams every durable event with an offset >= 'fromOffset' to the consumer, in order.
+     * Safe to call from any thread while the journal is being written.
+     * @return the offset to resume from next time.
+     */
+    public long replay(long fromOffset, ObjLongConsumer<DomainEvent> consumer) {
+        long until = durableOffset;
+        if (fromOffset >= until) {
+            return Math.max(fromOffset, until);
+        }
+        Long first = segments.floorKey(fromOffset);
+        long next = fromOffset;
+        for (Map.Entry<Long, Path> segment : segments.tailMap(first == null ? 0 : first, true).entrySet()) {
+            if (segment.getKey() >= until) {
+                break;
+            }
+            try {
+                next = Math.max(next, JournalSegment.read(segment.getValue(), fromOffset, until, consumer));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read journal segment " + segment.getValue(), e);
+            }
+        }
+        return next;
+    }
+
+    List<Path> segmentFiles() {
+        return List.copyOf(segments.values());
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        recordDropped(); // Dropped after the bus stopped
+        active.close();
+        durableOffset = active.nextOffset();
+        Files.deleteIfExists(directory.resolve(OPEN_MARKER));
+    }
+
+    private void recordDropped() {
+        int dropped = droppedSinceGap.getAndSet(0);
+        if (dropped > 0) {
+            appendGap(dropped, "dropped by the event bus");
+        }
+    }
+
+    private void appendGap(int missing, String reason) {
+        append(new JournalGap(missing, reason, Instant.now()));
+        gaps.increment();
+    }
+
+    // Seal the full segment (synced) and continue in a new one named after the next offset
+    private void roll() {
+        sync();
+        try {
+            active.close();
+            active = JournalSegment.openForAppend(directory, active.nextOffset(), segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll the event journal in " + directory, e);
+        }
+        segments.put(active.baseOffset(), active.path());
+    }
+}
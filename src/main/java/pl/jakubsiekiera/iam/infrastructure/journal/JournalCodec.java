@@ -0,0 +1,167 @@
+package pl.jakubsiekiera.iam.infrastructure.journal;
+
+import pl.jakubsiekiera.iam.domain.event.DomainEvent;
+import pl.jakubsiekiera.iam.domain.event.RoleHierarchyChangedEvent;
+import pl.jakubsiekiera.iam.domain.event.TenantRegisteredEvent;
+import pl.jakubsiekiera.iam.domain.event.TenantsStatusChangedEvent;
+import pl.jakubsiekiera.iam.domain.event.UserMembershipChangedEvent;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import pl.jakubsiekiera.iam.domain.model.user.UserId;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Binary encoding of domain events for the journal: a one-byte type tag followed by the
+ * fields in declaration order. UUIDs are two raw longs, strings and counts are var-int length
+ * prefixed (UTF-8), instants are epoch seconds plus nanos, enums are written by name so that
+ * reordering constants can't change the meaning of old records.
+ * * Tags are part of the on-disk format: never reuse or renumber them.
+ */
+final class JournalCodec {
+
+    static final byte TENANT_REGISTERED = 1;
+    static final byte TENANTS_STATUS_CHANGED = 2;
+    static final byte USER_MEMBERSHIP_CHANGED = 3;
+    static final byte ROLE_HIERARCHY_CHANGED = 4;
+    static final byte GAP = 5;
+
+    private JournalCodec() {
+    }
+
+    static boolean supports(DomainEvent event) {
+        return event instanceof TenantRegisteredEvent
+                || event instanceof TenantsStatusChangedEvent
+                || event instanceof UserMembershipChangedEvent
+                || event instanceof RoleHierarchyChangedEvent
+                || event instanceof JournalGap;
+    }
+
+    /**
+     * Writes the event at the buffer's position.
+     * @throws BufferOverflowException if it doesn't fit in the remaining space.
+     */
+    static void encode(DomainEvent event, ByteBuffer out) {
+        switch (event) {
+            case TenantRegisteredEvent e -> {
+                out.put(TENANT_REGISTERED);
+                putUuid(out, e.tenantId().value());
+                putString(out, e.name());
+                putInstant(out, e.occurredOn());
+            }
+            case TenantsStatusChangedEvent e -> {
+                out.put(TENANTS_STATUS_CHANGED);
+                putVarInt(out, e.tenantIds().size());
+                for (TenantId tenantId : e.tenantIds()) {
+                    putUuid(out, tenantId.value());
+                }
+                putString(out, e.status().name());
+                putInstant(out, e.occurredOn());
+            }
+            case UserMembershipChangedEvent e -> {
+                out.put(USER_MEMBERSHIP_CHANGED);
+                putUuid(out, e.userId().value());
+                putString(out, e.keycloakId());
+                putUuid(out, e.tenantId().value());
+                putInstant(out, e.occurredOn());
+            }
+            case RoleHierarchyChangedEvent e -> {
+                out.put(ROLE_HIERARCHY_CHANGED);
+                putUuid(out, e.tenantId().value());
+                putInstant(out, e.occurredOn());
+            }
+            case JournalGap e -> {
+                out.put(GAP);
+                putVarInt(out, e.missing());
+                putString(out, e.reason());
+                putInstant(out, e.occurredOn());
+            }
+            default -> throw new IllegalArgumentException("No journal encoding for " + event.getClass().getName());
+        }
+    }
+
+    /**
+     * Reads one event from the buffer's position (which must be at a type tag).
+     */
+    static DomainEvent decode(ByteBuffer in) {
+        byte type = in.get();
+        return switch (type) {
+            case TENANT_REGISTERED -> new TenantRegisteredEvent(
+                    new TenantId(getUuid(in)), getString(in), getInstant(in));
+            case TENANTS_STATUS_CHANGED -> {
+                int count = getVarInt(in);
+                List<TenantId> tenantIds = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    tenantIds.add(new TenantId(getUuid(in)));
+                }
+                yield new TenantsStatusChangedEvent(List.copyOf(tenantIds), TenantStatus.valueOf(getString(in)), getInstant(in));
+            }
+            case USER_MEMBERSHIP_CHANGED -> new UserMembershipChangedEvent(
+                    new UserId(getUuid(in)), getString(in), new TenantId(getUuid(in)), getInstant(in));
+            case ROLE_HIERARCHY_CHANGED -> new RoleHierarchyChangedEvent(new TenantId(getUuid(in)), getInstant(in));
+            case GAP -> new JournalGap(getVarInt(in), getString(in), getInstant(in));
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        };
+    }
+
+    // --- primitives ---
+
+    private static void putUuid(ByteBuffer out, UUID value) {
+        out.putLong(value.getMostSignificantBits());
+        out.putLong(value.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private static void putInstant(ByteBuffer out, Instant value) {
+        out.putLong(value.getEpochSecond());
+        putVarInt(out, value.getNano());
+    }
+
+    private static Instant getInstant(ByteBuffer in) {
+        long seconds = in.getLong();
+        return Instant.ofEpochSecond(seconds, getVarInt(in));
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarInt(out, bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = getVarInt(in);
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // LEB128: 7 bits per byte, high bit set on every byte but the last
+    static void putVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int getVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed var-int in journal record");
+    }
+}
@@ -0,0 +1,15 @@
+package pl.jakubsiekiera.iam.infrastructure.journal;
+
+import pl.jakubsiekiera.iam.domain.event.DomainEvent;
+
+import java.time.Instant;
+
+// Journal-only record: events that should be around here never made it in; 'missing' is -1 when unknown
+public record JournalGap(
+    int missing,
+    String reason,
+    Instant occurredOn
+) implements DomainEvent {
+
+    public static final int UNKNOWN = -1;
+}
@@ -0,0 +1,206 @@
+package pl.jakubsiekiera.iam.infrastructure.journal;
+
+import pl.jakubsiekiera.iam.domain.event.DomainEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size, memory-mapped journal file holding consecutive records from 'baseOffset' on.
+ * * Record layout (big-endian):
+ * <pre>
+ *   int  length    payload bytes
+ *   int  crc       CRC32C over offset + payload
+ *   long offset    journal-wide sequence number of the record
+ *   byte[length]   payload, see {@link JournalCodec}
+ * </pre>
+ * The file is zero-filled when created, so a zero length marks the end of the data. A torn or
+ * stale record fails the CRC or the offset continuity check, and reading stops there.
+ * * Writes go straight into the mapping; {@link #sync()} forces only the bytes appended since
+ * the previous sync.
+ */
+final class JournalSegment implements Closeable {
+
+    static final int HEADER_BYTES = 16;
+    static final String SUFFIX = ".seg";
+
+    private final long baseOffset;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final CRC32C crc = new CRC32C();
+
+    private int position;
+    private int syncedPosition;
+    private long nextOffset;
+
+    private JournalSegment(long baseOffset, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.baseOffset = baseOffset;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.nextOffset = baseOffset;
+    }
+
+    static Path fileName(Path directory, long baseOffset) {
+        return directory.resolve(String.format("%020d%s", baseOffset, SUFFIX));
+    }
+
+    static long baseOffsetOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Opens (creating and zero-filling if needed) the segment for writing and positions it after
+     * the last intact record. A torn tail left by a crash is wiped so it can't be misread later.
+     */
+    static JournalSegment openForAppend(Path directory, long baseOffset, int size) throws IOException {
+        Path path = fileName(directory, baseOffset);
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size); // Extends the file with zeros
+        JournalSegment segment = new JournalSegment(baseOffset, path, channel, buffer);
+
+        ScanResult scan = scan(buffer, baseOffset, Long.MAX_VALUE, null);
+        segment.position = scan.position();
+        segment.syncedPosition = scan.position();
+        segment.nextOffset = scan.nextOffset();
+        if (!scan.clean()) {
+            for (int i = scan.position(); i < size; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+        }
+        return segment;
+    }
+
+    /**
+     * Visits the intact records of a segment file, read-only, that have an offset in
+     * [from, until). Returns the offset following the last record visited or skipped.
+     */
+    static long read(Path file, long from, long until, ObjLongConsumer<DomainEvent> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return scan(buffer, baseOffsetOf(file), until, (event, offset) -> {
+                if (offset >= from) {
+                    consumer.accept(event, offset);
+                }
+            }).nextOffset();
+        }
+    }
+
+    long baseOffset() {
+        return baseOffset;
+    }
+
+    long nextOffset() {
+        return nextOffset;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    boolean isEmpty() {
+        return position == 0;
+    }
+
+    /**
+     * Appends the event as the record with offset {@link #nextOffset()}.
+     * @return false, leaving the segment unchanged, if the record doesn't fit.
+     */
+    boolean append(DomainEvent event) {
+        if (buffer.capacity() - position <= HEADER_BYTES) {
+            return false;
+        }
+        ByteBuffer payload = buffer.slice(position + HEADER_BYTES, buffer.capacity() - position - HEADER_BYTES);
+        try {
+            JournalCodec.encode(event, payload);
+        } catch (BufferOverflowException e) {
+            // Wipe the partial payload so the area past the end marker stays zero
+            for (int i = 0; i < payload.position(); i++) {
+                payload.put(i, (byte) 0);
+            }
+            return false;
+        }
+        int length = payload.position();
+
+        // Offset and CRC first, the length last: until it is set the record doesn't exist
+        buffer.putLong(position + 8, nextOffset);
+        crc.reset();
+        crc.update(buffer.slice(position + 8, 8 + length));
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, length);
+
+        position += HEADER_BYTES + length;
+        nextOffset++;
+        return true;
+    }
+
+    /**
+     * fsync (msync) of the bytes appended since the last call; one call covers a whole batch.
+     * @return whether there was anything to write.
+     */
+    boolean sync() {
+        if (position == syncedPosition) {
+            return false;
+        }
+        buffer.force(syncedPosition, position - syncedPosition);
+        syncedPosition = position;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        sync();
+        channel.close(); // The mapping itself is released when the buffer is collected
+    }
+
+    // --- scanning ---
+
+    private record ScanResult(int position, long nextOffset, boolean clean) {}
+
+    private static ScanResult scan(ByteBuffer buffer, long baseOffset, long until, ObjLongConsumer<DomainEvent> consumer) {
+        CRC32C crc = new CRC32C();
+        int position = 0;
+        long expected = baseOffset;
+        int limit = buffer.capacity();
+        while (position + HEADER_BYTES <= limit) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                return new ScanResult(position, expected, true); // End of data
+            }
+            if (length < 0 || length > limit - position - HEADER_BYTES) {
+                break;
+            }
+            long offset = buffer.getLong(position + 8);
+            if (offset != expected) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(position + 8, 8 + length));
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+            if (offset >= until) {
+                return new ScanResult(position, expected, true);
+            }
+            if (consumer != null) {
+                consumer.accept(JournalCodec.decode(buffer.slice(position + HEADER_BYTES, length)), offset);
+            }
+            position += HEADER_BYTES + length;
+            expected++;
+        }
+        // Either the file is full, or we stopped at a torn/stale record
+        return new ScanResult(position, expected, position + HEADER_BYTES > limit);
+    }
+}
@@ -0,0 +1,40 @@
+package pl.jakubsiekiera.iam.infrastructure.notification;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Actuator endpoint ('/actuator/deadletters') listing the most recent dead letters
+ * of the {@link NotificationPipeline}, oldest first.
+ * * The body is left out: it may carry personal data and isn't needed to decide what to resend.
+ * Dead letters of every tenant are listed, so SecurityConfig restricts it to platform operators.
+ */
+@Component
+@Endpoint(id = "deadletters")
+@RequiredArgsConstructor
+public class DeadLetterEndpoint {
+
+    private final NotificationPipeline pipeline;
+
+    @ReadOperation
+    public List<DeadLetterView> deadLetters() {
+        return pipeline.deadLetters().stream()
+                .map(letter -> new DeadLetterView(
+                        letter.notification().id(),
+                        letter.notification().tenantId().value(),
+                        letter.notification().subject(),
+                        letter.attempts(),
+                        letter.reason(),
+                        letter.deadLetteredAt()))
+                .toList();
+    }
+
+    public record DeadLetterView(String id, UUID tenantId, String subject, int attempts, String reason,
+                                 Instant deadLetteredAt) {}
+}
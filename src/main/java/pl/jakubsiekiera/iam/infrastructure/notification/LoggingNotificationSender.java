@@ -0,0 +1,28 @@
+package pl.jakubsiekiera.iam.infrastructure.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import pl.jakubsiekiera.iam.domain.service.NotificationSender;
+
+import java.util.List;
+
+/**
+ * Local stand-in for a real transport ('iam.notifications.sender=log', the default): logs every
+ * notification instead of sending it. Never fails, so nothing is retried.
+ */
+@Component
+@ConditionalOnProperty(name = "iam.notifications.sender", havingValue = "log", matchIfMissing = true)
+public class LoggingNotificationSender implements NotificationSender {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingNotificationSender.class);
+
+    @Override
+    public void send(List<Notification> batch) {
+        for (Notification notification : batch) {
+            log.info("[NOTIFICATION] {} -> tenant {}: {}",
+                    notification.id(), notification.tenantId().value(), notification.subject());
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package pl.jakubsiekiera.iam.infrastructure.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import pl.jakubsiekiera.iam.domain.service.NotificationSender;
+import pl.jakubsiekiera.iam.domain.service.NotificationSender.Notification;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous delivery of notifications through the configured {@link NotificationSender}.
+ * * {@link #submit} only offers to a bounded queue ('queue-capacity') and returns; a full queue
+ * rejects instead of blocking the caller (the event bus thread). 'workers' threads take from
+ * the queue and coalesce whatever is waiting, plus what arrives within 'linger', into one
+ * send of up to 'max-batch-size' notifications.
+ * * A failed send is retried per notification with exponential backoff and jitter, starting at
+ * 'initial-backoff' and capped at 'max-backoff'. After 'max-attempts' (or when the queue is
+ * full, or on shutdown) the notification is dead-lettered: logged, counted and kept in memory,
+ * the most recent 1000, for inspection at '/actuator/deadletters' ({@link DeadLetterEndpoint}).
+ * * Nothing here is durable: notifications still queued or backing off when the process dies
+ * (rather than stops) are lost without a dead letter, and the dead letters themselves don't
+ * survive a restart. A welcome email is therefore at most once.
+ * * Metrics: 'iam.notifications.queue.depth', 'iam.notifications.send{outcome}' (latency per
+ * batch), 'iam.notifications.sent', 'iam.notifications.retried', 'iam.notifications.dead-lettered'.
+ */
+@Component
+public class NotificationPipeline implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPipeline.class);
+
+    // Stop after the event bus (DEFAULT_PHASE - 4096) has drained its subscribers into us
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 8192;
+    private static final int DEAD_LETTER_HISTORY = 1000;
+
+    private final NotificationSender sender;
+    private final BlockingQueue<Pending> queue;
+    private final int workerCount;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private final Set<Pending> backingOff = ConcurrentHashMap.newKeySet();
+    private final Deque<DeadLetter> deadLetters = new ArrayDeque<>(); // Guarded by itself
+
+    private final Timer sendSuccess;
+    private final Timer sendFailure;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter deadLettered;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    public NotificationPipeline(
+            NotificationSender sender,
+            MeterRegistry meterRegistry,
+            @Value("${iam.notifications.queue-capacity:10000}") int queueCapacity,
+            @Value("${iam.notifications.workers:2}") int workers,
+            @Value("${iam.notifications.max-batch-size:50}") int maxBatchSize,
+            @Value("${iam.notifications.linger:20ms}") Duration linger,
+            @Value("${iam.notifications.max-attempts:5}") int maxAttempts,
+            @Value("${iam.notifications.initial-backoff:1s}") Duration initialBackoff,
+            @Value("${iam.notifications.max-backoff:5m}") Duration maxBackoff) {
+        if (workers < 1 || maxBatchSize < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("iam.notifications.workers, max-batch-size and max-attempts must be at least 1");
+        }
+        this.sender = sender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workers;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = linger.toNanos();
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+
+        this.sendSuccess = Timer.builder("iam.notifications.send").tag("outcome", "success").register(meterRegistry);
+        this.sendFailure = Timer.builder("iam.notifications.send").tag("outcome", "failure").register(meterRegistry);
+        this.sent = Counter.builder("iam.notifications.sent").register(meterRegistry);
+        this.retried = Counter.builder("iam.notifications.retried").register(meterRegistry);
+        this.deadLettered = Counter.builder("iam.notifications.dead-lettered").register(meterRegistry);
+        Gauge.builder("iam.notifications.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * Queues the notification for delivery without blocking.
+     * @return false if it was dead-lettered straight away (queue full or pipeline stopped).
+     */
+    public boolean submit(Notification notification) {
+        Pending pending = new Pending(notification, 1);
+        if (!running) {
+            deadLetter(pending, "pipeline is not running");
+            return false;
+        }
+        if (!queue.offer(pending)) {
+            deadLetter(pending, "queue is full");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Most recent dead letters, oldest first.
+     */
+    public List<DeadLetter> deadLetters() {
+        synchronized (deadLetters) {
+            return List.copyOf(deadLetters);
+        }
+    }
+
+    int queueDepth() {
+        return queue.size();
+    }
+
+    // --- Lifecycle ---
+
+    @Override
+    public void start() {
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("notifications-retry").daemon().factory());
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofPlatform().name("notifications-" + i).daemon().start(this::work));
+        }
+    }
+
+    /**
+     * Stops accepting notifications and lets the workers send what is already queued. Those
+     * waiting out a backoff are dead-lettered rather than holding up the shutdown.
+     */
+    @Override
+    public void stop() {
+        if (retryScheduler == null) {
+            return; // Never started
+        }
+        // 1. New submissions and failed sends now go to the dead letters
+        running = false;
+
+        // 2. Cancel the pending retries
+        retryScheduler.shutdownNow();
+        try {
+            retryScheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Pending pending : backingOff) {
+            if (backingOff.remove(pending)) {
+                deadLetter(pending, "shutdown during backoff");
+            }
+        }
+
+        // 3. Let the workers drain the queue
+        for (Thread worker : workers) {
+            try {
+                if (!worker.join(Duration.ofSeconds(10))) {
+                    log.warn("Notification worker {} did not drain within 10s", worker.getName());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+
+        // 4. Whatever a late retry re-queued after the workers left
+        Pending leftover;
+        while ((leftover = queue.poll()) != null) {
+            deadLetter(leftover, "shutdown");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // --- Workers ---
+
+    private void work() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                coalesce(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> deadLetter(pending, "worker interrupted"));
+                return;
+            }
+            deliver(batch);
+            batch.clear();
+        }
+    }
+
+    // Whatever is already waiting, then whatever arrives within 'linger', up to a full batch
+    private void coalesce(List<Pending> batch) throws InterruptedException {
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void deliver(List<Pending> batch) {
+        List<Notification> notifications = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            notifications.add(pending.notification());
+        }
+        long start = System.nanoTime();
+        try {
+            sender.send(notifications);
+            sendSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            sent.increment(batch.size());
+        } catch (RuntimeException e) {
+            sendFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.warn("Sending {} notification(s) failed: {}", batch.size(), e.toString());
+            for (Pending pending : batch) {
+                retryOrDeadLetter(pending, e);
+            }
+        }
+    }
+
+    private void retryOrDeadLetter(Pending failed, RuntimeException cause) {
+        if (failed.attempt() >= maxAttempts) {
+            deadLetter(failed, "gave up after " + failed.attempt() + " attempt(s): " + cause);
+            return;
+        }
+        if (!running) {
+            deadLetter(failed, "shutdown after a failed attempt: " + cause);
+            return;
+        }
+        Pending retry = new Pending(failed.notification(), failed.attempt() + 1);
+        backingOff.add(retry);
+        try {
+            retryScheduler.schedule(() -> requeue(retry), backoffNanos(failed.attempt()), TimeUnit.NANOSECONDS);
+            retried.increment();
+        } catch (RejectedExecutionException e) {
+            // Stopped between the check above and here
+            if (backingOff.remove(retry)) {
+                deadLetter(retry, "shutdown after a failed attempt: " + cause);
+            }
+        }
+    }
+
+    // The backoff task and stop() race for the entry; whoever removes it owns it
+    private void requeue(Pending retry) {
+        if (backingOff.remove(retry) && !queue.offer(retry)) {
+            deadLetter(retry, "queue is full");
+        }
+    }
+
+    // initial * 2^(attempt - 1), capped, then jittered into [half, full] so retries spread out
+    long backoffNanos(int attempt) {
+        int shift = attempt - 1;
+        long backoff = shift >= Long.numberOfLeadingZeros(initialBackoffNanos) - 1
+                ? maxBackoffNanos // The shift would overflow
+                : Math.min(initialBackoffNanos << shift, maxBackoffNanos);
+        long half = backoff / 2;
+        return half + ThreadLocalRandom.current().nextLong(backoff - half + 1);
+    }
+
+    private void deadLetter(Pending pending, String reason) {
+        deadLettered.increment();
+        log.error("Dead-lettering notification {} for tenant {} ({})",
+                pending.notification().id(), pending.notification().tenantId().value(), reason);
+        synchronized (deadLetters) {
+            if (deadLetters.size() == DEAD_LETTER_HISTORY) {
+                deadLetters.removeFirst();
+            }
+            deadLetters.addLast(new DeadLetter(pending.notification(), pending.attempt(), reason, Instant.now()));
+        }
+    }
+
+    // Identity semantics on purpose: two retries of the same notification are distinct entries
+    private static final class Pending {
+
+        private final Notification notification;
+        private final int attempt;
+
+        Pending(Notification notification, int attempt) {
+            this.notification = notification;
+            this.attempt = attempt;
+        }
+
+        Notification notification() {
+            return notification;
+        }
+
+        int attempt() {
+            return attempt;
+        }
+    }
+
+    /**
+     * A notification that won't be delivered, with the number of send attempts made for it.
+     */
+    public record DeadLetter(Notification notification, int attempts, String reason, Instant deadLetteredAt) {}
+}
@@ -0,0 +1,62 @@
+package pl.jakubsiekiera.iam.infrastructure.overload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One {@link GradientLimit} per {@link EndpointClass}, configured from
+ * 'iam.concurrency-limit.{class}.initial-limit' / 'max-limit' and exported as metrics:
+ * 'iam.concurrency.limit', 'iam.concurrency.in-flight' and 'iam.concurrency.shed', tagged by endpoint class.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final Map<EndpointClass, GradientLimit> limits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> shed = new EnumMap<>(EndpointClass.class);
+
+    public AdaptiveConcurrencyLimiter(Environment environment, MeterRegistry meterRegistry) {
+        int minLimit = environment.getProperty("iam.concurrency-limit.min-limit", Integer.class, 1);
+        double smoothing = environment.getProperty("iam.concurrency-limit.smoothing", Double.class, 0.2);
+
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            String prefix = "iam.concurrency-limit." + endpoint.tag() + ".";
+            int initial = environment.getProperty(prefix + "initial-limit", Integer.class, 20);
+            int max = environment.getProperty(prefix + "max-limit", Integer.class, 200);
+            GradientLimit limit = new GradientLimit(initial, minLimit, max, smoothing);
+            limits.put(endpoint, limit);
+
+            Gauge.builder("iam.concurrency.limit", limit, GradientLimit::limit)
+                    .tag("endpoint", endpoint.tag()).register(meterRegistry);
+            Gauge.builder("iam.concurrency.in-flight", limit, GradientLimit::inFlight)
+                    .tag("endpoint", endpoint.tag()).register(meterRegistry);
+            shed.put(endpoint, Counter.builder("iam.concurrency.shed")
+                    .description("Requests rejected because the endpoint class was at its concurrency limit")
+                    .tag("endpoint", endpoint.tag()).register(meterRegistry));
+        }
+    }
+
+    /**
+     * @return true if the request may run; false means it was shed (and counted).
+     */
+    public boolean tryAcquire(EndpointClass endpoint) {
+        if (limits.get(endpoint).tryAcquire()) {
+            return true;
+        }
+        shed.get(endpoint).increment();
+        return false;
+    }
+
+    public void release(EndpointClass endpoint, long rttNanos, boolean sample) {
+        limits.get(endpoint).release(rttNanos, sample);
+    }
+
+    public int limit(EndpointClass endpoint) {
+        return limits.get(endpoint).limit();
+    }
+}
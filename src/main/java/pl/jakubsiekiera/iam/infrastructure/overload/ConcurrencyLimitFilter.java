@@ -0,0 +1,59 @@
+package pl.jakubsiekiera.iam.infrastructure.overload;
+
+import pl.jakubsiekiera.iam.adapters.web.ProblemDetails;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds load before it queues: requests beyond their endpoint class's learned concurrency
+ * limit are answered immediately with 503 Service Unavailable instead of waiting for a Tomcat
+ * thread, a database connection or Keycloak.
+ * * Runs ahead of the Spring Security chain (see ConcurrencyLimitConfig), so a shed request
+ * costs neither JWT verification nor membership lookups. Only requests that completed
+ * without a server error feed the latency samples.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpoint = EndpointClass.classify(request.getMethod(), request.getRequestURI());
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire(endpoint)) {
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            chain.doFilter(request, response);
+            success = response.getStatus() < 500;
+        } finally {
+            limiter.release(endpoint, System.nanoTime() - start, success);
+        }
+    }
+
+    private static void reject(HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        ProblemDetails.write(response, ProblemDetails.of(HttpStatus.SERVICE_UNAVAILABLE, "overloaded",
+                "Server is overloaded, please retry"));
+    }
+}
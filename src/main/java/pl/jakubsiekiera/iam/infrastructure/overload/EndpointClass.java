@@ -0,0 +1,59 @@
+package pl.jakubsiekiera.iam.infrastructure.overload;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Groups endpoints whose latency behaves alike, so each group learns its own concurrency limit.
+ * * Registration and invites are dominated by Keycloak round trips, tenant reads by (mostly
+ * cached) database access: a single shared limit would let slow Keycloak calls starve reads.
+ */
+public enum EndpointClass {
+
+    REGISTRATION("registration"),
+    INVITE("invite"),
+    TENANT_READS("tenant-reads");
+
+    private static final PathPatternParser PARSER = PathPatternParser.defaultInstance;
+    private static final PathPattern USERS = PARSER.parse("/api/v1/users");
+    private static final PathPattern TENANTS = PARSER.parse("/api/v1/tenants");
+    private static final PathPattern TENANT_USERS = PARSER.parse("/api/v1/tenants/{tenantId}/users");
+    private static final PathPattern TENANT_SUBTREE = PARSER.parse("/api/v1/tenants/{tenantId}/**");
+    private static final PathPattern TENANTS_BATCH_GET = PARSER.parse("/api/v1/tenants:batchGet");
+
+    private final String tag;
+
+    EndpointClass(String tag) {
+        this.tag = tag;
+    }
+
+    // Value used in property names and metric tags
+    public String tag() {
+        return tag;
+    }
+
+    /**
+     * @return The class of the request, or null for endpoints that aren't concurrency-limited.
+     */
+    public static EndpointClass classify(String method, String requestUri) {
+        PathContainer path = PathContainer.parsePath(requestUri);
+        if (HttpMethod.POST.matches(method)) {
+            if (USERS.matches(path) || TENANTS.matches(path)) {
+                return REGISTRATION;
+            }
+            if (TENANT_USERS.matches(path)) {
+                return INVITE;
+            }
+            if (TENANTS_BATCH_GET.matches(path)) {
+                return TENANT_READS;
+            }
+            return null;
+        }
+        if (HttpMethod.GET.matches(method) && (TENANTS.matches(path) || TENANT_SUBTREE.matches(path))) {
+            return TENANT_READS;
+        }
+        return null;
+    }
+}
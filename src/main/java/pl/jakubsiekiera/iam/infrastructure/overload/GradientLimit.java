@@ -0,0 +1,115 @@
+package pl.jakubsiekiera.iam.infrastructure.overload;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit learned from latency ("gradient" algorithm, as in Netflix concurrency-limits).
+ * * Two moving averages of the request latency are tracked: a long one (the no-load baseline)
+ * and a short one (what requests see right now). Their ratio is the gradient: ~1 while the
+ * service keeps up, below 1 as soon as requests start queueing. Every sample moves the limit to
+ *     limit * gradient + sqrt(limit)
+ * so the limit shrinks under queueing and probes upward by a small headroom otherwise,
+ * settling near the knee of the latency curve.
+ * * The admission path (acquire) is a single CAS loop on the in-flight counter, so requests
+ * over the limit are rejected without locking. Limit updates take a try-lock and simply skip
+ * the sample when another thread is updating, since samples are statistical anyway.
+ */
+final class GradientLimit {
+
+    private static final double LONG_WINDOW_ALPHA = 2.0 / (600 + 1);
+    private static final double SHORT_WINDOW_ALPHA = 2.0 / (10 + 1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by updateLock
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private double estimatedLimit;
+    private double longRtt;
+    private double shortRtt;
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit, double smoothing) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("Smoothing must be in (0, 1]");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * @return true if the request may run (the caller must then call {@link #release}), false to shed it.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param rttNanos How long the request took.
+     * @param sample   false for failed requests, whose latency says nothing about capacity.
+     */
+    void release(long rttNanos, boolean sample) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (sample && rttNanos > 0 && updateLock.tryLock()) {
+            try {
+                update(rttNanos, inFlightBefore);
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private void update(long rttNanos, int inFlightBefore) {
+        // 1. Update both latency averages (the first sample seeds them)
+        if (longRtt == 0) {
+            longRtt = rttNanos;
+            shortRtt = rttNanos;
+        } else {
+            longRtt += (rttNanos - longRtt) * LONG_WINDOW_ALPHA;
+            shortRtt += (rttNanos - shortRtt) * SHORT_WINDOW_ALPHA;
+        }
+
+        // 2. After a long overload the baseline is inflated; let it catch up once latency recovers
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // 3. Don't grow the limit while traffic isn't even using half of it
+        if (inFlightBefore < estimatedLimit / 2) {
+            return;
+        }
+
+        // 4. Gradient step, smoothed and clamped
+        double gradient = Math.max(0.5, Math.min(1.0, longRtt / shortRtt));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        double next = estimatedLimit * (1 - smoothing) + target * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,122 @@
+package pl.jakubsiekiera.iam.infrastructure.persistence;
+
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.model.user.RoleHierarchy;
+import pl.jakubsiekiera.iam.domain.repository.RoleHierarchyRepository;
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.TenantRoleHierarchyJpaEntity;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaTenantRoleHierarchyRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Persists role hierarchies and keeps their computed closures in memory.
+ * * Authorization checks read hierarchies on every request, so built RoleHierarchy objects
+ * (closure included) are cached per tenant. Saving replaces the cached entry on this instance
+ * once the transaction commits; the TTL bounds how long other instances may use the previous
+ * version.
+ * * Closures grow with the square of the role count (up to ~3 MB for one tenant), so the cache
+ * is bounded by their estimated heap size ('iam.roles.hierarchy-cache.maximum-weight'), not
+ * by the number of tenants.
+ */
+@Repository
+public class PostgresRoleHierarchyRepository implements RoleHierarchyRepository {
+
+    private static final String EDGE = ">";
+    private static final String SEPARATOR = ",";
+    // Rough heap cost of an entry besides the closure bits: key, map entries, Role objects
+    private static final int ENTRY_BYTES = 256;
+    private static final int ROLE_BYTES = 128;
+
+    private final JpaTenantRoleHierarchyRepository jpaRepository;
+    private final LoadingCache<TenantId, Optional<RoleHierarchy>> hierarchies;
+
+    public PostgresRoleHierarchyRepository(
+            JpaTenantRoleHierarchyRepository jpaRepository,
+            @Value("${iam.roles.hierarchy-cache.maximum-weight:64MB}") DataSize maximumWeight,
+            @Value("${iam.roles.hierarchy-cache.ttl:5m}") Duration ttl) {
+        this.jpaRepository = jpaRepository;
+        this.hierarchies = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight.toBytes())
+                .weigher((TenantId tenantId, Optional<RoleHierarchy> hierarchy) -> weigh(hierarchy))
+                .expireAfterWrite(ttl)
+                .build(tenantId -> jpaRepository.findById(tenantId.value()).map(e -> toDomain(e.getInheritance())));
+    }
+
+    @Override
+    public void save(TenantId tenantId, RoleHierarchy hierarchy) {
+        TenantRoleHierarchyJpaEntity entity = new TenantRoleHierarchyJpaEntity();
+        entity.setTenantId(tenantId.value());
+        entity.setInheritance(toColumn(hierarchy));
+        entity.setUpdatedAt(Instant.now());
+        jpaRepository.save(entity);
+
+        // The closure was computed when the hierarchy was built; keep that instance, but only
+        // once it is committed, so a rollback never leaves an unpersisted hierarchy cached
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    hierarchies.put(tenantId, Optional.of(hierarchy));
+                }
+            });
+            return;
+        }
+        hierarchies.put(tenantId, Optional.of(hierarchy));
+    }
+
+    @Override
+    public Optional<RoleHierarchy> findByTenantId(TenantId tenantId) {
+        return hierarchies.get(tenantId);
+    }
+
+    // Estimated bytes: one bit per (role, role) pair of the closure, plus fixed overheads
+    static int weigh(Optional<RoleHierarchy> hierarchy) {
+        if (hierarchy.isEmpty()) {
+            return ENTRY_BYTES; // Tenants without a hierarchy are cached too
+        }
+        long roles = hierarchy.get().roleCount();
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_BYTES + roles * ROLE_BYTES + roles * roles / 8);
+    }
+
+    // --- MAPPERS ---
+
+    /**
+     * Flattens direct edges into 'PARENT>CHILD' pairs, e.g. "OWNER>ADMIN,ADMIN>MEMBER".
+     */
+    private static String toColumn(RoleHierarchy hierarchy) {
+        StringJoiner joiner = new StringJoiner(SEPARATOR);
+        for (Map.Entry<Role, Set<Role>> entry : hierarchy.declaredInheritance().entrySet()) {
+            for (Role child : entry.getValue()) {
+                joiner.add(entry.getKey().name() + EDGE + child.name());
+            }
+        }
+        return joiner.toString();
+    }
+
+    private static RoleHierarchy toDomain(String column) {
+        Map<Role, List<Role>> inherits = new LinkedHashMap<>();
+        for (String edge : column.split(SEPARATOR)) {
+            if (edge.isBlank()) continue;
+            int split = edge.indexOf(EDGE);
+            Role parent = new Role(edge.substring(0, split));
+            inherits.computeIfAbsent(parent, r -> new ArrayList<>()).add(new Role(edge.substring(split + 1)));
+        }
+        return RoleHierarchy.of(inherits);
+    }
+}
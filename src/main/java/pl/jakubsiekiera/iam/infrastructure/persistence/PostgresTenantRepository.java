@@ -14,7 +14,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository // Registers this class as a Spring Bean within the persistence layer
 @Primary // Tells Spring: "If multiple TenantRepository beans exist, prioritize this Postgres one"
@@ -39,9 +45,34 @@ public class PostgresTenantRepository implements TenantRepository {
     }
 
     @Override
-    public boolean existsByName(String name) {
-        // Directly delegates the check to the JPA repository (optimized exists query)
-        return jpaRepository.existsByName(name);
+    public List<Tenant> findAllByIds(Collection<TenantId> ids) {
+        if (ids.isEmpty()) {
+            return List.of(); // Nothing to ask the database for
+        }
+        // Unwrap the Value Objects into a raw array bound as a single 'uuid[]' parameter
+        UUID[] rawIds = new UUID[ids.size()];
+        int i = 0;
+        for (TenantId id : ids) {
+            rawIds[i++] = id.value();
+        }
+        return jpaRepository.findAllByIdArray(rawIds).stream().map(this::toDomain).toList();
+    }
+
+    @Override
+    public void updateStatuses(Collection<Tenant> tenants) {
+        // Group by target status: a bulk suspend/activate ends up as a single UPDATE
+        Map<TenantStatus, List<UUID>> idsByStatus = new EnumMap<>(TenantStatus.class);
+        for (Tenant tenant : tenants) {
+            idsByStatus.computeIfAbsent(tenant.getStatus(), s -> new ArrayList<>()).add(tenant.getId().value());
+        }
+        idsByStatus.forEach((status, ids) -> jpaRepository.updateStatusByIdArray(ids.toArray(UUID[]::new), status.name()));
+    }
+
+    @Override
+    public boolean insertIfNameAvailable(Tenant tenant) {
+        // One round trip: the unique lower(name) index decides, no check-then-act race
+        return jpaRepository.insertIfNameAvailable(tenant.getId().value(), tenant.getName(),
+                tenant.getStatus().name(), tenant.getCreationDate()) == 1;
     }
 
     // --- MAPPERS: The translation logic between layers ---
@@ -1,7 +1,6 @@
 package pl.jakubsiekiera.iam.infrastructure.persistence;
 
 // Domain imports: These represent the "What" (Business Logic)
-import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
 import pl.jakubsiekiera.iam.domain.model.user.*;
 import pl.jakubsiekiera.iam.domain.repository.UserRepository;
 
@@ -14,14 +13,18 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.UUID;
 
 @Repository // Marks this class as a Spring-managed bean for data access
 @Primary // Ensures this implementation is chosen if multiple UserRepository beans exist
 @RequiredArgsConstructor // Lombok generates a constructor for all final fields (Dependency Injection)
 public class PostgresUserRepository implements UserRepository {
 
+    private static final char ROLE_SEPARATOR = ',';
+
     // The Spring Data JPA interface that handles actual SQL execution
     private final JpaUserRepository jpaRepository;
 
@@ -36,61 +39,100 @@ public class PostgresUserRepository implements UserRepository {
     @Override
     public Optional<User> findById(UserId id) {
         // Fetch from DB using the raw UUID, then map the result (if present) back to a Domain object
-        return jpaRepository.findById(id.value()).map(this::toDomain);
+        return jpaRepository.findById(id.value()).map(PostgresUserRepository::toDomain);
     }
 
     @Override
     public Optional<User> findByEmail(Email email) {
-        // Fetch from DB using the raw String email, then map the result back to a Domain object
-        return jpaRepository.findByEmail(email.value()).map(this::toDomain);
+        // Emails are compared case-insensitively, through the lower(email) index
+        return jpaRepository.findByNormalizedEmail(email.normalized()).map(PostgresUserRepository::toDomain);
+    }
+
+    @Override
+    public Optional<User> findByKeycloakId(String keycloakId) {
+        // The token 'sub' claim, resolved through the unique keycloak_id index
+        return jpaRepository.findByKeycloakId(keycloakId).map(PostgresUserRepository::toDomain);
     }
 
     // --- MAPPERS: Transforming data between layers ---
+    // Rehydration runs on the hottest read path and users can have hundreds of memberships,
+    // so both mappers avoid streams, String.split and per-role allocations: memberships are
+    // bulk-loaded into the user's compact MembershipTable and roles resolve to shared instances.
 
     /**
      * Converts a Domain 'User' (Logic-rich) to a 'UserJpaEntity' (Database-friendly)
+     * * Package-private and static so UserMappingBenchmark can drive it directly.
      */
-    private UserJpaEntity toEntity(User domain) {
+    static UserJpaEntity toEntity(User domain) {
         UserJpaEntity entity = new UserJpaEntity(); // Initialize the JPA container
         entity.setId(domain.getId().value()); // Extract raw UUID from Value Object
         entity.setKeycloakId(domain.getKeycloakId()); // Map KeycloakId
         entity.setEmail(domain.getEmail().value());
-        // Transform the Map of Domain Memberships into a List of JPA Entities
-        var membershipEntities = domain.getMemberships().values().stream().map(m -> {
+
+        // Transform the domain memberships into a List of JPA Entities
+        List<UserMembershipJpaEntity> membershipEntities = new ArrayList<>(domain.membershipCount());
+        StringBuilder csv = new StringBuilder(32);
+        domain.forEachMembership((tenantId, roles) -> {
             UserMembershipJpaEntity me = new UserMembershipJpaEntity();
             me.setUser(entity); // Set the circular reference (Foreign Key link) required by JPA
-            me.setTenantId(m.getTenantId().value()); // Extract the raw Tenant UUID
-            
-            // Flatten the List of Role Enums into a single CSV string (e.g., "ADMIN,USER")
-            String roleStr = m.getRoles().stream()
-                                     .map(Role::name)
-                                     .collect(Collectors.joining(","));
-            me.setRoles(roleStr); // Store the CSV string in the entity
-            return me;
-        }).collect(Collectors.toList());
+            me.setTenantId(tenantId.value()); // Extract the raw Tenant UUID
+
+            // Flatten the roles into a single CSV string (e.g., "ADMIN,MEMBER")
+            csv.setLength(0);
+            for (Role role : roles) {
+                if (!csv.isEmpty()) csv.append(ROLE_SEPARATOR);
+                csv.append(role.name());
+            }
+            me.setRoles(csv.toString());
+            membershipEntities.add(me);
+        });
 
         entity.setMemberships(membershipEntities); // Attach the collection to the parent entity
         return entity;
-}
+    }
 
     /**
      * Converts a 'UserJpaEntity' (Database data) back into a Domain 'User' (Business Logic)
+     * * Package-private and static so the allocation budget test and UserMappingBenchmark can drive it directly.
+     */
+    static User toDomain(UserJpaEntity entity) {
+        List<UserMembershipJpaEntity> rows = entity.getMemberships();
+        MembershipTable.Builder memberships = MembershipTable.builder(rows.size());
+
+        // Iterate through stored memberships to rebuild the domain state.
+        // A row without roles adds nothing, i.e. it carries no access, as before.
+        for (UserMembershipJpaEntity me : rows) {
+            addRoles(memberships, me.getTenantId(), me.getRoles());
+        }
+
+        return User.rehydrate(
+            new UserId(entity.getId()), // Wrap raw UUID back into a Value Object
+            entity.getKeycloakId(), // Map KeycloakId
+            new Email(entity.getEmail()), // Wrap raw String back into an Email Value Object
+            memberships.build()
+        );
+    }
+
+    /**
+     * Splits the roles CSV in place (no String[] or substrings for the standard roles) straight
+     * into the table builder. Blank entries are skipped.
      */
-private User toDomain(UserJpaEntity entity) {
-    User user = new User(
-        new UserId(entity.getId()), // Wrap raw UUID back into a Value Object
-        entity.getKeycloakId(), // Map KeycloakId
-        new Email(entity.getEmail()) // Wrap raw String back into an Email Value Object
-    );
-        // Iterate through stored memberships to rebuild the domain state
-        for (UserMembershipJpaEntity me : entity.getMemberships()) {
-            TenantId tid = new TenantId(me.getTenantId()); // Reconstruct the TenantId
-            // Split the CSV string back into individual role strings
-            for (String r : me.getRoles().split(",")) {
-                // If role exists, add it to the domain object's internal state
-                if (!r.isBlank()) user.addToTenant(tid, new Role(r));
+    private static void addRoles(MembershipTable.Builder memberships, UUID tenantId, String csv) {
+        int from = 0;
+        while (from <= csv.length()) {
+            int to = csv.indexOf(ROLE_SEPARATOR, from);
+            if (to < 0) to = csv.length();
+            if (!isBlank(csv, from, to)) {
+                memberships.add(tenantId, Role.of(csv, from, to));
             }
+            from = to + 1;
         }
-        return user; // Return the fully "rehydrated" Domain object
     }
-}
\ No newline at end of file
+
+    private static boolean isBlank(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(s.charAt(i))) return false;
+        }
+        return true;
+    }
+}
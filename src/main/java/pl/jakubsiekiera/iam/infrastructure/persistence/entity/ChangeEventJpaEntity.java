@@ -0,0 +1,36 @@
+package pl.jakubsiekiera.iam.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One committed change, as published on the change feed. The generated id is the feed cursor.
+ */
+@Entity
+@Table(name = "change_events")
+@Data
+public class ChangeEventJpaEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String type;
+
+    // CSV of the tenants the change concerns
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String tenantIds;
+
+    private UUID userId;
+
+    private String name;
+
+    @Column(length = 32)
+    private String status;
+
+    @Column(nullable = false)
+    private Instant occurredOn;
+}
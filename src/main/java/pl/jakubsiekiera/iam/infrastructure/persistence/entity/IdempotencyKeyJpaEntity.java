@@ -0,0 +1,47 @@
+package pl.jakubsiekiera.iam.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The recorded outcome of a request sent with an 'Idempotency-Key' header.
+ * While the first request is still running the row is only a claim: statusCode is null.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+public class IdempotencyKeyJpaEntity {
+
+    // SHA-256 (hex) of the scoped key '<METHOD> <path> <caller> <client key>', so the same client
+    // key can't collide across endpoints or callers, and the id has a fixed length
+    @Id
+    @Column(length = 512)
+    private String id;
+
+    // SHA-256 (hex) of the request body; a retry must send the same payload
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    // Identifies the current claim; a request whose lease was taken over no longer matches it
+    @Column(nullable = false)
+    private UUID claimToken;
+
+    private Integer statusCode;
+
+    private String contentType;
+
+    // Location header of the recorded response (e.g. of a 201 Created), if any
+    @Column(length = 2048)
+    private String location;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -25,9 +25,9 @@ public class TenantJpaEntity {
     /**
      * @Column: Configures the mapping for this field.
      * nullable = false: Ensures the 'name' column cannot be empty (NOT NULL constraint).
-     * unique = true: Ensures no two tenants can have the exact same name.
+     * Uniqueness is case-insensitive and enforced by the 'uq_tenants_lower_name' index (V9).
      */
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String name;
 
     /**
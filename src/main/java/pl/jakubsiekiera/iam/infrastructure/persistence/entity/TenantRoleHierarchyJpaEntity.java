@@ -0,0 +1,25 @@
+package pl.jakubsiekiera.iam.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Direct role inheritance edges of one tenant, stored as 'PARENT>CHILD' CSV.
+ * The closure is derived data and is never persisted.
+ */
+@Entity
+@Table(name = "tenant_role_hierarchies")
+@Data
+public class TenantRoleHierarchyJpaEntity {
+
+    @Id
+    private UUID tenantId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String inheritance;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
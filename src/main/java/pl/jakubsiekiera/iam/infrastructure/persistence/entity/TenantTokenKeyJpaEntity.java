@@ -0,0 +1,32 @@
+package pl.jakubsiekiera.iam.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.Instant;
+
+/**
+ * One Ed25519 signing key for tenant-context tokens.
+ * Keys are stored encoded (PKCS#8 / X.509) so any instance can rebuild them with a KeyFactory.
+ */
+@Entity
+@Table(name = "tenant_token_keys")
+@Data
+public class TenantTokenKeyJpaEntity {
+
+    // The JWS 'kid' header; downstream services use it to pick the key from our JWKS
+    @Id
+    private String kid;
+
+    @Column(nullable = false)
+    private byte[] privateKey;
+
+    @Column(nullable = false)
+    private byte[] publicKey;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // After this moment no unexpired token can carry this key's signature, so it is no longer published
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
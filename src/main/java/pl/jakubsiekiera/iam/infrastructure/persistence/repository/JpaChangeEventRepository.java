@@ -0,0 +1,37 @@
+package pl.jakubsiekiera.iam.infrastructure.persistence.repository;
+
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.ChangeEventJpaEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface JpaChangeEventRepository extends JpaRepository<ChangeEventJpaEntity, Long> {
+
+    // The next page of the feed: committed changes after the cursor, in id order
+    @Query(value = "SELECT * FROM change_events WHERE id > :after ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<ChangeEventJpaEntity> findPageAfter(@Param("after") long after, @Param("limit") int limit);
+
+    @Query("SELECT MIN(c.id) FROM ChangeEventJpaEntity c")
+    Long findMinId();
+
+    @Query("SELECT MAX(c.id) FROM ChangeEventJpaEntity c")
+    Long findMaxId();
+
+    /**
+     * NATIVE QUERY: Retention
+     * * Deletes changes older than the cutoff, but always keeps the newest one: the feed derives
+     * "this cursor has been purged" and "this cursor is from the future" from the ids still here.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        DELETE FROM change_events
+        WHERE occurred_on < :cutoff AND id < (SELECT MAX(id) FROM change_events)
+    """, nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
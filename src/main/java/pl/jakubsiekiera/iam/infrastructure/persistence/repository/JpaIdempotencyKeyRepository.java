@@ -0,0 +1,61 @@
+package pl.jakubsiekiera.iam.infrastructure.persistence.repository;
+
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.IdempotencyKeyJpaEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface JpaIdempotencyKeyRepository extends JpaRepository<IdempotencyKeyJpaEntity, String> {
+
+    /**
+     * NATIVE QUERY: Atomically claims a key
+     * * Inserts an in-progress row, or takes over a row whose retention has expired but which
+     * hasn't been purged yet. Returns 1 if this caller now owns the key, 0 if somebody else
+     * does; the unique primary key makes the decision, so it also holds across instances.
+     * 'claimToken' identifies this claim, and fences the queries below.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        INSERT INTO idempotency_keys (id, request_hash, claim_token, created_at, expires_at)
+        VALUES (:id, :requestHash, :claimToken, :now, :expiresAt)
+        ON CONFLICT (id) DO UPDATE
+            SET request_hash = EXCLUDED.request_hash, claim_token = EXCLUDED.claim_token, status_code = NULL,
+                content_type = NULL, location = NULL, response_body = NULL, created_at = EXCLUDED.created_at,
+                expires_at = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at <= :now
+    """, nativeQuery = true)
+    int claim(@Param("id") String id, @Param("requestHash") String requestHash, @Param("claimToken") UUID claimToken,
+              @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    // Turns the claim (a short lease) into a replayable response kept until 'expiresAt';
+    // 0 if the lease expired and another request has taken the key over
+    @Transactional
+    @Modifying
+    @Query(value = """
+        UPDATE idempotency_keys
+        SET status_code = :statusCode, content_type = :contentType, location = :location, response_body = :body,
+            expires_at = :expiresAt
+        WHERE id = :id AND claim_token = :claimToken AND status_code IS NULL
+    """, nativeQuery = true)
+    int complete(@Param("id") String id, @Param("claimToken") UUID claimToken, @Param("statusCode") int statusCode,
+                 @Param("contentType") String contentType, @Param("location") String location,
+                 @Param("body") String body, @Param("expiresAt") Instant expiresAt);
+
+    // Gives up a claim whose request failed, so a retry can run it again; never someone else's
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE id = :id AND claim_token = :claimToken AND status_code IS NULL",
+            nativeQuery = true)
+    int release(@Param("id") String id, @Param("claimToken") UUID claimToken);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE expires_at <= :now", nativeQuery = true)
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -2,6 +2,11 @@ package pl.jakubsiekiera.iam.infrastructure.persistence.repository;
 
 import pl.jakubsiekiera.iam.infrastructure.persistence.entity.TenantJpaEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 import java.util.Optional;
 
@@ -9,15 +14,45 @@ import java.util.Optional;
  * Repository interface for Tenant data access.
  * Extends JpaRepository to inherit standard database operations for the Tenant entity.
  * The use of UUID as the ID type ensures globally unique identifiers for multi-tenant environments.
+ * Keyset pagination queries are contributed by the {@link JpaTenantRepositoryCustom} fragment.
  */
-public interface JpaTenantRepository extends JpaRepository<TenantJpaEntity, UUID> {
+public interface JpaTenantRepository extends JpaRepository<TenantJpaEntity, UUID>, JpaTenantRepositoryCustom {
 
     /**
-     * A Derived Query Method using the 'exists' projection.
-     * Spring generates a high-performance "SELECT 1" or "EXISTS" query rather than 
-     * loading the entire entity into memory.
-     * * @param name The name of the tenant to check.
-     * @return true if a record with the given name exists, false otherwise.
+     * NATIVE QUERY: Insert-first registration
+     * * Relies on the unique 'lower(name)' index (uq_tenants_lower_name) instead of a prior
+     * existence check. The conflict target names that index, so only a name clash is
+     * swallowed; any other constraint violation still fails loudly. On a name
+     * conflict nothing is written and no exception is raised (which would otherwise mark the
+     * surrounding transaction rollback-only), so the caller simply sees 0 rows affected.
+     * * @return 1 if the tenant was inserted, 0 if the name is already taken.
      */
-    boolean existsByName(String name);
+    @Modifying
+    @Query(value = """
+        INSERT INTO tenants (id, name, status, creation_date)
+        VALUES (:id, :name, :status, :creationDate)
+        ON CONFLICT ((lower(name))) DO NOTHING
+    """, nativeQuery = true)
+    int insertIfNameAvailable(@Param("id") UUID id, @Param("name") String name,
+                              @Param("status") String status, @Param("creationDate") Instant creationDate);
+
+    /**
+     * NATIVE QUERY: Multi-get by primary key
+     * * Binds all ids as a single Postgres array parameter. Unlike a derived 'findByIdIn',
+     * which expands into 'IN (?, ?, ...)' with one bind per element, the statement text
+     * stays the same for every batch size, so the prepared statement is reused and the
+     * planner resolves it with a single primary key index scan.
+     */
+    @Query(value = "SELECT * FROM tenants WHERE id = ANY(:ids)", nativeQuery = true)
+    List<TenantJpaEntity> findAllByIdArray(@Param("ids") UUID[] ids);
+
+    /**
+     * NATIVE UPDATE: Set-based status change for a chunk of tenants.
+     * * One statement per chunk instead of a merge (SELECT + UPDATE) per tenant keeps the
+     * transaction, and therefore the time row locks are held, as short as possible.
+     * @return the number of rows updated.
+     */
+    @Modifying
+    @Query(value = "UPDATE tenants SET status = :status WHERE id = ANY(:ids)", nativeQuery = true)
+    int updateStatusByIdArray(@Param("ids") UUID[] ids, @Param("status") String status);
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package pl.jakubsiekiera.iam.infrastructure.persistence.repository;
+
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.TenantJpaEntity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Custom Spring Data fragment for keyset ("seek") pagination over tenants.
+ * * Instead of OFFSET, which makes Postgres walk and discard every skipped row, each page
+ * starts strictly after the last row of the previous page using a row-value comparison
+ * that matches one of the listing indexes (see V3__tenants_listing_indexes.sql).
+ * * All parameters except 'limit' are optional; a null cursor means "first page".
+ */
+public interface JpaTenantRepositoryCustom {
+
+    /**
+     * Page ordered by (creation_date, id), optionally restricted to one status.
+     */
+    List<TenantJpaEntity> findPageOrderedByCreation(String status, Instant afterCreationDate, UUID afterId, int limit);
+
+    /**
+     * Page of tenants whose lower-cased name starts with the given prefix, ordered by
+     * (lower(name), id) so the prefix and the cursor are served by the same index range.
+     */
+    List<TenantJpaEntity> findPageOrderedByName(String status, String lowerNamePrefix, String afterLowerName, UUID afterId, int limit);
+}
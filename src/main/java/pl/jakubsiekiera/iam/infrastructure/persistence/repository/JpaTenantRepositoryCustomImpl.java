@@ -0,0 +1,97 @@
+package pl.jakubsiekiera.iam.infrastructure.persistence.repository;
+
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.TenantJpaEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implementation of {@link JpaTenantRepositoryCustom}, picked up by Spring Data through the 'Impl' suffix.
+ * * The SQL is assembled per filter combination rather than with "(:param IS NULL OR ...)" guards:
+ * such guards force Postgres into one generic plan that cannot use the matching index.
+ */
+class JpaTenantRepositoryCustomImpl implements JpaTenantRepositoryCustom {
+
+    // The lower-cased name expression exactly as it appears in idx_tenants_lower_name_id
+    private static final String LOWER_NAME = "lower(name) COLLATE \"C\"";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<TenantJpaEntity> findPageOrderedByCreation(String status, Instant afterCreationDate, UUID afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM tenants WHERE TRUE");
+        if (status != null) {
+            sql.append(" AND status = :status");
+        }
+        if (afterId != null) {
+            sql.append(" AND (creation_date, id) > (:afterCreationDate, :afterId)");
+        }
+        sql.append(" ORDER BY creation_date, id LIMIT :limit");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), TenantJpaEntity.class);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (afterId != null) {
+            query.setParameter("afterCreationDate", afterCreationDate);
+            query.setParameter("afterId", afterId);
+        }
+        query.setParameter("limit", limit);
+        return query.getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<TenantJpaEntity> findPageOrderedByName(String status, String lowerNamePrefix, String afterLowerName, UUID afterId, int limit) {
+        // A prefix is expressed as a half-open range [prefix, prefixEnd) instead of LIKE 'prefix%':
+        // with bind parameters a LIKE pattern is opaque to the planner, a range never is.
+        StringBuilder sql = new StringBuilder("SELECT * FROM tenants WHERE ")
+                .append(LOWER_NAME).append(" >= :prefix AND ")
+                .append(LOWER_NAME).append(" < :prefixEnd");
+        if (status != null) {
+            sql.append(" AND status = :status");
+        }
+        if (afterId != null) {
+            sql.append(" AND (").append(LOWER_NAME).append(", id) > (CAST(:afterName AS text) COLLATE \"C\", :afterId)");
+        }
+        sql.append(" ORDER BY ").append(LOWER_NAME).append(", id LIMIT :limit");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), TenantJpaEntity.class);
+        query.setParameter("prefix", lowerNamePrefix);
+        query.setParameter("prefixEnd", prefixUpperBound(lowerNamePrefix));
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (afterId != null) {
+            query.setParameter("afterName", afterLowerName);
+            query.setParameter("afterId", afterId);
+        }
+        query.setParameter("limit", limit);
+        return query.getResultList();
+    }
+
+    /**
+     * Smallest string greater than every string starting with 'prefix' under the "C" collation
+     * (byte order of UTF-8, i.e. code point order): the last code point is incremented.
+     */
+    static String prefixUpperBound(String prefix) {
+        int end = prefix.length();
+        while (end > 0) {
+            int last = prefix.codePointBefore(end);
+            int start = end - Character.charCount(last);
+            if (last < Character.MAX_CODE_POINT) {
+                // Surrogates are not code points of their own, so U+D7FF is followed by U+E000
+                int next = last + 1 == Character.MIN_SURROGATE ? Character.MAX_SURROGATE + 1 : last + 1;
+                return prefix.substring(0, start) + Character.toString(next);
+            }
+            end = start; // U+10FFFF cannot be incremented, carry into the previous code point
+        }
+        return Character.toString(Character.MAX_CODE_POINT);
+    }
+}
@@ -0,0 +1,9 @@
+package pl.jakubsiekiera.iam.infrastructure.persistence.repository;
+
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.TenantRoleHierarchyJpaEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface JpaTenantRoleHierarchyRepository extends JpaRepository<TenantRoleHierarchyJpaEntity, UUID> {
+}
@@ -0,0 +1,13 @@
+package pl.jakubsiekiera.iam.infrastructure.persistence.repository;
+
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.TenantTokenKeyJpaEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface JpaTenantTokenKeyRepository extends JpaRepository<TenantTokenKeyJpaEntity, String> {
+
+    // Derived query: every key still needed to verify tokens, newest first
+    List<TenantTokenKeyJpaEntity> findByExpiresAtAfterOrderByCreatedAtDesc(Instant now);
+}
@@ -17,13 +17,24 @@ import java.util.Optional;
 public interface JpaUserRepository extends JpaRepository<UserJpaEntity, UUID> {
 
     /**
-     * This is a "Derived Query Method."
-     * Spring Data JPA parses the method name 'findByEmail' and automatically
-     * generates the SQL: "SELECT * FROM users WHERE email = ?"
+     * NATIVE QUERY: Case-insensitive lookup by email
+     * * Matches the normalized (lower-case) email against the functional 'lower(email)' index,
+     * exactly like the batch lookup below, so 'Jane@Example.com' finds 'jane@example.com'.
+     * The index is not unique and rows written before lookups were normalized may differ only
+     * in case, hence the LIMIT; ordering by the stored email keeps the pick deterministic.
      * * Using Optional<> prevents NullPointerExceptions by forcing the caller
      * to handle cases where no user exists with the given email.
      */
-    Optional<UserJpaEntity> findByEmail(String email);
+    @Query(value = """
+        SELECT * FROM users
+        WHERE lower(email) = :email
+        ORDER BY email
+        LIMIT 1
+    """, nativeQuery = true)
+    Optional<UserJpaEntity> findByNormalizedEmail(@Param("email") String normalizedEmail);
+
+    // Derived query backed by the unique 'idx_users_keycloak_id' index
+    Optional<UserJpaEntity> findByKeycloakId(String keycloakId);
 
     /**
      * CUSTOM JPQL QUERY: Efficient Tenant-Based Lookup
@@ -40,4 +51,99 @@ public interface JpaUserRepository extends JpaRepository<UserJpaEntity, UUID> {
         WHERE m.tenantId = :tenantId
     """)
     List<UserJpaEntity> findUsersByTenantId(@Param("tenantId") UUID tenantId);
-}
\ No newline at end of file
+
+    /**
+     * NATIVE QUERY: Batch lookup by case-insensitive email
+     * * All normalized emails are bound as one 'text[]' parameter and matched against the
+     * functional 'lower(email)' index. Memberships are LEFT JOINed in the same statement,
+     * so the whole batch costs one round trip and returns flat rows (one per membership,
+     * or a single row with NULL tenant columns for users without memberships).
+     * Aliases are quoted because Postgres folds unquoted identifiers to lower case.
+     */
+    @Query(value = """
+        SELECT u.id AS "userId", u.email AS "email", m.tenant_id AS "tenantId", m.roles AS "roles"
+        FROM users u
+        LEFT JOIN user_memberships m ON m.user_id = u.id
+        WHERE lower(u.email) = ANY(:emails)
+    """, nativeQuery = true)
+    List<UserMembershipRow> findMembershipRowsByNormalizedEmails(@Param("emails") String[] emails);
+
+    /**
+     * Interface-based projection for the flat rows returned by the batch lookup.
+     * Spring Data backs it with a lightweight proxy, no entity is instantiated or tracked.
+     */
+    interface UserMembershipRow {
+        UUID getUserId();
+        String getEmail();
+        UUID getTenantId();
+        String getRoles();
+    }
+
+    /**
+     * NATIVE QUERY: The user behind a token 'sub' together with all memberships
+     * * Same flat row shape as the batch lookup: one row per membership, or a single row
+     * with NULL tenant columns when the user belongs to no tenant yet.
+     */
+    @Query(value = """
+        SELECT u.id AS "userId", u.email AS "email", m.tenant_id AS "tenantId", m.roles AS "roles"
+        FROM users u
+        LEFT JOIN user_memberships m ON m.user_id = u.id
+        WHERE u.keycloak_id = :keycloakId
+    """, nativeQuery = true)
+    List<UserMembershipRow> findUserRowsByKeycloakId(@Param("keycloakId") String keycloakId);
+
+    /**
+     * NATIVE QUERY: Memberships of the user behind a token 'sub'
+     * * Resolved through the unique keycloak_id index and the user_id index on memberships,
+     * returning only the two columns authorization needs.
+     */
+    @Query(value = """
+        SELECT m.tenant_id AS "tenantId", m.roles AS "roles"
+        FROM users u
+        JOIN user_memberships m ON m.user_id = u.id
+        WHERE u.keycloak_id = :keycloakId
+    """, nativeQuery = true)
+    List<MembershipRow> findMembershipRowsByKeycloakId(@Param("keycloakId") String keycloakId);
+
+    interface MembershipRow {
+        UUID getTenantId();
+        String getRoles();
+    }
+
+    /**
+     * NATIVE QUERY: Reverse index, "tenants of this user"
+     * * Starts from the covering (user_id) INCLUDE (tenant_id, roles) index and joins each
+     * tenant by primary key, all in one statement.
+     */
+    @Query(value = """
+        SELECT m.tenant_id AS "tenantId", t.name AS "name", t.status AS "status", m.roles AS "roles"
+        FROM user_memberships m
+        JOIN tenants t ON t.id = m.tenant_id
+        WHERE m.user_id = :userId
+        ORDER BY t.name
+    """, nativeQuery = true)
+    List<TenantMembershipRow> findTenantRowsByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Same as {@link #findTenantRowsByUserId}, restricted to tenants in one status, so suspended
+     * tenants never leave the database when the caller doesn't want them. A separate statement
+     * rather than an "(:status IS NULL OR ...)" catch-all, which the planner can only treat
+     * generically once the plan is cached.
+     */
+    @Query(value = """
+        SELECT m.tenant_id AS "tenantId", t.name AS "name", t.status AS "status", m.roles AS "roles"
+        FROM user_memberships m
+        JOIN tenants t ON t.id = m.tenant_id
+        WHERE m.user_id = :userId
+          AND t.status = :status
+        ORDER BY t.name
+    """, nativeQuery = true)
+    List<TenantMembershipRow> findTenantRowsByUserIdAndStatus(@Param("userId") UUID userId, @Param("status") String status);
+
+    interface TenantMembershipRow {
+        UUID getTenantId();
+        String getName();
+        String getStatus();
+        String getRoles();
+    }
+}
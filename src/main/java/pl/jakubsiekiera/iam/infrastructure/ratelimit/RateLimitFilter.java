@@ -0,0 +1,98 @@
+package pl.jakubsiekiera.iam.infrastructure.ratelimit;
+
+import pl.jakubsiekiera.iam.adapters.web.ProblemDetails;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Applies {@link TenantRateLimiter} to the write endpoints of TenantController and UserController.
+ * * Registered after the Spring Security chain (see RateLimitConfig), so the caller is already
+ * authenticated and can be identified by its token's subject ('sub') rather than by IP.
+ * Rejections are answered here, before any controller, database or Keycloak work, with
+ * 429 Too Many Requests (a 'rate-limited' problem document) and the exact wait in Retry-After.
+ * * Not a @Component on purpose: it is registered once, explicitly, by RateLimitConfig.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final PathPatternParser PARSER = PathPatternParser.defaultInstance;
+    private static final PathPattern TENANT_SCOPED = PARSER.parse("/api/v1/tenants/{tenantId}/**");
+    private static final List<PathPattern> LIMITED = List.of(
+            PARSER.parse("/api/v1/tenants"),
+            TENANT_SCOPED,
+            PARSER.parse("/api/v1/users"),
+            PARSER.parse("/api/v1/users/**"));
+
+    private final TenantRateLimiter limiter;
+
+    public RateLimitFilter(TenantRateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())
+                || HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return true; // Reads are cheap and cached; only writes are limited
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (PathPattern pattern : LIMITED) {
+            if (pattern.matches(path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long waitMillis = limiter.tryAcquire(tenantId(request), clientId(request));
+        if (waitMillis == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // Retry-After only has second resolution; round up so an honest client never retries too early
+        long retryAfterSeconds = (waitMillis + 999) / 1_000;
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        ProblemDetail problem = ProblemDetails.of(HttpStatus.TOO_MANY_REQUESTS, "rate-limited",
+                "Rate limit exceeded, retry in " + waitMillis + " ms");
+        problem.setProperty("retryAfterMillis", waitMillis);
+        ProblemDetails.write(response, problem);
+    }
+
+    private static String tenantId(HttpServletRequest request) {
+        PathPattern.PathMatchInfo match = TENANT_SCOPED.matchAndExtract(PathContainer.parsePath(request.getRequestURI()));
+        return match == null ? null : match.getUriVariables().get("tenantId");
+    }
+
+    /**
+     * The token subject, so users behind one frontend client (same 'azp') don't share a bucket;
+     * a service account has a subject of its own. Without a token (public registration
+     * endpoints) the remote address is the best identity available; behind a proxy it is only
+     * the client's own with 'server.forward-headers-strategy' set.
+     */
+    private static String clientId(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwt) {
+            return "sub:" + jwt.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
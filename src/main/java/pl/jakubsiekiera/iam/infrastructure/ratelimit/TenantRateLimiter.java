@@ -0,0 +1,113 @@
+package pl.jakubsiekiera.iam.infrastructure.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-tenant and per-client token buckets for write endpoints.
+ * * A request must get a token from its client's bucket and, for tenant-scoped endpoints, from
+ * the tenant's bucket: one noisy integration can exhaust neither the tenant's share nor, by
+ * spreading over tenants, everybody else's.
+ * * State is bounded: buckets live in a size-limited Caffeine cache and are evicted once idle
+ * for longer than it takes to refill them, at which point a fresh (full) bucket is identical.
+ * * Decisions are counted as 'iam.ratelimit.decisions{scope, outcome}'.
+ */
+@Component
+public class TenantRateLimiter {
+
+    private final long startNanos = System.nanoTime();
+
+    private final Limit tenantLimit;
+    private final Limit clientLimit;
+    private final Cache<String, TokenBucket> tenantBuckets;
+    private final Cache<String, TokenBucket> clientBuckets;
+
+    // Registered once up front so the hot path never builds tags
+    private final Counter tenantAllowed;
+    private final Counter tenantRejected;
+    private final Counter clientAllowed;
+    private final Counter clientRejected;
+
+    public TenantRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${iam.rate-limit.tenant.capacity:20}") long tenantCapacity,
+            @Value("${iam.rate-limit.tenant.refill-per-second:5}") double tenantRefill,
+            @Value("${iam.rate-limit.client.capacity:10}") long clientCapacity,
+            @Value("${iam.rate-limit.client.refill-per-second:2}") double clientRefill,
+            @Value("${iam.rate-limit.max-buckets:100000}") long maxBuckets) {
+        this.tenantLimit = new Limit(tenantCapacity, tenantRefill);
+        this.clientLimit = new Limit(clientCapacity, clientRefill);
+        this.tenantBuckets = buckets(maxBuckets, tenantLimit);
+        this.clientBuckets = buckets(maxBuckets, clientLimit);
+
+        this.tenantAllowed = decisions(meterRegistry, "tenant", "allowed");
+        this.tenantRejected = decisions(meterRegistry, "tenant", "rejected");
+        this.clientAllowed = decisions(meterRegistry, "client", "allowed");
+        this.clientRejected = decisions(meterRegistry, "client", "rejected");
+        Gauge.builder("iam.ratelimit.buckets", tenantBuckets, Cache::estimatedSize).tag("scope", "tenant").register(meterRegistry);
+        Gauge.builder("iam.ratelimit.buckets", clientBuckets, Cache::estimatedSize).tag("scope", "client").register(meterRegistry);
+    }
+
+    /**
+     * @param tenantId The tenant the request writes to, or null for endpoints that aren't tenant-scoped.
+     * @param clientId Who is calling (token client / subject, or the remote address when anonymous).
+     * @return 0 if the request may proceed, otherwise the milliseconds after which a retry can succeed.
+     */
+    public long tryAcquire(String tenantId, String clientId) {
+        long now = nowMillis();
+
+        TokenBucket client = clientBuckets.get(clientId, k -> clientLimit.newBucket(now));
+        long clientWait = client.tryAcquire(now);
+        if (clientWait > 0) {
+            clientRejected.increment();
+            return clientWait;
+        }
+        clientAllowed.increment();
+
+        if (tenantId == null) {
+            return 0;
+        }
+        TokenBucket tenant = tenantBuckets.get(tenantId, k -> tenantLimit.newBucket(now));
+        long tenantWait = tenant.tryAcquire(now);
+        if (tenantWait > 0) {
+            client.release(); // The request isn't served, so it shouldn't cost the client anything
+            tenantRejected.increment();
+            return tenantWait;
+        }
+        tenantAllowed.increment();
+        return 0;
+    }
+
+    // Monotonic: wall-clock jumps must neither refill nor drain buckets
+    private long nowMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static Cache<String, TokenBucket> buckets(long maxBuckets, Limit limit) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofMillis(limit.newBucket(0).millisToFull()).plusSeconds(1))
+                .build();
+    }
+
+    private static Counter decisions(MeterRegistry registry, String scope, String outcome) {
+        return Counter.builder("iam.ratelimit.decisions")
+                .description("Rate limiter decisions on write endpoints")
+                .tag("scope", scope)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private record Limit(long capacity, double refillPerSecond) {
+        TokenBucket newBucket(long nowMillis) {
+            return new TokenBucket(capacity, refillPerSecond, nowMillis);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package pl.jakubsiekiera.iam.infrastructure.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket whose entire state is one packed long, updated with CAS.
+ * * Layout: [ 40 bits: last refill time, ms since the limiter's epoch | 24 bits: tokens x 1000 ]
+ * Tokens are fixed-point (1/1000 token resolution) so slow refill rates accumulate correctly;
+ * 40 bits of milliseconds last ~34 years.
+ * * Refill is lazy: each acquire first credits the tokens earned since the stored timestamp.
+ * The timestamp only advances by the time that was actually converted into tokens, so no
+ * fractional refill is ever lost to rounding.
+ */
+final class TokenBucket {
+
+    static final long SCALE = 1_000;                      // Units per token
+    static final long MAX_CAPACITY = ((1L << 24) - 1) / SCALE;
+
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+
+    private final long capacityUnits;
+    private final double unitsPerMilli;
+    private final AtomicLong state;
+
+    /**
+     * @param capacity        Burst size, in whole tokens.
+     * @param refillPerSecond Sustained rate, in tokens per second (may be fractional).
+     * @param nowMillis       Current time on the limiter's clock; the bucket starts full.
+     */
+    TokenBucket(long capacity, double refillPerSecond, long nowMillis) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Bucket capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        if (refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Refill rate must be positive");
+        }
+        this.capacityUnits = capacity * SCALE;
+        this.unitsPerMilli = refillPerSecond * SCALE / 1_000.0;
+        this.state = new AtomicLong(pack(nowMillis, capacityUnits));
+    }
+
+    /**
+     * Takes one token if available.
+     * @return 0 if the token was granted, otherwise the milliseconds until one will be available.
+     */
+    long tryAcquire(long nowMillis) {
+        while (true) {
+            long current = state.get();
+            long refilled = refill(current, nowMillis);
+            long tokens = refilled & TOKEN_MASK;
+            if (tokens < SCALE) {
+                return Math.max(1, (long) Math.ceil((SCALE - tokens) / unitsPerMilli));
+            }
+            if (state.compareAndSet(current, refilled - SCALE)) {
+                return 0;
+            }
+            // Lost the race to another thread: re-read and retry
+        }
+    }
+
+    /**
+     * Gives one token back (used when a later check rejects the request after this one passed).
+     */
+    void release() {
+        while (true) {
+            long current = state.get();
+            long tokens = Math.min(capacityUnits, (current & TOKEN_MASK) + SCALE);
+            if (state.compareAndSet(current, pack(current >>> TOKEN_BITS, tokens))) {
+                return;
+            }
+        }
+    }
+
+    // Time needed to refill completely, i.e. the idle time after which the bucket is indistinguishable from a new one
+    long millisToFull() {
+        return (long) Math.ceil(capacityUnits / unitsPerMilli);
+    }
+
+    private long refill(long packed, long nowMillis) {
+        long last = packed >>> TOKEN_BITS;
+        long tokens = packed & TOKEN_MASK;
+        long elapsed = nowMillis - last;
+        if (elapsed <= 0 || tokens == capacityUnits) {
+            return tokens == capacityUnits ? pack(Math.max(last, nowMillis), tokens) : packed;
+        }
+        long added = (long) (Math.min(elapsed, millisToFull()) * unitsPerMilli);
+        if (tokens + added >= capacityUnits) {
+            return pack(nowMillis, capacityUnits);
+        }
+        // Advance the clock only by the time that produced whole units
+        return pack(last + (long) (added / unitsPerMilli), tokens + added);
+    }
+
+    private static long pack(long millis, long tokens) {
+        return (millis << TOKEN_BITS) | tokens;
+    }
+}
@@ -0,0 +1,85 @@
+package pl.jakubsiekiera.iam.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * A {@link JwtDecoder} that remembers tokens it has already verified.
+ * * Clients send the same bearer token on every request until it expires, yet the default
+ * decoder re-parses it and re-checks the signature each time. Here the delegate does that
+ * work once; afterwards the verified {@link Jwt} is served from a bounded cache keyed by the
+ * SHA-256 of the raw token and evicted exactly when the token expires.
+ * * Only successful decodes are cached, and tokens without an 'exp' claim are never cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Cache<String, Jwt> verifiedTokens;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize) {
+        this.delegate = delegate;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = hash(token);
+        Jwt cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Full parse + signature and claim validation, only on a cache miss
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            verifiedTokens.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    // Hashing keeps the cache key small and fixed-size, and avoids using the bearer secret itself as a key
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // Mandatory in every JRE
+        }
+    }
+
+    /**
+     * Per-entry expiry: each token lives in the cache only as long as it is valid.
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            long nanos = Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos();
+            return Math.max(nanos, 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration; // Reads never extend a token's lifetime
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package pl.jakubsiekiera.iam.infrastructure.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.Set;
+
+/**
+ * EdDSA (Ed25519) signer on top of the JDK's built-in provider.
+ * Nimbus' own Ed25519Signer needs Google Tink on the classpath; the JDK has had Ed25519 since 15.
+ */
+final class Ed25519JwsSigner implements JWSSigner {
+
+    private final PrivateKey privateKey;
+    private final JCAContext jcaContext = new JCAContext();
+
+    Ed25519JwsSigner(PrivateKey privateKey) {
+        this.privateKey = privateKey;
+    }
+
+    @Override
+    public Base64URL sign(JWSHeader header, byte[] signingInput) throws JOSEException {
+        if (!JWSAlgorithm.EdDSA.equals(header.getAlgorithm())) {
+            throw new JOSEException("Unsupported JWS algorithm: " + header.getAlgorithm());
+        }
+        try {
+            // Signature instances are stateful and not thread-safe; they are cheap to create
+            Signature signature = Signature.getInstance("Ed25519");
+            signature.initSign(privateKey);
+            signature.update(signingInput);
+            return Base64URL.encode(signature.sign());
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("Ed25519 signing failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+        return Set.of(JWSAlgorithm.EdDSA);
+    }
+
+    @Override
+    public JCAContext getJCAContext() {
+        return jcaContext;
+    }
+}
@@ -0,0 +1,119 @@
+package pl.jakubsiekiera.iam.infrastructure.security;
+
+import pl.jakubsiekiera.iam.infrastructure.concurrent.SingleFlight;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Owns the identity provider's signing keys (JWKS) used to verify incoming JWTs.
+ * * The default decoder resolves keys lazily, so the first requests after a deploy pay for the
+ * JWKS download and a key rotation stalls every request that carries the new 'kid'. Instead:
+ * * - keys are fetched once at startup (see StartupWarmup) before we report readiness,
+ * - a background task refreshes them ahead of time, so rotations are usually seen before
+ *   the first token signed with the new key arrives,
+ * - a token with an unknown 'kid' triggers at most one fetch at a time (single-flight), and
+ *   no more often than 'min-refresh-interval', so a flood of forged kids cannot DoS Keycloak.
+ *   While a fetch is running, such tokens wait for it rather than being rejected.
+ * * A failed refresh keeps serving the previous keys.
+ */
+@Component
+public class JwksKeyManager implements JWKSource<SecurityContext> {
+
+    private static final Logger log = LoggerFactory.getLogger(JwksKeyManager.class);
+    private static final String FLIGHT_KEY = "jwks";
+
+    private final RestClient restClient;
+    private final String jwkSetUri;
+    private final long minRefreshIntervalNanos;
+    private final SingleFlight<String, JWKSet> refreshFlight = new SingleFlight<>();
+
+    private volatile JWKSet keys = new JWKSet();
+    private volatile long lastFetchNanos = System.nanoTime() - Long.MAX_VALUE / 2; // "long ago"
+
+    public JwksKeyManager(
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+            @Value("${iam.security.jwks.min-refresh-interval:10s}") Duration minRefreshInterval,
+            @Value("${iam.security.jwks.timeout:2s}") Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+        this.jwkSetUri = jwkSetUri;
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector selector, SecurityContext context) throws KeySourceException {
+        List<JWK> matches = selector.select(keys);
+        if (!matches.isEmpty()) {
+            return matches; // Hot path: known kid
+        }
+        // Unknown kid: most likely a key rotation we have not picked up yet. A fetch already
+        // under way is joined, whatever the rate limit says, since it may bring exactly this kid.
+        if (!refreshFlight.isInFlight(FLIGHT_KEY) && System.nanoTime() - lastFetchNanos < minRefreshIntervalNanos) {
+            // We just looked; re-read in case that fetch completed after the first lookup
+            return selector.select(keys);
+        }
+        try {
+            return selector.select(refresh());
+        } catch (RuntimeException e) {
+            throw new KeySourceException("Couldn't refresh JWKS from " + jwkSetUri, e);
+        }
+    }
+
+    /**
+     * Fetches the key set now; concurrent callers share one HTTP request.
+     */
+    public JWKSet refresh() {
+        return refreshFlight.execute(FLIGHT_KEY, this::fetch);
+    }
+
+    /**
+     * Refresh-ahead: runs well within the identity provider's key rotation overlap,
+     * so new keys are normally known before any token signed with them shows up.
+     */
+    @Scheduled(initialDelayString = "${iam.security.jwks.refresh-interval:PT4M}",
+               fixedDelayString = "${iam.security.jwks.refresh-interval:PT4M}")
+    public void refreshAhead() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Background JWKS refresh failed, keeping {} cached key(s): {}", keys.size(), e.getMessage());
+        }
+    }
+
+    public boolean hasKeys() {
+        return !keys.isEmpty();
+    }
+
+    private JWKSet fetch() {
+        try {
+            String body = restClient.get().uri(jwkSetUri).retrieve().body(String.class);
+            JWKSet fetched = JWKSet.parse(body);
+            keys = fetched;
+            log.debug("Loaded {} signing key(s) from {}", fetched.size(), jwkSetUri);
+            return fetched;
+        } catch (ParseException e) {
+            throw new IllegalStateException("Malformed JWKS document from " + jwkSetUri, e);
+        } finally {
+            // Stamped once the outcome is known (and before the flight is released), so the rate
+            // limit never answers from keys older than the fetch it refers to. Failures count too.
+            lastFetchNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package pl.jakubsiekiera.iam.infrastructure.security;
+
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.service.TenantTokenIssuer;
+import pl.jakubsiekiera.iam.infrastructure.security.TenantTokenKeyRing.SigningKey;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Signs tenant-context tokens as compact JWS (EdDSA / Ed25519).
+ * * Ed25519 gives 64-byte signatures and fast, constant-time verification, which keeps the
+ * token small and the per-request check in downstream services cheap. Claims:
+ * - iss, sub, iat, exp, jti: standard (sub is the Keycloak identity),
+ * - tid: the tenant the roles apply to,
+ * - roles: role names within that tenant, sorted.
+ */
+@Component
+public class JwtTenantTokenIssuer implements TenantTokenIssuer {
+
+    // Explicit type so these tokens cannot be mistaken for (or replayed as) Keycloak access tokens
+    static final JOSEObjectType TOKEN_TYPE = new JOSEObjectType("tenant+jwt");
+
+    private final TenantTokenKeyRing keyRing;
+    private final String issuer;
+    private final Duration ttl;
+
+    public JwtTenantTokenIssuer(
+            TenantTokenKeyRing keyRing,
+            @Value("${iam.tenant-token.issuer}") String issuer,
+            @Value("${iam.tenant-token.ttl:PT5M}") Duration ttl) {
+        this.keyRing = keyRing;
+        this.issuer = issuer;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public IssuedToken issue(String subject, TenantId tenantId, Set<Role> roles) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS); // JWT dates have second precision
+        Instant expiresAt = now.plus(ttl);
+
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(subject)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(expiresAt))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("tid", tenantId.value().toString())
+                .claim("roles", roles.stream().map(Role::name).sorted().toList())
+                .build();
+
+        SigningKey key = keyRing.signingKey();
+        JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.EdDSA).type(TOKEN_TYPE).keyID(key.kid()).build();
+        SignedJWT jwt = new SignedJWT(header, claims);
+        try {
+            jwt.sign(key.signer());
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Couldn't sign tenant token", e);
+        }
+        return new IssuedToken(jwt.serialize(), expiresAt);
+    }
+
+    @Override
+    public Map<String, Object> publicKeys() {
+        return keyRing.publicKeys().toJSONObject(true);
+    }
+}
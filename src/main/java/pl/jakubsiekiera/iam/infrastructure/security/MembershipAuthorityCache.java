@@ -0,0 +1,90 @@
+package pl.jakubsiekiera.iam.infrastructure.security;
+
+import pl.jakubsiekiera.iam.domain.event.RoleHierarchyChangedEvent;
+import pl.jakubsiekiera.iam.domain.event.UserMembershipChangedEvent;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.model.user.RoleHierarchy;
+import pl.jakubsiekiera.iam.domain.repository.RoleHierarchyRepository;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository.MembershipRow;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bounded cache of tenant-scoped authorities per identity ('sub' claim == users.keycloak_id).
+ * * Authorities are the member's effective roles, i.e. held roles expanded through the tenant's
+ * {@link RoleHierarchy}, so hasAuthority("TENANT:{id}:MEMBER") also passes for an ADMIN.
+ * * A miss costs one indexed query reading only (tenant_id, roles); hits touch no database.
+ * Entries are dropped as soon as a membership change commits, and the TTL only bounds
+ * staleness for changes made outside this service instance.
+ */
+@Component
+public class MembershipAuthorityCache {
+
+    private final LoadingCache<String, List<GrantedAuthority>> authorities;
+    private final RoleHierarchyRepository hierarchyRepository;
+
+    public MembershipAuthorityCache(
+            JpaUserRepository userRepository,
+            RoleHierarchyRepository hierarchyRepository,
+            @Value("${iam.security.membership-cache.maximum-size:10000}") long maximumSize,
+            @Value("${iam.security.membership-cache.ttl:5m}") Duration ttl) {
+        this.hierarchyRepository = hierarchyRepository;
+        this.authorities = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build(keycloakId -> load(userRepository.findMembershipRowsByKeycloakId(keycloakId)));
+    }
+
+    public List<GrantedAuthority> authoritiesFor(String keycloakId) {
+        return authorities.get(keycloakId);
+    }
+
+    /**
+     * Evicts only after the inviting transaction commits; evicting earlier would let a
+     * concurrent request reload (and re-cache) the pre-commit memberships.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(UserMembershipChangedEvent event) {
+        authorities.invalidate(event.keycloakId());
+    }
+
+    /**
+     * A hierarchy change can alter the effective roles of any member of that tenant; such
+     * changes are rare, so dropping everything is simpler than indexing entries by tenant.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void on(RoleHierarchyChangedEvent event) {
+        authorities.invalidateAll();
+    }
+
+    private List<GrantedAuthority> load(List<MembershipRow> rows) {
+        List<GrantedAuthority> result = new ArrayList<>(rows.size());
+        for (MembershipRow row : rows) {
+            TenantId tenantId = new TenantId(row.getTenantId());
+            List<Role> held = new ArrayList<>();
+            for (String role : row.getRoles().split(",")) {
+                if (!role.isBlank()) {
+                    held.add(Role.of(role));
+                }
+            }
+            RoleHierarchy hierarchy = hierarchyRepository.findByTenantId(tenantId).orElse(RoleHierarchy.DEFAULT);
+            Set<Role> effective = hierarchy.effectiveRoles(held);
+            for (Role role : effective) {
+                result.add(TenantAuthorities.grantedAuthority(row.getTenantId().toString(), role.name()));
+            }
+        }
+        return List.copyOf(result);
+    }
+}
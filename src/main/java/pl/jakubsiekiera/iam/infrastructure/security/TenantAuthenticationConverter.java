@@ -0,0 +1,41 @@
+package pl.jakubsiekiera.iam.infrastructure.security;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Turns a verified {@link Jwt} into an authentication carrying both the token scopes
+ * ("SCOPE_...") and the caller's tenant roles from our own user_memberships table
+ * ("TENANT:{tenantId}:{role}", see {@link TenantAuthorities}).
+ * * Deliberately not a @Component: Spring MVC slice tests pick up every Converter bean.
+ */
+public class TenantAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    private final JwtGrantedAuthoritiesConverter scopeConverter = new JwtGrantedAuthoritiesConverter();
+    private final MembershipAuthorityCache membershipAuthorities;
+
+    public TenantAuthenticationConverter(MembershipAuthorityCache membershipAuthorities) {
+        this.membershipAuthorities = membershipAuthorities;
+    }
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        Collection<GrantedAuthority> scopes = scopeConverter.convert(jwt);
+        List<GrantedAuthority> tenantRoles = jwt.getSubject() == null
+                ? List.of()
+                : membershipAuthorities.authoritiesFor(jwt.getSubject());
+
+        List<GrantedAuthority> authorities = new ArrayList<>(scopes.size() + tenantRoles.size());
+        authorities.addAll(scopes);
+        authorities.addAll(tenantRoles);
+        return new JwtAuthenticationToken(jwt, authorities, jwt.getSubject());
+    }
+}
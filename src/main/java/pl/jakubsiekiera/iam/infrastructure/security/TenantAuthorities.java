@@ -0,0 +1,29 @@
+package pl.jakubsiekiera.iam.infrastructure.security;
+
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Naming scheme for tenant-scoped granted authorities: "TENANT:{tenantId}:{role}".
+ * * Usable in expressions such as hasAuthority('TENANT:' + #tenantId + ':ADMIN').
+ */
+public final class TenantAuthorities {
+
+    public static final String PREFIX = "TENANT:";
+
+    private TenantAuthorities() {
+    }
+
+    public static String authority(TenantId tenantId, Role role) {
+        return authority(tenantId.value().toString(), role.name());
+    }
+
+    static String authority(String tenantId, String roleName) {
+        return PREFIX + tenantId + ":" + roleName;
+    }
+
+    static SimpleGrantedAuthority grantedAuthority(String tenantId, String roleName) {
+        return new SimpleGrantedAuthority(authority(tenantId, roleName));
+    }
+}
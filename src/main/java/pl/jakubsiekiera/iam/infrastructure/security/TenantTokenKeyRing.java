@@ -0,0 +1,165 @@
+package pl.jakubsiekiera.iam.infrastructure.security;
+
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.TenantTokenKeyJpaEntity;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaTenantTokenKeyRepository;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.util.Base64URL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rotating set of Ed25519 keys that sign tenant-context tokens.
+ * * Keys live in the 'tenant_token_keys' table so every instance signs with, and publishes,
+ * the same set. The in-memory copy is reloaded every 'key-refresh-interval'. Lifecycle of a key:
+ * 1. created (by whichever instance notices the newest key is older than 'key-rotation-interval')
+ *    and immediately published in the JWKS,
+ * 2. used for signing only after 'key-activation-delay', so downstream JWKS caches already know it,
+ * 3. superseded by the next key, but still published until every token it signed has expired.
+ */
+@Component
+public class TenantTokenKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantTokenKeyRing.class);
+
+    // X.509 SubjectPublicKeyInfo of an Ed25519 key = 12-byte fixed header + 32-byte raw key
+    private static final int ED25519_KEY_LENGTH = 32;
+
+    private final JpaTenantTokenKeyRepository repository;
+    private final Duration rotationInterval;
+    private final Duration activationDelay;
+    private final Duration tokenTtl;
+    private final Clock clock;
+
+    private volatile List<SigningKey> keys = List.of(); // Newest first
+
+    public TenantTokenKeyRing(
+            JpaTenantTokenKeyRepository repository,
+            @Value("${iam.tenant-token.key-rotation-interval:P1D}") Duration rotationInterval,
+            @Value("${iam.tenant-token.key-activation-delay:PT10M}") Duration activationDelay,
+            @Value("${iam.tenant-token.ttl:PT5M}") Duration tokenTtl) {
+        this(repository, rotationInterval, activationDelay, tokenTtl, Clock.systemUTC());
+    }
+
+    TenantTokenKeyRing(JpaTenantTokenKeyRepository repository, Duration rotationInterval,
+                       Duration activationDelay, Duration tokenTtl, Clock clock) {
+        this.repository = repository;
+        this.rotationInterval = rotationInterval;
+        this.activationDelay = activationDelay;
+        this.tokenTtl = tokenTtl;
+        this.clock = clock;
+    }
+
+    /**
+     * Reloads the shared key set and rotates when the newest key is due.
+     */
+    @Scheduled(fixedDelayString = "${iam.tenant-token.key-refresh-interval:PT1M}")
+    public synchronized void refresh() {
+        Instant now = clock.instant();
+        List<TenantTokenKeyJpaEntity> stored = repository.findByExpiresAtAfterOrderByCreatedAtDesc(now);
+        if (stored.isEmpty() || !stored.getFirst().getCreatedAt().plus(rotationInterval).isAfter(now)) {
+            TenantTokenKeyJpaEntity created = repository.save(generate(now));
+            log.info("Rotated tenant token signing key, new kid={}", created.getKid());
+            stored = repository.findByExpiresAtAfterOrderByCreatedAtDesc(now);
+        }
+        keys = stored.stream().map(TenantTokenKeyRing::toSigningKey).toList();
+    }
+
+    /**
+     * The newest key that has been published for at least 'key-activation-delay'.
+     * Right after the very first key is created there is no such key yet; nobody can have
+     * cached our JWKS at that point, so the newest key is used.
+     */
+    public SigningKey signingKey() {
+        List<SigningKey> current = keys;
+        if (current.isEmpty()) {
+            refresh(); // First use before the scheduler (or the warm-up) ran
+            current = keys;
+        }
+        Instant activeBefore = clock.instant().minus(activationDelay);
+        for (SigningKey key : current) {
+            if (!key.createdAt().isAfter(activeBefore)) {
+                return key;
+            }
+        }
+        return current.getFirst();
+    }
+
+    public JWKSet publicKeys() {
+        List<JWK> jwks = new ArrayList<>(keys.size());
+        for (SigningKey key : keys) {
+            jwks.add(key.toJwk());
+        }
+        return new JWKSet(jwks);
+    }
+
+    private TenantTokenKeyJpaEntity generate(Instant now) {
+        try {
+            KeyPair pair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+            TenantTokenKeyJpaEntity entity = new TenantTokenKeyJpaEntity();
+            entity.setKid(UUID.randomUUID().toString());
+            entity.setPrivateKey(pair.getPrivate().getEncoded());
+            entity.setPublicKey(pair.getPublic().getEncoded());
+            entity.setCreatedAt(now);
+            // Waits to activate, signs for one rotation, then must outlive the last token it signed
+            entity.setExpiresAt(now.plus(activationDelay).plus(rotationInterval).plus(tokenTtl.multipliedBy(2)));
+            return entity;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Ed25519 is not available in this JVM", e);
+        }
+    }
+
+    private static SigningKey toSigningKey(TenantTokenKeyJpaEntity entity) {
+        try {
+            KeyFactory factory = KeyFactory.getInstance("Ed25519");
+            PrivateKey privateKey = factory.generatePrivate(new PKCS8EncodedKeySpec(entity.getPrivateKey()));
+            PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(entity.getPublicKey()));
+            return new SigningKey(entity.getKid(), privateKey, publicKey, entity.getCreatedAt());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Corrupt tenant token key " + entity.getKid(), e);
+        }
+    }
+
+    /**
+     * A decoded key pair as loaded from the shared table.
+     */
+    public record SigningKey(String kid, PrivateKey privateKey, PublicKey publicKey, Instant createdAt) {
+
+        Ed25519JwsSigner signer() {
+            return new Ed25519JwsSigner(privateKey);
+        }
+
+        JWK toJwk() {
+            byte[] encoded = publicKey.getEncoded();
+            byte[] raw = Arrays.copyOfRange(encoded, encoded.length - ED25519_KEY_LENGTH, encoded.length);
+            return new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(raw))
+                    .keyID(kid)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(JWSAlgorithm.EdDSA)
+                    .build();
+        }
+    }
+}
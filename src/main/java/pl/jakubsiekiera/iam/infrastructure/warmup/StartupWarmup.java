@@ -0,0 +1,94 @@
+package pl.jakubsiekiera.iam.infrastructure.warmup;
+
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaTenantRepository;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository;
+import pl.jakubsiekiera.iam.infrastructure.security.JwksKeyManager;
+import pl.jakubsiekiera.iam.infrastructure.security.TenantTokenKeyRing;
+import lombok.RequiredArgsConstructor;
+import org.keycloak.admin.client.Keycloak;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Pays the "first request" costs before the service is put into rotation.
+ * * Spring Boot publishes ReadinessState.ACCEPTING_TRAFFIC only after all ApplicationRunners
+ * have returned, so while this runner works /actuator/health/readiness stays DOWN and
+ * Kubernetes keeps traffic on the old pods. We warm:
+ * 1. the JWKS signing keys (no JWKS fetch on the first authenticated request) and our own
+ *    tenant-token signing keys,
+ * 2. the Keycloak admin token (no password grant on the first registration),
+ * 3. the hot JPA queries (connection pool filled, Hibernate query plans compiled).
+ * * Every step is retried a few times, but a dependency that stays down must not keep the pod
+ * out of service forever: the lazy paths still work, they are just slower.
+ */
+@Component
+@RequiredArgsConstructor
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    // Lookups for values that never exist, so warming reads nothing but exercises the real plans
+    private static final String PROBE_NAME = "__warmup__";
+    private static final String PROBE_EMAIL = "warmup@warmup.invalid";
+
+    private final JwksKeyManager jwksKeyManager;
+    private final TenantTokenKeyRing tenantTokenKeyRing;
+    private final Keycloak keycloak;
+    private final JpaTenantRepository tenantRepository;
+    private final JpaUserRepository userRepository;
+
+    @Value("${iam.warmup.attempts:3}")
+    private int attempts;
+
+    @Value("${iam.warmup.backoff:1s}")
+    private Duration backoff;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+
+        warm("JWKS signing keys", jwksKeyManager::refresh);
+        warm("tenant token signing keys", tenantTokenKeyRing::refresh);
+        warm("Keycloak admin token", () -> keycloak.tokenManager().getAccessToken());
+        warm("JPA queries", () -> {
+            tenantRepository.findPageOrderedByCreation(null, null, null, 1);
+            userRepository.findByNormalizedEmail(PROBE_EMAIL);
+            userRepository.findMembershipRowsByNormalizedEmails(new String[] {PROBE_EMAIL});
+            userRepository.findMembershipRowsByKeycloakId(PROBE_NAME);
+        });
+
+        log.info("Warm-up finished in {} ms, reporting readiness", Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void warm(String what, Runnable step) {
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            try {
+                step.run();
+                log.debug("Warmed {}", what);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Warming {} failed (attempt {}/{}): {}", what, attempt, attempts, e.getMessage());
+                if (attempt < attempts && !sleep(backoff.multipliedBy(attempt))) {
+                    return;
+                }
+            }
+        }
+        log.warn("Giving up warming {}, it will be initialized lazily on first use", what);
+    }
+
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Shutdown during startup: stop warming
+            return false;
+        }
+    }
+}
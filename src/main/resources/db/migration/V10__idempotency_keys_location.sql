@@ -0,0 +1,5 @@
+-- Replayed 201 responses must point at the same resource as the original one.
+-- Also from now on 'id' holds the SHA-256 (hex) of the scoped key (see IdempotencyFilter), so it
+-- no longer grows with the path, the caller or the client key. Rows written before keep their
+-- plain ids and simply stop matching; they are purged once they expire.
+ALTER TABLE idempotency_keys ADD COLUMN location VARCHAR(2048);
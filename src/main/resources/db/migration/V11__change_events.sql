@@ -0,0 +1,20 @@
+-- Outbox behind the change feed (GET /api/v1/changes, see ChangeOutbox). Rows are written in
+-- the transaction that makes the change, so a committed change is always here and a rolled
+-- back one never is. 'id' is the feed's resume cursor (the SSE event id): it is shared by
+-- every instance and survives redeploys, unlike the local journal offsets.
+-- Ids are allocated before commit, so they become visible slightly out of order, and rolled
+-- back transactions leave permanent holes; readers wait a grace period before skipping one.
+-- 'tenant_ids' is a CSV of UUIDs, mirroring the CSV encoding of user_memberships.roles.
+CREATE TABLE change_events (
+    id BIGSERIAL NOT NULL,
+    type VARCHAR(64) NOT NULL,
+    tenant_ids TEXT NOT NULL,
+    user_id UUID,
+    name VARCHAR(255),
+    status VARCHAR(32),
+    occurred_on TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Retention purges by age
+CREATE INDEX idx_change_events_occurred_on ON change_events (occurred_on);
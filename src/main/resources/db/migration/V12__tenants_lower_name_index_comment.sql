@@ -0,0 +1,7 @@
+-- V3 documents idx_tenants_lower_name_id as serving a LIKE prefix; the listing query uses a
+-- half-open range instead. Applied migrations are never edited, so the correction lives in
+-- the catalog.
+COMMENT ON INDEX idx_tenants_lower_name_id IS
+    'Case-insensitive name prefix as a half-open range (a bound LIKE pattern is opaque to the planner): '
+    'WHERE lower(name) COLLATE "C" >= ''abc'' AND lower(name) COLLATE "C" < ''abd'' ORDER BY lower(name) COLLATE "C", id. '
+    'Under the "C" collation byte order is string order, so the prefix range and the cursor comparison are index ranges.';
@@ -0,0 +1,4 @@
+-- Fencing token of the current claim. A claim whose lease expired can be taken over by a
+-- retry; completing or releasing it then requires the token of the new owner, so the stale
+-- first request can no longer overwrite or delete the new owner's claim.
+ALTER TABLE idempotency_keys ADD COLUMN claim_token UUID NOT NULL DEFAULT gen_random_uuid();
@@ -0,0 +1,2 @@
+-- Functional index backing case-insensitive (batch) lookups: WHERE lower(email) = ANY(?)
+CREATE INDEX idx_users_email_lower ON users (lower(email));
@@ -0,0 +1,13 @@
+-- Keyset pagination for GET /api/v1/tenants.
+-- Each index matches one ORDER BY of the listing query, so a page is a bounded range scan
+-- starting right after the cursor, no matter how deep into the listing it is.
+
+-- Unfiltered listing: ORDER BY creation_date, id
+CREATE INDEX idx_tenants_creation_date_id ON tenants (creation_date, id);
+
+-- Listing filtered by status: WHERE status = ? ORDER BY creation_date, id
+CREATE INDEX idx_tenants_status_creation_date_id ON tenants (status, creation_date, id);
+
+-- Case-insensitive name prefix: WHERE lower(name) COLLATE "C" LIKE 'abc%' ORDER BY lower(name) COLLATE "C", id
+-- The "C" collation makes both the LIKE prefix and the row comparison usable as index ranges.
+CREATE INDEX idx_tenants_lower_name_id ON tenants ((lower(name) COLLATE "C"), id);
@@ -0,0 +1,10 @@
+-- UserJpaEntity maps 'keycloak_id' (the Keycloak 'sub' claim) but V1 never created it.
+-- Kept nullable so rows created before the column existed survive the migration;
+-- the application always writes it.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS keycloak_id VARCHAR(255);
+
+-- Every authenticated request resolves its token 'sub' to a local user
+CREATE UNIQUE INDEX idx_users_keycloak_id ON users (keycloak_id);
+
+-- ...and then reads that user's memberships (user_id had no index, only the FK)
+CREATE INDEX idx_user_memberships_user_id ON user_memberships (user_id);
@@ -0,0 +1,13 @@
+-- Ed25519 key pairs that sign tenant-context tokens (see TenantTokenKeyRing).
+-- Shared through the database so every instance signs with, and publishes, the same keys.
+-- Production deployments should wrap 'private_key' with a KMS instead of storing it raw.
+CREATE TABLE tenant_token_keys (
+    kid VARCHAR(64) NOT NULL,
+    private_key BYTEA NOT NULL,   -- PKCS#8
+    public_key BYTEA NOT NULL,    -- X.509 SubjectPublicKeyInfo
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (kid)
+);
+
+CREATE INDEX idx_tenant_token_keys_expires_at ON tenant_token_keys (expires_at);
@@ -0,0 +1,7 @@
+-- Reverse lookup "which tenants does this user belong to" (GET /api/v1/users/{id}/tenants).
+-- INCLUDE makes the index covering: the query reads (tenant_id, roles) straight from the
+-- index (index-only scan) instead of visiting the heap once per membership.
+-- It supersedes the plain user_id index from V4, which only added write cost next to it.
+CREATE INDEX idx_user_memberships_user_id_covering ON user_memberships (user_id) INCLUDE (tenant_id, roles);
+
+DROP INDEX IF EXISTS idx_user_memberships_user_id;
@@ -0,0 +1,12 @@
+-- Tenant-defined role inheritance (see RoleHierarchy). One row per tenant; tenants
+-- without a row use the built-in default (ADMIN implies MEMBER).
+-- 'inheritance' lists direct edges as 'PARENT>CHILD' pairs, comma separated,
+-- mirroring the CSV encoding of user_memberships.roles. The transitive closure is
+-- not stored: it is recomputed in memory whenever a hierarchy is loaded or saved.
+CREATE TABLE tenant_role_hierarchies (
+    tenant_id UUID NOT NULL,
+    inheritance TEXT NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (tenant_id),
+    CONSTRAINT FK_role_hierarchy_tenant FOREIGN KEY (tenant_id) REFERENCES tenants(id)
+);
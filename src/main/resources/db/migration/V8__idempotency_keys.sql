@@ -0,0 +1,16 @@
+-- Responses of POST requests carrying an 'Idempotency-Key' header (see IdempotencyFilter).
+-- 'id' is the scoped key: '<METHOD> <path> <client key>'. A row with NULL status_code is a
+-- claim by a request that is still running; completed rows are replayed until expires_at.
+CREATE TABLE idempotency_keys (
+    id VARCHAR(512) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    status_code INTEGER,
+    content_type VARCHAR(255),
+    response_body TEXT,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Purging expired keys is a range scan instead of a full table scan
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,7 @@
+-- Tenant names are unique regardless of case ("Acme" and "ACME" are the same tenant).
+-- Registration inserts with ON CONFLICT DO NOTHING and relies on this index alone, so the
+-- old case-sensitive constraint from V1 is redundant and only adds write cost.
+-- NOTE: fails if existing rows differ only by case; rename those tenants first.
+CREATE UNIQUE INDEX uq_tenants_lower_name ON tenants (lower(name));
+
+ALTER TABLE tenants DROP CONSTRAINT IF EXISTS tenants_name_key;
@@ -0,0 +1,117 @@
+package pl.jakubsiekiera.iam.adapters.web;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.jakubsiekiera.iam.infrastructure.changes.ChangeFeed;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Web slice test for the SSE change feed endpoint: cursor handling and who may subscribe to
+ * what, the fan-out itself is covered by ChangeFeedTest. Filters are off, so authorities come
+ * from the security context set up by jwt().
+ */
+@WebMvcTest(controllers = ChangeController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ChangeFeed changeFeed;
+
+    @Test
+    @DisplayName("GET /api/v1/changes - Should resume after the Last-Event-ID offset")
+    void shouldResumeAfterLastEventId() throws Exception {
+        // --- Arrange ---
+        UUID tenantId = UUID.randomUUID();
+        when(changeFeed.subscribe(anyLong(), any(), any())).thenReturn(mock(ChangeFeed.Subscription.class));
+
+        // --- Act & Assert: the stream is opened asynchronously ---
+        mockMvc.perform(get("/api/v1/changes")
+                        .with(member(tenantId))
+                        .header("Last-Event-ID", "42")
+                        .param("tenantId", tenantId.toString()))
+                .andExpect(request().asyncStarted());
+
+        verify(changeFeed).subscribe(eq(43L), eq(tenantId), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/changes - Should start at the current end without a cursor")
+    void shouldStartLiveWithoutCursor() throws Exception {
+        when(changeFeed.subscribe(anyLong(), any(), any())).thenReturn(mock(ChangeFeed.Subscription.class));
+
+        mockMvc.perform(get("/api/v1/changes").with(reader()))
+                .andExpect(request().asyncStarted());
+
+        verify(changeFeed).subscribe(eq(-1L), isNull(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/changes - Should reject a malformed Last-Event-ID with 400")
+    void shouldRejectMalformedLastEventId() throws Exception {
+        mockMvc.perform(get("/api/v1/changes").with(reader()).header("Last-Event-ID", "not-an-offset"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("invalid-request"));
+
+        verify(changeFeed, never()).subscribe(anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/changes - Should return 403 for another tenant's changes")
+    void shouldForbidOtherTenantsChanges() throws Exception {
+        // --- Arrange: a member of one tenant asks for another ---
+        UUID own = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+
+        // --- Act & Assert ---
+        mockMvc.perform(get("/api/v1/changes").with(member(own)).param("tenantId", other.toString()))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("access-denied"));
+
+        verify(changeFeed, never()).subscribe(anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/changes - Should return 403 for the unfiltered stream without the reader authority")
+    void shouldForbidUnfilteredStreamForTenantMembers() throws Exception {
+        // --- Arrange: even an ADMIN of a tenant can't read everyone's changes ---
+        var admin = jwt().authorities(new SimpleGrantedAuthority("TENANT:" + UUID.randomUUID() + ":ADMIN"));
+
+        // --- Act & Assert ---
+        mockMvc.perform(get("/api/v1/changes").with(admin))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("access-denied"));
+
+        verify(changeFeed, never()).subscribe(anyLong(), any(), any());
+    }
+
+    private static JwtRequestPostProcessor reader() {
+        return jwt().authorities(new SimpleGrantedAuthority("SCOPE_iam:changes"));
+    }
+
+    private static JwtRequestPostProcessor member(UUID tenantId) {
+        return jwt().authorities(new SimpleGrantedAuthority("TENANT:" + tenantId + ":MEMBER"));
+    }
+}
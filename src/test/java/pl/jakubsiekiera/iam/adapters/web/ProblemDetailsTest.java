@@ -0,0 +1,41 @@
+package pl.jakubsiekiera.iam.adapters.web;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProblemDetailsTest {
+
+    @Test
+    @DisplayName("Should write the same problem document the exception handler returns")
+    void shouldWriteProblemDocument() throws Exception {
+        // --- Arrange ---
+        ProblemDetail problem = ProblemDetails.of(HttpStatus.TOO_MANY_REQUESTS, "rate-limited", "Retry in 40 ms");
+        problem.setProperty("retryAfterMillis", 40L);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // --- Act ---
+        ProblemDetails.write(response, problem);
+
+        // --- Assert ---
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getContentType()).startsWith("application/problem+json");
+        assertThat(response.getContentAsString()).isEqualTo("{"
+                + "\"type\":\"https://iam.jakubsiekiera.pl/problems/rate-limited\","
+                + "\"title\":\"Too Many Requests\",\"status\":429,\"detail\":\"Retry in 40 ms\","
+                + "\"code\":\"rate-limited\",\"retryAfterMillis\":40}");
+    }
+
+    @Test
+    @DisplayName("Should escape quotes and control characters in the detail")
+    void shouldEscapeDetail() {
+        ProblemDetail problem = ProblemDetails.of(HttpStatus.BAD_REQUEST, "invalid-idempotency-key",
+                "Key \"a\\b\"\n");
+
+        assertThat(ProblemDetails.toJson(problem)).contains("\"detail\":\"Key \\\"a\\\\b\\\"\\n\"");
+    }
+}
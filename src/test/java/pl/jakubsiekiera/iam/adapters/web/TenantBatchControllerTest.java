@@ -0,0 +1,106 @@
+package pl.jakubsiekiera.iam.adapters.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.jakubsiekiera.iam.application.dto.BatchGetTenantsRequest;
+import pl.jakubsiekiera.iam.application.dto.BatchGetTenantsResponse;
+import pl.jakubsiekiera.iam.application.dto.BulkTenantStatusRequest;
+import pl.jakubsiekiera.iam.application.dto.BulkTenantStatusResponse;
+import pl.jakubsiekiera.iam.application.dto.TenantResponse;
+import pl.jakubsiekiera.iam.application.service.TenantApplicationService;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Web slice tests for the collection-level tenant endpoints ({@link TenantBatchController}).
+ * Security filters are disabled; the operator check in the controller is exercised through
+ * the security context set up by jwt().
+ */
+@WebMvcTest(controllers = TenantBatchController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class TenantBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @MockitoBean
+    private TenantApplicationService tenantService;
+
+    @Test
+    @DisplayName("POST /api/v1/tenants:batchGet - Should return found tenants and missing ids")
+    void shouldBatchGetTenants() throws Exception {
+        // --- Arrange ---
+        UUID found = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        var response = new BatchGetTenantsResponse(
+            List.of(new TenantResponse(found, "Acme", TenantStatus.ACTIVE.name(), Instant.now())),
+            List.of(missing)
+        );
+        when(tenantService.getTenants(any(BatchGetTenantsRequest.class))).thenReturn(response);
+
+        // --- Act & Assert: the colon is part of the path, not a separate segment ---
+        mockMvc.perform(post("/api/v1/tenants:batchGet")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchGetTenantsRequest(List.of(found, missing)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tenants[0].id").value(found.toString()))
+                .andExpect(jsonPath("$.missing[0]").value(missing.toString()));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/tenants:batchSuspend - Should let an operator suspend tenants")
+    void shouldBatchSuspendAsOperator() throws Exception {
+        // --- Arrange ---
+        UUID id = UUID.randomUUID();
+        when(tenantService.suspendTenants(any(BulkTenantStatusRequest.class)))
+                .thenReturn(new BulkTenantStatusResponse(1, 0, List.of()));
+
+        // --- Act & Assert ---
+        mockMvc.perform(post("/api/v1/tenants:batchSuspend")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("SCOPE_iam:operator")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkTenantStatusRequest(List.of(id)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/tenants:batchSuspend|batchActivate - Should return 403 without the operator authority")
+    void shouldForbidBulkStatusChangeForNonOperators() throws Exception {
+        // --- Arrange: a tenant ADMIN is still not a platform operator ---
+        UUID id = UUID.randomUUID();
+        String body = objectMapper.writeValueAsString(new BulkTenantStatusRequest(List.of(id)));
+        var admin = jwt().authorities(new SimpleGrantedAuthority("TENANT:" + id + ":ADMIN"));
+
+        // --- Act & Assert ---
+        mockMvc.perform(post("/api/v1/tenants:batchSuspend").with(admin)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("access-denied"));
+        mockMvc.perform(post("/api/v1/tenants:batchActivate").with(admin)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(tenantService);
+    }
+}
@@ -8,25 +8,41 @@ import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.web.servlet.MockMvc;
 import pl.jakubsiekiera.iam.application.dto.InviteUserCommand;
 import pl.jakubsiekiera.iam.application.dto.RegisterTenantCommand;
+import pl.jakubsiekiera.iam.application.dto.RoleHierarchyCommand;
+import pl.jakubsiekiera.iam.application.dto.RoleHierarchyResponse;
 import pl.jakubsiekiera.iam.application.dto.TenantDetails;
+import pl.jakubsiekiera.iam.application.dto.TenantPage;
 import pl.jakubsiekiera.iam.application.dto.TenantResponse;
 import pl.jakubsiekiera.iam.application.query.TenantQueryService;
+import pl.jakubsiekiera.iam.application.service.PermissionService;
+import pl.jakubsiekiera.iam.application.service.RoleHierarchyService;
 import pl.jakubsiekiera.iam.application.service.TenantApplicationService;
 import pl.jakubsiekiera.iam.application.service.UserApplicationService;
+import pl.jakubsiekiera.iam.domain.exception.TenantNameTakenException;
+import pl.jakubsiekiera.iam.domain.exception.TenantNotFoundException;
+import pl.jakubsiekiera.iam.domain.model.permission.Permission;
 import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
 
 import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
@@ -71,6 +87,12 @@ class TenantControllerTest {
     @MockitoBean
     private TenantQueryService tenantQueryService;
 
+    @MockitoBean
+    private RoleHierarchyService roleHierarchyService;
+
+    @MockitoBean
+    private PermissionService permissionService;
+
     @Test
     @DisplayName("POST /api/v1/tenants - Should return 201 Created and Location header on success")
     void shouldRegisterTenant() throws Exception {
@@ -115,18 +137,36 @@ class TenantControllerTest {
         
         // Stub the service to throw an exception, simulating a domain constraint violation
         when(tenantService.registerTenant(any()))
-                .thenThrow(new IllegalArgumentException("Tenant already exists"));
+                .thenThrow(new TenantNameTakenException("Acme Corp"));
 
         // --- Act & Assert ---
         mockMvc.perform(post("/api/v1/tenants")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(command)))
                 
-                // Assert: The GlobalExceptionHandler should catch IllegalArgumentException 
-                // and return a 409 Conflict status.
+                // Assert: The GlobalExceptionHandler maps the CONFLICT category to 409
+                // and answers with an RFC 7807 problem document.
                 .andExpect(status().isConflict())
-                .andExpect(jsonPath("$.error").value("Conflict"))
-                .andExpect(jsonPath("$.message").value("Tenant already exists"));
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.title").value("Conflict"))
+                .andExpect(jsonPath("$.code").value("tenant-name-taken"))
+                .andExpect(jsonPath("$.type").value("https://iam.jakubsiekiera.pl/problems/tenant-name-taken"))
+                .andExpect(jsonPath("$.detail").value("Tenant with name 'Acme Corp' already exists"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tenants/{id} - Should return 404 Not Found for an unknown tenant")
+    void shouldReturnNotFoundForUnknownTenant() throws Exception {
+        // --- Arrange ---
+        UUID tenantId = UUID.randomUUID();
+        when(tenantQueryService.getTenantDetails(tenantId)).thenThrow(new TenantNotFoundException(tenantId));
+
+        // --- Act & Assert ---
+        mockMvc.perform(get("/api/v1/tenants/{id}", tenantId).with(jwt().jwt(token -> token.subject("kc-member"))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("tenant-not-found"))
+                .andExpect(jsonPath("$.detail").value("Tenant not found: " + tenantId));
     }
 
     @Test
@@ -138,6 +178,7 @@ class TenantControllerTest {
 
         // --- Act ---
         mockMvc.perform(post("/api/v1/tenants/{id}/users", tenantId)
+                        .with(jwt().jwt(token -> token.subject("kc-admin")))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(command)))
                 // Assert: Status check
@@ -146,9 +187,30 @@ class TenantControllerTest {
         // --- Verification ---
         // Since 'inviteUserToTenant' is likely a void method, we verify the interaction 
         // with the mock to ensure the controller passed the correct arguments.
+        verify(permissionService).require("kc-admin", UUID.fromString(tenantId), Permission.TENANT_USERS_INVITE);
         verify(userService).inviteUserToTenant(tenantId, "new@user.com", "MEMBER");
     }
 
+    @Test
+    @DisplayName("POST /api/v1/tenants/{id}/users - Should return 403 when a plain MEMBER invites")
+    void shouldForbidInvitingWithoutPermission() throws Exception {
+        // --- Arrange: the shipped policy grants tenant:users:invite to ADMINs only ---
+        UUID tenantId = UUID.randomUUID();
+        var command = new InviteUserCommand("new@user.com", "ADMIN");
+        doThrow(new AccessDeniedException("Not permitted to tenant:users:invite in tenant " + tenantId))
+                .when(permissionService).require("kc-member", tenantId, Permission.TENANT_USERS_INVITE);
+
+        // --- Act & Assert ---
+        mockMvc.perform(post("/api/v1/tenants/{id}/users", tenantId)
+                        .with(jwt().jwt(token -> token.subject("kc-member")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(command)))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("access-denied"));
+
+        verifyNoInteractions(userService);
+    }
+
     @Test
     @DisplayName("GET /api/v1/tenants/{id} - Should return tenant details for the Read Model")
     void shouldGetTenantDetails() throws Exception {
@@ -168,9 +230,105 @@ class TenantControllerTest {
         when(tenantQueryService.getTenantDetails(tenantId)).thenReturn(details);
 
         // --- Act & Assert ---
-        mockMvc.perform(get("/api/v1/tenants/{id}", tenantId))
+        mockMvc.perform(get("/api/v1/tenants/{id}", tenantId).with(jwt().jwt(token -> token.subject("kc-member"))))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("Acme"))
                 .andExpect(jsonPath("$.status").value("ACTIVE"));
+
+        verify(permissionService).require("kc-member", tenantId, Permission.TENANT_USERS_LIST);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tenants/{id} and /role-hierarchy - Should return 403 outside the caller's tenants")
+    void shouldForbidReadingOtherTenants() throws Exception {
+        // --- Arrange ---
+        UUID tenantId = UUID.randomUUID();
+        doThrow(new AccessDeniedException("Not permitted to tenant:users:list in tenant " + tenantId))
+                .when(permissionService).require("kc-outsider", tenantId, Permission.TENANT_USERS_LIST);
+        doThrow(new AccessDeniedException("Not permitted to tenant:read in tenant " + tenantId))
+                .when(permissionService).require("kc-outsider", tenantId, Permission.TENANT_READ);
+
+        // --- Act & Assert ---
+        mockMvc.perform(get("/api/v1/tenants/{id}", tenantId).with(jwt().jwt(token -> token.subject("kc-outsider"))))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/tenants/{id}/role-hierarchy", tenantId).with(jwt().jwt(token -> token.subject("kc-outsider"))))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(tenantQueryService, roleHierarchyService);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tenants - Should pass filters to the keyset listing and return the next cursor")
+    void shouldListTenants() throws Exception {
+        // --- Arrange ---
+        var item = new TenantResponse(UUID.randomUUID(), "Acme", TenantStatus.SUSPENDED.name(), Instant.now());
+        when(tenantQueryService.listTenants(TenantStatus.SUSPENDED, "ac", null, 25))
+                .thenReturn(new TenantPage(List.of(item), "next-token"));
+
+        // --- Act & Assert: the status string is bound to the TenantStatus enum ---
+        mockMvc.perform(get("/api/v1/tenants")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("SCOPE_iam:operator")))
+                        .param("status", "SUSPENDED")
+                        .param("namePrefix", "ac")
+                        .param("limit", "25"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Acme"))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/tenants - Should return 403 without the operator authority")
+    void shouldForbidListingTenantsForNonOperators() throws Exception {
+        // --- Arrange: a tenant ADMIN only sees their own tenant, never the platform listing ---
+        var admin = jwt().authorities(new SimpleGrantedAuthority("TENANT:" + UUID.randomUUID() + ":ADMIN"));
+
+        // --- Act & Assert ---
+        mockMvc.perform(get("/api/v1/tenants").with(admin).param("namePrefix", "ac"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("access-denied"));
+
+        verifyNoInteractions(tenantQueryService);
+    }
+
+    @Test
+    @DisplayName("PUT /api/v1/tenants/{id}/role-hierarchy - Should define the tenant's role inheritance")
+    void shouldDefineRoleHierarchy() throws Exception {
+        // --- Arrange ---
+        UUID tenantId = UUID.randomUUID();
+        var command = new RoleHierarchyCommand(Map.of("OWNER", List.of("ADMIN"), "ADMIN", List.of("MEMBER")));
+        when(roleHierarchyService.defineHierarchy(any(UUID.class), any(RoleHierarchyCommand.class)))
+                .thenReturn(new RoleHierarchyResponse(tenantId, command.inherits(), 3));
+
+        // --- Act & Assert ---
+        mockMvc.perform(put("/api/v1/tenants/{id}/role-hierarchy", tenantId)
+                        .with(jwt().jwt(token -> token.subject("kc-admin")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(command)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roleCount").value(3))
+                .andExpect(jsonPath("$.inherits.OWNER[0]").value("ADMIN"));
+
+        verify(permissionService).require("kc-admin", tenantId, Permission.TENANT_ROLES_MANAGE);
+        verify(roleHierarchyService).defineHierarchy(any(UUID.class), any(RoleHierarchyCommand.class));
+    }
+
+    @Test
+    @DisplayName("PUT /api/v1/tenants/{id}/role-hierarchy - Should return 403 when the caller may not manage roles")
+    void shouldForbidDefiningRoleHierarchyWithoutPermission() throws Exception {
+        // --- Arrange ---
+        UUID tenantId = UUID.randomUUID();
+        var command = new RoleHierarchyCommand(Map.of("MEMBER", List.of("ADMIN")));
+        doThrow(new AccessDeniedException("Not permitted to tenant:roles:manage in tenant " + tenantId))
+                .when(permissionService).require("kc-member", tenantId, Permission.TENANT_ROLES_MANAGE);
+
+        // --- Act & Assert ---
+        mockMvc.perform(put("/api/v1/tenants/{id}/role-hierarchy", tenantId)
+                        .with(jwt().jwt(token -> token.subject("kc-member")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(command)))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("access-denied"));
+
+        verifyNoInteractions(roleHierarchyService);
     }
-}
\ No newline at end of file
+}
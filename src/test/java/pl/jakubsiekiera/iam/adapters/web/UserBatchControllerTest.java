@@ -0,0 +1,82 @@
+package pl.jakubsiekiera.iam.adapters.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.jakubsiekiera.iam.application.dto.BatchGetUsersByEmailRequest;
+import pl.jakubsiekiera.iam.application.dto.BatchGetUsersByEmailResponse;
+import pl.jakubsiekiera.iam.application.dto.MembershipSummary;
+import pl.jakubsiekiera.iam.application.dto.UserSummary;
+import pl.jakubsiekiera.iam.application.query.UserQueryService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Web slice tests for the collection-level user endpoints ({@link UserBatchController}).
+ * Security filters are disabled; the operator check in the controller is exercised through
+ * the security context set up by jwt().
+ */
+@WebMvcTest(controllers = UserBatchController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class UserBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @MockitoBean
+    private UserQueryService userQueryService;
+
+    @Test
+    @DisplayName("POST /api/v1/users:batchGetByEmail - Should let an operator resolve emails")
+    void shouldBatchGetByEmailAsOperator() throws Exception {
+        // --- Arrange ---
+        UUID userId = UUID.randomUUID();
+        var response = new BatchGetUsersByEmailResponse(
+            List.of(new UserSummary(userId, "jane@acme.com", List.of(new MembershipSummary(UUID.randomUUID(), "MEMBER")))),
+            List.of("nobody@acme.com")
+        );
+        when(userQueryService.getUsersByEmail(any(BatchGetUsersByEmailRequest.class))).thenReturn(response);
+
+        // --- Act & Assert ---
+        mockMvc.perform(post("/api/v1/users:batchGetByEmail")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("SCOPE_iam:operator")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchGetUsersByEmailRequest(List.of("Jane@Acme.com", "nobody@acme.com")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].id").value(userId.toString()))
+                .andExpect(jsonPath("$.missing[0]").value("nobody@acme.com"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/users:batchGetByEmail - Should return 403 without the operator authority")
+    void shouldForbidBatchGetByEmailForNonOperators() throws Exception {
+        // --- Arrange: a tenant ADMIN is still not a platform operator ---
+        var admin = jwt().authorities(new SimpleGrantedAuthority("TENANT:" + UUID.randomUUID() + ":ADMIN"));
+
+        // --- Act & Assert ---
+        mockMvc.perform(post("/api/v1/users:batchGetByEmail").with(admin)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchGetUsersByEmailRequest(List.of("jane@acme.com")))))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("access-denied"));
+
+        verifyNoInteractions(userQueryService);
+    }
+}
@@ -8,14 +8,28 @@ import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.web.servlet.MockMvc;
 import pl.jakubsiekiera.iam.application.dto.RegisterUserCommand;
+import pl.jakubsiekiera.iam.application.dto.MembershipSummary;
 import pl.jakubsiekiera.iam.application.dto.UserResponse;
+import pl.jakubsiekiera.iam.application.dto.UserSummary;
+import pl.jakubsiekiera.iam.application.dto.UserTenant;
+import pl.jakubsiekiera.iam.application.dto.UserTenantsResponse;
+import pl.jakubsiekiera.iam.application.query.CurrentUserQueryService;
+import pl.jakubsiekiera.iam.application.query.UserQueryService;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
 import pl.jakubsiekiera.iam.application.service.UserApplicationService;
 import pl.jakubsiekiera.iam.domain.model.user.UserId;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -51,6 +65,12 @@ class UserControllerTest {
     @MockitoBean
     private UserApplicationService userService;
 
+    @MockitoBean
+    private CurrentUserQueryService currentUserQueryService;
+
+    @MockitoBean
+    private UserQueryService userQueryService;
+
     /**
      * Test Case: Successful User Registration.
      * This verifies:
@@ -91,4 +111,91 @@ class UserControllerTest {
                 // Use JsonPath to verify the content of the JSON response body
                 .andExpect(jsonPath("$.email").value("john@test.com"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /api/v1/users/me - Should resolve the caller from the token subject")
+    void shouldReturnCurrentUser() throws Exception {
+        // --- Arrange ---
+        UUID tenantId = UUID.randomUUID();
+        var me = new UserSummary(UUID.randomUUID(), "jane@acme.com", List.of(new MembershipSummary(tenantId, "ADMIN")));
+        when(currentUserQueryService.getCurrentUser("kc-jane")).thenReturn(Optional.of(me));
+
+        // --- Act & Assert ---
+        mockMvc.perform(get("/api/v1/users/me").with(jwt().jwt(token -> token.subject("kc-jane"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("jane@acme.com"))
+                .andExpect(jsonPath("$.memberships[0].tenantId").value(tenantId.toString()))
+                .andExpect(jsonPath("$.memberships[0].roles").value("ADMIN"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/users/me - Should return 404 when the identity has no local profile")
+    void shouldReturnNotFoundForUnknownIdentity() throws Exception {
+        when(currentUserQueryService.getCurrentUser("kc-ghost")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/users/me").with(jwt().jwt(token -> token.subject("kc-ghost"))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/users/{id}/tenants - Should list the caller's own tenants with the status filter")
+    void shouldListTenantsForUser() throws Exception {
+        // --- Arrange ---
+        UUID userId = UUID.randomUUID();
+        UUID tenantId = UUID.randomUUID();
+        when(currentUserQueryService.getCurrentUser("kc-jane"))
+                .thenReturn(Optional.of(new UserSummary(userId, "jane@acme.com", List.of())));
+        when(userQueryService.getTenantsForUser(userId, TenantStatus.ACTIVE)).thenReturn(new UserTenantsResponse(
+            userId, List.of(new UserTenant(tenantId, "Acme", "ACTIVE", "ADMIN,MEMBER"))));
+
+        // --- Act & Assert ---
+        mockMvc.perform(get("/api/v1/users/{id}/tenants", userId).param("status", "ACTIVE")
+                        .with(jwt().jwt(token -> token.subject("kc-jane"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tenants[0].tenantId").value(tenantId.toString()))
+                .andExpect(jsonPath("$.tenants[0].name").value("Acme"))
+                .andExpect(jsonPath("$.tenants[0].roles").value("ADMIN,MEMBER"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/users/{id}/tenants - Should show another user's tenants only where the caller is ADMIN")
+    void shouldListOnlyAdministeredTenantsOfAnotherUser() throws Exception {
+        // --- Arrange: the caller administers Acme, and is a plain member of Globex ---
+        UUID userId = UUID.randomUUID();
+        UUID acme = UUID.randomUUID();
+        UUID globex = UUID.randomUUID();
+        when(currentUserQueryService.getCurrentUser("kc-admin"))
+                .thenReturn(Optional.of(new UserSummary(UUID.randomUUID(), "admin@acme.com", List.of())));
+        when(userQueryService.getTenantsForUser(userId, null)).thenReturn(new UserTenantsResponse(userId, List.of(
+            new UserTenant(acme, "Acme", "ACTIVE", "MEMBER"),
+            new UserTenant(globex, "Globex", "ACTIVE", "MEMBER"))));
+
+        // --- Act & Assert ---
+        mockMvc.perform(get("/api/v1/users/{id}/tenants", userId).with(jwt()
+                        .jwt(token -> token.subject("kc-admin"))
+                        .authorities(new SimpleGrantedAuthority("TENANT:" + acme + ":ADMIN"),
+                                new SimpleGrantedAuthority("TENANT:" + globex + ":MEMBER"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tenants.length()").value(1))
+                .andExpect(jsonPath("$.tenants[0].tenantId").value(acme.toString()));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/users/{id}/tenants - Should return 403 for another user sharing no administered tenant")
+    void shouldForbidListingTenantsOfAnotherUser() throws Exception {
+        // --- Arrange ---
+        UUID userId = UUID.randomUUID();
+        UUID tenantId = UUID.randomUUID();
+        when(currentUserQueryService.getCurrentUser("kc-mallory"))
+                .thenReturn(Optional.of(new UserSummary(UUID.randomUUID(), "mallory@evil.com", List.of())));
+        when(userQueryService.getTenantsForUser(userId, null)).thenReturn(new UserTenantsResponse(
+            userId, List.of(new UserTenant(tenantId, "Acme", "ACTIVE", "ADMIN"))));
+
+        // --- Act & Assert ---
+        mockMvc.perform(get("/api/v1/users/{id}/tenants", userId).with(jwt()
+                        .jwt(token -> token.subject("kc-mallory"))
+                        .authorities(new SimpleGrantedAuthority("TENANT:" + tenantId + ":MEMBER"))))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("access-denied"));
+    }
+}
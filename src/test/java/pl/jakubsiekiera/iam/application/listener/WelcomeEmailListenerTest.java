@@ -2,56 +2,41 @@ package pl.jakubsiekiera.iam.application.listener;
 
 import pl.jakubsiekiera.iam.domain.event.TenantRegisteredEvent;
 import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
-import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeEach;
+import pl.jakubsiekiera.iam.domain.service.NotificationSender.Notification;
+import pl.jakubsiekiera.iam.infrastructure.notification.NotificationPipeline;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
 import java.time.Instant;
-import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
 
 /**
  * Unit tests for {@link WelcomeEmailListener}.
  * This class verifies that the listener correctly reacts to domain events
- * by "sending" an email (currently simulated via console output).
+ * by queueing a welcome notification in the {@link NotificationPipeline}.
  */
 @ExtendWith(MockitoExtension.class)
 class WelcomeEmailListenerTest {
 
+    @Mock
+    private NotificationPipeline notificationPipeline;
+
     @InjectMocks
     private WelcomeEmailListener welcomeEmailListener;
 
-    // Captures System.out content to verify console logging
-    private final ByteArrayOutputStream outputStreamCaptor = new ByteArrayOutputStream();
-    private final PrintStream originalOut = System.out;
-
-    /**
-     * Redirects System.out to our captor before each test to intercept 
-     * printed notification messages.
-     */
-    @BeforeEach
-    void setUp() {
-        System.setOut(new PrintStream(outputStreamCaptor));
-    }
-
-    /**
-     * Restores the original System.out after each test to prevent side effects
-     * in the test suite execution.
-     */
-    @AfterEach
-    void tearDown() {
-        System.setOut(originalOut);
-    }
+    @Captor
+    private ArgumentCaptor<Notification> notificationCaptor;
 
     /**
      * Verifies that when a TenantRegisteredEvent is received, the listener
-     * outputs the correctly formatted welcome message.
+     * queues a welcome notification addressed to the new tenant.
      */
     @Test
     void shouldHandleTenantRegisteredEvent() {
@@ -64,19 +49,19 @@ class WelcomeEmailListenerTest {
         // When: The listener processes the event
         welcomeEmailListener.handle(event);
 
-        // Then: The console output should contain the expected email simulation strings
-        String output = outputStreamCaptor.toString();
-        
-        assertThat(output)
-                .contains("[NOTIFICATION SERVICE] Sending Welcome Email")
-                .contains("To Tenant: " + tenantName)
-                .contains("ID: " + tenantId.value())
-                .contains("--------------------------------------------------");
+        // Then: One notification is queued, keyed by the tenant so retries can be de-duplicated
+        verify(notificationPipeline).submit(notificationCaptor.capture());
+        Notification notification = notificationCaptor.getValue();
+
+        assertThat(notification.id()).isEqualTo("welcome-" + tenantId.value());
+        assertThat(notification.tenantId()).isEqualTo(tenantId);
+        assertThat(notification.subject()).contains(tenantName);
+        assertThat(notification.body()).contains(tenantId.value().toString());
     }
 
     /**
-     * Ensures the listener correctly maps and displays data from different tenants,
-     * confirming the output isn't hardcoded.
+     * Ensures the listener correctly maps data from different tenants,
+     * confirming the notification isn't hardcoded.
      */
     @Test
     void shouldHandleEventWithDifferentTenantData() {
@@ -90,16 +75,15 @@ class WelcomeEmailListenerTest {
         welcomeEmailListener.handle(event);
 
         // Then
-        String output = outputStreamCaptor.toString();
-        
-        assertThat(output)
-                .contains("To Tenant: " + tenantName)
-                .contains("ID: " + tenantId.value());
+        verify(notificationPipeline).submit(notificationCaptor.capture());
+        Notification notification = notificationCaptor.getValue();
+
+        assertThat(notification.tenantId()).isEqualTo(tenantId);
+        assertThat(notification.subject()).contains(tenantName);
     }
 
     /**
-     * Verifies that the notification logic handles special characters in tenant names
-     * without breaking the output formatting.
+     * Verifies that special characters in tenant names are passed through unchanged.
      */
     @Test
     void shouldHandleEventWithSpecialCharactersInName() {
@@ -113,10 +97,9 @@ class WelcomeEmailListenerTest {
         welcomeEmailListener.handle(event);
 
         // Then
-        String output = outputStreamCaptor.toString();
-        
-        assertThat(output)
-                .contains("To Tenant: " + tenantName)
-                .contains("ID: " + tenantId.value());
+        verify(notificationPipeline).submit(notificationCaptor.capture());
+
+        assertThat(notificationCaptor.getValue().subject()).contains(tenantName);
+        assertThat(notificationCaptor.getValue().body()).contains(tenantName);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package pl.jakubsiekiera.iam.application.query;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pl.jakubsiekiera.iam.application.dto.UserSummary;
+import pl.jakubsiekiera.iam.domain.event.UserMembershipChangedEvent;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.UserId;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository.UserMembershipRow;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link CurrentUserQueryService}: row folding and near-cache behaviour.
+ */
+class CurrentUserQueryServiceTest {
+
+    private final JpaUserRepository userRepo = mock(JpaUserRepository.class);
+    private final CurrentUserQueryService service = new CurrentUserQueryService(userRepo, 100, Duration.ofMinutes(5));
+
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should fold membership rows into one summary and serve repeats from the cache")
+    void shouldCacheCurrentUser() {
+        // Arrange
+        UUID t1 = UUID.randomUUID();
+        UUID t2 = UUID.randomUUID();
+        when(userRepo.findUserRowsByKeycloakId("kc-1"))
+                .thenReturn(List.of(row(t1, "ADMIN"), row(t2, "MEMBER")));
+
+        // Act
+        UserSummary first = service.getCurrentUser("kc-1").orElseThrow();
+        UserSummary second = service.getCurrentUser("kc-1").orElseThrow();
+
+        // Assert
+        assertThat(first.memberships()).extracting(m -> m.tenantId()).containsExactly(t1, t2);
+        assertThat(second).isSameAs(first);
+        verify(userRepo, times(1)).findUserRowsByKeycloakId("kc-1");
+    }
+
+    @Test
+    @DisplayName("Should reload after a membership change commits")
+    void shouldInvalidateOnMembershipChange() {
+        when(userRepo.findUserRowsByKeycloakId("kc-1")).thenReturn(List.of(row(null, null)));
+        assertThat(service.getCurrentUser("kc-1").orElseThrow().memberships()).isEmpty();
+
+        service.on(new UserMembershipChangedEvent(new UserId(userId), "kc-1", TenantId.generate(), Instant.now()));
+        service.getCurrentUser("kc-1");
+
+        verify(userRepo, times(2)).findUserRowsByKeycloakId("kc-1");
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown identities")
+    void shouldNotCacheMisses() {
+        when(userRepo.findUserRowsByKeycloakId("kc-new")).thenReturn(List.of());
+
+        assertThat(service.getCurrentUser("kc-new")).isEmpty();
+        assertThat(service.getCurrentUser("kc-new")).isEmpty();
+
+        verify(userRepo, times(2)).findUserRowsByKeycloakId("kc-new");
+    }
+
+    private UserMembershipRow row(UUID tenantId, String roles) {
+        return new UserMembershipRow() {
+            @Override public UUID getUserId() { return userId; }
+            @Override public String getEmail() { return "jane@acme.com"; }
+            @Override public UUID getTenantId() { return tenantId; }
+            @Override public String getRoles() { return roles; }
+        };
+    }
+}
@@ -0,0 +1,155 @@
+package pl.jakubsiekiera.iam.application.query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.jakubsiekiera.iam.domain.exception.InvalidRequestException;
+import pl.jakubsiekiera.iam.application.dto.TenantDetails;
+import pl.jakubsiekiera.iam.application.dto.TenantPage;
+import pl.jakubsiekiera.iam.application.dto.TenantResponse;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.TenantJpaEntity;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaTenantRepository;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the keyset-paginated listing in {@link TenantQueryService}.
+ * The repository is mocked, so these tests focus on page sizing and cursor handling.
+ */
+@ExtendWith(MockitoExtension.class)
+class TenantQueryServiceTest {
+
+    @Mock private JpaTenantRepository tenantRepo;
+    @Mock private JpaUserRepository userRepo;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private TenantQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TenantQueryService(tenantRepo, userRepo, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should return a cursor pointing after the last row when more rows exist")
+    void shouldReturnNextCursorWhenMoreRowsExist() {
+        // Arrange: the repository is asked for limit + 1 rows and returns all of them
+        TenantJpaEntity a = tenant("Alpha", Instant.parse("2026-01-01T00:00:00Z"));
+        TenantJpaEntity b = tenant("Beta", Instant.parse("2026-01-02T00:00:00Z"));
+        TenantJpaEntity c = tenant("Gamma", Instant.parse("2026-01-03T00:00:00Z"));
+        when(tenantRepo.findPageOrderedByCreation("ACTIVE", null, null, 3)).thenReturn(List.of(a, b, c));
+
+        // Act
+        TenantPage page = service.listTenants(TenantStatus.ACTIVE, null, null, 2);
+
+        // Assert: the extra row is trimmed and only signals that a next page exists
+        assertThat(page.items()).extracting(TenantResponse::name).containsExactly("Alpha", "Beta");
+        assertThat(page.nextCursor()).isNotNull();
+
+        // Act: follow the cursor; it must seek strictly after 'Beta'
+        when(tenantRepo.findPageOrderedByCreation("ACTIVE", b.getCreationDate(), b.getId(), 3)).thenReturn(List.of(c));
+        TenantPage next = service.listTenants(TenantStatus.ACTIVE, null, page.nextCursor(), 2);
+
+        // Assert: last page has no cursor
+        assertThat(next.items()).extracting(TenantResponse::name).containsExactly("Gamma");
+        assertThat(next.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should page alphabetically on the lower-cased name when a prefix is given")
+    void shouldUseNameOrderingForPrefix() {
+        TenantJpaEntity acme = tenant("ACME Corp", Instant.now());
+        TenantJpaEntity acmeLabs = tenant("Acme Labs", Instant.now());
+        when(tenantRepo.findPageOrderedByName(null, "acme", null, null, 2)).thenReturn(List.of(acme, acmeLabs));
+        when(tenantRepo.findPageOrderedByName(null, "acme", "acme corp", acme.getId(), 2)).thenReturn(List.of(acmeLabs));
+
+        TenantPage first = service.listTenants(null, "AcMe", null, 1);
+        TenantPage second = service.listTenants(null, "AcMe", first.nextCursor(), 1);
+
+        assertThat(first.items()).extracting(TenantResponse::name).containsExactly("ACME Corp");
+        assertThat(second.items()).extracting(TenantResponse::name).containsExactly("Acme Labs");
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors and cursors from the other ordering")
+    void shouldRejectForeignCursor() {
+        TenantJpaEntity a = tenant("Alpha", Instant.now());
+        TenantJpaEntity b = tenant("Beta", Instant.now());
+        when(tenantRepo.findPageOrderedByCreation(null, null, null, 2)).thenReturn(List.of(a, b));
+        String creationCursor = service.listTenants(null, null, null, 1).nextCursor();
+
+        assertThatThrownBy(() -> service.listTenants(null, "al", creationCursor, 1))
+            .isInstanceOf(InvalidRequestException.class)
+            .hasMessageContaining("does not match");
+        assertThatThrownBy(() -> service.listTenants(null, null, "not-a-cursor", 1))
+            .isInstanceOf(InvalidRequestException.class)
+            .hasMessage("Invalid page cursor");
+    }
+
+    @Test
+    @DisplayName("Should run the details queries once for concurrent reads of the same tenant")
+    void shouldCoalesceConcurrentDetailReads() throws Exception {
+        // Arrange: the tenant lookup blocks until we release it
+        TenantJpaEntity acme = tenant("Acme", Instant.now());
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(tenantRepo.findById(acme.getId())).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return Optional.of(acme);
+        });
+        when(userRepo.findUsersByTenantId(acme.getId())).thenReturn(List.of());
+
+        Queue<TenantDetails> results = new ConcurrentLinkedQueue<>();
+        Thread leader = Thread.ofPlatform().start(() -> results.add(service.getTenantDetails(acme.getId())));
+        entered.await();
+        List<Thread> followers = List.of(
+                Thread.ofPlatform().start(() -> results.add(service.getTenantDetails(acme.getId()))),
+                Thread.ofPlatform().start(() -> results.add(service.getTenantDetails(acme.getId()))));
+
+        // Act: let the leader finish once both followers are parked on its result
+        for (Thread follower : followers) {
+            while (follower.getState() != Thread.State.WAITING) {
+                Thread.onSpinWait();
+            }
+        }
+        release.countDown();
+        leader.join(5_000);
+        for (Thread follower : followers) {
+            follower.join(5_000);
+        }
+
+        // Assert: three answers, one query set, one transaction
+        assertThat(results).hasSize(3).allSatisfy(details -> assertThat(details.name()).isEqualTo("Acme"));
+        verify(tenantRepo, times(1)).findById(acme.getId());
+        verify(userRepo, times(1)).findUsersByTenantId(acme.getId());
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    private static TenantJpaEntity tenant(String name, Instant creationDate) {
+        TenantJpaEntity entity = new TenantJpaEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setName(name);
+        entity.setStatus(TenantStatus.ACTIVE.name());
+        entity.setCreationDate(creationDate);
+        return entity;
+    }
+}
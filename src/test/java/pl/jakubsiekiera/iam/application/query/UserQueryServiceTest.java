@@ -0,0 +1,134 @@
+package pl.jakubsiekiera.iam.application.query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.jakubsiekiera.iam.application.dto.BatchGetUsersByEmailRequest;
+import pl.jakubsiekiera.iam.application.dto.BatchGetUsersByEmailResponse;
+import pl.jakubsiekiera.iam.application.dto.UserSummary;
+import pl.jakubsiekiera.iam.application.dto.UserTenantsResponse;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository.TenantMembershipRow;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository.UserMembershipRow;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link UserQueryService}.
+ * The repository is mocked to return the flat rows the native query would produce.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserQueryServiceTest {
+
+    @Mock private JpaUserRepository userRepo;
+
+    private UserQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UserQueryService(userRepo);
+    }
+
+    @Test
+    @DisplayName("Should normalize emails, query once and fold membership rows per user")
+    void shouldBatchLookupUsersByEmail() {
+        // Arrange: one user with two memberships, one user without any
+        UUID john = UUID.randomUUID();
+        UUID jane = UUID.randomUUID();
+        UUID tenantA = UUID.randomUUID();
+        UUID tenantB = UUID.randomUUID();
+        when(userRepo.findMembershipRowsByNormalizedEmails(any())).thenReturn(List.of(
+            row(jane, "jane@example.com", null, null),
+            row(john, "John@Example.com", tenantA, "ADMIN"),
+            row(john, "John@Example.com", tenantB, "MEMBER")
+        ));
+
+        // Act: mixed-case input, a duplicate and an unknown address
+        BatchGetUsersByEmailResponse response = service.getUsersByEmail(new BatchGetUsersByEmailRequest(List.of(
+            "JOHN@example.com", "ghost@example.com", "jane@example.com", "john@EXAMPLE.com"
+        )));
+
+        // Assert: the query received the deduplicated lower-case emails
+        ArgumentCaptor<String[]> captor = ArgumentCaptor.forClass(String[].class);
+        verify(userRepo, times(1)).findMembershipRowsByNormalizedEmails(captor.capture());
+        assertThat(captor.getValue()).containsExactly("john@example.com", "ghost@example.com", "jane@example.com");
+
+        // Assert: request order is kept, memberships are grouped, misses are reported
+        assertThat(response.users()).extracting(UserSummary::id).containsExactly(john, jane);
+        assertThat(response.users().get(0).memberships()).hasSize(2);
+        assertThat(response.users().get(1).memberships()).isEmpty();
+        assertThat(response.missing()).containsExactly("ghost@example.com");
+    }
+
+    @Test
+    @DisplayName("Should reject the whole batch when one email is malformed")
+    void shouldRejectInvalidEmail() {
+        var request = new BatchGetUsersByEmailRequest(List.of("valid@example.com", "not-an-email"));
+
+        assertThatThrownBy(() -> service.getUsersByEmail(request))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid email format");
+
+        // Validation happens before the database is touched
+        verifyNoInteractions(userRepo);
+    }
+
+    @Test
+    @DisplayName("Should list a user's tenants, filtering by status in the query")
+    void shouldListTenantsForUser() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        UUID tenantId = UUID.randomUUID();
+        TenantMembershipRow row = new TenantMembershipRow() {
+            @Override public UUID getTenantId() { return tenantId; }
+            @Override public String getName() { return "Acme"; }
+            @Override public String getStatus() { return "ACTIVE"; }
+            @Override public String getRoles() { return "ADMIN"; }
+        };
+        when(userRepo.findTenantRowsByUserIdAndStatus(userId, "ACTIVE")).thenReturn(List.of(row));
+
+        // Act
+        UserTenantsResponse response = service.getTenantsForUser(userId, TenantStatus.ACTIVE);
+
+        // Assert: the filter reached SQL as the stored status string
+        assertThat(response.userId()).isEqualTo(userId);
+        assertThat(response.tenants()).singleElement().satisfies(t -> {
+            assertThat(t.tenantId()).isEqualTo(tenantId);
+            assertThat(t.name()).isEqualTo("Acme");
+            assertThat(t.roles()).isEqualTo("ADMIN");
+        });
+        verify(userRepo, never()).findTenantRowsByUserId(any());
+    }
+
+    @Test
+    @DisplayName("Should list all of a user's tenants with the unfiltered query when no status is given")
+    void shouldListAllTenantsWithoutStatus() {
+        UUID userId = UUID.randomUUID();
+        when(userRepo.findTenantRowsByUserId(userId)).thenReturn(List.of());
+
+        UserTenantsResponse response = service.getTenantsForUser(userId, null);
+
+        assertThat(response.tenants()).isEmpty();
+        verify(userRepo, never()).findTenantRowsByUserIdAndStatus(any(), any());
+    }
+
+    private static UserMembershipRow row(UUID userId, String email, UUID tenantId, String roles) {
+        return new UserMembershipRow() {
+            @Override public UUID getUserId() { return userId; }
+            @Override public String getEmail() { return email; }
+            @Override public UUID getTenantId() { return tenantId; }
+            @Override public String getRoles() { return roles; }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package pl.jakubsiekiera.iam.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import pl.jakubsiekiera.iam.domain.model.permission.CompiledPolicies;
+import pl.jakubsiekiera.iam.domain.model.permission.Permission;
+import pl.jakubsiekiera.iam.domain.model.tenant.Tenant;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.Email;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.model.user.RoleHierarchy;
+import pl.jakubsiekiera.iam.domain.model.user.User;
+import pl.jakubsiekiera.iam.domain.model.user.UserId;
+import pl.jakubsiekiera.iam.domain.repository.TenantRepository;
+import pl.jakubsiekiera.iam.domain.repository.UserRepository;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link PermissionService#require}, against the real policy compiler.
+ */
+@ExtendWith(MockitoExtension.class)
+class PermissionServiceTest {
+
+    @Mock private RoleHierarchyService roleHierarchyService;
+    @Mock private UserRepository userRepository;
+    @Mock private TenantRepository tenantRepository;
+
+    private PermissionService service;
+
+    private final TenantId tenantId = TenantId.generate();
+    private final User user = User.register(UserId.generate(), "kc-1", new Email("jane@acme.com"));
+
+    @BeforeEach
+    void setUp() {
+        CompiledPolicies policies = CompiledPolicies.compile("tenant:roles:manage = role(ADMIN) and status(ACTIVE)");
+        service = new PermissionService(policies, roleHierarchyService, userRepository, tenantRepository);
+        when(userRepository.findByKeycloakId("kc-1")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    @DisplayName("Should let an ADMIN of an active tenant manage roles")
+    void shouldPermitAdmin() {
+        // Arrange
+        user.addToTenant(tenantId, Role.ADMIN);
+        when(tenantRepository.findById(tenantId)).thenReturn(Optional.of(Tenant.register(tenantId, "Acme")));
+        when(roleHierarchyService.hierarchyFor(tenantId)).thenReturn(RoleHierarchy.DEFAULT);
+
+        // Act & Assert
+        assertThatCode(() -> service.require("kc-1", tenantId.value(), Permission.TENANT_ROLES_MANAGE))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should deny a plain MEMBER")
+    void shouldDenyMember() {
+        // Arrange
+        user.addToTenant(tenantId, Role.MEMBER);
+        when(tenantRepository.findById(tenantId)).thenReturn(Optional.of(Tenant.register(tenantId, "Acme")));
+        when(roleHierarchyService.hierarchyFor(tenantId)).thenReturn(RoleHierarchy.DEFAULT);
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.require("kc-1", tenantId.value(), Permission.TENANT_ROLES_MANAGE))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessageContaining("tenant:roles:manage");
+    }
+
+    @Test
+    @DisplayName("Should deny a non-member without looking the tenant up")
+    void shouldDenyNonMember() {
+        assertThatThrownBy(() -> service.require("kc-1", tenantId.value(), Permission.TENANT_ROLES_MANAGE))
+                .isInstanceOf(AccessDeniedException.class);
+
+        verifyNoInteractions(tenantRepository);
+    }
+}
@@ -12,21 +12,37 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-// Spring framework import for handling domain events
+// Spring framework imports for handling domain events and programmatic transactions
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
 
 // Project-specific Data Transfer Objects (DTOs)
+import pl.jakubsiekiera.iam.application.dto.BatchGetTenantsRequest;
+import pl.jakubsiekiera.iam.application.dto.BatchGetTenantsResponse;
+import pl.jakubsiekiera.iam.application.dto.BulkTenantStatusRequest;
+import pl.jakubsiekiera.iam.application.dto.BulkTenantStatusResponse;
 import pl.jakubsiekiera.iam.application.dto.RegisterTenantCommand;
 import pl.jakubsiekiera.iam.application.dto.TenantResponse;
 
 // Project-specific Domain models and events
+import pl.jakubsiekiera.iam.domain.exception.InvalidRequestException;
+import pl.jakubsiekiera.iam.domain.exception.TenantNameTakenException;
 import pl.jakubsiekiera.iam.domain.event.TenantRegisteredEvent;
+import pl.jakubsiekiera.iam.domain.event.TenantsStatusChangedEvent;
 import pl.jakubsiekiera.iam.domain.model.tenant.Tenant;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
 import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
 
 // Project-specific Repository interface
 import pl.jakubsiekiera.iam.domain.repository.TenantRepository;
 
+// Standard collections used to build batch inputs
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
 // Static imports for AssertJ (fluent assertions) and Mockito (mocking behavior)
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -55,8 +71,9 @@ class TenantApplicationServiceTest {
     // Method to run before every single test case
     @BeforeEach
     void setUp() {
-        // Manually injects the mocked dependencies into the service instance
-        service = new TenantApplicationService(tenantRepository, eventPublisher);
+        // Manually injects the mocked dependencies into the service instance.
+        // Chunk transactions are executed inline: there is no transaction manager in a unit test.
+        service = new TenantApplicationService(tenantRepository, eventPublisher, TransactionOperations.withoutTransaction());
     }
 
     // Indicates this is a test method
@@ -72,8 +89,8 @@ class TenantApplicationServiceTest {
         // Creating the input command DTO
         RegisterTenantCommand command = new RegisterTenantCommand(name, email);
         
-        // Define mock behavior: return false when checking if the name exists
-        when(tenantRepository.existsByName(name)).thenReturn(false);
+        // Define mock behavior: the insert succeeds because the name is free
+        when(tenantRepository.insertIfNameAvailable(any(Tenant.class))).thenReturn(true);
 
         // --- Act: Execute the registration logic ---
         
@@ -82,10 +99,11 @@ class TenantApplicationServiceTest {
 
         // --- Assert: Verify the tenant was persisted correctly ---
         
-        // Creates a tool to 'catch' the Tenant object passed to the save method
+        // Creates a tool to 'catch' the Tenant object passed to the insert
         ArgumentCaptor<Tenant> tenantCaptor = ArgumentCaptor.forClass(Tenant.class);
-        // Verifies the save method was called and grabs the object passed to it
-        verify(tenantRepository).save(tenantCaptor.capture());
+        // Verifies a single insert was issued (no separate existence check) and grabs the object passed to it
+        verify(tenantRepository).insertIfNameAvailable(tenantCaptor.capture());
+        verify(tenantRepository, never()).save(any());
         
         // Extracts the captured tenant to inspect its properties
         Tenant savedTenant = tenantCaptor.getValue();
@@ -98,7 +116,7 @@ class TenantApplicationServiceTest {
         
         // Creates a tool to 'catch' the Event object published
         ArgumentCaptor<TenantRegisteredEvent> eventCaptor = ArgumentCaptor.forClass(TenantRegisteredEvent.class);
-        // Verifies the publisher was triggered with the event
+        // Verifies the event was published (the outbox and the bus pick it up from there)
         verify(eventPublisher).publishEvent(eventCaptor.capture());
         
         // Extracts the captured event to check its details
@@ -121,19 +139,99 @@ class TenantApplicationServiceTest {
         String name = "Mega Corp";
         RegisterTenantCommand command = new RegisterTenantCommand(name, "duplicate@test.com");
         
-        // Define mock behavior: return true to simulate a name collision in the DB
-        when(tenantRepository.existsByName(name)).thenReturn(true);
+        // Define mock behavior: the unique index rejects the insert (name collision in the DB)
+        when(tenantRepository.insertIfNameAvailable(any(Tenant.class))).thenReturn(false);
 
         // --- Act & Assert: Verify that an exception is thrown and side effects are avoided ---
         
-        // Asserts that calling the service method triggers an IllegalArgumentException
+        // Asserts that calling the service method triggers the domain "name taken" error
         assertThatThrownBy(() -> service.registerTenant(command))
-            .isInstanceOf(IllegalArgumentException.class) // Check exception type
+            .isInstanceOf(TenantNameTakenException.class) // Check exception type
             .hasMessageContaining("already exists");      // Check exception message
 
-        // Safety check: ensure the repository save method was never called
+        // Safety check: ensure nothing else was written
         verify(tenantRepository, never()).save(any());
         // Safety check: ensure no events were broadcasted since the action failed
-        verify(eventPublisher, never()).publishEvent(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should return batch results in request order and report missing ids")
+    void shouldBatchGetTenantsInRequestOrder() {
+        // --- Arrange: two existing tenants and one unknown id, requested out of "database order" ---
+        Tenant first = Tenant.register(TenantId.generate(), "First Corp");
+        Tenant second = Tenant.register(TenantId.generate(), "Second Corp");
+        UUID unknown = UUID.randomUUID();
+
+        // The repository answers in its own order (first, second), while the request below asks
+        // for second before first, so passing requires the service to reorder the rows
+        when(tenantRepository.findAllByIds(any())).thenReturn(List.of(first, second));
+
+        // --- Act: ask for second, unknown, first (plus a duplicate of second) ---
+        BatchGetTenantsResponse response = service.getTenants(new BatchGetTenantsRequest(List.of(
+            second.getId().value(), unknown, first.getId().value(), second.getId().value()
+        )));
+
+        // --- Assert: order follows the request, duplicates collapse, gaps are reported ---
+        assertThat(response.tenants())
+            .extracting(TenantResponse::name)
+            .containsExactly("Second Corp", "First Corp");
+        assertThat(response.missing()).containsExactly(unknown);
+        // A single repository round trip serves the whole batch
+        verify(tenantRepository, times(1)).findAllByIds(any());
+    }
+
+    @Test
+    @DisplayName("Should reject batches larger than the configured maximum")
+    void shouldRejectOversizedBatch() {
+        // --- Arrange: one id more than allowed ---
+        List<UUID> ids = Collections.nCopies(TenantApplicationService.MAX_BATCH_GET_IDS + 1, UUID.randomUUID());
+
+        // --- Act & Assert: validation happens before any database access ---
+        assertThatThrownBy(() -> service.getTenants(new BatchGetTenantsRequest(ids)))
+            .isInstanceOf(InvalidRequestException.class)
+            .hasMessageContaining("Cannot fetch more than");
+        verify(tenantRepository, never()).findAllByIds(any());
+    }
+
+    @Test
+    @DisplayName("Should suspend tenants chunk by chunk and publish one event per chunk")
+    void shouldSuspendTenantsInChunks() {
+        // --- Arrange: enough active tenants for two chunks, one of them already suspended ---
+        int total = TenantApplicationService.STATUS_CHANGE_CHUNK_SIZE + 10;
+        List<Tenant> tenants = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            tenants.add(Tenant.register(TenantId.generate(), "Tenant " + i));
+        }
+        tenants.get(0).suspend();
+        UUID unknown = UUID.randomUUID();
+
+        // The repository returns whatever tenants of the requested chunk exist
+        when(tenantRepository.findAllByIds(any())).thenAnswer(invocation -> {
+            Collection<TenantId> chunk = invocation.getArgument(0);
+            return tenants.stream().filter(t -> chunk.contains(t.getId())).toList();
+        });
+
+        List<UUID> ids = new ArrayList<>(tenants.stream().map(t -> t.getId().value()).toList());
+        ids.add(unknown);
+
+        // --- Act ---
+        BulkTenantStatusResponse response = service.suspendTenants(new BulkTenantStatusRequest(ids));
+
+        // --- Assert: counts cover every requested id ---
+        assertThat(response.changed()).isEqualTo(total - 1);
+        assertThat(response.unchanged()).isEqualTo(1);
+        assertThat(response.missing()).containsExactly(unknown);
+        assertThat(tenants).allMatch(t -> t.getStatus() == TenantStatus.SUSPENDED);
+
+        // --- Assert: two chunks -> two loads, two writes, two notifications ---
+        verify(tenantRepository, times(2)).findAllByIds(any());
+        verify(tenantRepository, times(2)).updateStatuses(any());
+        ArgumentCaptor<TenantsStatusChangedEvent> eventCaptor = ArgumentCaptor.forClass(TenantsStatusChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getAllValues())
+            .allMatch(e -> e.status() == TenantStatus.SUSPENDED)
+            .extracting(e -> e.tenantIds().size())
+            .containsExactly(TenantApplicationService.STATUS_CHANGE_CHUNK_SIZE - 1, 10);
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package pl.jakubsiekiera.iam.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import pl.jakubsiekiera.iam.application.dto.ExchangeTenantTokenCommand;
+import pl.jakubsiekiera.iam.application.dto.TenantTokenResponse;
+import pl.jakubsiekiera.iam.domain.model.permission.Permission;
+import pl.jakubsiekiera.iam.domain.model.tenant.Tenant;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import pl.jakubsiekiera.iam.domain.model.user.Email;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.model.user.User;
+import pl.jakubsiekiera.iam.domain.model.user.UserId;
+import pl.jakubsiekiera.iam.domain.repository.TenantRepository;
+import pl.jakubsiekiera.iam.domain.repository.UserRepository;
+import pl.jakubsiekiera.iam.domain.service.TenantTokenIssuer;
+import pl.jakubsiekiera.iam.domain.service.TenantTokenIssuer.IssuedToken;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link TenantTokenService}.
+ * The issuer is mocked: here we only care about who gets a token, not how it is signed.
+ */
+@ExtendWith(MockitoExtension.class)
+class TenantTokenServiceTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private TenantRepository tenantRepository;
+    @Mock private TenantTokenIssuer tokenIssuer;
+    @Mock private PermissionService permissionService;
+
+    private TenantTokenService service;
+
+    private final TenantId tenantId = TenantId.generate();
+    private final User member = User.register(UserId.generate(), "kc-1", new Email("jane@acme.com"));
+
+    @BeforeEach
+    void setUp() {
+        service = new TenantTokenService(userRepository, tenantRepository, tokenIssuer, permissionService);
+    }
+
+    @Test
+    @DisplayName("Should issue a token carrying the member's roles in the tenant")
+    void shouldIssueTokenForMember() {
+        // Arrange
+        member.addToTenant(tenantId, Role.ADMIN);
+        member.addToTenant(tenantId, Role.MEMBER);
+        when(userRepository.findByKeycloakId("kc-1")).thenReturn(Optional.of(member));
+        when(tenantRepository.findById(tenantId)).thenReturn(Optional.of(tenant(TenantStatus.ACTIVE)));
+        when(permissionService.isPermitted(tenantId, TenantStatus.ACTIVE, Set.of(Role.ADMIN, Role.MEMBER), Permission.TENANT_TOKENS_EXCHANGE))
+                .thenReturn(true);
+        when(tokenIssuer.issue("kc-1", tenantId, Set.of(Role.ADMIN, Role.MEMBER)))
+                .thenReturn(new IssuedToken("signed.jwt.value", Instant.now().plusSeconds(300)));
+
+        // Act
+        TenantTokenResponse response = service.exchange("kc-1", new ExchangeTenantTokenCommand(tenantId.value()));
+
+        // Assert
+        assertThat(response.access_token()).isEqualTo("signed.jwt.value");
+        assertThat(response.token_type()).isEqualTo("Bearer");
+        assertThat(response.expires_in()).isBetween(290L, 300L);
+        assertThat(response.roles()).containsExactly("ADMIN", "MEMBER");
+    }
+
+    @Test
+    @DisplayName("Should refuse a token for a tenant the caller doesn't belong to")
+    void shouldRejectNonMember() {
+        when(userRepository.findByKeycloakId("kc-1")).thenReturn(Optional.of(member));
+
+        assertThatThrownBy(() -> service.exchange("kc-1", new ExchangeTenantTokenCommand(tenantId.value())))
+                .isInstanceOf(AccessDeniedException.class);
+
+        verify(tokenIssuer, never()).issue(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should refuse a token when the exchange policy denies it (e.g. a suspended tenant)")
+    void shouldRejectSuspendedTenant() {
+        member.addToTenant(tenantId, Role.ADMIN);
+        when(userRepository.findByKeycloakId("kc-1")).thenReturn(Optional.of(member));
+        when(tenantRepository.findById(tenantId)).thenReturn(Optional.of(tenant(TenantStatus.SUSPENDED)));
+        when(permissionService.isPermitted(tenantId, TenantStatus.SUSPENDED, Set.of(Role.ADMIN), Permission.TENANT_TOKENS_EXCHANGE))
+                .thenReturn(false);
+
+        assertThatThrownBy(() -> service.exchange("kc-1", new ExchangeTenantTokenCommand(tenantId.value())))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessageContaining("SUSPENDED");
+
+        verify(tokenIssuer, never()).issue(any(), any(), any());
+    }
+
+    private Tenant tenant(TenantStatus status) {
+        return new Tenant(tenantId, "Acme", status, Instant.now());
+    }
+}
@@ -7,8 +7,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import pl.jakubsiekiera.iam.domain.exception.EmailAlreadyInUseException;
+import pl.jakubsiekiera.iam.domain.exception.TenantNotFoundException;
 import pl.jakubsiekiera.iam.application.dto.RegisterUserCommand;
 import pl.jakubsiekiera.iam.application.dto.UserResponse;
+import pl.jakubsiekiera.iam.domain.event.UserMembershipChangedEvent;
 import pl.jakubsiekiera.iam.domain.model.tenant.Tenant;
 import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
 import pl.jakubsiekiera.iam.domain.model.user.Email;
@@ -38,13 +42,14 @@ class UserApplicationServiceTest {
     @Mock private UserRepository userRepository;
     @Mock private TenantRepository tenantRepository;
     @Mock private IdentityProvider identityProvider;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     private UserApplicationService service;
 
     @BeforeEach
     void setUp() {
         // Manual instantiation ensures we test the actual service logic
-        service = new UserApplicationService(userRepository, tenantRepository, identityProvider);
+        service = new UserApplicationService(userRepository, tenantRepository, identityProvider, eventPublisher);
     }
 
     // --- Register User Tests ---
@@ -88,7 +93,7 @@ class UserApplicationServiceTest {
 
         // Act & Assert: Verify that an exception is thrown before external calls are made
         assertThatThrownBy(() -> service.registerUser(command))
-            .isInstanceOf(IllegalArgumentException.class)
+            .isInstanceOf(EmailAlreadyInUseException.class)
             .hasMessageContaining("Email already in use");
 
         // Safety Check: Verify Keycloak was NEVER called to prevent "ghost" users in the IDP
@@ -124,6 +129,12 @@ class UserApplicationServiceTest {
         assertThat(realUser.getRolesForTenant(tenantId))
                 .extracting(Role::name)
                 .containsExactly("ADMIN");
+
+        // Membership-derived caches are told which identity to evict
+        ArgumentCaptor<UserMembershipChangedEvent> eventCaptor = ArgumentCaptor.forClass(UserMembershipChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().keycloakId()).isEqualTo("kc-123");
+        assertThat(eventCaptor.getValue().tenantId()).isEqualTo(tenantId);
     }
 
     @Test
@@ -135,7 +146,7 @@ class UserApplicationServiceTest {
 
         // Act & Assert
         assertThatThrownBy(() -> service.inviteUserToTenant(randomId, "a@b.com", "ADMIN"))
-                .isInstanceOf(IllegalArgumentException.class)
+                .isInstanceOf(TenantNotFoundException.class)
                 .hasMessageContaining("Tenant not found");
     }
 }
\ No newline at end of file
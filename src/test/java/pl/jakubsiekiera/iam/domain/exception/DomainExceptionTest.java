@@ -0,0 +1,39 @@
+package pl.jakubsiekiera.iam.domain.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the {@link DomainException} hierarchy.
+ */
+class DomainExceptionTest {
+
+    @Test
+    @DisplayName("Should not capture a stack trace")
+    void shouldBeStackless() {
+        DomainException ex = new EmailAlreadyInUseException("jane@example.com");
+
+        assertThat(ex.getStackTrace()).isEmpty();
+        // Writable stack trace is off, so even an explicit fill leaves it empty
+        assertThat(ex.fillInStackTrace().getStackTrace()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should carry category, code and message")
+    void shouldExposeCategoryAndCode() {
+        UUID tenantId = UUID.randomUUID();
+
+        DomainException notFound = new TenantNotFoundException(tenantId);
+        DomainException taken = new TenantNameTakenException("Acme");
+
+        assertThat(notFound.category()).isEqualTo(DomainException.Category.NOT_FOUND);
+        assertThat(notFound.code()).isEqualTo("tenant-not-found");
+        assertThat(notFound).hasMessage("Tenant not found: " + tenantId);
+        assertThat(taken.category()).isEqualTo(DomainException.Category.CONFLICT);
+        assertThat(taken).hasMessage("Tenant with name 'Acme' already exists");
+    }
+}
@@ -24,6 +24,19 @@ class SharedValueObjectsTest {
         assertThat(TenantId.fromString(UUID.randomUUID().toString())).isNotNull();
     }
 
+    @Test
+    void tenantIdShouldBeTimeOrderedUuidV7() throws InterruptedException {
+        // New tenant ids embed their creation time so they append to the end of the PK index
+        // and sort in creation order (keyset pagination relies on this).
+        TenantId first = TenantId.generate();
+        Thread.sleep(2);
+        TenantId second = TenantId.generate();
+
+        assertThat(first.value().version()).isEqualTo(7);
+        assertThat(first.value().variant()).isEqualTo(2);
+        assertThat(first.value()).isLessThan(second.value());
+    }
+
     @Test
     void userIdShouldNotBeNull() {
         // A User cannot exist without a unique identifier; 
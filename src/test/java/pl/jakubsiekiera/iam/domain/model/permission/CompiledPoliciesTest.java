@@ -0,0 +1,78 @@
+package pl.jakubsiekiera.iam.domain.model.permission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.model.user.RoleHierarchy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for the policy language and its compiled tables.
+ */
+class CompiledPoliciesTest {
+
+    private static final Role AUDITOR = new Role("AUDITOR");
+    private static final RoleHierarchy NO_HIERARCHY = RoleHierarchy.of(Map.of());
+
+    @Test
+    @DisplayName("Shipped policies: admins invite only while the tenant is active, members only read")
+    void shouldEvaluateShippedPolicies() throws IOException {
+        CompiledPolicies policies = CompiledPolicies.compile(shippedPolicies());
+
+        // ADMIN implies MEMBER through the default hierarchy
+        long admin = policies.roleMask(Set.of(Role.ADMIN), RoleHierarchy.DEFAULT);
+        long member = policies.roleMask(Set.of(Role.MEMBER), RoleHierarchy.DEFAULT);
+
+        assertThat(policies.isPermitted(Permission.TENANT_USERS_INVITE, admin, TenantStatus.ACTIVE)).isTrue();
+        assertThat(policies.isPermitted(Permission.TENANT_USERS_INVITE, admin, TenantStatus.SUSPENDED)).isFalse();
+        assertThat(policies.isPermitted(Permission.TENANT_READ, admin, TenantStatus.ACTIVE)).isTrue();
+        assertThat(policies.isPermitted(Permission.TENANT_READ, admin, TenantStatus.SUSPENDED)).isTrue();
+        assertThat(policies.permitted(member, TenantStatus.ACTIVE))
+            .containsExactlyInAnyOrder(Permission.TENANT_READ, Permission.TENANT_USERS_LIST, Permission.TENANT_TOKENS_EXCHANGE);
+    }
+
+    @Test
+    @DisplayName("Should honour negation, grouping and precedence ('and' binds tighter than 'or')")
+    void shouldRespectOperators() {
+        CompiledPolicies policies = CompiledPolicies.compile("""
+            tenant:read = role(MEMBER) and not role(AUDITOR) or role(ADMIN) and (status(ACTIVE) or status(SUSPENDED))
+            """);
+        long member = policies.roleMask(Set.of(Role.MEMBER), NO_HIERARCHY);
+        long auditingMember = policies.roleMask(Set.of(Role.MEMBER, AUDITOR), NO_HIERARCHY);
+        long admin = policies.roleMask(Set.of(Role.ADMIN), NO_HIERARCHY);
+
+        assertThat(policies.isPermitted(Permission.TENANT_READ, member, TenantStatus.ACTIVE)).isTrue();
+        assertThat(policies.isPermitted(Permission.TENANT_READ, auditingMember, TenantStatus.ACTIVE)).isFalse();
+        assertThat(policies.isPermitted(Permission.TENANT_READ, admin, TenantStatus.SUSPENDED)).isTrue();
+        // No policy means deny
+        assertThat(policies.isPermitted(Permission.TENANT_USERS_INVITE, admin, TenantStatus.ACTIVE)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should report the offending line for invalid policies")
+    void shouldRejectInvalidPolicies() {
+        assertThatThrownBy(() -> CompiledPolicies.compile("tenant:read = role(MEMBER)\ntenant:read = role(ADMIN)"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("line 2");
+        assertThatThrownBy(() -> CompiledPolicies.compile("tenant:read = status(DELETED)"))
+            .hasMessageContaining("unknown tenant status");
+        assertThatThrownBy(() -> CompiledPolicies.compile("tenant:nope = true"))
+            .hasMessageContaining("Unknown permission");
+        assertThatThrownBy(() -> CompiledPolicies.compile("tenant:read = role(MEMBER) and"))
+            .hasMessageContaining("expected an expression");
+    }
+
+    private static String shippedPolicies() throws IOException {
+        try (InputStream in = CompiledPoliciesTest.class.getResourceAsStream("/permissions.policy")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
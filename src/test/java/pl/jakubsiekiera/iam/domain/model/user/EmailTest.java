@@ -1,8 +1,13 @@
 package pl.jakubsiekiera.iam.domain.model.user;
 
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
 import static org.assertj.core.api.Assertions.*;
 
 /**
@@ -11,6 +16,9 @@ import static org.assertj.core.api.Assertions.*;
  */
 class EmailTest {
 
+    // The regex Email used to run on every construction; the hand-written validator must agree with it
+    private static final Pattern REFERENCE = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+
     /**
      * Verifies that the Email object is correctly initialized when provided with 
      * standard, widely accepted email formats.
@@ -50,4 +58,68 @@ class EmailTest {
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessage("Invalid email format");
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifies that the lookup key is case-insensitive while the original spelling
+     * is preserved in the Value Object itself.
+     */
+    @Test
+    @DisplayName("Should expose a lower-case normalized form")
+    void shouldNormalizeToLowerCase() {
+        Email email = new Email("John.Doe@Example.COM");
+
+        assertThat(email.value()).isEqualTo("John.Doe@Example.COM");
+        assertThat(email.normalized()).isEqualTo("john.doe@example.com");
+    }
+
+    /**
+     * Edge cases of the grammar, checked against the reference regex rather than hard-coded
+     * expectations, so the two can't silently drift apart.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "a@b.cd", "a@b.c", "a@b.c1", "a@.cd", "a@..cd", "a@b..cd", "a@b.cd.", "a@-.cd", "a@b-c.de",
+        "a.@b.cd", ".a@b.cd", "a@@b.cd", "a@b@c.de", "a b@c.de", "a@b.cd\n", "@b.cd", "a@", "a@cd",
+        "user@domain.c0m", "x+y_z-w.v@sub.domain.museum", "\u00e9@b.cd", ""
+    })
+    @DisplayName("Should accept exactly what the former regex accepted")
+    void shouldMatchReferenceRegexOnEdgeCases(String candidate) {
+        assertThat(Email.isValid(candidate)).isEqualTo(REFERENCE.matcher(candidate).matches());
+    }
+
+    @Test
+    @DisplayName("Should agree with the former regex on random input")
+    void shouldMatchReferenceRegexOnRandomInput() {
+        // Alphabet biased towards the characters the grammar cares about; fixed seed for reproducibility
+        String alphabet = "aZ09+_.-@..@ \n!\u00e9";
+        Random random = new Random(20261019L);
+        StringBuilder candidate = new StringBuilder();
+
+        for (int n = 0; n < 200_000; n++) {
+            candidate.setLength(0);
+            int length = random.nextInt(14);
+            for (int i = 0; i < length; i++) {
+                candidate.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String input = candidate.toString();
+            assertThat(Email.isValid(input))
+                .as("'%s'", input)
+                .isEqualTo(REFERENCE.matcher(input).matches());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reuse the original string when it is already lower case")
+    void shouldNotCopyLowerCaseAddresses() {
+        Email email = new Email("jane.doe@example.com");
+
+        assertThat(email.normalized()).isSameAs(email.value());
+    }
+
+    @Test
+    @DisplayName("Should compare by the original spelling, like the former record")
+    void shouldKeepValueEquality() {
+        assertThat(new Email("a@b.cd")).isEqualTo(new Email("a@b.cd")).hasSameHashCodeAs(new Email("a@b.cd"));
+        assertThat(new Email("A@b.cd")).isNotEqualTo(new Email("a@b.cd"));
+    }
+}
@@ -0,0 +1,150 @@
+package pl.jakubsiekiera.iam.domain.model.user;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for {@link MembershipTable}, the compact membership storage behind {@link User}.
+ */
+class MembershipTableTest {
+
+    @Test
+    @DisplayName("Should find memberships inserted in random order")
+    void shouldFindMembershipsInsertedOutOfOrder() {
+        // Arrange: ids spanning the sign bit, so unsigned ordering matters
+        List<TenantId> tenants = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 300; i++) {
+            tenants.add(new TenantId(new UUID(random.nextLong(), random.nextLong())));
+        }
+        MembershipTable table = new MembershipTable();
+
+        // Act
+        for (TenantId tenant : tenants) {
+            table.add(tenant, Role.MEMBER);
+        }
+
+        // Assert
+        assertThat(table.size()).isEqualTo(300);
+        for (TenantId tenant : tenants) {
+            assertThat(table.rolesFor(tenant)).containsExactly(Role.MEMBER);
+        }
+        assertThat(table.contains(TenantId.generate())).isFalse();
+        assertThat(table.rolesFor(TenantId.generate())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should visit memberships in Postgres UUID order")
+    void shouldVisitInUuidOrder() {
+        MembershipTable table = new MembershipTable();
+        TenantId high = new TenantId(UUID.fromString("ffffffff-0000-0000-0000-000000000000"));
+        TenantId low = new TenantId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        table.add(high, Role.ADMIN);
+        table.add(low, Role.MEMBER);
+
+        List<TenantId> visited = new ArrayList<>();
+        table.forEach((tenantId, roles) -> visited.add(tenantId));
+
+        assertThat(visited).containsExactly(low, high);
+    }
+
+    @Test
+    @DisplayName("Builder should sort and merge rows loaded in any order")
+    void shouldSortAndMergeBulkLoadedRows() {
+        // Arrange
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        List<UUID> shuffled = new ArrayList<>(ids);
+        Collections.shuffle(shuffled, new Random(11));
+        MembershipTable.Builder builder = MembershipTable.builder(ids.size());
+
+        // Act: every tenant gets MEMBER, and the first ten get ADMIN in a second, later row
+        for (UUID id : shuffled) {
+            builder.add(id, Role.MEMBER);
+        }
+        for (UUID id : ids.subList(0, 10)) {
+            builder.add(id, Role.ADMIN);
+        }
+        MembershipTable table = builder.build();
+
+        // Assert
+        assertThat(table.size()).isEqualTo(100);
+        assertThat(table.rolesFor(new TenantId(ids.get(0)))).containsExactlyInAnyOrder(Role.ADMIN, Role.MEMBER);
+        assertThat(table.rolesFor(new TenantId(ids.get(50)))).containsExactly(Role.MEMBER);
+    }
+
+    @Test
+    @DisplayName("Role snapshots should be immutable and unaffected by later grants")
+    void shouldReturnImmutableRoleSnapshots() {
+        MembershipTable table = new MembershipTable();
+        TenantId tenant = TenantId.generate();
+        table.add(tenant, Role.MEMBER);
+
+        Set<Role> before = table.rolesFor(tenant);
+        table.add(tenant, new Role("BILLING"));
+
+        assertThat(before).containsExactly(Role.MEMBER);
+        assertThat(table.rolesFor(tenant)).containsExactlyInAnyOrder(Role.MEMBER, new Role("BILLING"));
+        assertThat(before).isEqualTo(Set.of(Role.MEMBER));
+        assertThatThrownBy(() -> before.add(Role.ADMIN)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Should hold more distinct roles than fit in one mask word")
+    void shouldWidenPastSixtyFourDistinctRoles() {
+        // Arrange: 200 distinct roles, spread over three tenants, granted one by one
+        MembershipTable table = new MembershipTable();
+        TenantId a = TenantId.generate();
+        TenantId b = TenantId.generate();
+        TenantId c = TenantId.generate();
+        table.add(a, Role.MEMBER);
+        Set<Role> beforeWidening = table.rolesFor(a);
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            table.add(i % 2 == 0 ? a : b, new Role("ROLE_" + i));
+        }
+        table.add(c, new Role("ROLE_199"));
+
+        // Assert
+        assertThat(table.rolesFor(a)).hasSize(101).contains(Role.MEMBER, new Role("ROLE_0"), new Role("ROLE_198"));
+        assertThat(table.rolesFor(b)).hasSize(100).contains(new Role("ROLE_1"), new Role("ROLE_199"))
+                .doesNotContain(Role.MEMBER, new Role("ROLE_0"));
+        assertThat(table.rolesFor(c)).containsExactly(new Role("ROLE_199"));
+        assertThat(beforeWidening).containsExactly(Role.MEMBER);
+    }
+
+    @Test
+    @DisplayName("Builder should rehydrate users holding more than 64 distinct roles")
+    void shouldRehydrateManyDistinctRoles() {
+        // Arrange: rows out of order, so sorting and merging run over widened masks
+        UUID first = new UUID(2, 2);
+        UUID second = new UUID(1, 1);
+        MembershipTable.Builder builder = MembershipTable.builder(2);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            builder.add(first, new Role("ROLE_" + i));
+        }
+        builder.add(second, Role.ADMIN);
+        builder.add(first, Role.ADMIN);
+        MembershipTable table = builder.build();
+
+        // Assert
+        assertThat(table.size()).isEqualTo(2);
+        assertThat(table.rolesFor(new TenantId(first))).hasSize(101).contains(new Role("ROLE_99"), Role.ADMIN);
+        assertThat(table.rolesFor(new TenantId(second))).containsExactly(Role.ADMIN);
+    }
+}
@@ -0,0 +1,74 @@
+package pl.jakubsiekiera.iam.domain.model.user;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for the {@link RoleHierarchy} Value Object and its precomputed closure.
+ */
+class RoleHierarchyTest {
+
+    private static final Role OWNER = new Role("OWNER");
+    private static final Role BILLING = new Role("BILLING");
+
+    @Test
+    @DisplayName("Should resolve implications transitively")
+    void shouldResolveTransitively() {
+        // OWNER -> ADMIN -> MEMBER, OWNER -> BILLING
+        RoleHierarchy hierarchy = RoleHierarchy.of(Map.of(
+            OWNER, List.of(Role.ADMIN, BILLING),
+            Role.ADMIN, List.of(Role.MEMBER)));
+
+        assertThat(hierarchy.implies(OWNER, Role.MEMBER)).isTrue();
+        assertThat(hierarchy.implies(OWNER, BILLING)).isTrue();
+        assertThat(hierarchy.implies(Role.ADMIN, BILLING)).isFalse();
+        assertThat(hierarchy.implies(Role.MEMBER, Role.ADMIN)).isFalse();
+        assertThat(hierarchy.effectiveRoles(Set.of(Role.ADMIN))).containsExactlyInAnyOrder(Role.ADMIN, Role.MEMBER);
+    }
+
+    @Test
+    @DisplayName("Every role implies itself, even when the hierarchy doesn't mention it")
+    void shouldImplyItself() {
+        Role auditor = new Role("AUDITOR");
+
+        assertThat(RoleHierarchy.DEFAULT.implies(auditor, auditor)).isTrue();
+        assertThat(RoleHierarchy.DEFAULT.hasEffectiveRole(Set.of(auditor), Role.MEMBER)).isFalse();
+        assertThat(RoleHierarchy.DEFAULT.hasEffectiveRole(Set.of(Role.ADMIN), Role.MEMBER)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject cyclic definitions")
+    void shouldRejectCycles() {
+        Map<Role, List<Role>> cyclic = Map.of(
+            OWNER, List.of(Role.ADMIN),
+            Role.ADMIN, List.of(Role.MEMBER),
+            Role.MEMBER, List.of(OWNER));
+
+        assertThatThrownBy(() -> RoleHierarchy.of(cyclic))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("cycle");
+    }
+
+    @Test
+    @DisplayName("Should handle deep chains spanning several bitset words")
+    void shouldHandleDeepChains() {
+        // R0 -> R1 -> ... -> R199: the closure rows span 4 longs each
+        Map<Role, List<Role>> chain = new HashMap<>();
+        for (int i = 0; i < 199; i++) {
+            chain.put(new Role("R" + i), List.of(new Role("R" + (i + 1))));
+        }
+        RoleHierarchy hierarchy = RoleHierarchy.of(chain);
+
+        assertThat(hierarchy.roleCount()).isEqualTo(200);
+        assertThat(hierarchy.implies(new Role("R0"), new Role("R199"))).isTrue();
+        assertThat(hierarchy.implies(new Role("R150"), new Role("R64"))).isFalse();
+        assertThat(hierarchy.effectiveRoles(Set.of(new Role("R190")))).hasSize(10);
+    }
+}
@@ -0,0 +1,340 @@
+package pl.jakubsiekiera.iam.infrastructure.changes;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pl.jakubsiekiera.iam.application.dto.Change;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ChangeFeed}. The feed thread isn't started: each test drives
+ * {@link ChangeFeed#tick()} itself, against an in-memory stand-in for the outbox table.
+ * Subscriber threads are real, so deliveries are awaited.
+ */
+class ChangeFeedTest {
+
+    private final NavigableMap<Long, Change> table = new ConcurrentSkipListMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private long nextId = 1;
+    private ChangeOutbox outbox;
+    private ChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        outbox = mock(ChangeOutbox.class);
+        when(outbox.after(anyLong(), anyInt())).thenAnswer(call -> table
+                .tailMap(call.<Long>getArgument(0), false).values().stream()
+                .limit(call.<Integer>getArgument(1))
+                .toList());
+        when(outbox.oldestId()).thenAnswer(call -> table.isEmpty() ? 0L : table.firstKey());
+        when(outbox.latestId()).thenAnswer(call -> table.isEmpty() ? 0L : table.lastKey());
+
+        // A ring of 4, pages of 3 and subscriber queues of 8: anything older is caught up from the outbox
+        feed = new ChangeFeed(outbox, meterRegistry, 4, 3, 8, Duration.ofMillis(100), Duration.ofMillis(200), Duration.ofHours(1));
+        feed.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.stop();
+    }
+
+    @Test
+    @DisplayName("Should push new changes to every live subscriber from one shared read")
+    void shouldFanOutLiveChanges() throws InterruptedException {
+        // Arrange
+        RecordingSink first = new RecordingSink();
+        RecordingSink second = new RecordingSink();
+        feed.subscribe(-1, null, first);
+        feed.subscribe(-1, null, second);
+
+        // Act
+        commit(registered("Acme"));
+        commit(registered("Globex"));
+        tickUntil(() -> first.changes.size() == 2 && second.changes.size() == 2);
+
+        // Assert
+        assertThat(first.changes).extracting(Change::offset).containsExactly(1L, 2L);
+        assertThat(first.changes).extracting(Change::name).containsExactly("Acme", "Globex");
+        assertThat(first.changes.getFirst().type()).isEqualTo(Change.TENANT_REGISTERED);
+        assertThat(second.changes).extracting(Change::offset).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should resume from an id older than the ring without gaps")
+    void shouldResumeFromOutbox() throws InterruptedException {
+        // Arrange: 10 changes, only the last 4 fit in the ring
+        for (int i = 0; i < 10; i++) {
+            commit(registered("Tenant " + i));
+        }
+        feed.tick();
+        RecordingSink resuming = new RecordingSink();
+
+        // Act
+        feed.subscribe(2, null, resuming);
+        tickUntil(() -> resuming.changes.size() == 9);
+        commit(registered("Tenant 10"));
+        tickUntil(() -> resuming.changes.size() == 10);
+
+        // Assert
+        assertThat(resuming.changes).extracting(Change::offset)
+                .containsExactly(2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L);
+    }
+
+    @Test
+    @DisplayName("Should resume a cursor issued by another instance")
+    void shouldResumeCursorFromAnotherInstance() throws InterruptedException {
+        // Arrange: changes made (and streamed) elsewhere before this instance started
+        for (int i = 0; i < 5; i++) {
+            commit(registered("Tenant " + i));
+        }
+        feed.init();
+        RecordingSink resuming = new RecordingSink();
+
+        // Act: the client saw up to 3 on the other instance
+        feed.subscribe(4, null, resuming);
+        tickUntil(() -> resuming.changes.size() == 2);
+
+        // Assert
+        assertThat(resuming.changes).extracting(Change::offset).containsExactly(4L, 5L);
+    }
+
+    @Test
+    @DisplayName("Should send a reset for a purged or unknown cursor and continue live")
+    void shouldResetUnknownCursor() throws InterruptedException {
+        // Arrange: ids 1-5 were purged, 6 and 7 are retained
+        for (int i = 0; i < 7; i++) {
+            commit(registered("Tenant " + i));
+        }
+        table.headMap(6L).clear();
+        feed.init();
+        RecordingSink purged = new RecordingSink();
+        RecordingSink future = new RecordingSink();
+
+        // Act
+        feed.subscribe(3, null, purged);
+        feed.subscribe(1000, null, future);
+        commit(registered("Live"));
+        tickUntil(() -> purged.changes.size() == 2 && future.changes.size() == 2);
+
+        // Assert: reset at the end of the stream, then only what came after it
+        for (RecordingSink sink : List.of(purged, future)) {
+            assertThat(sink.changes).extracting(Change::type).containsExactly(Change.RESET, Change.TENANT_REGISTERED);
+            assertThat(sink.changes).extracting(Change::offset).containsExactly(7L, 8L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should wait for a missing id and only skip it after the grace period")
+    void shouldWaitForMissingIdBeforeSkipping() throws InterruptedException {
+        // Arrange
+        RecordingSink sink = new RecordingSink();
+        feed.subscribe(-1, null, sink);
+
+        // Act: id 1 is allocated by a transaction still in flight, id 2 committed first
+        long inFlight = nextId++;
+        commit(registered("Fast"));
+        tickFor(50);
+
+        // Assert: nothing is pushed past the hole...
+        assertThat(sink.changes).isEmpty();
+
+        // ...until the slow transaction commits
+        table.put(inFlight, withId(registered("Slow"), inFlight));
+        tickUntil(() -> sink.changes.size() == 2);
+        assertThat(sink.changes).extracting(Change::name).containsExactly("Slow", "Fast");
+
+        // A hole that never fills (rollback) is skipped once the grace period is over
+        nextId++;
+        commit(registered("After rollback"));
+        tickFor(50);
+        assertThat(sink.changes).hasSize(2);
+        Thread.sleep(200);
+        tickUntil(() -> sink.changes.size() == 3);
+        assertThat(sink.changes).extracting(Change::offset).containsExactly(1L, 2L, 4L);
+        assertThat(meterRegistry.get("iam.changes.skipped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should only deliver changes concerning the requested tenant")
+    void shouldFilterByTenant() throws InterruptedException {
+        UUID tenant = UUID.randomUUID();
+        RecordingSink sink = new RecordingSink();
+        feed.subscribe(-1, tenant, sink);
+
+        commit(registered("Other"));
+        commit(new Change(0, Change.MEMBERSHIP_CHANGED, List.of(tenant), UUID.randomUUID(), null, null, Instant.now()));
+        tickUntil(() -> !sink.changes.isEmpty());
+        tickFor(20);
+
+        assertThat(sink.changes).singleElement().satisfies(change -> {
+            assertThat(change.type()).isEqualTo(Change.MEMBERSHIP_CHANGED);
+            assertThat(change.offset()).isEqualTo(2L);
+        });
+    }
+
+    @Test
+    @DisplayName("Should only reveal the subscribed tenant of a bulk status change")
+    void shouldProjectBulkChangesToTenant() throws InterruptedException {
+        // Arrange: one change for a whole chunk of tenants
+        UUID tenant = UUID.randomUUID();
+        List<UUID> chunk = List.of(UUID.randomUUID(), tenant, UUID.randomUUID());
+        RecordingSink tenantSink = new RecordingSink();
+        RecordingSink allSink = new RecordingSink();
+        feed.subscribe(-1, tenant, tenantSink);
+        feed.subscribe(-1, null, allSink);
+
+        // Act
+        commit(new Change(0, Change.TENANT_STATUS_CHANGED, chunk, null, null, "SUSPENDED", Instant.now()));
+        tickUntil(() -> tenantSink.changes.size() == 1 && allSink.changes.size() == 1);
+        for (int i = 0; i < 4; i++) {
+            commit(registered("Tenant " + i)); // Pushes the bulk change out of the ring
+        }
+        tickUntil(() -> allSink.changes.size() == 5);
+        RecordingSink resuming = new RecordingSink();
+        feed.subscribe(1, tenant, resuming);
+        tickUntil(() -> resuming.changes.size() == 1);
+
+        // Assert: live and caught up from the outbox alike
+        for (RecordingSink sink : List.of(tenantSink, resuming)) {
+            assertThat(sink.changes).singleElement().satisfies(change -> {
+                assertThat(change.type()).isEqualTo(Change.TENANT_STATUS_CHANGED);
+                assertThat(change.status()).isEqualTo("SUSPENDED");
+                assertThat(change.tenantIds()).containsExactly(tenant);
+            });
+        }
+        assertThat(allSink.changes.getFirst().tenantIds()).isEqualTo(chunk);
+    }
+
+    @Test
+    @DisplayName("Should drop subscribers whose connection fails")
+    void shouldDropFailingSubscribers() throws InterruptedException {
+        RecordingSink broken = new RecordingSink();
+        broken.failing = true;
+        feed.subscribe(-1, null, broken);
+
+        commit(registered("Acme"));
+        tickUntil(() -> broken.closed);
+
+        assertThat(broken.closed).isTrue();
+        assertThat(feed.subscriberCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should disconnect a subscriber that can't keep up without holding up the others")
+    void shouldDisconnectSlowSubscribers() throws InterruptedException {
+        // Arrange: queues of 2, and a client that stops reading after its first change
+        feed.stop();
+        feed = new ChangeFeed(outbox, meterRegistry, 16, 3, 2, Duration.ofMillis(100), Duration.ofMillis(200), Duration.ofHours(1));
+        feed.init();
+        CountDownLatch stuck = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink() {
+            @Override
+            public void send(Change change) throws IOException {
+                super.send(change);
+                try {
+                    stuck.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        RecordingSink fast = new RecordingSink();
+        feed.subscribe(-1, null, slow);
+        feed.subscribe(-1, null, fast);
+
+        // Act: the slow client is stuck on 1, 2 and 3 fill its queue, 4 doesn't fit
+        commit(registered("Tenant 1"));
+        tickUntil(() -> fast.changes.size() == 1 && slow.changes.size() == 1);
+        for (int i = 2; i <= 4; i++) {
+            commit(registered("Tenant " + i));
+            int delivered = i;
+            tickUntil(() -> fast.changes.size() == delivered);
+        }
+        stuck.countDown();
+        tickUntil(() -> slow.closed);
+
+        // Assert
+        assertThat(fast.changes).extracting(Change::offset).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(fast.closed).isFalse();
+        assertThat(slow.changes).extracting(Change::offset).containsExactly(1L);
+        assertThat(feed.subscriberCount()).isOne();
+        assertThat(meterRegistry.get("iam.changes.overflowed").counter().count()).isEqualTo(1);
+    }
+
+    // Drives the feed thread until the subscriber threads have caught up with the condition
+    private void tickUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            feed.tick();
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    // Gives the subscriber threads a chance to deliver what they shouldn't
+    private void tickFor(long millis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (System.nanoTime() < deadline) {
+            feed.tick();
+            Thread.sleep(5);
+        }
+    }
+
+    // What the outbox insert does: the next id of the sequence
+    private void commit(Change change) {
+        long id = nextId++;
+        table.put(id, withId(change, id));
+    }
+
+    private static Change withId(Change change, long id) {
+        return new Change(id, change.type(), change.tenantIds(), change.userId(), change.name(), change.status(), change.occurredOn());
+    }
+
+    private static Change registered(String name) {
+        return new Change(0, Change.TENANT_REGISTERED, List.of(UUID.randomUUID()), null, name, null, Instant.now());
+    }
+
+    private static class RecordingSink implements ChangeFeed.Sink {
+
+        final List<Change> changes = new CopyOnWriteArrayList<>();
+        volatile boolean failing;
+        volatile boolean closed;
+
+        @Override
+        public void send(Change change) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            changes.add(change);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package pl.jakubsiekiera.iam.infrastructure.changes;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import pl.jakubsiekiera.iam.application.dto.Change;
+import pl.jakubsiekiera.iam.domain.event.TenantsStatusChangedEvent;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import pl.jakubsiekiera.iam.infrastructure.journal.JournalGap;
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.ChangeEventJpaEntity;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaChangeEventRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ChangeOutbox} with a mocked repository: what gets recorded and how rows
+ * map back to changes.
+ */
+class ChangeOutboxTest {
+
+    private final JpaChangeEventRepository repository = mock(JpaChangeEventRepository.class);
+    private final ChangeOutbox outbox = new ChangeOutbox(repository, Duration.ofDays(7));
+
+    @Test
+    @DisplayName("Should record a change event and read it back with its id as the offset")
+    void shouldRoundTripChange() {
+        // Arrange
+        TenantsStatusChangedEvent event = new TenantsStatusChangedEvent(
+                List.of(TenantId.generate(), TenantId.generate()), TenantStatus.SUSPENDED, Instant.now());
+
+        // Act
+        outbox.record(event);
+
+        // Assert: stored as CSV, read back as the same change under the generated id
+        ArgumentCaptor<ChangeEventJpaEntity> saved = ArgumentCaptor.forClass(ChangeEventJpaEntity.class);
+        verify(repository).save(saved.capture());
+        ChangeEventJpaEntity row = saved.getValue();
+        assertThat(row.getTenantIds()).isEqualTo(event.tenantIds().get(0).value() + "," + event.tenantIds().get(1).value());
+
+        row.setId(42L);
+        when(repository.findPageAfter(41, 10)).thenReturn(List.of(row));
+        assertThat(outbox.after(41, 10)).containsExactly(Change.from(42, event));
+    }
+
+    @Test
+    @DisplayName("Should not record events that aren't published on the feed")
+    void shouldIgnoreNonChangeEvents() {
+        outbox.record(new JournalGap(1, "dropped by the event bus", Instant.now()));
+
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,91 @@
+package pl.jakubsiekiera.iam.infrastructure.concurrent;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link SingleFlight}.
+ */
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> flight = new SingleFlight<>();
+
+    @Test
+    @DisplayName("Should run the loader once for concurrent callers of the same key")
+    void shouldCoalesceConcurrentCalls() throws Exception {
+        // Arrange: the leader blocks inside the loader until we release it
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Integer> results = new ConcurrentLinkedQueue<>();
+
+        Thread leader = Thread.ofPlatform().start(() -> results.add(flight.execute("k", () -> {
+            leaderStarted.countDown();
+            awaitQuietly(release);
+            return loads.incrementAndGet();
+        })));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Thread> followers = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            followers.add(Thread.ofPlatform().start(() -> results.add(flight.execute("k", loads::incrementAndGet))));
+        }
+
+        // Act: once every follower is parked waiting for the leader's result, let the leader finish
+        for (Thread follower : followers) {
+            while (follower.getState() != Thread.State.WAITING) {
+                Thread.onSpinWait();
+            }
+        }
+        release.countDown();
+        leader.join(5_000);
+        for (Thread follower : followers) {
+            follower.join(5_000);
+        }
+
+        // Assert: one load, everybody saw its result
+        assertThat(loads).hasValue(1);
+        assertThat(results).hasSize(8).containsOnly(1);
+        assertThat(flight.inFlightCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not cache results once the call has completed")
+    void shouldRunAgainAfterCompletion() {
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.execute("k", loads::incrementAndGet);
+        flight.execute("k", loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should propagate the loader's exception and release the key")
+    void shouldPropagateFailures() {
+        assertThatThrownBy(() -> flight.execute("k", () -> { throw new IllegalStateException("boom"); }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+
+        assertThat(flight.inFlightCount()).isZero();
+        assertThat(flight.execute("k", () -> 42)).isEqualTo(42);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package pl.jakubsiekiera.iam.infrastructure.events;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pl.jakubsiekiera.iam.domain.event.DomainEvent;
+import pl.jakubsiekiera.iam.domain.event.DomainEventSubscriber;
+import pl.jakubsiekiera.iam.domain.event.RoleHierarchyChangedEvent;
+import pl.jakubsiekiera.iam.domain.event.TenantRegisteredEvent;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RingBufferEventBus}: delivery, ordering and backpressure. Subscribers run on real consumer threads.
+ */
+class RingBufferEventBusTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RingBufferEventBus bus;
+
+    @AfterEach
+    void tearDown() {
+        if (bus != null) {
+            bus.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver every event to matching subscribers in per-producer order")
+    void shouldDeliverEventsInOrder() throws Exception {
+        // Arrange: 4 producers x 5000 events through a small ring, so producers wrap many times
+        Recorder<TenantRegisteredEvent> registrations = new Recorder<>(TenantRegisteredEvent.class, e -> {});
+        Recorder<RoleHierarchyChangedEvent> hierarchies = new Recorder<>(RoleHierarchyChangedEvent.class, e -> {});
+        bus = start(List.of(registrations, hierarchies), 64, Duration.ofSeconds(5));
+
+        // Act
+        int producers = 4;
+        int perProducer = 5_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String producer = "p" + p;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    bus.publish(new TenantRegisteredEvent(TenantId.generate(), producer + ":" + i, Instant.now()));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        registrations.awaitCount(producers * perProducer);
+
+        // Assert: nothing lost, events of one producer arrive in the order they were published
+        assertThat(registrations.received).hasSize(producers * perProducer);
+        int[] lastSeen = {-1, -1, -1, -1};
+        for (TenantRegisteredEvent event : registrations.received) {
+            String[] parts = event.name().split(":");
+            int producer = Integer.parseInt(parts[0].substring(1));
+            int index = Integer.parseInt(parts[1]);
+            assertThat(index).isEqualTo(lastSeen[producer] + 1);
+            lastSeen[producer] = index;
+        }
+        assertThat(hierarchies.received).isEmpty(); // Filtered by event type
+        assertThat(meterRegistry.counter("iam.events.dropped").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should make publishers wait while the ring is full and drop after the timeout")
+    void shouldApplyBackpressure() throws Exception {
+        // Arrange: the subscriber is stuck on its first event, the ring holds 4 events
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch firstTaken = new CountDownLatch(1);
+        Recorder<TenantRegisteredEvent> stuck = new Recorder<>(TenantRegisteredEvent.class, e -> {
+            firstTaken.countDown();
+            await(release);
+        });
+        bus = start(List.of(stuck), 4, Duration.ofMillis(100));
+
+        // Act: the first event occupies the subscriber, 3 more fill the ring
+        bus.publish(registered("first"));
+        assertThat(firstTaken.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 3; i++) {
+            bus.publish(registered("queued-" + i));
+        }
+        long start = System.nanoTime();
+        bus.publish(registered("overflow"));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert: the publisher waited for the timeout, then the event was dropped, counted and reported
+        assertThat(waitedMillis).isGreaterThanOrEqualTo(90);
+        assertThat(meterRegistry.counter("iam.events.dropped").count()).isEqualTo(1);
+        assertThat(stuck.dropped).extracting(TenantRegisteredEvent::name).containsExactly("overflow");
+
+        release.countDown();
+        stuck.awaitCount(4);
+        assertThat(stuck.received).extracting(TenantRegisteredEvent::name)
+                .containsExactly("first", "queued-0", "queued-1", "queued-2");
+    }
+
+    @Test
+    @DisplayName("Should keep delivering after a subscriber throws")
+    void shouldSurviveFailingSubscriber() throws Exception {
+        Recorder<TenantRegisteredEvent> flaky = new Recorder<>(TenantRegisteredEvent.class, e -> {
+            if (e.name().equals("bad")) {
+                throw new IllegalStateException("boom");
+            }
+        });
+        bus = start(List.of(flaky), 16, Duration.ofSeconds(1));
+
+        bus.publish(registered("bad"));
+        bus.publish(registered("good"));
+
+        flaky.awaitCount(2);
+        assertThat(flaky.handled).extracting(TenantRegisteredEvent::name).containsExactly("good");
+        assertThat(meterRegistry.counter("iam.events.failed", "subscriber", "Recorder").count()).isEqualTo(1);
+    }
+
+    private RingBufferEventBus start(List<DomainEventSubscriber<?>> subscribers, int size, Duration publishTimeout) {
+        RingBufferEventBus started = new RingBufferEventBus(subscribers, meterRegistry, size, WaitStrategy.SLEEPING, publishTimeout, 32);
+        started.start();
+        return started;
+    }
+
+    private static TenantRegisteredEvent registered(String name) {
+        return new TenantRegisteredEvent(TenantId.generate(), name, Instant.now());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs the behaviour for each event; records the events handled without throwing ('handled')
+     * and, once done with it either way, every event received ('received'), plus the events the
+     * bus reported as dropped ('dropped').
+     */
+    private static final class Recorder<E extends DomainEvent> implements DomainEventSubscriber<E> {
+
+        private final Class<E> type;
+        private final Consumer<E> behaviour;
+        final List<E> received = Collections.synchronizedList(new ArrayList<>());
+        final List<E> handled = new CopyOnWriteArrayList<>();
+        final List<E> dropped = new CopyOnWriteArrayList<>();
+
+        Recorder(Class<E> type, Consumer<E> behaviour) {
+            this.type = type;
+            this.behaviour = behaviour;
+        }
+
+        @Override
+        public Class<E> eventType() {
+            return type;
+        }
+
+        @Override
+        public void handle(E event) {
+            try {
+                behaviour.accept(event);
+                handled.add(event);
+            } finally {
+                received.add(event);
+            }
+        }
+
+        @Override
+        public void onDropped(E event) {
+            dropped.add(event);
+        }
+
+        void awaitCount(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (received.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package pl.jakubsiekiera.iam.infrastructure.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.IdempotencyKeyJpaEntity;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaIdempotencyKeyRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link IdempotencyFilter} with a real {@link IdempotencyStore} over a mocked table.
+ * The filter chain stands in for the controller, so counting its invocations tells us how
+ * often the underlying operation (Keycloak call, repository writes) actually ran.
+ */
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"username\":\"jane\",\"email\":\"jane@example.com\",\"password\":\"secret123\"}";
+
+    private final JpaIdempotencyKeyRepository repository = mock(JpaIdempotencyKeyRepository.class);
+    private final IdempotencyFilter filter = new IdempotencyFilter(
+            new IdempotencyStore(repository, Duration.ofHours(24), Duration.ofSeconds(30), 100, Duration.ofMinutes(10)), 1024);
+    private final AtomicInteger controllerCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        // The claim is still ours when the request completes
+        when(repository.complete(anyString(), any(), anyInt(), any(), any(), any(), any())).thenReturn(1);
+    }
+
+    @Test
+    @DisplayName("Should run the first request and replay its response to retries")
+    void shouldReplayRecordedResponse() throws Exception {
+        // Arrange: the key is free
+        when(repository.claim(anyString(), anyString(), any(), any(), any())).thenReturn(1);
+        FilterChain controller = respondWith(201, "{\"id\":\"u-1\"}");
+
+        // Act
+        MockHttpServletResponse first = post("key-1", BODY, controller);
+        MockHttpServletResponse retry = post("key-1", BODY, controller);
+
+        // Assert: one real execution, identical answers
+        assertThat(controllerCalls).hasValue(1);
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getContentAsString()).isEqualTo("{\"id\":\"u-1\"}");
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+
+        // The retry was served from the hot tier without another claim
+        verify(repository, times(1)).claim(anyString(), anyString(), any(), any(), any());
+        verify(repository).complete(anyString(), any(), eq(201), startsWith("application/json"), isNull(), eq("{\"id\":\"u-1\"}"), any());
+    }
+
+    @Test
+    @DisplayName("Should reject reuse of a key with a different body")
+    void shouldRejectDifferentPayload() throws Exception {
+        when(repository.claim(anyString(), anyString(), any(), any(), any())).thenReturn(1);
+        FilterChain controller = respondWith(201, "{}");
+        post("key-2", BODY, controller);
+
+        MockHttpServletResponse response = post("key-2", BODY.replace("jane", "john"), controller);
+
+        assertThat(response.getStatus()).isEqualTo(422);
+        assertThat(response.getContentType()).startsWith("application/problem+json");
+        assertThat(response.getContentAsString()).contains("\"code\":\"idempotency-key-reused\"");
+        assertThat(controllerCalls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should answer 409 while the first request with the key is still running")
+    void shouldRejectWhileInProgress() throws Exception {
+        // Arrange: another request (maybe on another instance) owns the key and hasn't finished
+        when(repository.claim(anyString(), anyString(), any(), any(), any())).thenReturn(0);
+        when(repository.findById(anyString())).thenAnswer(invocation -> {
+            IdempotencyKeyJpaEntity row = new IdempotencyKeyJpaEntity();
+            row.setRequestHash(sha256(BODY));
+            return Optional.of(row);
+        });
+
+        // Act
+        MockHttpServletResponse response = post("key-3", BODY, respondWith(201, "{}"));
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(409);
+        assertThat(response.getContentAsString()).contains("\"code\":\"idempotency-key-in-use\"");
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(controllerCalls).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should release the key when the request fails with a server error")
+    void shouldReleaseOnServerError() throws Exception {
+        when(repository.claim(anyString(), anyString(), any(), any(), any())).thenReturn(1);
+
+        MockHttpServletResponse response = post("key-4", BODY, respondWith(502, "{}"));
+
+        assertThat(response.getStatus()).isEqualTo(502);
+        verify(repository).release(anyString(), any());
+        verify(repository, never()).complete(anyString(), any(), anyInt(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should claim a key for the lease only and keep the response for the TTL once complete")
+    void shouldLeaseClaimsAndRetainCompletedResponses() throws Exception {
+        // Arrange
+        when(repository.claim(anyString(), anyString(), any(), any(), any())).thenReturn(1);
+        Instant before = Instant.now();
+
+        // Act
+        post("key-5", BODY, respondWith(201, "{}"));
+
+        // Assert
+        ArgumentCaptor<Instant> claimedUntil = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> keptUntil = ArgumentCaptor.forClass(Instant.class);
+        verify(repository).claim(anyString(), anyString(), any(), any(), claimedUntil.capture());
+        verify(repository).complete(anyString(), any(), eq(201), any(), any(), any(), keptUntil.capture());
+        assertThat(claimedUntil.getValue()).isBefore(before.plus(Duration.ofMinutes(1)));
+        assertThat(keptUntil.getValue()).isAfter(before.plus(Duration.ofHours(23)));
+    }
+
+    @Test
+    @DisplayName("Should replay the Location header of a recorded 201")
+    void shouldReplayLocation() throws Exception {
+        // Arrange
+        when(repository.claim(anyString(), anyString(), any(), any(), any())).thenReturn(1);
+        FilterChain controller = (request, response) -> {
+            controllerCalls.incrementAndGet();
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(201);
+            http.setHeader("Location", "/api/v1/users/u-1");
+            http.setContentType("application/json");
+            http.getWriter().write("{\"id\":\"u-1\"}");
+        };
+
+        // Act
+        post("key-6", BODY, controller);
+        MockHttpServletResponse retry = post("key-6", BODY, controller);
+
+        // Assert
+        assertThat(controllerCalls).hasValue(1);
+        assertThat(retry.getHeader("Location")).isEqualTo("/api/v1/users/u-1");
+        verify(repository).complete(anyString(), any(), eq(201), any(), eq("/api/v1/users/u-1"), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject a body over max-body-size with 413 without claiming the key")
+    void shouldRejectOversizedBody() throws Exception {
+        MockHttpServletResponse response = post("key-7", "x".repeat(1025), respondWith(201, "{}"));
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(controllerCalls).hasValue(0);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Should store a fixed-length key however long the path, caller and client key are")
+    void shouldHashScopedKey() throws Exception {
+        when(repository.claim(anyString(), anyString(), any(), any(), any())).thenReturn(1);
+
+        post("k".repeat(255), BODY, respondWith(201, "{}"));
+
+        ArgumentCaptor<String> key = ArgumentCaptor.forClass(String.class);
+        verify(repository).claim(key.capture(), anyString(), any(), any(), any());
+        assertThat(key.getValue()).hasSize(64).matches("[0-9a-f]+");
+    }
+
+    @Test
+    @DisplayName("Should keep a request that outlived its lease from overwriting the claim that took it over")
+    void shouldFenceTakenOverClaims() throws Exception {
+        // Arrange: a table of one key, whose lease always looks expired to the next claimant
+        AtomicReference<UUID> owner = new AtomicReference<>();
+        when(repository.claim(anyString(), anyString(), any(), any(), any())).thenAnswer(call -> {
+            owner.set(call.getArgument(2));
+            return 1;
+        });
+        when(repository.complete(anyString(), any(), anyInt(), any(), any(), any(), any()))
+                .thenAnswer(call -> call.getArgument(1).equals(owner.get()) ? 1 : 0);
+        when(repository.release(anyString(), any()))
+                .thenAnswer(call -> call.getArgument(1).equals(owner.get()) ? 1 : 0);
+
+        // The first request is so slow that the client's retry takes the key over meanwhile
+        MockHttpServletResponse[] retry = new MockHttpServletResponse[1];
+        FilterChain slow = (request, response) -> {
+            controllerCalls.incrementAndGet();
+            retry[0] = post("key-10", BODY, respondWith(201, "{\"id\":\"second\"}"));
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(201);
+            http.setContentType("application/json");
+            http.getWriter().write("{\"id\":\"first\"}");
+        };
+
+        // Act
+        MockHttpServletResponse first = post("key-10", BODY, slow);
+        MockHttpServletResponse later = post("key-10", BODY, respondWith(201, "{}"));
+
+        // Assert: the stale owner's complete was fenced off, the new owner's response is the one replayed
+        assertThat(first.getContentAsString()).isEqualTo("{\"id\":\"first\"}");
+        assertThat(retry[0].getContentAsString()).isEqualTo("{\"id\":\"second\"}");
+        assertThat(later.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(later.getContentAsString()).isEqualTo("{\"id\":\"second\"}");
+        assertThat(controllerCalls).hasValue(2);
+        verify(repository, never()).release(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should pass requests without the header straight through")
+    void shouldIgnoreRequestsWithoutKey() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/users");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+
+        filter.doFilter(request, new MockHttpServletResponse(), respondWith(201, "{}"));
+
+        assertThat(controllerCalls).hasValue(1);
+        verifyNoInteractions(repository);
+    }
+
+    // A "controller" that reads the body (as message converters do) and writes a fixed response
+    private FilterChain respondWith(int status, String body) {
+        return (request, response) -> {
+            controllerCalls.incrementAndGet();
+            assertThat(request.getInputStream().readAllBytes()).isNotEmpty();
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(status);
+            http.setContentType("application/json");
+            http.getWriter().write(body);
+        };
+    }
+
+    private MockHttpServletResponse post(String key, String body, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/users");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static String sha256(String body) throws Exception {
+        return HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
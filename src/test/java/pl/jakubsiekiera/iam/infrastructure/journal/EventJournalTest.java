@@ -0,0 +1,211 @@
+package pl.jakubsiekiera.iam.infrastructure.journal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import pl.jakubsiekiera.iam.domain.event.DomainEvent;
+import pl.jakubsiekiera.iam.domain.event.RoleHierarchyChangedEvent;
+import pl.jakubsiekiera.iam.domain.event.TenantRegisteredEvent;
+import pl.jakubsiekiera.iam.domain.event.TenantsStatusChangedEvent;
+import pl.jakubsiekiera.iam.domain.event.UserMembershipChangedEvent;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantStatus;
+import pl.jakubsiekiera.iam.domain.model.user.UserId;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link EventJournal} against a temporary directory: encoding round trips,
+ * segment rolling, offset-based replay, durability boundaries and crash recovery.
+ */
+class EventJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should replay every event type exactly as appended")
+    void shouldRoundTripAllEventTypes() throws IOException {
+        // Arrange
+        EventJournal journal = open(DataSize.ofKilobytes(64));
+        List<DomainEvent> events = List.of(
+                new TenantRegisteredEvent(TenantId.generate(), "Zażółć Corp", Instant.now()),
+                new TenantsStatusChangedEvent(List.of(TenantId.generate(), TenantId.generate()), TenantStatus.SUSPENDED, Instant.now()),
+                new UserMembershipChangedEvent(UserId.generate(), "kc-1", TenantId.generate(), Instant.now()),
+                new RoleHierarchyChangedEvent(TenantId.generate(), Instant.now()),
+                new JournalGap(JournalGap.UNKNOWN, "unclean shutdown", Instant.now()));
+
+        // Act
+        events.forEach(journal::append);
+        journal.sync();
+
+        // Assert
+        assertThat(replayAll(journal, 0)).containsExactlyElementsOf(events);
+        assertThat(journal.durableOffset()).isEqualTo(5);
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should roll segments and replay from any offset")
+    void shouldRollSegmentsAndReplayFromOffset() throws IOException {
+        // Arrange: ~60 byte records in 1 KB segments
+        EventJournal journal = open(DataSize.ofBytes(1024));
+        List<DomainEvent> events = registrations(200);
+
+        // Act
+        for (DomainEvent event : events) {
+            journal.append(event);
+        }
+        journal.sync();
+
+        // Assert
+        assertThat(journal.segmentFiles()).hasSizeGreaterThan(5);
+        assertThat(replayAll(journal, 0)).containsExactlyElementsOf(events);
+        assertThat(replayAll(journal, 137)).containsExactlyElementsOf(events.subList(137, 200));
+
+        List<Long> offsets = new ArrayList<>();
+        long next = journal.replay(195, (event, offset) -> offsets.add(offset));
+        assertThat(offsets).containsExactly(195L, 196L, 197L, 198L, 199L);
+        assertThat(next).isEqualTo(200);
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should only replay events that have been synced")
+    void shouldHideUnsyncedEvents() throws IOException {
+        EventJournal journal = open(DataSize.ofKilobytes(64));
+        List<DomainEvent> events = registrations(3);
+
+        journal.append(events.get(0));
+        journal.sync();
+        journal.append(events.get(1));
+        journal.append(events.get(2));
+
+        assertThat(replayAll(journal, 0)).containsExactly(events.get(0));
+        journal.sync();
+        assertThat(replayAll(journal, 0)).containsExactlyElementsOf(events);
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should continue after the last intact record when reopened after a torn write")
+    void shouldRecoverFromTornTail() throws IOException {
+        // Arrange: write 10 events, then corrupt the payload of the last one on disk
+        EventJournal journal = open(DataSize.ofKilobytes(64));
+        List<DomainEvent> events = registrations(10);
+        events.forEach(journal::append);
+        journal.close();
+
+        Path segment = journal.segmentFiles().getLast();
+        byte[] bytes = Files.readAllBytes(segment);
+        int lastRecord = lastRecordPosition(bytes);
+        bytes[lastRecord + JournalSegment.HEADER_BYTES + 3] ^= 0x5A;
+        Files.write(segment, bytes);
+
+        // Act
+        EventJournal reopened = open(DataSize.ofKilobytes(64));
+        DomainEvent replacement = registrations(1).getFirst();
+        long offset = reopened.append(replacement);
+        reopened.sync();
+
+        // Assert: the torn record is gone and its offset is reused
+        assertThat(offset).isEqualTo(9);
+        List<DomainEvent> replayed = replayAll(reopened, 0);
+        assertThat(replayed).hasSize(10);
+        assertThat(replayed.subList(0, 9)).containsExactlyElementsOf(events.subList(0, 9));
+        assertThat(replayed.getLast()).isEqualTo(replacement);
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should record a gap for events the bus dropped, at the end of the next batch")
+    void shouldRecordGapForDroppedEvents() throws IOException {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EventJournal journal = new EventJournal(meterRegistry, directory, DataSize.ofKilobytes(64));
+        List<DomainEvent> events = registrations(2);
+
+        // Act: one event handled, two dropped by the bus, then the batch ends
+        journal.handle(events.get(0));
+        journal.onDropped(events.get(1));
+        journal.onDropped(registrations(1).getFirst());
+        journal.onBatchEnd();
+
+        // Assert
+        List<DomainEvent> replayed = replayAll(journal, 0);
+        assertThat(replayed).hasSize(2);
+        assertThat(replayed.getFirst()).isEqualTo(events.get(0));
+        assertThat(replayed.getLast()).isInstanceOfSatisfying(JournalGap.class, gap -> {
+            assertThat(gap.missing()).isEqualTo(2);
+            assertThat(gap.reason()).isEqualTo("dropped by the event bus");
+        });
+        assertThat(meterRegistry.get("iam.journal.gaps").counter().count()).isEqualTo(1);
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should record a gap of unknown size when reopened after an unclean shutdown")
+    void shouldRecordGapAfterUncleanShutdown() throws IOException {
+        // Arrange: the first journal is never closed, as if the process had died
+        EventJournal crashed = open(DataSize.ofKilobytes(64));
+        List<DomainEvent> events = registrations(3);
+        events.forEach(crashed::append);
+        crashed.sync();
+
+        // Act
+        EventJournal reopened = open(DataSize.ofKilobytes(64));
+
+        // Assert
+        List<DomainEvent> replayed = replayAll(reopened, 0);
+        assertThat(replayed.subList(0, 3)).containsExactlyElementsOf(events);
+        assertThat(replayed.getLast()).isInstanceOfSatisfying(JournalGap.class, gap -> {
+            assertThat(gap.missing()).isEqualTo(JournalGap.UNKNOWN);
+            assertThat(gap.reason()).isEqualTo("unclean shutdown");
+        });
+        reopened.close();
+
+        // A clean close clears the marker: the next open records nothing
+        EventJournal clean = open(DataSize.ofKilobytes(64));
+        assertThat(replayAll(clean, 0)).hasSize(4);
+        clean.close();
+    }
+
+    private EventJournal open(DataSize segmentSize) throws IOException {
+        return new EventJournal(new SimpleMeterRegistry(), directory, segmentSize);
+    }
+
+    private static List<DomainEvent> replayAll(EventJournal journal, long from) {
+        List<DomainEvent> replayed = new ArrayList<>();
+        journal.replay(from, (event, offset) -> replayed.add(event));
+        return replayed;
+    }
+
+    private static List<DomainEvent> registrations(int count) {
+        List<DomainEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new TenantRegisteredEvent(TenantId.generate(), "Tenant " + i, Instant.now()));
+        }
+        return events;
+    }
+
+    private static int lastRecordPosition(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int position = 0;
+        int last = -1;
+        while (buffer.getInt(position) != 0) {
+            last = position;
+            position += JournalSegment.HEADER_BYTES + buffer.getInt(position);
+        }
+        return last;
+    }
+}
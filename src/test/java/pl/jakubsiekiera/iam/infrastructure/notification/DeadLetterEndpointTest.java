@@ -0,0 +1,34 @@
+package pl.jakubsiekiera.iam.infrastructure.notification;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.service.NotificationSender.Notification;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DeadLetterEndpointTest {
+
+    @Test
+    @DisplayName("Should list dead letters without their bodies")
+    void shouldListDeadLettersWithoutBodies() {
+        // Arrange
+        TenantId tenantId = TenantId.generate();
+        Instant at = Instant.parse("2026-01-01T00:00:00Z");
+        NotificationPipeline pipeline = mock(NotificationPipeline.class);
+        when(pipeline.deadLetters()).thenReturn(List.of(new NotificationPipeline.DeadLetter(
+                new Notification("welcome-1", tenantId, "Welcome to IAM, Jane", "Hello Jane"), 5, "gave up", at)));
+
+        // Act
+        List<DeadLetterEndpoint.DeadLetterView> views = new DeadLetterEndpoint(pipeline).deadLetters();
+
+        // Assert
+        assertThat(views).containsExactly(new DeadLetterEndpoint.DeadLetterView(
+                "welcome-1", tenantId.value(), "Welcome to IAM, Jane", 5, "gave up", at));
+    }
+}
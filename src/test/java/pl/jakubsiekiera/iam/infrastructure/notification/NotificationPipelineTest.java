@@ -0,0 +1,235 @@
+package pl.jakubsiekiera.iam.infrastructure.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.service.NotificationSender;
+import pl.jakubsiekiera.iam.domain.service.NotificationSender.Notification;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link NotificationPipeline} with a stub sender: coalescing, retries with
+ * backoff, dead-lettering and the bounded queue. Workers run on real threads.
+ */
+class NotificationPipelineTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NotificationPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should coalesce queued notifications into batches no larger than max-batch-size")
+    void shouldCoalesceIntoBatches() throws InterruptedException {
+        // Arrange: one worker that lingers long enough to see the whole burst
+        StubSender sender = new StubSender(0);
+        pipeline = start(sender, 100, 1, 5, Duration.ofMillis(200), 3);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            assertThat(pipeline.submit(notification(i))).isTrue();
+        }
+        awaitUntil(() -> sender.delivered().size() == 20);
+
+        // Assert
+        assertThat(sender.delivered()).extracting(Notification::id)
+                .containsExactlyElementsOf(ids(20));
+        assertThat(sender.batchSizes()).hasSize(4).allMatch(size -> size == 5);
+        assertThat(meterRegistry.get("iam.notifications.sent").counter().count()).isEqualTo(20);
+        assertThat(meterRegistry.get("iam.notifications.send").tag("outcome", "success").timer().count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should retry a failed send with backoff until it succeeds")
+    void shouldRetryFailedSends() throws InterruptedException {
+        // Arrange: the first two attempts fail
+        StubSender sender = new StubSender(2);
+        pipeline = start(sender, 100, 1, 10, Duration.ZERO, 5);
+
+        // Act
+        pipeline.submit(notification(1));
+        awaitUntil(() -> sender.delivered().size() == 1);
+
+        // Assert
+        assertThat(sender.attempts()).isEqualTo(3);
+        assertThat(pipeline.deadLetters()).isEmpty();
+        assertThat(meterRegistry.get("iam.notifications.retried").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("iam.notifications.send").tag("outcome", "failure").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should dead-letter a notification once max-attempts is exhausted")
+    void shouldDeadLetterAfterMaxAttempts() throws InterruptedException {
+        // Arrange: the transport is down for good
+        StubSender sender = new StubSender(Integer.MAX_VALUE);
+        pipeline = start(sender, 100, 1, 10, Duration.ZERO, 3);
+
+        // Act
+        pipeline.submit(notification(7));
+        awaitUntil(() -> !pipeline.deadLetters().isEmpty());
+
+        // Assert
+        NotificationPipeline.DeadLetter deadLetter = pipeline.deadLetters().getFirst();
+        assertThat(deadLetter.notification().id()).isEqualTo("n-7");
+        assertThat(deadLetter.attempts()).isEqualTo(3);
+        assertThat(deadLetter.reason()).contains("gave up after 3 attempt(s)");
+        assertThat(sender.attempts()).isEqualTo(3);
+        assertThat(meterRegistry.get("iam.notifications.dead-lettered").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should dead-letter instead of blocking when the queue is full")
+    void shouldRejectWhenQueueIsFull() throws InterruptedException {
+        // Arrange: a queue of one and a sender stuck on the first batch
+        CountDownLatch inSend = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StubSender sender = new StubSender(0) {
+            @Override
+            public void send(List<Notification> batch) {
+                inSend.countDown();
+                await(release);
+                super.send(batch);
+            }
+        };
+        pipeline = start(sender, 1, 1, 10, Duration.ZERO, 3);
+        pipeline.submit(notification(1));
+        assertThat(inSend.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        boolean second = pipeline.submit(notification(2));
+        boolean third = pipeline.submit(notification(3));
+
+        // Assert
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(pipeline.deadLetters()).singleElement()
+                .satisfies(letter -> assertThat(letter.reason()).isEqualTo("queue is full"));
+        assertThat(meterRegistry.get("iam.notifications.queue.depth").gauge().value()).isEqualTo(1);
+
+        release.countDown();
+        awaitUntil(() -> sender.delivered().size() == 2);
+        assertThat(pipeline.queueDepth()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should send what is queued and dead-letter backed-off retries on stop")
+    void shouldDrainOnStop() throws InterruptedException {
+        // Arrange: every send fails and the backoff is far longer than the test
+        StubSender sender = new StubSender(Integer.MAX_VALUE);
+        pipeline = new NotificationPipeline(sender, meterRegistry, 100, 1, 10, Duration.ZERO,
+                5, Duration.ofHours(1), Duration.ofHours(1));
+        pipeline.start();
+        pipeline.submit(notification(1));
+        awaitUntil(() -> meterRegistry.get("iam.notifications.retried").counter().count() == 1);
+
+        // Act
+        pipeline.stop();
+
+        // Assert
+        assertThat(pipeline.deadLetters()).singleElement()
+                .satisfies(letter -> assertThat(letter.reason()).isEqualTo("shutdown during backoff"));
+        assertThat(pipeline.submit(notification(2))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should grow the backoff exponentially up to max-backoff")
+    void shouldGrowBackoffExponentially() {
+        pipeline = new NotificationPipeline(new StubSender(0), meterRegistry, 10, 1, 10, Duration.ZERO,
+                10, Duration.ofSeconds(1), Duration.ofSeconds(10));
+
+        // Jittered into [half, full] of 1s, 2s, 4s, 8s, then capped at 10s
+        assertThat(pipeline.backoffNanos(1)).isBetween(500_000_000L, 1_000_000_000L);
+        assertThat(pipeline.backoffNanos(3)).isBetween(2_000_000_000L, 4_000_000_000L);
+        assertThat(pipeline.backoffNanos(4)).isBetween(4_000_000_000L, 8_000_000_000L);
+        assertThat(pipeline.backoffNanos(9)).isBetween(5_000_000_000L, 10_000_000_000L);
+        assertThat(pipeline.backoffNanos(64)).isBetween(5_000_000_000L, 10_000_000_000L);
+    }
+
+    private NotificationPipeline start(NotificationSender sender, int capacity, int workers, int maxBatchSize,
+                                       Duration linger, int maxAttempts) {
+        NotificationPipeline started = new NotificationPipeline(sender, meterRegistry, capacity, workers,
+                maxBatchSize, linger, maxAttempts, Duration.ofMillis(10), Duration.ofMillis(50));
+        started.start();
+        return started;
+    }
+
+    private static Notification notification(int i) {
+        return new Notification("n-" + i, TenantId.generate(), "Welcome " + i, "Hello " + i);
+    }
+
+    private static List<String> ids(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add("n-" + i);
+        }
+        return ids;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Local sender that fails its first 'failures' calls, then records what it is given.
+     */
+    private static class StubSender implements NotificationSender {
+
+        private final int failures;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final List<Notification> delivered = Collections.synchronizedList(new ArrayList<>());
+        private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+        StubSender(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public void send(List<Notification> batch) {
+            if (attempts.incrementAndGet() <= failures) {
+                throw new IllegalStateException("transport unavailable");
+            }
+            batchSizes.add(batch.size());
+            delivered.addAll(batch);
+        }
+
+        int attempts() {
+            return attempts.get();
+        }
+
+        List<Notification> delivered() {
+            return List.copyOf(delivered);
+        }
+
+        List<Integer> batchSizes() {
+            return List.copyOf(batchSizes);
+        }
+    }
+}
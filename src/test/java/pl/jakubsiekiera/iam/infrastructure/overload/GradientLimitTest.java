@@ -0,0 +1,108 @@
+package pl.jakubsiekiera.iam.infrastructure.overload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link GradientLimit}.
+ * Latencies are fed in directly, so the tests don't depend on real timing.
+ */
+class GradientLimitTest {
+
+    private static final long FAST = 10_000_000L;   // 10 ms
+    private static final long SLOW = 100_000_000L;  // 100 ms
+
+    @Test
+    @DisplayName("Should shed requests beyond the current limit")
+    void shouldRejectOverLimit() {
+        GradientLimit limit = new GradientLimit(2, 1, 10, 0.2);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+
+        limit.release(FAST, false);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should raise the limit while latency is stable and lower it once requests queue")
+    void shouldFollowLatency() {
+        // Arrange
+        GradientLimit limit = new GradientLimit(10, 1, 1_000, 0.2);
+
+        // Act: saturated traffic at a steady latency probes upward
+        for (int i = 0; i < 50; i++) {
+            saturatedSample(limit, FAST);
+        }
+        int afterStable = limit.limit();
+
+        // Act: latency jumps tenfold, i.e. requests are queueing
+        for (int i = 0; i < 50; i++) {
+            saturatedSample(limit, SLOW);
+        }
+        int afterQueueing = limit.limit();
+
+        // Assert
+        assertThat(afterStable).isGreaterThan(10);
+        assertThat(afterQueueing).isLessThan(afterStable);
+    }
+
+    @Test
+    @DisplayName("Should not grow the limit when traffic uses less than half of it")
+    void shouldNotGrowWhenAppLimited() {
+        GradientLimit limit = new GradientLimit(10, 1, 1_000, 0.2);
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+            limit.release(FAST, true);
+        }
+
+        assertThat(limit.limit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should never drop below the minimum limit")
+    void shouldRespectMinimum() {
+        GradientLimit limit = new GradientLimit(4, 2, 10, 1.0);
+
+        saturatedSample(limit, FAST);
+        for (int i = 0; i < 100; i++) {
+            saturatedSample(limit, SLOW * 10);
+        }
+
+        assertThat(limit.limit()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject inconsistent configuration")
+    void shouldRejectInvalidConfiguration() {
+        assertThatThrownBy(() -> new GradientLimit(20, 1, 10, 0.2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new GradientLimit(5, 1, 10, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should classify endpoints by method and path")
+    void shouldClassifyEndpoints() {
+        assertThat(EndpointClass.classify("POST", "/api/v1/users")).isEqualTo(EndpointClass.REGISTRATION);
+        assertThat(EndpointClass.classify("POST", "/api/v1/tenants")).isEqualTo(EndpointClass.REGISTRATION);
+        assertThat(EndpointClass.classify("POST", "/api/v1/tenants/abc/users")).isEqualTo(EndpointClass.INVITE);
+        assertThat(EndpointClass.classify("GET", "/api/v1/tenants/abc")).isEqualTo(EndpointClass.TENANT_READS);
+        assertThat(EndpointClass.classify("GET", "/api/v1/users/me")).isNull();
+    }
+
+    // Fills the limit, completes one request with the given latency and drains the rest unsampled
+    private static void saturatedSample(GradientLimit limit, long rttNanos) {
+        int acquired = 0;
+        while (limit.tryAcquire()) {
+            acquired++;
+        }
+        limit.release(rttNanos, true);
+        for (int i = 1; i < acquired; i++) {
+            limit.release(rttNanos, false);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package pl.jakubsiekiera.iam.infrastructure.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.model.user.RoleHierarchy;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaTenantRoleHierarchyRepository;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the hierarchy cache of {@link PostgresRoleHierarchyRepository}: a saved
+ * hierarchy must only become visible once its transaction commits.
+ * The transaction is simulated through TransactionSynchronizationManager.
+ */
+class PostgresRoleHierarchyRepositoryTest {
+
+    private final JpaTenantRoleHierarchyRepository jpaRepository = mock(JpaTenantRoleHierarchyRepository.class);
+    private final PostgresRoleHierarchyRepository repository =
+            new PostgresRoleHierarchyRepository(jpaRepository, DataSize.ofMegabytes(1), Duration.ofMinutes(5));
+    private final TenantId tenantId = TenantId.generate();
+    private final RoleHierarchy hierarchy = RoleHierarchy.of(Map.of(new Role("OWNER"), List.of(Role.ADMIN)));
+
+    @BeforeEach
+    void setUp() {
+        when(jpaRepository.findById(any())).thenReturn(Optional.empty()); // Nothing committed yet
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should cache a saved hierarchy only after the transaction commits")
+    void shouldCacheAfterCommit() {
+        // Act
+        repository.save(tenantId, hierarchy);
+
+        // Assert: before the commit, readers still get the stored state
+        assertThat(repository.findByTenantId(tenantId)).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(repository.findByTenantId(tenantId)).containsSame(hierarchy);
+    }
+
+    @Test
+    @DisplayName("Should not cache a hierarchy whose transaction rolls back")
+    void shouldNotCacheOnRollback() {
+        // Act
+        repository.save(tenantId, hierarchy);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Assert
+        assertThat(repository.findByTenantId(tenantId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should weigh cached hierarchies by the size of their closure")
+    void shouldWeighByClosureSize() {
+        // Arrange: a chain of 2000 roles, R0 > R1 > ... > R1999
+        Map<Role, List<Role>> chain = new HashMap<>();
+        for (int i = 0; i < 1999; i++) {
+            chain.put(new Role("R" + i), List.of(new Role("R" + (i + 1))));
+        }
+        RoleHierarchy large = RoleHierarchy.of(chain);
+
+        // Act
+        int small = PostgresRoleHierarchyRepository.weigh(Optional.of(hierarchy));
+        int big = PostgresRoleHierarchyRepository.weigh(Optional.of(large));
+
+        // Assert: 2000 x 2000 bits are ~500 KB, a few such tenants fill a 1 MB cache
+        assertThat(big).isGreaterThanOrEqualTo(2000 * 2000 / 8);
+        assertThat(small).isLessThan(2048);
+        assertThat(PostgresRoleHierarchyRepository.weigh(Optional.empty())).isPositive();
+    }
+}
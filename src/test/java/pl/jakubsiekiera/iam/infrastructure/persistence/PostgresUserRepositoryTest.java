@@ -0,0 +1,137 @@
+package pl.jakubsiekiera.iam.infrastructure.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.Email;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.model.user.User;
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.UserJpaEntity;
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.UserMembershipJpaEntity;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the rehydration mapper and the email lookup of {@link PostgresUserRepository}.
+ * No database is involved: the mapper is fed JPA entities built in memory.
+ */
+class PostgresUserRepositoryTest {
+
+    /*
+     * Memberships are bulk-loaded into the user's MembershipTable: two tenant id columns and a
+     * role mask, i.e. 24 bytes per membership plus the amortised array headers. The former
+     * object-per-membership model (TenantId, TenantMembership, HashSet, map node) needed around
+     * 250 bytes, and the stream/split mapper before it well over 450. The budget leaves room for
+     * JVM noise but fails on any per-membership or per-role object creeping back in.
+     */
+    private static final long BYTES_PER_MEMBERSHIP_BUDGET = 48;
+    private static final int MEMBERSHIPS = 500;
+
+    @Test
+    @DisplayName("Should rehydrate memberships with shared role instances")
+    void shouldRehydrateMemberships() {
+        // Arrange
+        UserJpaEntity entity = user(3);
+        entity.getMemberships().get(2).setRoles("ADMIN,,BILLING");
+
+        // Act
+        User user = PostgresUserRepository.toDomain(entity);
+
+        // Assert
+        TenantId first = new TenantId(entity.getMemberships().get(0).getTenantId());
+        TenantId third = new TenantId(entity.getMemberships().get(2).getTenantId());
+        assertThat(user.getMemberships()).hasSize(3);
+        assertThat(user.getRolesForTenant(first)).containsExactlyInAnyOrder(Role.ADMIN, Role.MEMBER);
+        assertThat(user.getRolesForTenant(first)).anySatisfy(role -> assertThat(role).isSameAs(Role.ADMIN));
+        assertThat(user.getRolesForTenant(third)).containsExactlyInAnyOrder(Role.ADMIN, new Role("BILLING"));
+    }
+
+    @Test
+    @DisplayName("Should skip memberships without roles")
+    void shouldSkipEmptyMemberships() {
+        UserJpaEntity entity = user(2);
+        entity.getMemberships().get(1).setRoles(" ");
+
+        User user = PostgresUserRepository.toDomain(entity);
+
+        assertThat(user.getMemberships()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should look users up by their normalized email")
+    void shouldFindByNormalizedEmail() {
+        // Arrange: the address was registered in lower case and is looked up in mixed case
+        JpaUserRepository jpaRepository = mock(JpaUserRepository.class);
+        UserJpaEntity entity = user(1);
+        when(jpaRepository.findByNormalizedEmail("jane@example.com")).thenReturn(Optional.of(entity));
+        PostgresUserRepository repository = new PostgresUserRepository(jpaRepository);
+
+        // Act
+        Optional<User> user = repository.findByEmail(new Email("Jane@Example.COM"));
+
+        // Assert
+        assertThat(user).map(User::getEmail).contains(new Email("jane@example.com"));
+        verify(jpaRepository).findByNormalizedEmail("jane@example.com");
+    }
+
+    @Test
+    @DisplayName("Should stay within the allocation budget per rehydrated membership")
+    void shouldStayWithinAllocationBudget() {
+        var threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean, "Allocation counters not available");
+        var allocation = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocation.isThreadAllocatedMemorySupported(), "Allocation counters not available");
+        allocation.setThreadAllocatedMemoryEnabled(true);
+
+        // Arrange: a user in many tenants; warm the mapper up so class loading isn't counted
+        UserJpaEntity entity = user(MEMBERSHIPS);
+        for (int i = 0; i < 50; i++) {
+            PostgresUserRepository.toDomain(entity);
+        }
+
+        // Act
+        int rounds = 20;
+        long threadId = Thread.currentThread().threadId();
+        long before = allocation.getThreadAllocatedBytes(threadId);
+        Object sink = null;
+        for (int i = 0; i < rounds; i++) {
+            sink = PostgresUserRepository.toDomain(entity);
+        }
+        long allocated = allocation.getThreadAllocatedBytes(threadId) - before;
+
+        // Assert
+        assertThat(sink).isNotNull();
+        long perMembership = allocated / ((long) rounds * MEMBERSHIPS);
+        assertThat(perMembership)
+            .as("bytes allocated per rehydrated membership")
+            .isLessThanOrEqualTo(BYTES_PER_MEMBERSHIP_BUDGET);
+    }
+
+    private static UserJpaEntity user(int memberships) {
+        UserJpaEntity entity = new UserJpaEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setKeycloakId("kc-" + UUID.randomUUID());
+        entity.setEmail("jane@example.com");
+        List<UserMembershipJpaEntity> rows = new ArrayList<>(memberships);
+        for (int i = 0; i < memberships; i++) {
+            UserMembershipJpaEntity row = new UserMembershipJpaEntity();
+            row.setUser(entity);
+            row.setTenantId(UUID.randomUUID());
+            row.setRoles("ADMIN,MEMBER");
+            rows.add(row);
+        }
+        entity.setMemberships(rows);
+        return entity;
+    }
+}
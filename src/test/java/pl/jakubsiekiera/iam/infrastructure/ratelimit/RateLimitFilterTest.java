@@ -0,0 +1,127 @@
+package pl.jakubsiekiera.iam.infrastructure.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RateLimitFilter} together with {@link TenantRateLimiter}.
+ * Refill rates are tiny so nothing refills while a test runs.
+ */
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should answer 429 with Retry-After once the client bucket is empty")
+    void shouldRejectWhenClientExhausted() throws Exception {
+        // Arrange: each client may do 2 writes
+        RateLimitFilter filter = filter(100, 2);
+
+        // Act
+        MockHttpServletResponse first = post(filter, "/api/v1/users", "10.0.0.1");
+        MockHttpServletResponse second = post(filter, "/api/v1/users", "10.0.0.1");
+        MockHttpServletResponse third = post(filter, "/api/v1/users", "10.0.0.1");
+        MockHttpServletResponse otherClient = post(filter, "/api/v1/users", "10.0.0.2");
+
+        // Assert
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(third.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(third.getHeader("Retry-After"))).isPositive();
+        assertThat(third.getContentType()).startsWith("application/problem+json");
+        assertThat(third.getContentAsString())
+                .contains("\"type\":\"https://iam.jakubsiekiera.pl/problems/rate-limited\"")
+                .contains("\"status\":429")
+                .contains("\"code\":\"rate-limited\"")
+                .contains("\"retryAfterMillis\":");
+        assertThat(otherClient.getStatus()).isEqualTo(200);
+
+        assertThat(meterRegistry.get("iam.ratelimit.decisions")
+                .tag("scope", "client").tag("outcome", "rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should share the tenant bucket across clients and refund the client on rejection")
+    void shouldLimitPerTenant() throws Exception {
+        // Arrange: the tenant allows one write, each client two
+        RateLimitFilter filter = filter(1, 2);
+        String path = "/api/v1/tenants/" + UUID.randomUUID() + "/users";
+
+        // Act
+        MockHttpServletResponse clientA = post(filter, path, "10.0.0.1");
+        MockHttpServletResponse clientB = post(filter, path, "10.0.0.2");
+
+        // Assert: B is stopped by the tenant, but keeps its own tokens for other tenants
+        assertThat(clientA.getStatus()).isEqualTo(200);
+        assertThat(clientB.getStatus()).isEqualTo(429);
+        assertThat(post(filter, "/api/v1/users", "10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(post(filter, "/api/v1/users", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should give every user of one frontend client a bucket of their own")
+    void shouldLimitPerSubject() throws Exception {
+        // Arrange: each caller may do 1 write; both users come through the same 'azp'
+        RateLimitFilter filter = filter(100, 1);
+
+        // Act
+        authenticate("user-1", "frontend");
+        MockHttpServletResponse first = post(filter, "/api/v1/users/me", "10.0.0.1");
+        MockHttpServletResponse firstAgain = post(filter, "/api/v1/users/me", "10.0.0.1");
+        authenticate("user-2", "frontend");
+        MockHttpServletResponse second = post(filter, "/api/v1/users/me", "10.0.0.1");
+
+        // Assert: user-1 exhausted their own bucket, not the client's
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(firstAgain.getStatus()).isEqualTo(429);
+        assertThat(second.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should not limit reads")
+    void shouldSkipReads() throws Exception {
+        RateLimitFilter filter = filter(1, 1);
+
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+    }
+
+    private RateLimitFilter filter(long tenantCapacity, long clientCapacity) {
+        return new RateLimitFilter(new TenantRateLimiter(
+                meterRegistry, tenantCapacity, 0.001, clientCapacity, 0.001, 1_000));
+    }
+
+    private static void authenticate(String subject, String azp) {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").subject(subject).claim("azp", azp).build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+
+    private static MockHttpServletResponse post(RateLimitFilter filter, String path, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
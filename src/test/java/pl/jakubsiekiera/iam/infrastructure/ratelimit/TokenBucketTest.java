@@ -0,0 +1,108 @@
+package pl.jakubsiekiera.iam.infrastructure.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link TokenBucket}.
+ * Time is passed in explicitly, so every refill step is deterministic.
+ */
+class TokenBucketTest {
+
+    @Test
+    @DisplayName("Should allow a full burst and then report the exact wait")
+    void shouldAllowBurstThenReject() {
+        // Arrange: 3 tokens, 1 token per second
+        TokenBucket bucket = new TokenBucket(3, 1.0, 0);
+
+        // Act & Assert
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(1_000);
+        assertThat(bucket.tryAcquire(400)).isEqualTo(600);
+    }
+
+    @Test
+    @DisplayName("Should refill lazily without losing fractional tokens")
+    void shouldRefillWithoutLosingFractions() {
+        // Arrange: 1 token every 3 seconds, drained at t=0
+        TokenBucket bucket = new TokenBucket(1, 1.0 / 3, 0);
+        bucket.tryAcquire(0);
+
+        // Act: many small polls must add up to the same refill as one long wait
+        for (long t = 100; t < 3_000; t += 100) {
+            assertThat(bucket.tryAcquire(t)).isPositive();
+        }
+
+        // Assert
+        assertThat(bucket.tryAcquire(3_000)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should never refill beyond capacity")
+    void shouldCapAtCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 10.0, 0);
+
+        // A long idle period still only allows a burst of 2
+        assertThat(bucket.tryAcquire(60_000)).isZero();
+        assertThat(bucket.tryAcquire(60_000)).isZero();
+        assertThat(bucket.tryAcquire(60_000)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should give a token back on release")
+    void shouldReleaseToken() {
+        TokenBucket bucket = new TokenBucket(1, 0.001, 0);
+        bucket.tryAcquire(0);
+
+        bucket.release();
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should grant exactly the available tokens under contention")
+    void shouldNotOvergrantConcurrently() throws Exception {
+        // Arrange: no meaningful refill during the test
+        TokenBucket bucket = new TokenBucket(100, 0.001, 0);
+        AtomicInteger granted = new AtomicInteger();
+
+        // Act: 8 threads race for 100 tokens
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            Future<?>[] futures = new Future<?>[8];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> {
+                    for (int j = 0; j < 50; j++) {
+                        if (bucket.tryAcquire(0) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        // Assert
+        assertThat(granted).hasValue(100);
+    }
+
+    @Test
+    @DisplayName("Should reject capacities that don't fit the packed state")
+    void shouldRejectInvalidCapacity() {
+        assertThatThrownBy(() -> new TokenBucket(TokenBucket.MAX_CAPACITY + 1, 1.0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
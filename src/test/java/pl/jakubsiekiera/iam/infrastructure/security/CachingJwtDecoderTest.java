@@ -0,0 +1,69 @@
+package pl.jakubsiekiera.iam.infrastructure.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link CachingJwtDecoder}.
+ * The delegate stands in for the real (signature-verifying) decoder, so counting its
+ * invocations tells us how often verification actually happened.
+ */
+class CachingJwtDecoderTest {
+
+    private final JwtDecoder delegate = mock(JwtDecoder.class);
+    private final CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100);
+
+    @Test
+    @DisplayName("Should verify a token once and serve repeats from the cache")
+    void shouldVerifyOnlyOnce() {
+        Jwt jwt = jwt("token-a", Instant.now().plusSeconds(300));
+        when(delegate.decode("token-a")).thenReturn(jwt);
+
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+
+        verify(delegate, times(1)).decode("token-a");
+    }
+
+    @Test
+    @DisplayName("Should not cache rejected tokens")
+    void shouldNotCacheFailures() {
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("invalid signature"));
+
+        assertThatThrownBy(() -> decoder.decode("bad")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("bad")).isInstanceOf(BadJwtException.class);
+
+        // Every attempt is verified again
+        verify(delegate, times(2)).decode("bad");
+    }
+
+    @Test
+    @DisplayName("Should not serve tokens past their expiry")
+    void shouldNotCacheExpiredTokens() {
+        Jwt expired = jwt("token-b", Instant.now().minusSeconds(1));
+        when(delegate.decode("token-b")).thenReturn(expired);
+
+        decoder.decode("token-b");
+        decoder.decode("token-b");
+
+        verify(delegate, times(2)).decode("token-b");
+    }
+
+    private static Jwt jwt(String value, Instant expiresAt) {
+        return Jwt.withTokenValue(value)
+                .header("alg", "RS256")
+                .subject("kc-123")
+                .issuedAt(expiresAt.minusSeconds(600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
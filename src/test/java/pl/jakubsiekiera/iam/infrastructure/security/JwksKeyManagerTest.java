@@ -0,0 +1,162 @@
+package pl.jakubsiekiera.iam.infrastructure.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link JwksKeyManager} against a tiny in-process JWKS endpoint,
+ * which counts how often the key set is actually downloaded.
+ */
+class JwksKeyManagerTest {
+
+    private HttpServer server;
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final AtomicReference<JWKSet> published = new AtomicReference<>();
+    private volatile CountDownLatch gate; // When set, downloads wait for it
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/certs", exchange -> {
+            fetches.incrementAndGet();
+            CountDownLatch waitFor = gate;
+            if (waitFor != null) {
+                try {
+                    waitFor.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = published.get().toString().getBytes(StandardCharsets.UTF_8); // public keys only
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should serve known kids from memory without fetching again")
+    void shouldServeKnownKeysFromMemory() throws Exception {
+        RSAKey key = rsaKey("k1");
+        published.set(new JWKSet(key));
+        JwksKeyManager manager = manager(Duration.ZERO);
+        manager.refresh(); // Startup prefetch
+
+        assertThat(manager.get(selectorFor("k1"), null)).hasSize(1);
+        assertThat(manager.get(selectorFor("k1"), null)).hasSize(1);
+
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should pick up a rotated key when a token carries an unknown kid")
+    void shouldRefreshOnUnknownKid() throws Exception {
+        // Arrange: we only know k1, then Keycloak rotates to k2
+        published.set(new JWKSet(rsaKey("k1")));
+        JwksKeyManager manager = manager(Duration.ZERO);
+        manager.refresh();
+        published.set(new JWKSet(rsaKey("k2")));
+
+        // Act
+        var matches = manager.get(selectorFor("k2"), null);
+
+        // Assert
+        assertThat(matches).singleElement().extracting(k -> k.getKeyID()).isEqualTo("k2");
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should rate-limit fetches caused by unknown kids")
+    void shouldRateLimitUnknownKidFetches() throws Exception {
+        published.set(new JWKSet(rsaKey("k1")));
+        JwksKeyManager manager = manager(Duration.ofMinutes(1));
+        manager.refresh();
+
+        // A burst of forged kids must not turn into a burst of JWKS downloads
+        for (int i = 0; i < 20; i++) {
+            assertThat(manager.get(selectorFor("forged-" + i), null)).isEmpty();
+        }
+
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should let an unknown kid wait for a refresh in flight instead of rate-limiting it")
+    void shouldJoinRefreshInFlight() throws Exception {
+        // Arrange: k1 was just fetched, so the rate limit is active; then a slow refresh starts
+        published.set(new JWKSet(rsaKey("k1")));
+        JwksKeyManager manager = manager(Duration.ofMinutes(1));
+        manager.refresh();
+        published.set(new JWKSet(rsaKey("k2")));
+        gate = new CountDownLatch(1);
+        Thread background = Thread.ofPlatform().start(manager::refreshAhead);
+        awaitUntil(() -> fetches.get() == 2);
+
+        // Act: a token signed with the new key arrives while the download is still running
+        CompletableFuture<List<JWK>> lookup = CompletableFuture.supplyAsync(() -> {
+            try {
+                return manager.get(selectorFor("k2"), null);
+            } catch (KeySourceException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(200);
+        assertThat(lookup).isNotDone(); // Waiting for the download, not answered from the stale keys
+        gate.countDown();
+        background.join();
+
+        // Assert: the lookup shared the download instead of starting (or skipping) one
+        assertThat(lookup.get(5, TimeUnit.SECONDS)).singleElement().extracting(JWK::getKeyID).isEqualTo("k2");
+        assertThat(fetches).hasValue(2);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private JwksKeyManager manager(Duration minRefreshInterval) {
+        String uri = "http://127.0.0.1:" + server.getAddress().getPort() + "/certs";
+        return new JwksKeyManager(uri, minRefreshInterval, Duration.ofSeconds(2));
+    }
+
+    private static JWKSelector selectorFor(String kid) {
+        return new JWKSelector(new JWKMatcher.Builder().keyID(kid).build());
+    }
+
+    private static RSAKey rsaKey(String kid) throws Exception {
+        return new RSAKeyGenerator(2048).keyID(kid).generate();
+    }
+}
@@ -0,0 +1,149 @@
+package pl.jakubsiekiera.iam.infrastructure.security;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.service.TenantTokenIssuer.IssuedToken;
+import pl.jakubsiekiera.iam.infrastructure.persistence.entity.TenantTokenKeyJpaEntity;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaTenantTokenKeyRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link JwtTenantTokenIssuer} together with a real {@link TenantTokenKeyRing}
+ * (only the key table is faked), verifying signatures the way a downstream service would:
+ * from the published JWKS alone.
+ */
+class JwtTenantTokenIssuerTest {
+
+    // DER prefix of an Ed25519 SubjectPublicKeyInfo; prepending it to the raw JWKS 'x' gives an X.509 key
+    private static final byte[] ED25519_X509_PREFIX = HexFormat.of().parseHex("302a300506032b6570032100");
+
+    private final List<TenantTokenKeyJpaEntity> table = new ArrayList<>();
+    private final JpaTenantTokenKeyRepository repository = mock(JpaTenantTokenKeyRepository.class);
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    private TenantTokenKeyRing keyRing;
+    private JwtTenantTokenIssuer issuer;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange: an in-memory stand-in for the 'tenant_token_keys' table
+        when(repository.save(any())).thenAnswer(inv -> {
+            table.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(repository.findByExpiresAtAfterOrderByCreatedAtDesc(any())).thenAnswer(inv -> table.stream()
+                .filter(k -> k.getExpiresAt().isAfter(inv.getArgument(0)))
+                .sorted(Comparator.comparing(TenantTokenKeyJpaEntity::getCreatedAt).reversed())
+                .toList());
+        keyRing = new TenantTokenKeyRing(repository, Duration.ofDays(1), Duration.ofMinutes(10), Duration.ofMinutes(5), clock);
+        issuer = new JwtTenantTokenIssuer(keyRing, "http://iam.test", Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Should mint an EdDSA token verifiable with the published JWKS")
+    void shouldSignVerifiableToken() throws Exception {
+        TenantId tenantId = TenantId.generate();
+
+        // Act
+        IssuedToken token = issuer.issue("kc-1", tenantId, Set.of(Role.MEMBER, Role.ADMIN));
+
+        // Assert: header and claims
+        SignedJWT jwt = SignedJWT.parse(token.value());
+        assertThat(jwt.getHeader().getAlgorithm().getName()).isEqualTo("EdDSA");
+        assertThat(jwt.getHeader().getType()).isEqualTo(JwtTenantTokenIssuer.TOKEN_TYPE);
+        assertThat(jwt.getJWTClaimsSet().getSubject()).isEqualTo("kc-1");
+        assertThat(jwt.getJWTClaimsSet().getStringClaim("tid")).isEqualTo(tenantId.value().toString());
+        assertThat(jwt.getJWTClaimsSet().getStringListClaim("roles")).containsExactly("ADMIN", "MEMBER");
+
+        // Assert: signature checks out against the key listed under the token's 'kid'
+        assertThat(verify(token.value(), issuer.publicKeys())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should publish a rotated key before signing with it")
+    void shouldPublishBeforeActivating() throws Exception {
+        keyRing.refresh();
+        String firstKid = keyRing.signingKey().kid();
+
+        // A day later the ring rotates: the new key is published immediately...
+        clock.advance(Duration.ofDays(1).plusMinutes(1));
+        keyRing.refresh();
+        assertThat(JWKSet.parse(issuer.publicKeys()).getKeys()).hasSize(2);
+        // ...but signing stays on the old key until the activation delay has passed
+        assertThat(keyRing.signingKey().kid()).isEqualTo(firstKid);
+
+        clock.advance(Duration.ofMinutes(10));
+        assertThat(keyRing.signingKey().kid()).isNotEqualTo(firstKid);
+    }
+
+    private static boolean verify(String compact, Map<String, Object> jwks) throws Exception {
+        String[] parts = compact.split("\\.");
+        String kid = SignedJWT.parse(compact).getHeader().getKeyID();
+        OctetKeyPair jwk = (OctetKeyPair) JWKSet.parse(jwks).getKeyByKeyId(kid);
+
+        byte[] raw = jwk.getX().decode();
+        byte[] x509 = new byte[ED25519_X509_PREFIX.length + raw.length];
+        System.arraycopy(ED25519_X509_PREFIX, 0, x509, 0, ED25519_X509_PREFIX.length);
+        System.arraycopy(raw, 0, x509, ED25519_X509_PREFIX.length, raw.length);
+        PublicKey publicKey = KeyFactory.getInstance("Ed25519").generatePublic(new X509EncodedKeySpec(x509));
+
+        Signature signature = Signature.getInstance("Ed25519");
+        signature.initVerify(publicKey);
+        signature.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+        return signature.verify(Base64URL.from(parts[2]).decode());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
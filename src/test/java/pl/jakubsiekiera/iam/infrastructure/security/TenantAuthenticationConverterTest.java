@@ -0,0 +1,110 @@
+package pl.jakubsiekiera.iam.infrastructure.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pl.jakubsiekiera.iam.domain.event.UserMembershipChangedEvent;
+import pl.jakubsiekiera.iam.domain.model.tenant.TenantId;
+import pl.jakubsiekiera.iam.domain.model.user.Role;
+import pl.jakubsiekiera.iam.domain.model.user.RoleHierarchy;
+import pl.jakubsiekiera.iam.domain.repository.RoleHierarchyRepository;
+import pl.jakubsiekiera.iam.domain.model.user.UserId;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository;
+import pl.jakubsiekiera.iam.infrastructure.persistence.repository.JpaUserRepository.MembershipRow;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link TenantAuthenticationConverter} together with {@link MembershipAuthorityCache}.
+ */
+class TenantAuthenticationConverterTest {
+
+    private final JpaUserRepository userRepository = mock(JpaUserRepository.class);
+    private final RoleHierarchyRepository hierarchyRepository = mock(RoleHierarchyRepository.class);
+    private final MembershipAuthorityCache cache = new MembershipAuthorityCache(userRepository, hierarchyRepository, 100, Duration.ofMinutes(5));
+    private final TenantAuthenticationConverter converter = new TenantAuthenticationConverter(cache);
+
+    @Test
+    @DisplayName("Should expose scopes and local tenant roles, querying the database once per identity")
+    void shouldEnrichWithTenantRoles() {
+        TenantId tenantId = TenantId.generate();
+        when(userRepository.findMembershipRowsByKeycloakId("kc-123"))
+                .thenReturn(List.of(row(tenantId.value(), "ADMIN,MEMBER")));
+
+        AbstractAuthenticationToken first = converter.convert(jwt());
+        AbstractAuthenticationToken second = converter.convert(jwt());
+
+        assertThat(first.getName()).isEqualTo("kc-123");
+        assertThat(first.getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder(
+                        "SCOPE_profile",
+                        TenantAuthorities.authority(tenantId, Role.ADMIN),
+                        TenantAuthorities.authority(tenantId, Role.MEMBER));
+        assertThat(second.getAuthorities()).hasSameElementsAs(first.getAuthorities());
+        verify(userRepository, times(1)).findMembershipRowsByKeycloakId("kc-123");
+    }
+
+    @Test
+    @DisplayName("Should reload authorities after a membership change")
+    void shouldReloadAfterMembershipChange() {
+        TenantId tenantId = TenantId.generate();
+        when(userRepository.findMembershipRowsByKeycloakId("kc-123"))
+                .thenReturn(List.of())
+                .thenReturn(List.of(row(tenantId.value(), "MEMBER")));
+
+        assertThat(converter.convert(jwt()).getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("SCOPE_profile");
+
+        cache.on(new UserMembershipChangedEvent(UserId.generate(), "kc-123", tenantId, Instant.now()));
+
+        assertThat(converter.convert(jwt()).getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .contains(TenantAuthorities.authority(tenantId, Role.MEMBER));
+    }
+
+    @Test
+    @DisplayName("Should grant roles implied by the tenant's hierarchy")
+    void shouldExpandRolesThroughHierarchy() {
+        // Arrange: OWNER -> ADMIN -> MEMBER; the user only holds OWNER
+        TenantId tenantId = TenantId.generate();
+        Role owner = new Role("OWNER");
+        when(hierarchyRepository.findByTenantId(tenantId)).thenReturn(Optional.of(RoleHierarchy.of(Map.of(
+                owner, Set.of(Role.ADMIN),
+                Role.ADMIN, Set.of(Role.MEMBER)))));
+        when(userRepository.findMembershipRowsByKeycloakId("kc-123")).thenReturn(List.of(row(tenantId.value(), "OWNER")));
+
+        // Act & Assert
+        assertThat(converter.convert(jwt()).getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .contains(
+                        TenantAuthorities.authority(tenantId, owner),
+                        TenantAuthorities.authority(tenantId, Role.ADMIN),
+                        TenantAuthorities.authority(tenantId, Role.MEMBER));
+    }
+
+    private static Jwt jwt() {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("kc-123")
+                .claim("scope", "profile")
+                .expiresAt(Instant.now().plusSeconds(300))
+                .build();
+    }
+
+    private static MembershipRow row(UUID tenantId, String roles) {
+        return new MembershipRow() {
+            @Override public UUID getTenantId() { return tenantId; }
+            @Override public String getRoles() { return roles; }
+        };
+    }
+}